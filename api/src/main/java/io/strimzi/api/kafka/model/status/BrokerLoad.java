@@ -0,0 +1,119 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.api.kafka.model.status;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.strimzi.api.kafka.model.UnknownPropertyPreserving;
+import io.strimzi.crdgenerator.annotations.Description;
+import io.sundr.builder.annotations.Buildable;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Represents the load of a Kafka broker before and after a rebalancing
+ */
+@Buildable(
+        editableEnabled = false,
+        builderPackage = "io.fabric8.kubernetes.api.builder"
+)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({ "broker", "replicas", "proposedReplicas", "leaders", "proposedLeaders", "logSize", "proposedLogSize" })
+@EqualsAndHashCode
+public class BrokerLoad implements UnknownPropertyPreserving, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Integer broker;
+    private Integer replicas;
+    private Integer proposedReplicas;
+    private Integer leaders;
+    private Integer proposedLeaders;
+    private Long logSize;
+    private Long proposedLogSize;
+    private Map<String, Object> additionalProperties;
+
+    @Description("The ID of the broker.")
+    public Integer getBroker() {
+        return broker;
+    }
+
+    public void setBroker(Integer broker) {
+        this.broker = broker;
+    }
+
+    @Description("The number of partition replicas hosted by the broker.")
+    public Integer getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(Integer replicas) {
+        this.replicas = replicas;
+    }
+
+    @Description("The number of partition replicas hosted by the broker after the proposed reassignments.")
+    public Integer getProposedReplicas() {
+        return proposedReplicas;
+    }
+
+    public void setProposedReplicas(Integer proposedReplicas) {
+        this.proposedReplicas = proposedReplicas;
+    }
+
+    @Description("The number of partitions whose preferred leader is the broker.")
+    public Integer getLeaders() {
+        return leaders;
+    }
+
+    public void setLeaders(Integer leaders) {
+        this.leaders = leaders;
+    }
+
+    @Description("The number of partitions whose preferred leader is the broker after the proposed reassignments.")
+    public Integer getProposedLeaders() {
+        return proposedLeaders;
+    }
+
+    public void setProposedLeaders(Integer proposedLeaders) {
+        this.proposedLeaders = proposedLeaders;
+    }
+
+    @Description("The size of the partition replicas hosted by the broker in bytes. " +
+            "Set only when the partitions are balanced by their size.")
+    public Long getLogSize() {
+        return logSize;
+    }
+
+    public void setLogSize(Long logSize) {
+        this.logSize = logSize;
+    }
+
+    @Description("The size of the partition replicas hosted by the broker in bytes after the proposed reassignments. " +
+            "Set only when the partitions are balanced by their size.")
+    public Long getProposedLogSize() {
+        return proposedLogSize;
+    }
+
+    public void setProposedLogSize(Long proposedLogSize) {
+        this.proposedLogSize = proposedLogSize;
+    }
+
+    @Override
+    public Map<String, Object> getAdditionalProperties() {
+        return this.additionalProperties != null ? this.additionalProperties : emptyMap();
+    }
+
+    @Override
+    public void setAdditionalProperty(String name, Object value) {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<>();
+        }
+        this.additionalProperties.put(name, value);
+    }
+}
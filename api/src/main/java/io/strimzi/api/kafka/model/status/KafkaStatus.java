@@ -21,13 +21,14 @@ import java.util.List;
         builderPackage = "io.fabric8.kubernetes.api.builder"
 )
 @JsonInclude(JsonInclude.Include.NON_NULL)
-@JsonPropertyOrder({ "conditions", "observedGeneration", "listeners" })
+@JsonPropertyOrder({ "conditions", "observedGeneration", "listeners", "rebalance" })
 @EqualsAndHashCode
 @ToString(callSuper = true)
 public class KafkaStatus extends Status {
     private static final long serialVersionUID = 1L;
 
     private List<ListenerStatus> listeners;
+    private RebalanceStatus rebalance;
 
     @Description("Addresses of the internal and external listeners")
     public List<ListenerStatus> getListeners() {
@@ -37,4 +38,14 @@ public class KafkaStatus extends Status {
     public void setListeners(List<ListenerStatus> listeners) {
         this.listeners = listeners;
     }
+
+    @Description("The status of the rebalancing of the partitions. " +
+            "Set only when the rebalancing is enabled using the `strimzi.io/rebalance` annotation.")
+    public RebalanceStatus getRebalance() {
+        return rebalance;
+    }
+
+    public void setRebalance(RebalanceStatus rebalance) {
+        this.rebalance = rebalance;
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.api.kafka.model.status;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.strimzi.api.kafka.model.UnknownPropertyPreserving;
+import io.strimzi.crdgenerator.annotations.Description;
+import io.sundr.builder.annotations.Buildable;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Represents the status of the rebalancing of the partitions across the Kafka brokers
+ */
+@Buildable(
+        editableEnabled = false,
+        builderPackage = "io.fabric8.kubernetes.api.builder"
+)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({ "state", "lastProgressTime", "brokers", "proposal" })
+@EqualsAndHashCode
+public class RebalanceStatus implements UnknownPropertyPreserving, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String state;
+    private String lastProgressTime;
+    private List<BrokerLoad> brokers;
+    private List<PartitionAssignment> proposal;
+    private Map<String, Object> additionalProperties;
+
+    @Description("The state of the rebalancing. " +
+            "`ProposalReady` when the proposed reassignments were computed in the dry-run mode, `Rebalancing` while the " +
+            "reassignments are executed and `Balanced` when no reassignments are needed.")
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    @Description("The last time the progress of the rebalancing was reported, in ISO 8601 format. " +
+            "It is updated before each batch of reassignments while rebalancing.")
+    public String getLastProgressTime() {
+        return lastProgressTime;
+    }
+
+    public void setLastProgressTime(String lastProgressTime) {
+        this.lastProgressTime = lastProgressTime;
+    }
+
+    @Description("The load of the brokers before and after the proposed reassignments.")
+    public List<BrokerLoad> getBrokers() {
+        return brokers;
+    }
+
+    public void setBrokers(List<BrokerLoad> brokers) {
+        this.brokers = brokers;
+    }
+
+    @Description("The proposed replicas of the partitions which are reassigned. " +
+            "While rebalancing, only the reassignments which were not executed yet are listed.")
+    public List<PartitionAssignment> getProposal() {
+        return proposal;
+    }
+
+    public void setProposal(List<PartitionAssignment> proposal) {
+        this.proposal = proposal;
+    }
+
+    @Override
+    public Map<String, Object> getAdditionalProperties() {
+        return this.additionalProperties != null ? this.additionalProperties : emptyMap();
+    }
+
+    @Override
+    public void setAdditionalProperty(String name, Object value) {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<>();
+        }
+        this.additionalProperties.put(name, value);
+    }
+}
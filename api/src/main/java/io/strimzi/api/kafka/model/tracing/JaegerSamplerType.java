@@ -0,0 +1,49 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.api.kafka.model.tracing;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+public enum JaegerSamplerType {
+    CONST,
+    PROBABILISTIC,
+    RATE_LIMITING,
+    REMOTE;
+
+    @JsonCreator
+    public static JaegerSamplerType forValue(String value) {
+        switch (value.toLowerCase(Locale.ENGLISH)) {
+            case "const":
+                return CONST;
+            case "probabilistic":
+                return PROBABILISTIC;
+            case "ratelimiting":
+                return RATE_LIMITING;
+            case "remote":
+                return REMOTE;
+            default:
+                return null;
+        }
+    }
+
+    @JsonValue
+    public String toValue() {
+        switch (this) {
+            case CONST:
+                return "const";
+            case PROBABILISTIC:
+                return "probabilistic";
+            case RATE_LIMITING:
+                return "ratelimiting";
+            case REMOTE:
+                return "remote";
+            default:
+                return null;
+        }
+    }
+}
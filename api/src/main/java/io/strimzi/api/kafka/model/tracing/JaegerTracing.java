@@ -7,6 +7,7 @@ package io.strimzi.api.kafka.model.tracing;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.strimzi.crdgenerator.annotations.Description;
+import io.strimzi.crdgenerator.annotations.Minimum;
 import io.sundr.builder.annotations.Buildable;
 import lombok.EqualsAndHashCode;
 
@@ -18,16 +19,68 @@ import lombok.EqualsAndHashCode;
         builderPackage = "io.fabric8.kubernetes.api.builder"
 )
 @JsonInclude(JsonInclude.Include.NON_NULL)
-@JsonPropertyOrder({"type"})
+@JsonPropertyOrder({"type", "samplerType", "samplerParam", "reporterMaxQueueSize", "reporterFlushInterval"})
 @EqualsAndHashCode
 public class JaegerTracing extends Tracing {
     private static final long serialVersionUID = 1L;
 
     public static final String TYPE_JAEGER = "jaeger";
 
+    private JaegerSamplerType samplerType;
+    private Double samplerParam;
+    private Integer reporterMaxQueueSize;
+    private Integer reporterFlushInterval;
+
     @Description("Must be `" + TYPE_JAEGER + "`")
     @Override
     public String getType() {
         return TYPE_JAEGER;
     }
+
+    @Description("The sampler which decides which traces are recorded. " +
+            "Valid values are `const`, `probabilistic`, `ratelimiting` and `remote`. " +
+            "The `remote` sampler uses the per-operation sampling strategies, including adaptive sampling, served by the Jaeger agent. " +
+            "Defaults to `remote`.")
+    public JaegerSamplerType getSamplerType() {
+        return samplerType;
+    }
+
+    public void setSamplerType(JaegerSamplerType samplerType) {
+        this.samplerType = samplerType;
+    }
+
+    @Description("The parameter of the sampler, which is " +
+            "`0` or `1` to sample no or all traces for `const`, " +
+            "the probability of sampling a trace for `probabilistic`, " +
+            "the maximum number of traces sampled per second for `ratelimiting`, " +
+            "and the probability used until the sampling strategies are fetched for `remote`.")
+    @Minimum(0)
+    public Double getSamplerParam() {
+        return samplerParam;
+    }
+
+    public void setSamplerParam(Double samplerParam) {
+        this.samplerParam = samplerParam;
+    }
+
+    @Description("The maximum number of finished spans queued for the asynchronous reporting. " +
+            "Spans are dropped when the queue is full.")
+    @Minimum(1)
+    public Integer getReporterMaxQueueSize() {
+        return reporterMaxQueueSize;
+    }
+
+    public void setReporterMaxQueueSize(Integer reporterMaxQueueSize) {
+        this.reporterMaxQueueSize = reporterMaxQueueSize;
+    }
+
+    @Description("The interval in milliseconds between the reports of the batches of queued spans.")
+    @Minimum(1)
+    public Integer getReporterFlushInterval() {
+        return reporterFlushInterval;
+    }
+
+    public void setReporterFlushInterval(Integer reporterFlushInterval) {
+        this.reporterFlushInterval = reporterFlushInterval;
+    }
 }
@@ -58,6 +58,22 @@ public interface CertManager {
     void addCertToTrustStore(File certFile, String certAlias, File trustStoreFile, String trustStorePassword)
             throws IOException, CertificateException, KeyStoreException, NoSuchAlgorithmException;
 
+    /**
+     * Add the provided certificate to the truststore without using any files
+     *
+     * @param cert the certificate to store
+     * @param certAlias certificate alias in the store
+     * @param trustStore the current truststore or null if the truststore should be created
+     * @param trustStorePassword password for protecting the truststore
+     * @return the new truststore
+     * @throws IOException If the truststore could not be read/written.
+     * @throws CertificateException if any problems reading the certificate in X509 format
+     * @throws KeyStoreException if any problems with reading/writing the truststore
+     * @throws NoSuchAlgorithmException if specified algorithm for truststore is not supported
+     */
+    byte[] addCertToTrustStore(byte[] cert, String certAlias, byte[] trustStore, String trustStorePassword)
+            throws IOException, CertificateException, KeyStoreException, NoSuchAlgorithmException;
+
     /**
      * Add the provided key and certificate to the keystore which is created if it doesn't exist
      *
@@ -70,6 +86,18 @@ public interface CertManager {
      */
     void addKeyAndCertToKeyStore(File keyFile, File certFile, String alias, File keyStoreFile, String keyStorePassword) throws IOException;
 
+    /**
+     * Add the provided key and certificate to a new keystore without using any files when possible
+     *
+     * @param key the private key
+     * @param cert the signed certificate
+     * @param alias key and certificate alias in the keystore
+     * @param keyStorePassword password for protecting the keystore
+     * @return the new keystore
+     * @throws IOException If the key or the certificate could not be read or the keystore could not be written.
+     */
+    byte[] addKeyAndCertToKeyStore(byte[] key, byte[] cert, String alias, String keyStorePassword) throws IOException;
+
     /**
      * Remove entries with provided aliases from the truststore
      *
@@ -84,6 +112,21 @@ public interface CertManager {
     void deleteFromTrustStore(List<String> aliases, File trustStoreFile, String trustStorePassword)
             throws IOException, CertificateException, KeyStoreException, NoSuchAlgorithmException;
 
+    /**
+     * Remove entries with provided aliases from the truststore without using any files
+     *
+     * @param aliases aliases to remove
+     * @param trustStore the current truststore
+     * @param trustStorePassword password for protecting the truststore
+     * @return the new truststore
+     * @throws IOException If the truststore could not be read/written.
+     * @throws CertificateException if any problems reading the certificates in the truststore
+     * @throws KeyStoreException if any problems with reading/writing the truststore
+     * @throws NoSuchAlgorithmException if specified algorithm for truststore is not supported
+     */
+    byte[] deleteFromTrustStore(List<String> aliases, byte[] trustStore, String trustStorePassword)
+            throws IOException, CertificateException, KeyStoreException, NoSuchAlgorithmException;
+
     /**
      * Generate a certificate sign request
      *
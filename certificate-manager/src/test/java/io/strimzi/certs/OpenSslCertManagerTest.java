@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.nio.file.Files;
@@ -21,10 +22,12 @@ import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -298,4 +301,48 @@ public class OpenSslCertManagerTest {
         newCert.delete();
         newStore.delete();
     }
+
+    @Test
+    public void testInMemoryTrustStore() throws Exception {
+        File key = File.createTempFile("key-", ".key");
+        File cert = File.createTempFile("crt-", ".crt");
+
+        try {
+            ssl.generateSelfSignedCert(key, cert, 365);
+            byte[] certBytes = Files.readAllBytes(cert.toPath());
+
+            byte[] trustStore = ssl.addCertToTrustStore(certBytes, "ca.crt", null, "123456");
+            trustStore = ssl.addCertToTrustStore(certBytes, "ca-old.crt", trustStore, "123456");
+            trustStore = ssl.deleteFromTrustStore(singletonList("ca-old.crt"), trustStore, "123456");
+
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            store.load(new ByteArrayInputStream(trustStore), "123456".toCharArray());
+            assertThat(Collections.list(store.aliases()), is(singletonList("ca.crt")));
+            assertThat(store.getCertificate("ca.crt"), is(certFactory.generateCertificate(new ByteArrayInputStream(certBytes))));
+        } finally {
+            key.delete();
+            cert.delete();
+        }
+    }
+
+    @Test
+    public void testInMemoryKeyStore() throws Exception {
+        File key = File.createTempFile("key-", ".key");
+        File cert = File.createTempFile("crt-", ".crt");
+
+        try {
+            ssl.generateSelfSignedCert(key, cert, 365);
+
+            byte[] keyStore = ssl.addKeyAndCertToKeyStore(Files.readAllBytes(key.toPath()), Files.readAllBytes(cert.toPath()), "my-user", "123456");
+
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            store.load(new ByteArrayInputStream(keyStore), "123456".toCharArray());
+            assertThat(store.isKeyEntry("my-user"), is(true));
+            assertThat(store.getKey("my-user", "123456".toCharArray()), is(notNullValue()));
+            assertThat(store.getCertificate("my-user"), is(certFactory.generateCertificate(new FileInputStream(cert))));
+        } finally {
+            key.delete();
+            cert.delete();
+        }
+    }
 }
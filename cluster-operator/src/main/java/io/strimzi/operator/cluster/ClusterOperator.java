@@ -5,6 +5,7 @@
 package io.strimzi.operator.cluster;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
 import io.strimzi.operator.cluster.operator.assembly.AbstractConnectOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaAssemblyOperator;
@@ -25,13 +26,18 @@ import io.vertx.micrometer.backends.BackendRegistries;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
 import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
 import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
@@ -43,6 +49,9 @@ import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
  * An "operator" for managing assemblies of various types <em>in a particular namespace</em>.
  * The Cluster Operator's multiple namespace support is achieved by deploying multiple
  * {@link ClusterOperator}'s in Vertx.
+ * Alternatively, a single {@link ClusterOperator} can manage several namespaces using one watch per kind
+ * in all namespaces. The events from the namespaces which are not managed are ignored. When the Cluster Operator
+ * is not allowed to watch the resources in all namespaces, it falls back to a watch per kind in each namespace.
  */
 public class ClusterOperator extends AbstractVerticle {
 
@@ -57,12 +66,14 @@ public class ClusterOperator extends AbstractVerticle {
     private final PrometheusMeterRegistry metrics;
 
     private final KubernetesClient client;
-    private final String namespace;
+    private final Set<String> namespaces;
     private final long reconciliationInterval;
 
+    // The watches keyed by the kind, or by the kind and the namespace when the kind is watched in each namespace
     private final Map<String, Watch> watchByKind = new ConcurrentHashMap<>();
 
-    private long reconcileTimer;
+    private long reconcileTimer = -1;
+    private int nextNamespace = 0;
     private final KafkaAssemblyOperator kafkaAssemblyOperator;
     private final KafkaConnectAssemblyOperator kafkaConnectAssemblyOperator;
     private final KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator;
@@ -79,8 +90,22 @@ public class ClusterOperator extends AbstractVerticle {
                            KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator,
                            KafkaMirrorMaker2AssemblyOperator kafkaMirrorMaker2AssemblyOperator,
                            KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator) {
-        log.info("Creating ClusterOperator for namespace {}", namespace);
-        this.namespace = namespace;
+        this(singleton(namespace), reconciliationInterval, client, kafkaAssemblyOperator, kafkaConnectAssemblyOperator,
+                kafkaConnectS2IAssemblyOperator, kafkaMirrorMakerAssemblyOperator, kafkaMirrorMaker2AssemblyOperator,
+                kafkaBridgeAssemblyOperator);
+    }
+
+    public ClusterOperator(Set<String> namespaces,
+                           long reconciliationInterval,
+                           KubernetesClient client,
+                           KafkaAssemblyOperator kafkaAssemblyOperator,
+                           KafkaConnectAssemblyOperator kafkaConnectAssemblyOperator,
+                           KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator,
+                           KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator,
+                           KafkaMirrorMaker2AssemblyOperator kafkaMirrorMaker2AssemblyOperator,
+                           KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator) {
+        log.info("Creating ClusterOperator for namespaces {}", namespaces);
+        this.namespaces = Collections.unmodifiableSet(new LinkedHashSet<>(namespaces));
         this.reconciliationInterval = reconciliationInterval;
         this.client = client;
         this.kafkaAssemblyOperator = kafkaAssemblyOperator;
@@ -96,10 +121,7 @@ public class ClusterOperator extends AbstractVerticle {
 
     @Override
     public void start(Promise<Void> start) {
-        log.info("Starting ClusterOperator for namespace {}", namespace);
-
-        // Configure the executor here, but it is used only in other places
-        getVertx().createSharedWorkerExecutor("kubernetes-ops-pool", 10, TimeUnit.SECONDS.toNanos(120));
+        log.info("Starting ClusterOperator for namespaces {}", namespaces);
 
         List<Future> watchFutures = new ArrayList<>();
         List<AbstractOperator<?, ?>> operators = new ArrayList<>(asList(
@@ -109,31 +131,115 @@ public class ClusterOperator extends AbstractVerticle {
             operators.add(kafkaConnectS2IAssemblyOperator);
         }
         for (AbstractOperator<?, ?> operator : operators) {
-            watchFutures.add(operator.createWatch(namespace, operator.recreateWatch(namespace)).compose(w -> {
-                log.info("Opened watch for {} operator", operator.kind());
-                watchByKind.put(operator.kind(), w);
-                return Future.succeededFuture();
-            }));
+            watchFutures.add(createWatches(operator));
         }
 
-        watchFutures.add(AbstractConnectOperator.createConnectorWatch(kafkaConnectAssemblyOperator, kafkaConnectS2IAssemblyOperator, namespace));
+        watchFutures.add(createConnectorWatches());
 
         CompositeFuture.join(watchFutures)
                 .compose(f -> {
-                    log.info("Setting up periodic reconciliation for namespace {}", namespace);
-                    this.reconcileTimer = vertx.setPeriodic(this.reconciliationInterval, res2 -> {
-                        log.info("Triggering periodic reconciliation for namespace {}...", namespace);
-                        reconcileAll("timer");
-                    });
+                    log.info("Setting up periodic reconciliation for namespaces {}", namespaces);
+                    schedulePeriodicReconciliation();
                     return startHealthServer().map((Void) null);
                 })
                 .setHandler(start);
     }
 
+    private boolean isMultiplexed() {
+        return namespaces.size() > 1;
+    }
+
+    private Future<Void> createWatches(AbstractOperator<?, ?> operator) {
+        if (isMultiplexed()) {
+            return operator.createWatch(namespaces, operator.recreateWatch(namespaces))
+                    .map(w -> {
+                        log.info("Opened watch for {} operator in namespaces {}", operator.kind(), namespaces);
+                        watchByKind.put(operator.kind(), w);
+                        return (Void) null;
+                    })
+                    .recover(error -> {
+                        if (isForbidden(error)) {
+                            log.warn("Not allowed to watch {} resources in all namespaces, opening a watch in each namespace instead", operator.kind());
+                            return createNamespaceWatches(operator);
+                        } else {
+                            return Future.failedFuture(error);
+                        }
+                    });
+        } else {
+            return createNamespaceWatches(operator);
+        }
+    }
+
+    private Future<Void> createNamespaceWatches(AbstractOperator<?, ?> operator) {
+        List<Future> watchFutures = new ArrayList<>(namespaces.size());
+        for (String namespace : namespaces) {
+            watchFutures.add(operator.createWatch(namespace, operator.recreateWatch(namespace)).map(w -> {
+                log.info("Opened watch for {} operator in namespace {}", operator.kind(), namespace);
+                watchByKind.put(isMultiplexed() ? operator.kind() + "/" + namespace : operator.kind(), w);
+                return (Void) null;
+            }));
+        }
+        return CompositeFuture.join(watchFutures).map((Void) null);
+    }
+
+    private Future<Void> createConnectorWatches() {
+        if (isMultiplexed()) {
+            return AbstractConnectOperator.createConnectorWatch(kafkaConnectAssemblyOperator, kafkaConnectS2IAssemblyOperator, namespaces)
+                    .recover(error -> {
+                        if (isForbidden(error)) {
+                            log.warn("Not allowed to watch KafkaConnector resources in all namespaces, opening a watch in each namespace instead");
+                            List<Future> watchFutures = new ArrayList<>(namespaces.size());
+                            for (String namespace : namespaces) {
+                                watchFutures.add(AbstractConnectOperator.createConnectorWatch(kafkaConnectAssemblyOperator, kafkaConnectS2IAssemblyOperator, namespace));
+                            }
+                            return CompositeFuture.join(watchFutures).map((Void) null);
+                        } else {
+                            return Future.failedFuture(error);
+                        }
+                    });
+        } else {
+            return AbstractConnectOperator.createConnectorWatch(kafkaConnectAssemblyOperator, kafkaConnectS2IAssemblyOperator, namespaces.iterator().next());
+        }
+    }
+
+    /**
+     * @param error The error from opening a watch
+     *
+     * @return True if the error means that the Cluster Operator does not have the rights to open the watch
+     */
+    /* test */ static boolean isForbidden(Throwable error) {
+        return error instanceof KubernetesClientException
+                && ((KubernetesClientException) error).getCode() == HttpURLConnection.HTTP_FORBIDDEN;
+    }
+
+    /**
+     * The namespaces are reconciled one after another, evenly spread over the reconciliation interval, so that
+     * each namespace is reconciled once per interval. The first reconciliation is delayed by a random jitter so
+     * that the ClusterOperators started at the same time do not reconcile at the same moment.
+     */
+    private void schedulePeriodicReconciliation() {
+        List<String> namespaceList = new ArrayList<>(namespaces);
+        long period = Math.max(1, reconciliationInterval / namespaceList.size());
+        long initialDelay = Math.max(1, period / 2 + ThreadLocalRandom.current().nextLong(period / 2 + 1));
+
+        this.reconcileTimer = vertx.setTimer(initialDelay, res -> {
+            reconcileNextNamespace(namespaceList);
+            this.reconcileTimer = vertx.setPeriodic(period, res2 -> reconcileNextNamespace(namespaceList));
+        });
+    }
+
+    private void reconcileNextNamespace(List<String> namespaceList) {
+        String namespace = namespaceList.get(nextNamespace);
+        nextNamespace = (nextNamespace + 1) % namespaceList.size();
+
+        log.info("Triggering periodic reconciliation for namespace {}...", namespace);
+        reconcileAll("timer", namespace);
+    }
+
 
     @Override
     public void stop(Promise<Void> stop) {
-        log.info("Stopping ClusterOperator for namespace {}", namespace);
+        log.info("Stopping ClusterOperator for namespaces {}", namespaces);
         vertx.cancelTimer(reconcileTimer);
         for (Watch watch : watchByKind.values()) {
             if (watch != null) {
@@ -145,10 +251,19 @@ public class ClusterOperator extends AbstractVerticle {
         stop.complete();
     }
 
+    /**
+      Reconciliation of all namespaces (e.g. when the resources were reassigned between the replicas)
+     */
+    void reconcileAll(String trigger) {
+        for (String namespace : namespaces) {
+            reconcileAll(trigger, namespace);
+        }
+    }
+
     /**
       Periodical reconciliation (in case we lost some event)
      */
-    private void reconcileAll(String trigger) {
+    private void reconcileAll(String trigger, String namespace) {
         Handler<AsyncResult<Void>> ignore = ignored -> { };
         kafkaAssemblyOperator.reconcileAll(trigger, namespace, ignore);
         kafkaMirrorMakerAssemblyOperator.reconcileAll(trigger, namespace, ignore);
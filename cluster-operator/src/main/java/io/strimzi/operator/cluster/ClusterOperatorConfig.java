@@ -11,6 +11,7 @@ import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.NoImageException;
 import io.strimzi.operator.common.InvalidConfigurationException;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.operator.resource.AbstractWatchableResourceOperator;
 
 import java.util.Arrays;
@@ -35,6 +36,23 @@ public class ClusterOperatorConfig {
     public static final String STRIMZI_CREATE_CLUSTER_ROLES = "STRIMZI_CREATE_CLUSTER_ROLES";
     public static final String STRIMZI_IMAGE_PULL_POLICY = "STRIMZI_IMAGE_PULL_POLICY";
     public static final String STRIMZI_IMAGE_PULL_SECRETS = "STRIMZI_IMAGE_PULL_SECRETS";
+    public static final String STRIMZI_CONNECT_API_MAX_POOL_SIZE = "STRIMZI_CONNECT_API_MAX_POOL_SIZE";
+    public static final String STRIMZI_CONNECT_API_CONNECT_TIMEOUT_MS = "STRIMZI_CONNECT_API_CONNECT_TIMEOUT_MS";
+    public static final String STRIMZI_CONNECT_API_REQUEST_TIMEOUT_MS = "STRIMZI_CONNECT_API_REQUEST_TIMEOUT_MS";
+    public static final String STRIMZI_MAX_CONCURRENT_CONNECTOR_RECONCILIATIONS = "STRIMZI_MAX_CONCURRENT_CONNECTOR_RECONCILIATIONS";
+    public static final String STRIMZI_CONNECTOR_EVENTS_DEBOUNCE_MS = "STRIMZI_CONNECTOR_EVENTS_DEBOUNCE_MS";
+    public static final String STRIMZI_SHARDING_ENABLED = "STRIMZI_SHARDING_ENABLED";
+    public static final String STRIMZI_SHARDING_LEASE_DURATION_MS = "STRIMZI_SHARDING_LEASE_DURATION_MS";
+    public static final String STRIMZI_SHARDING_NAMESPACE = "STRIMZI_SHARDING_NAMESPACE";
+    public static final String STRIMZI_MULTIPLEXED_WATCHES = "STRIMZI_MULTIPLEXED_WATCHES";
+    public static final String STRIMZI_MODEL_CACHE_SIZE = "STRIMZI_MODEL_CACHE_SIZE";
+    public static final String STRIMZI_SERVER_SIDE_APPLY = "STRIMZI_SERVER_SIDE_APPLY";
+    public static final String STRIMZI_SCALE_DOWN_THROTTLE = "STRIMZI_SCALE_DOWN_THROTTLE";
+    public static final String STRIMZI_REBALANCE_THROTTLE = "STRIMZI_REBALANCE_THROTTLE";
+    public static final String STRIMZI_REBALANCE_MAX_CONCURRENT_MOVES = "STRIMZI_REBALANCE_MAX_CONCURRENT_MOVES";
+    public static final String STRIMZI_LOG_DIR_MOVE_THROTTLE = "STRIMZI_LOG_DIR_MOVE_THROTTLE";
+    public static final String STRIMZI_LOG_DIR_MAX_CONCURRENT_MOVES = "STRIMZI_LOG_DIR_MAX_CONCURRENT_MOVES";
+    public static final String STRIMZI_PERIODIC_LEADER_ELECTION_ENABLED = "STRIMZI_PERIODIC_LEADER_ELECTION_ENABLED";
 
     // Env vars for configuring images
     public static final String STRIMZI_KAFKA_IMAGES = "STRIMZI_KAFKA_IMAGES";
@@ -54,6 +72,22 @@ public class ClusterOperatorConfig {
     public static final long DEFAULT_FULL_RECONCILIATION_INTERVAL_MS = 120_000;
     public static final long DEFAULT_OPERATION_TIMEOUT_MS = 300_000;
     public static final boolean DEFAULT_CREATE_CLUSTER_ROLES = false;
+    public static final int DEFAULT_CONNECT_API_MAX_POOL_SIZE = 5;
+    public static final int DEFAULT_CONNECT_API_CONNECT_TIMEOUT_MS = 10_000;
+    public static final long DEFAULT_CONNECT_API_REQUEST_TIMEOUT_MS = 60_000;
+    public static final int DEFAULT_MAX_CONCURRENT_CONNECTOR_RECONCILIATIONS = 10;
+    public static final long DEFAULT_CONNECTOR_EVENTS_DEBOUNCE_MS = 200;
+    public static final boolean DEFAULT_SHARDING_ENABLED = false;
+    public static final long DEFAULT_SHARDING_LEASE_DURATION_MS = 15_000;
+    public static final boolean DEFAULT_MULTIPLEXED_WATCHES = false;
+    public static final int DEFAULT_MODEL_CACHE_SIZE = 100;
+    public static final boolean DEFAULT_SERVER_SIDE_APPLY = false;
+    public static final long DEFAULT_SCALE_DOWN_THROTTLE = 50L * 1024 * 1024;
+    public static final long DEFAULT_REBALANCE_THROTTLE = 50L * 1024 * 1024;
+    public static final int DEFAULT_REBALANCE_MAX_CONCURRENT_MOVES = 10;
+    public static final long DEFAULT_LOG_DIR_MOVE_THROTTLE = 50L * 1024 * 1024;
+    public static final int DEFAULT_LOG_DIR_MAX_CONCURRENT_MOVES = 2;
+    public static final boolean DEFAULT_PERIODIC_LEADER_ELECTION_ENABLED = false;
 
     private final Set<String> namespaces;
     private final long reconciliationIntervalMs;
@@ -62,6 +96,24 @@ public class ClusterOperatorConfig {
     private final KafkaVersion.Lookup versions;
     private final ImagePullPolicy imagePullPolicy;
     private final List<LocalObjectReference> imagePullSecrets;
+    private final int connectApiMaxPoolSize;
+    private final int connectApiConnectTimeoutMs;
+    private final long connectApiRequestTimeoutMs;
+    private final int maxConcurrentConnectorReconciliations;
+    private final long connectorEventsDebounceMs;
+    private final boolean shardingEnabled;
+    private final long shardingLeaseDurationMs;
+    private final String shardingNamespace;
+    private final boolean multiplexedWatches;
+    private final int modelCacheSize;
+    private final boolean serverSideApply;
+    private final Map<String, Integer> workerPoolSizes;
+    private final long scaleDownThrottle;
+    private final long rebalanceThrottle;
+    private final int rebalanceMaxConcurrentMoves;
+    private final long logDirMoveThrottle;
+    private final int logDirMaxConcurrentMoves;
+    private final boolean periodicLeaderElectionEnabled;
 
     /**
      * Constructor
@@ -75,13 +127,205 @@ public class ClusterOperatorConfig {
      * @param imagePullSecrets Set of secrets for pulling container images from secured repositories
      */
     public ClusterOperatorConfig(Set<String> namespaces, long reconciliationIntervalMs, long operationTimeoutMs, boolean createClusterRoles, KafkaVersion.Lookup versions, ImagePullPolicy imagePullPolicy, List<LocalObjectReference> imagePullSecrets) {
-        this.namespaces = unmodifiableSet(new HashSet<>(namespaces));
-        this.reconciliationIntervalMs = reconciliationIntervalMs;
-        this.operationTimeoutMs = operationTimeoutMs;
-        this.createClusterRoles = createClusterRoles;
-        this.versions = versions;
-        this.imagePullPolicy = imagePullPolicy;
-        this.imagePullSecrets = imagePullSecrets;
+        this(new Builder(namespaces, reconciliationIntervalMs, operationTimeoutMs, createClusterRoles, versions, imagePullPolicy, imagePullSecrets));
+    }
+
+    private ClusterOperatorConfig(Builder builder) {
+        this.namespaces = unmodifiableSet(new HashSet<>(builder.namespaces));
+        this.reconciliationIntervalMs = builder.reconciliationIntervalMs;
+        this.operationTimeoutMs = builder.operationTimeoutMs;
+        this.createClusterRoles = builder.createClusterRoles;
+        this.versions = builder.versions;
+        this.imagePullPolicy = builder.imagePullPolicy;
+        this.imagePullSecrets = builder.imagePullSecrets;
+        this.connectApiMaxPoolSize = builder.connectApiMaxPoolSize;
+        this.connectApiConnectTimeoutMs = builder.connectApiConnectTimeoutMs;
+        this.connectApiRequestTimeoutMs = builder.connectApiRequestTimeoutMs;
+        this.maxConcurrentConnectorReconciliations = builder.maxConcurrentConnectorReconciliations;
+        this.connectorEventsDebounceMs = builder.connectorEventsDebounceMs;
+        this.shardingEnabled = builder.shardingEnabled;
+        this.shardingLeaseDurationMs = builder.shardingLeaseDurationMs;
+        this.shardingNamespace = builder.shardingNamespace;
+        this.multiplexedWatches = builder.multiplexedWatches;
+        this.modelCacheSize = builder.modelCacheSize;
+        this.serverSideApply = builder.serverSideApply;
+        this.workerPoolSizes = Collections.unmodifiableMap(builder.workerPoolSizes);
+        this.scaleDownThrottle = builder.scaleDownThrottle;
+        this.rebalanceThrottle = builder.rebalanceThrottle;
+        this.rebalanceMaxConcurrentMoves = builder.rebalanceMaxConcurrentMoves;
+        this.logDirMoveThrottle = builder.logDirMoveThrottle;
+        this.logDirMaxConcurrentMoves = builder.logDirMaxConcurrentMoves;
+        this.periodicLeaderElectionEnabled = builder.periodicLeaderElectionEnabled;
+    }
+
+    /**
+     * Builds the Cluster Operator configuration. The options which are not set use their default values.
+     */
+    public static class Builder {
+        private final Set<String> namespaces;
+        private final long reconciliationIntervalMs;
+        private final long operationTimeoutMs;
+        private final boolean createClusterRoles;
+        private final KafkaVersion.Lookup versions;
+        private final ImagePullPolicy imagePullPolicy;
+        private final List<LocalObjectReference> imagePullSecrets;
+        private int connectApiMaxPoolSize = DEFAULT_CONNECT_API_MAX_POOL_SIZE;
+        private int connectApiConnectTimeoutMs = DEFAULT_CONNECT_API_CONNECT_TIMEOUT_MS;
+        private long connectApiRequestTimeoutMs = DEFAULT_CONNECT_API_REQUEST_TIMEOUT_MS;
+        private int maxConcurrentConnectorReconciliations = DEFAULT_MAX_CONCURRENT_CONNECTOR_RECONCILIATIONS;
+        private long connectorEventsDebounceMs = DEFAULT_CONNECTOR_EVENTS_DEBOUNCE_MS;
+        private boolean shardingEnabled = DEFAULT_SHARDING_ENABLED;
+        private long shardingLeaseDurationMs = DEFAULT_SHARDING_LEASE_DURATION_MS;
+        private String shardingNamespace = null;
+        private boolean multiplexedWatches = DEFAULT_MULTIPLEXED_WATCHES;
+        private int modelCacheSize = DEFAULT_MODEL_CACHE_SIZE;
+        private boolean serverSideApply = DEFAULT_SERVER_SIDE_APPLY;
+        private Map<String, Integer> workerPoolSizes = WorkerPools.defaultSizes();
+        private long scaleDownThrottle = DEFAULT_SCALE_DOWN_THROTTLE;
+        private long rebalanceThrottle = DEFAULT_REBALANCE_THROTTLE;
+        private int rebalanceMaxConcurrentMoves = DEFAULT_REBALANCE_MAX_CONCURRENT_MOVES;
+        private long logDirMoveThrottle = DEFAULT_LOG_DIR_MOVE_THROTTLE;
+        private int logDirMaxConcurrentMoves = DEFAULT_LOG_DIR_MAX_CONCURRENT_MOVES;
+        private boolean periodicLeaderElectionEnabled = DEFAULT_PERIODIC_LEADER_ELECTION_ENABLED;
+
+        /**
+         * @param namespaces namespace in which the operator will run and create resources
+         * @param reconciliationIntervalMs    specify every how many milliseconds the reconciliation runs
+         * @param operationTimeoutMs    timeout for internal operations specified in milliseconds
+         * @param createClusterRoles true to create the cluster roles
+         * @param versions The configured Kafka versions
+         * @param imagePullPolicy Image pull policy configured by the user
+         * @param imagePullSecrets Set of secrets for pulling container images from secured repositories
+         */
+        public Builder(Set<String> namespaces, long reconciliationIntervalMs, long operationTimeoutMs, boolean createClusterRoles, KafkaVersion.Lookup versions, ImagePullPolicy imagePullPolicy, List<LocalObjectReference> imagePullSecrets) {
+            this.namespaces = namespaces;
+            this.reconciliationIntervalMs = reconciliationIntervalMs;
+            this.operationTimeoutMs = operationTimeoutMs;
+            this.createClusterRoles = createClusterRoles;
+            this.versions = versions;
+            this.imagePullPolicy = imagePullPolicy;
+            this.imagePullSecrets = imagePullSecrets;
+        }
+
+        /**
+         * @param maxPoolSize Maximal number of pooled connections to the REST API of a single Kafka Connect cluster
+         * @param connectTimeoutMs Timeout for connecting to the Kafka Connect REST API in milliseconds
+         * @param requestTimeoutMs Timeout for the Kafka Connect REST API requests in milliseconds
+         *
+         * @return This builder
+         */
+        public Builder withConnectApi(int maxPoolSize, int connectTimeoutMs, long requestTimeoutMs) {
+            this.connectApiMaxPoolSize = maxPoolSize;
+            this.connectApiConnectTimeoutMs = connectTimeoutMs;
+            this.connectApiRequestTimeoutMs = requestTimeoutMs;
+            return this;
+        }
+
+        /**
+         * @param maxConcurrentReconciliations Maximal number of KafkaConnector resources reconciled at the same time for a single Kafka Connect cluster
+         * @param eventsDebounceMs Delay in milliseconds for which the KafkaConnector watch events are coalesced before they are reconciled
+         *
+         * @return This builder
+         */
+        public Builder withConnectors(int maxConcurrentReconciliations, long eventsDebounceMs) {
+            this.maxConcurrentConnectorReconciliations = maxConcurrentReconciliations;
+            this.connectorEventsDebounceMs = eventsDebounceMs;
+            return this;
+        }
+
+        /**
+         * @param enabled True if the custom resources should be sharded across several Cluster Operator replicas
+         * @param leaseDurationMs Duration of the shard leases in milliseconds
+         * @param namespace Namespace where the shard leases are stored
+         *
+         * @return This builder
+         */
+        public Builder withSharding(boolean enabled, long leaseDurationMs, String namespace) {
+            this.shardingEnabled = enabled;
+            this.shardingLeaseDurationMs = leaseDurationMs;
+            this.shardingNamespace = namespace;
+            return this;
+        }
+
+        /**
+         * @param multiplexedWatches If true, a single watch per kind is used for all watched namespaces
+         *
+         * @return This builder
+         */
+        public Builder withMultiplexedWatches(boolean multiplexedWatches) {
+            this.multiplexedWatches = multiplexedWatches;
+            return this;
+        }
+
+        /**
+         * @param modelCacheSize The maximum number of Kafka clusters whose generated models are cached between reconciliations
+         *
+         * @return This builder
+         */
+        public Builder withModelCacheSize(int modelCacheSize) {
+            this.modelCacheSize = modelCacheSize;
+            return this;
+        }
+
+        /**
+         * @param serverSideApply If true, the generated resources are patched using server-side apply
+         *
+         * @return This builder
+         */
+        public Builder withServerSideApply(boolean serverSideApply) {
+            this.serverSideApply = serverSideApply;
+            return this;
+        }
+
+        /**
+         * @param workerPoolSizes The sizes of the worker pools for the blocking calls keyed by the names of the pools
+         *
+         * @return This builder
+         */
+        public Builder withWorkerPoolSizes(Map<String, Integer> workerPoolSizes) {
+            this.workerPoolSizes = workerPoolSizes;
+            return this;
+        }
+
+        /**
+         * @param scaleDownThrottle The replication throttle in bytes per second used when moving the partitions off the removed brokers
+         * @param rebalanceThrottle The replication throttle in bytes per second used when rebalancing the partitions
+         * @param rebalanceMaxConcurrentMoves The maximum number of partitions which are moved at the same time when rebalancing
+         *
+         * @return This builder
+         */
+        public Builder withReassignments(long scaleDownThrottle, long rebalanceThrottle, int rebalanceMaxConcurrentMoves) {
+            this.scaleDownThrottle = scaleDownThrottle;
+            this.rebalanceThrottle = rebalanceThrottle;
+            this.rebalanceMaxConcurrentMoves = rebalanceMaxConcurrentMoves;
+            return this;
+        }
+
+        /**
+         * @param throttle The throttle in bytes per second used when moving replicas to the added JBOD volumes
+         * @param maxConcurrentMoves The maximum number of replicas which are moved at the same time on each broker when moving replicas to the added JBOD volumes
+         *
+         * @return This builder
+         */
+        public Builder withLogDirMoves(long throttle, int maxConcurrentMoves) {
+            this.logDirMoveThrottle = throttle;
+            this.logDirMaxConcurrentMoves = maxConcurrentMoves;
+            return this;
+        }
+
+        /**
+         * @param enabled If true, the preferred leaders are elected by every reconciliation of the Kafka clusters
+         *
+         * @return This builder
+         */
+        public Builder withPeriodicLeaderElection(boolean enabled) {
+            this.periodicLeaderElectionEnabled = enabled;
+            return this;
+        }
+
+        public ClusterOperatorConfig build() {
+            return new ClusterOperatorConfig(this);
+        }
     }
 
     /**
@@ -110,8 +354,39 @@ public class ClusterOperatorConfig {
         boolean createClusterRoles = parseCreateClusterRoles(map.get(ClusterOperatorConfig.STRIMZI_CREATE_CLUSTER_ROLES));
         ImagePullPolicy imagePullPolicy = parseImagePullPolicy(map.get(ClusterOperatorConfig.STRIMZI_IMAGE_PULL_POLICY));
         List<LocalObjectReference> imagePullSecrets = parseImagePullSecrets(map.get(ClusterOperatorConfig.STRIMZI_IMAGE_PULL_SECRETS));
-        return new ClusterOperatorConfig(namespaces, reconciliationInterval, operationTimeout, createClusterRoles, lookup, imagePullPolicy, imagePullSecrets);
-
+        int connectApiMaxPoolSize = parsePositiveInt(map, STRIMZI_CONNECT_API_MAX_POOL_SIZE, DEFAULT_CONNECT_API_MAX_POOL_SIZE);
+        int connectApiConnectTimeoutMs = parsePositiveInt(map, STRIMZI_CONNECT_API_CONNECT_TIMEOUT_MS, DEFAULT_CONNECT_API_CONNECT_TIMEOUT_MS);
+        long connectApiRequestTimeoutMs = parsePositiveLong(map, STRIMZI_CONNECT_API_REQUEST_TIMEOUT_MS, DEFAULT_CONNECT_API_REQUEST_TIMEOUT_MS);
+        int maxConcurrentConnectorReconciliations = parsePositiveInt(map, STRIMZI_MAX_CONCURRENT_CONNECTOR_RECONCILIATIONS, DEFAULT_MAX_CONCURRENT_CONNECTOR_RECONCILIATIONS);
+        long connectorEventsDebounceMs = parseNonNegativeLong(map, STRIMZI_CONNECTOR_EVENTS_DEBOUNCE_MS, DEFAULT_CONNECTOR_EVENTS_DEBOUNCE_MS);
+        boolean shardingEnabled = parseBoolean(map.get(STRIMZI_SHARDING_ENABLED), DEFAULT_SHARDING_ENABLED);
+        long shardingLeaseDurationMs = parsePositiveLong(map, STRIMZI_SHARDING_LEASE_DURATION_MS, DEFAULT_SHARDING_LEASE_DURATION_MS);
+        String shardingNamespace = map.get(STRIMZI_SHARDING_NAMESPACE);
+        if (shardingEnabled && (shardingNamespace == null || shardingNamespace.trim().isEmpty())) {
+            throw new InvalidConfigurationException(STRIMZI_SHARDING_NAMESPACE + " has to be set when sharding is enabled");
+        }
+        boolean multiplexedWatches = parseBoolean(map.get(STRIMZI_MULTIPLEXED_WATCHES), DEFAULT_MULTIPLEXED_WATCHES);
+        int modelCacheSize = parsePositiveInt(map, STRIMZI_MODEL_CACHE_SIZE, DEFAULT_MODEL_CACHE_SIZE);
+        boolean serverSideApply = parseBoolean(map.get(STRIMZI_SERVER_SIDE_APPLY), DEFAULT_SERVER_SIDE_APPLY);
+        Map<String, Integer> workerPoolSizes = WorkerPools.sizesFromMap(map);
+        long scaleDownThrottle = parsePositiveLong(map, STRIMZI_SCALE_DOWN_THROTTLE, DEFAULT_SCALE_DOWN_THROTTLE);
+        long rebalanceThrottle = parsePositiveLong(map, STRIMZI_REBALANCE_THROTTLE, DEFAULT_REBALANCE_THROTTLE);
+        int rebalanceMaxConcurrentMoves = parsePositiveInt(map, STRIMZI_REBALANCE_MAX_CONCURRENT_MOVES, DEFAULT_REBALANCE_MAX_CONCURRENT_MOVES);
+        long logDirMoveThrottle = parsePositiveLong(map, STRIMZI_LOG_DIR_MOVE_THROTTLE, DEFAULT_LOG_DIR_MOVE_THROTTLE);
+        int logDirMaxConcurrentMoves = parsePositiveInt(map, STRIMZI_LOG_DIR_MAX_CONCURRENT_MOVES, DEFAULT_LOG_DIR_MAX_CONCURRENT_MOVES);
+        boolean periodicLeaderElectionEnabled = parseBoolean(map.get(STRIMZI_PERIODIC_LEADER_ELECTION_ENABLED), DEFAULT_PERIODIC_LEADER_ELECTION_ENABLED);
+        return new Builder(namespaces, reconciliationInterval, operationTimeout, createClusterRoles, lookup, imagePullPolicy, imagePullSecrets)
+                .withConnectApi(connectApiMaxPoolSize, connectApiConnectTimeoutMs, connectApiRequestTimeoutMs)
+                .withConnectors(maxConcurrentConnectorReconciliations, connectorEventsDebounceMs)
+                .withSharding(shardingEnabled, shardingLeaseDurationMs, shardingNamespace)
+                .withMultiplexedWatches(multiplexedWatches)
+                .withModelCacheSize(modelCacheSize)
+                .withServerSideApply(serverSideApply)
+                .withWorkerPoolSizes(workerPoolSizes)
+                .withReassignments(scaleDownThrottle, rebalanceThrottle, rebalanceMaxConcurrentMoves)
+                .withLogDirMoves(logDirMoveThrottle, logDirMaxConcurrentMoves)
+                .withPeriodicLeaderElection(periodicLeaderElectionEnabled)
+                .build();
     }
 
     private static Set<String> parseNamespaceList(String namespacesList)   {
@@ -153,6 +428,54 @@ public class ClusterOperatorConfig {
         return operationTimeout;
     }
 
+    private static int parsePositiveInt(Map<String, String> map, String envVar, int defaultValue) {
+        long value = parsePositiveLong(map, envVar, defaultValue);
+
+        if (value > Integer.MAX_VALUE) {
+            throw new InvalidConfigurationException(envVar + " is too large");
+        }
+
+        return (int) value;
+    }
+
+    private static long parsePositiveLong(Map<String, String> map, String envVar, long defaultValue) {
+        long parsed = parseLong(map, envVar, defaultValue);
+
+        if (parsed <= 0) {
+            throw new InvalidConfigurationException(envVar + " has to be a positive number");
+        }
+
+        return parsed;
+    }
+
+    private static long parseNonNegativeLong(Map<String, String> map, String envVar, long defaultValue) {
+        long parsed = parseLong(map, envVar, defaultValue);
+
+        if (parsed < 0) {
+            throw new InvalidConfigurationException(envVar + " has to be zero or a positive number");
+        }
+
+        return parsed;
+    }
+
+    private static long parseLong(Map<String, String> map, String envVar, long defaultValue) {
+        String value = map.get(envVar);
+
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidConfigurationException(envVar + " is not a valid number", e);
+        }
+    }
+
+    private static boolean parseBoolean(String envVar, boolean defaultValue) {
+        return envVar != null ? Boolean.parseBoolean(envVar) : defaultValue;
+    }
+
     private static boolean parseCreateClusterRoles(String createClusterRolesEnvVar) {
         boolean createClusterRoles = DEFAULT_CREATE_CLUSTER_ROLES;
 
@@ -267,6 +590,134 @@ public class ClusterOperatorConfig {
         return imagePullSecrets;
     }
 
+    /**
+     * @return  Maximal number of pooled connections to the REST API of a single Kafka Connect cluster
+     */
+    public int getConnectApiMaxPoolSize() {
+        return connectApiMaxPoolSize;
+    }
+
+    /**
+     * @return  Timeout for connecting to the Kafka Connect REST API in milliseconds
+     */
+    public int getConnectApiConnectTimeoutMs() {
+        return connectApiConnectTimeoutMs;
+    }
+
+    /**
+     * @return  Timeout for the Kafka Connect REST API requests in milliseconds
+     */
+    public long getConnectApiRequestTimeoutMs() {
+        return connectApiRequestTimeoutMs;
+    }
+
+    /**
+     * @return  Maximal number of KafkaConnector resources reconciled at the same time for a single Kafka Connect cluster
+     */
+    public int getMaxConcurrentConnectorReconciliations() {
+        return maxConcurrentConnectorReconciliations;
+    }
+
+    /**
+     * @return  Delay in milliseconds for which the KafkaConnector watch events are coalesced before they are reconciled
+     */
+    public long getConnectorEventsDebounceMs() {
+        return connectorEventsDebounceMs;
+    }
+
+    /**
+     * @return  True if the custom resources should be sharded across several Cluster Operator replicas
+     */
+    public boolean isShardingEnabled() {
+        return shardingEnabled;
+    }
+
+    /**
+     * @return  Duration of the shard leases in milliseconds
+     */
+    public long getShardingLeaseDurationMs() {
+        return shardingLeaseDurationMs;
+    }
+
+    /**
+     * @return  Namespace where the shard leases are stored
+     */
+    public String getShardingNamespace() {
+        return shardingNamespace;
+    }
+
+    /**
+     * @return  If true, a single watch per kind is used for all watched namespaces
+     */
+    public boolean isMultiplexedWatches() {
+        return multiplexedWatches;
+    }
+
+    /**
+     * @return  The maximum number of Kafka clusters whose generated models are cached between reconciliations
+     */
+    public int getModelCacheSize() {
+        return modelCacheSize;
+    }
+
+    /**
+     * @return  If true, the generated resources are patched using server-side apply
+     */
+    public boolean isServerSideApply() {
+        return serverSideApply;
+    }
+
+    /**
+     * @return  The sizes of the worker pools for the blocking calls keyed by the names of the pools
+     */
+    public Map<String, Integer> getWorkerPoolSizes() {
+        return workerPoolSizes;
+    }
+
+    /**
+     * @return  The replication throttle in bytes per second used when moving the partitions off the removed brokers
+     */
+    public long getScaleDownThrottle() {
+        return scaleDownThrottle;
+    }
+
+    /**
+     * @return  The replication throttle in bytes per second used when rebalancing the partitions
+     */
+    public long getRebalanceThrottle() {
+        return rebalanceThrottle;
+    }
+
+    /**
+     * @return  The maximum number of partitions which are moved at the same time when rebalancing
+     */
+    public int getRebalanceMaxConcurrentMoves() {
+        return rebalanceMaxConcurrentMoves;
+    }
+
+    /**
+     * @return  The throttle in bytes per second used when moving replicas to the added JBOD volumes
+     */
+    public long getLogDirMoveThrottle() {
+        return logDirMoveThrottle;
+    }
+
+    /**
+     * @return  The maximum number of replicas which are moved at the same time on each broker when moving replicas
+     *          to the added JBOD volumes
+     */
+    public int getLogDirMaxConcurrentMoves() {
+        return logDirMaxConcurrentMoves;
+    }
+
+    /**
+     * @return  True if the preferred leaders are elected by every reconciliation of the Kafka clusters, and not only
+     *          after the brokers were restarted by a rolling update
+     */
+    public boolean isPeriodicLeaderElectionEnabled() {
+        return periodicLeaderElectionEnabled;
+    }
+
     @Override
     public String toString() {
         return "ClusterOperatorConfig(" +
@@ -277,6 +728,24 @@ public class ClusterOperatorConfig {
                 ",versions=" + versions +
                 ",imagePullPolicy=" + imagePullPolicy +
                 ",imagePullSecrets=" + imagePullSecrets +
+                ",connectApiMaxPoolSize=" + connectApiMaxPoolSize +
+                ",connectApiConnectTimeoutMs=" + connectApiConnectTimeoutMs +
+                ",connectApiRequestTimeoutMs=" + connectApiRequestTimeoutMs +
+                ",maxConcurrentConnectorReconciliations=" + maxConcurrentConnectorReconciliations +
+                ",connectorEventsDebounceMs=" + connectorEventsDebounceMs +
+                ",shardingEnabled=" + shardingEnabled +
+                ",shardingLeaseDurationMs=" + shardingLeaseDurationMs +
+                ",shardingNamespace=" + shardingNamespace +
+                ",multiplexedWatches=" + multiplexedWatches +
+                ",modelCacheSize=" + modelCacheSize +
+                ",serverSideApply=" + serverSideApply +
+                ",workerPoolSizes=" + workerPoolSizes +
+                ",scaleDownThrottle=" + scaleDownThrottle +
+                ",rebalanceThrottle=" + rebalanceThrottle +
+                ",rebalanceMaxConcurrentMoves=" + rebalanceMaxConcurrentMoves +
+                ",logDirMoveThrottle=" + logDirMoveThrottle +
+                ",logDirMaxConcurrentMoves=" + logDirMaxConcurrentMoves +
+                ",periodicLeaderElectionEnabled=" + periodicLeaderElectionEnabled +
                 ")";
     }
 }
@@ -11,6 +11,7 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.strimzi.api.kafka.Crds;
 import io.strimzi.certs.OpenSslCertManager;
 import io.strimzi.operator.PlatformFeaturesAvailability;
+import io.strimzi.operator.cluster.operator.assembly.AbstractConnectOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaBridgeAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectAssemblyOperator;
@@ -18,7 +19,9 @@ import io.strimzi.operator.cluster.operator.assembly.KafkaConnectS2IAssemblyOper
 import io.strimzi.operator.cluster.operator.assembly.KafkaMirrorMakerAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaMirrorMaker2AssemblyOperator;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.common.AbstractOperator;
 import io.strimzi.operator.common.PasswordGenerator;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.operator.resource.ClusterRoleOperator;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
@@ -36,12 +39,17 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import io.vertx.core.VertxOptions;
 import io.vertx.micrometer.MicrometerMetricsOptions;
 import io.vertx.micrometer.VertxPrometheusOptions;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+
 @SuppressFBWarnings("DM_EXIT")
 public class Main {
     private static final Logger log = LogManager.getLogger(Main.class.getName());
@@ -57,6 +65,8 @@ public class Main {
     public static void main(String[] args) {
         log.info("ClusterOperator {} is starting", Main.class.getPackage().getImplementationVersion());
         ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(System.getenv());
+        // The pools have to be sized before anything uses them
+        WorkerPools.configure(config.getWorkerPoolSizes());
 
         String dnsCacheTtl = System.getenv("STRIMZI_DNS_CACHE_TTL") == null ? "30" : System.getenv("STRIMZI_DNS_CACHE_TTL");
         Security.setProperty("networkaddress.cache.ttl", dnsCacheTtl);
@@ -97,6 +107,9 @@ public class Main {
         printEnvInfo();
 
         ResourceOperatorSupplier resourceOperatorSupplier = new ResourceOperatorSupplier(vertx, client, pfa, config.getOperationTimeoutMs());
+        if (config.isServerSideApply()) {
+            resourceOperatorSupplier.enableServerSideApply(ResourceOperatorSupplier.FIELD_MANAGER);
+        }
 
         OpenSslCertManager certManager = new OpenSslCertManager();
         PasswordGenerator passwordGenerator = new PasswordGenerator(12,
@@ -126,30 +139,83 @@ public class Main {
         KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator =
                 new KafkaBridgeAssemblyOperator(vertx, pfa, certManager, passwordGenerator, resourceOperatorSupplier, config);
 
+        // The operators are shared by all the verticles, so their Kafka Connect REST API clients are closed on shutdown
+        for (AbstractConnectOperator<?, ?, ?, ?, ?, ?> operator : asList(kafkaConnectClusterOperations,
+                kafkaConnectS2IClusterOperations, kafkaMirrorMaker2AssemblyOperator)) {
+            if (operator != null) {
+                Runtime.getRuntime().addShutdownHook(new Thread(operator::close));
+            }
+        }
+
+        List<ClusterOperator> clusterOperators = new CopyOnWriteArrayList<>();
+        Future<Void> sharding = Future.succeededFuture();
+        if (config.isShardingEnabled()) {
+            ShardManager shardManager = new ShardManager(vertx, client, config.getShardingNamespace(),
+                    config.getShardingLeaseDurationMs(), config.getOperationTimeoutMs(),
+                () -> {
+                    log.info("Cluster Operator replicas changed, triggering reconciliation of the resources");
+                    clusterOperators.forEach(operator -> operator.reconcileAll("sharding"));
+                });
+            for (AbstractOperator<?, ?> operator : asList(kafkaClusterOperations, kafkaConnectClusterOperations,
+                    kafkaConnectS2IClusterOperations, kafkaMirrorMaker2AssemblyOperator, kafkaMirrorMakerAssemblyOperator,
+                    kafkaBridgeAssemblyOperator)) {
+                if (operator != null) {
+                    operator.setOwnership(shardManager);
+                }
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(shardManager::stop));
+            sharding = shardManager.start();
+        }
+
+        // Either a verticle per namespace or a single verticle with one watch per kind for all the namespaces
+        List<Set<String>> namespaceGroups = new ArrayList<>();
+        if (config.isMultiplexedWatches() && config.getNamespaces().size() > 1) {
+            namespaceGroups.add(config.getNamespaces());
+        } else {
+            for (String namespace : config.getNamespaces()) {
+                namespaceGroups.add(singleton(namespace));
+            }
+        }
+
         List<Future> futures = new ArrayList<>();
-        for (String namespace : config.getNamespaces()) {
+        List<Promise<String>> deployments = new ArrayList<>();
+        for (int i = 0; i < namespaceGroups.size(); i++) {
             Promise<String> prom = Promise.promise();
             futures.add(prom.future());
-            ClusterOperator operator = new ClusterOperator(namespace,
-                    config.getReconciliationIntervalMs(),
-                    client,
-                    kafkaClusterOperations,
-                    kafkaConnectClusterOperations,
-                    kafkaConnectS2IClusterOperations,
-                    kafkaMirrorMakerAssemblyOperator,
-                    kafkaMirrorMaker2AssemblyOperator,
-                    kafkaBridgeAssemblyOperator);
-            vertx.deployVerticle(operator,
-                res -> {
-                    if (res.succeeded()) {
-                        log.info("Cluster Operator verticle started in namespace {}", namespace);
-                    } else {
-                        log.error("Cluster Operator verticle in namespace {} failed to start", namespace, res.cause());
-                        System.exit(1);
-                    }
-                    prom.handle(res);
-                });
+            deployments.add(prom);
         }
+
+        sharding.setHandler(shard -> {
+            if (shard.failed()) {
+                log.error("Failed to acquire the sharding lease", shard.cause());
+                System.exit(1);
+            }
+
+            for (int i = 0; i < namespaceGroups.size(); i++) {
+                Set<String> namespaces = namespaceGroups.get(i);
+                Promise<String> prom = deployments.get(i);
+                ClusterOperator operator = new ClusterOperator(namespaces,
+                        config.getReconciliationIntervalMs(),
+                        client,
+                        kafkaClusterOperations,
+                        kafkaConnectClusterOperations,
+                        kafkaConnectS2IClusterOperations,
+                        kafkaMirrorMakerAssemblyOperator,
+                        kafkaMirrorMaker2AssemblyOperator,
+                        kafkaBridgeAssemblyOperator);
+                clusterOperators.add(operator);
+                vertx.deployVerticle(operator,
+                    res -> {
+                        if (res.succeeded()) {
+                            log.info("Cluster Operator verticle started in namespaces {}", namespaces);
+                        } else {
+                            log.error("Cluster Operator verticle in namespaces {} failed to start", namespaces, res.cause());
+                            System.exit(1);
+                        }
+                        prom.handle(res);
+                    });
+            }
+        });
         return CompositeFuture.join(futures);
     }
 
@@ -0,0 +1,456 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import io.strimzi.operator.common.Annotations;
+import io.strimzi.operator.common.ConsistentHashRing;
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.ResourceOwnership;
+import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.NamespaceAndName;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Splits the custom resources between several replicas of the Cluster Operator.
+ * Each replica holds its own {@code Lease} in the sharding namespace and renews it periodically.
+ * The replicas with a valid lease form a {@link ConsistentHashRing} and each custom resource is reconciled only by
+ * the replica which owns it on the ring. When a replica joins or leaves, the resources are rebalanced and the
+ * {@code onMembershipChange} callback is called so that the newly owned resources can be reconciled.
+ *
+ * The replicas learn about the membership changes only when they renew their own leases, so for a while the previous
+ * and the new owner of a resource might both consider themselves its owner. To make sure that a resource is never
+ * reconciled by two replicas at the same time, each replica publishes in its lease the members of its ring and the
+ * resources it is currently reconciling. A resource is taken over by its new owner only once no other live replica
+ * claims it on its ring and its previous owner finished its reconciliation in progress. The previous owner
+ * {@linkplain Reconciliation#cancel() cancels} its reconciliations of the resources it lost, so they stop at the next
+ * step, but a replica which is not responding anymore is waited for at most for the handoff timeout. The handoff
+ * timeout is the lease duration plus twice the operation timeout, so that the step in progress when the
+ * reconciliation was cancelled can finish.
+ *
+ * The replicas compare only the times measured by their own clocks: a replica is considered live until one lease
+ * duration after it was last seen renewing its lease. So the clock skew between the replicas does not matter.
+ */
+public class ShardManager implements ResourceOwnership {
+    private static final Logger log = LogManager.getLogger(ShardManager.class.getName());
+
+    /* test */ static final String LEASE_NAME_PREFIX = "strimzi-cluster-operator-shard-";
+    /* test */ static final Map<String, String> LEASE_LABELS = singletonMap(Labels.STRIMZI_KIND_LABEL, "cluster-operator-shard");
+    /* test */ static final String ANNO_MEMBERS = Annotations.STRIMZI_DOMAIN + "shard-members";
+    /* test */ static final String ANNO_IN_PROGRESS = Annotations.STRIMZI_DOMAIN + "shard-in-progress";
+    private static final DateTimeFormatter MICRO_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'").withZone(ZoneOffset.UTC);
+
+    // The fabric8 client does not have a model for the coordination.k8s.io API => we use the raw API
+    private static final CustomResourceDefinitionContext LEASES = new CustomResourceDefinitionContext.Builder()
+            .withName("leases.coordination.k8s.io")
+            .withGroup("coordination.k8s.io")
+            .withVersion("v1")
+            .withPlural("leases")
+            .withScope("Namespaced")
+            .build();
+
+    private final Vertx vertx;
+    private final KubernetesClient client;
+    private final String namespace;
+    private final String identity;
+    private final long leaseDurationMs;
+    private final long handoffTimeoutMs;
+    private final Runnable onMembershipChange;
+
+    private volatile ConsistentHashRing ring;
+    // The leases of the other replicas as last seen by this replica
+    private volatile Map<String, Peer> peers = emptyMap();
+    private volatile long lastRenewalMs = 0;
+    // The reconciliations in progress by resource, guarded by this
+    private final Map<String, List<Reconciliation>> inProgress = new HashMap<>();
+    // The resources owned on the ring which were not reconciled because another replica still claimed them
+    private final Set<String> blocked = ConcurrentHashMap.newKeySet();
+    private long renewalTimer = -1;
+
+    /**
+     * @param vertx The Vertx instance
+     * @param client The Kubernetes client
+     * @param namespace The namespace where the leases are stored
+     * @param leaseDurationMs The duration of the lease in milliseconds. The lease is renewed 3 times per duration.
+     * @param operationTimeoutMs The operation timeout in milliseconds, used to bound the handoff
+     * @param onMembershipChange Called when replicas join or leave and when the handoff of resources finished
+     */
+    public ShardManager(Vertx vertx, KubernetesClient client, String namespace, long leaseDurationMs, long operationTimeoutMs, Runnable onMembershipChange) {
+        this(vertx, client, namespace, identity(), leaseDurationMs, operationTimeoutMs, onMembershipChange);
+    }
+
+    /* test */ ShardManager(Vertx vertx, KubernetesClient client, String namespace, String identity, long leaseDurationMs, long operationTimeoutMs, Runnable onMembershipChange) {
+        this.vertx = vertx;
+        this.client = client;
+        this.namespace = namespace;
+        this.identity = identity;
+        this.leaseDurationMs = leaseDurationMs;
+        this.handoffTimeoutMs = leaseDurationMs + 2 * operationTimeoutMs;
+        this.onMembershipChange = onMembershipChange;
+        this.ring = new ConsistentHashRing(singleton(identity));
+    }
+
+    private static String identity() {
+        String hostname = System.getenv("HOSTNAME");
+        return hostname != null && !hostname.isEmpty() ? hostname : UUID.randomUUID().toString();
+    }
+
+    /**
+     * Acquires the lease of this replica and starts renewing it periodically.
+     *
+     * @return Future which completes when the lease was acquired for the first time
+     */
+    public Future<Void> start() {
+        log.info("Starting sharding with identity {} in namespace {}", identity, namespace);
+
+        return renew().map(ignored -> {
+            renewalTimer = vertx.setPeriodic(Math.max(1, leaseDurationMs / 3), timer -> renew());
+            return null;
+        });
+    }
+
+    /**
+     * Stops renewing the lease, cancels the reconciliations in progress and deletes the lease so that the other
+     * replicas take over the resources without waiting for the lease to expire.
+     */
+    public void stop() {
+        if (renewalTimer != -1) {
+            vertx.cancelTimer(renewalTimer);
+        }
+
+        lastRenewalMs = 0;
+        cancelLostReconciliations();
+
+        try {
+            client.customResource(LEASES).delete(namespace, leaseName());
+        } catch (KubernetesClientException e) {
+            log.warn("Failed to delete lease {}", leaseName(), e);
+        }
+    }
+
+    @Override
+    public boolean isOwned(NamespaceAndName resource) {
+        String key = key(resource);
+
+        if (!isRingOwner(key)) {
+            return false;
+        }
+
+        if (isClaimedByPeer(key, System.currentTimeMillis())) {
+            blocked.add(key);
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public synchronized boolean acquire(Reconciliation reconciliation) {
+        if (!isOwned(new NamespaceAndName(reconciliation.namespace(), reconciliation.name()))) {
+            return false;
+        }
+
+        inProgress.computeIfAbsent(key(reconciliation), k -> new ArrayList<>()).add(reconciliation);
+        return true;
+    }
+
+    @Override
+    public synchronized void release(Reconciliation reconciliation) {
+        String key = key(reconciliation);
+        List<Reconciliation> reconciliations = inProgress.get(key);
+
+        if (reconciliations != null) {
+            reconciliations.remove(reconciliation);
+            if (reconciliations.isEmpty()) {
+                inProgress.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return  The identity of this replica
+     */
+    public String getIdentity() {
+        return identity;
+    }
+
+    private String leaseName() {
+        return LEASE_NAME_PREFIX + identity;
+    }
+
+    private static String key(NamespaceAndName resource) {
+        return resource.getNamespace() + "/" + resource.getName();
+    }
+
+    private static String key(Reconciliation reconciliation) {
+        return reconciliation.namespace() + "/" + reconciliation.name();
+    }
+
+    /**
+     * @param key The key of the resource
+     *
+     * @return  True if the resource is assigned to this replica by its ring and its own lease did not expire
+     */
+    private boolean isRingOwner(String key) {
+        // Our lease might have expired and the other replicas might have taken over
+        return System.currentTimeMillis() - lastRenewalMs <= leaseDurationMs
+                && identity.equals(ring.owner(key));
+    }
+
+    /**
+     * @param key The key of the resource
+     * @param nowMs The current time in milliseconds
+     *
+     * @return  True if another replica still considers itself the owner of the resource or did not finish
+     *          its reconciliation yet
+     */
+    private boolean isClaimedByPeer(String key, long nowMs) {
+        for (Peer peer : peers.values()) {
+            if (peer.isLive(nowMs) && peer.identity.equals(peer.ring.owner(key))) {
+                // The peer did not notice the membership change yet
+                return true;
+            }
+
+            Long inProgressSinceMs = peer.inProgressSinceMs.get(key);
+            if (inProgressSinceMs != null && nowMs - inProgressSinceMs <= handoffTimeoutMs) {
+                // The previous owner is still reconciling the resource
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /* test */ Future<Void> renew() {
+        cancelLostReconciliations();
+
+        long renewalStartMs = System.currentTimeMillis();
+        Map<String, Object> lease = lease(renewalStartMs);
+
+        return Util.async(vertx, () -> {
+            try {
+                client.customResource(LEASES).createOrReplace(namespace, lease);
+            } catch (IOException e) {
+                throw new KubernetesClientException("Failed to renew lease " + leaseName(), e);
+            }
+
+            return client.customResource(LEASES).list(namespace, LEASE_LABELS);
+        }).map(leaseList -> {
+            long nowMs = System.currentTimeMillis();
+            lastRenewalMs = renewalStartMs;
+
+            Map<String, Peer> observed = observePeers(leaseList, peers, nowMs);
+            observed.remove(identity);
+            peers = observed;
+
+            Set<String> members = new TreeSet<>();
+            members.add(identity);
+            for (Peer peer : observed.values()) {
+                if (peer.isLive(nowMs)) {
+                    members.add(peer.identity);
+                }
+            }
+
+            boolean membershipChanged = updateRing(members);
+            cancelLostReconciliations();
+
+            if (membershipChanged) {
+                onMembershipChange.run();
+            } else if (unblock(nowMs)) {
+                log.info("Handoff of resources to Cluster Operator replica {} finished", identity);
+                onMembershipChange.run();
+            }
+
+            return (Void) null;
+        }).recover(error -> {
+            log.warn("Failed to renew lease {}", leaseName(), error);
+            return Future.failedFuture(error);
+        });
+    }
+
+    private synchronized boolean updateRing(Set<String> members) {
+        if (members.equals(ring.members())) {
+            return false;
+        }
+
+        log.info("Cluster Operator replicas changed from {} to {}", ring.members(), members);
+        ring = new ConsistentHashRing(members);
+        return true;
+    }
+
+    /**
+     * Cancels the reconciliations in progress of the resources which this replica does not own on its ring anymore,
+     * either because they moved to another replica or because its own lease expired.
+     */
+    private synchronized void cancelLostReconciliations() {
+        for (Map.Entry<String, List<Reconciliation>> entry : inProgress.entrySet()) {
+            if (!isRingOwner(entry.getKey())) {
+                for (Reconciliation reconciliation : entry.getValue()) {
+                    if (!reconciliation.isCancelled()) {
+                        log.info("{}: Resource is not owned by Cluster Operator replica {} anymore, cancelling", reconciliation, identity);
+                        reconciliation.cancel();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the blocked resources which were handed over to this replica or which are not owned by it anymore.
+     *
+     * @param nowMs The current time in milliseconds
+     *
+     * @return  True if any of the blocked resources was handed over to this replica
+     */
+    private boolean unblock(long nowMs) {
+        boolean handedOver = false;
+
+        for (Iterator<String> iterator = blocked.iterator(); iterator.hasNext(); ) {
+            String key = iterator.next();
+
+            if (!isRingOwner(key)) {
+                iterator.remove();
+            } else if (!isClaimedByPeer(key, nowMs)) {
+                iterator.remove();
+                handedOver = true;
+            }
+        }
+
+        return handedOver;
+    }
+
+    private synchronized Map<String, Object> lease(long renewTimeMs) {
+        Map<String, String> annotations = new HashMap<>();
+        annotations.put(ANNO_MEMBERS, String.join(",", ring.members()));
+        annotations.put(ANNO_IN_PROGRESS, String.join(",", new TreeSet<>(inProgress.keySet())));
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("name", leaseName());
+        metadata.put("namespace", namespace);
+        metadata.put("labels", LEASE_LABELS);
+        metadata.put("annotations", annotations);
+
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("holderIdentity", identity);
+        spec.put("leaseDurationSeconds", (int) Math.max(1, leaseDurationMs / 1_000));
+        spec.put("renewTime", MICRO_TIME.format(Instant.ofEpochMilli(renewTimeMs)));
+
+        Map<String, Object> lease = new HashMap<>();
+        lease.put("apiVersion", "coordination.k8s.io/v1");
+        lease.put("kind", "Lease");
+        lease.put("metadata", metadata);
+        lease.put("spec", spec);
+        return lease;
+    }
+
+    /**
+     * The lease of another replica as seen by this replica. The times are measured by the clock of this replica.
+     */
+    /* test */ static class Peer {
+        final String identity;
+        final String renewTime;
+        final long durationMs;
+        final long observedAtMs;
+        final ConsistentHashRing ring;
+        final Map<String, Long> inProgressSinceMs;
+
+        Peer(String identity, String renewTime, long durationMs, long observedAtMs, Set<String> members, Map<String, Long> inProgressSinceMs) {
+            this.identity = identity;
+            this.renewTime = renewTime;
+            this.durationMs = durationMs;
+            this.observedAtMs = observedAtMs;
+            this.ring = new ConsistentHashRing(members);
+            this.inProgressSinceMs = inProgressSinceMs;
+        }
+
+        /**
+         * @param nowMs The current time in milliseconds
+         *
+         * @return  True if the lease was seen renewed within its duration
+         */
+        boolean isLive(long nowMs) {
+            return nowMs - observedAtMs <= durationMs;
+        }
+    }
+
+    /**
+     * Reads the leases of the replicas. The renewal of a lease is detected by the change of its {@code renewTime} and
+     * is timed by the local clock, so the {@code renewTime} written by the other replica is never compared to the
+     * local time.
+     *
+     * @param leaseList The list of leases as returned by the raw Kubernetes API
+     * @param previous The leases seen by the previous renewal
+     * @param nowMs The current time in milliseconds
+     *
+     * @return  The leases by the identities of their holders
+     */
+    @SuppressWarnings("unchecked")
+    /* test */ static Map<String, Peer> observePeers(Map<String, Object> leaseList, Map<String, Peer> previous, long nowMs) {
+        Map<String, Peer> observed = new HashMap<>();
+        List<Map<String, Object>> items = (List<Map<String, Object>>) leaseList.get("items");
+
+        if (items != null) {
+            for (Map<String, Object> lease : items) {
+                Map<String, Object> spec = (Map<String, Object>) lease.get("spec");
+                if (spec == null || spec.get("holderIdentity") == null || spec.get("renewTime") == null) {
+                    continue;
+                }
+
+                String holder = String.valueOf(spec.get("holderIdentity"));
+                String renewTime = String.valueOf(spec.get("renewTime"));
+                Object duration = spec.get("leaseDurationSeconds");
+                long durationMs = duration instanceof Number ? ((Number) duration).longValue() * 1_000 : 0;
+
+                Map<String, Object> metadata = (Map<String, Object>) lease.get("metadata");
+                Map<String, String> annotations = metadata != null && metadata.get("annotations") != null
+                        ? (Map<String, String>) metadata.get("annotations") : emptyMap();
+
+                Peer last = previous.get(holder);
+                long observedAtMs = last != null && last.renewTime.equals(renewTime) ? last.observedAtMs : nowMs;
+
+                Map<String, Long> inProgressSinceMs = new HashMap<>();
+                for (String key : split(annotations.get(ANNO_IN_PROGRESS))) {
+                    Long sinceMs = last != null ? last.inProgressSinceMs.get(key) : null;
+                    inProgressSinceMs.put(key, sinceMs != null ? sinceMs : nowMs);
+                }
+
+                observed.put(holder, new Peer(holder, renewTime, durationMs, observedAtMs,
+                        split(annotations.get(ANNO_MEMBERS)), inProgressSinceMs));
+            }
+        }
+
+        return observed;
+    }
+
+    private static Set<String> split(String value) {
+        return value == null || value.isEmpty() ? emptySet() : new TreeSet<>(Arrays.asList(value.split(",")));
+    }
+}
@@ -70,10 +70,12 @@ import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public abstract class AbstractModel {
@@ -87,6 +89,9 @@ public abstract class AbstractModel {
 
     private static final Long DEFAULT_FS_GROUPID = 0L;
 
+    // Default logging properties read from the classpath, keyed by the file name
+    private static final Map<String, Map<String, String>> DEFAULT_PROPERTIES = new ConcurrentHashMap<>();
+
     public static final String ANCILLARY_CM_KEY_METRICS = "metrics-config.yml";
     public static final String ANCILLARY_CM_KEY_LOG_CONFIG = "log4j.properties";
     public static final String ENV_VAR_DYNAMIC_HEAP_FRACTION = "DYNAMIC_HEAP_FRACTION";
@@ -311,30 +316,38 @@ public abstract class AbstractModel {
     }
 
     /**
+     * The default logging properties are read from the classpath only once and then cached.
+     *
      * @param configFileName The filename
-     * @return The OrderedProperties
+     * @return The OrderedProperties. The caller can modify them.
      */
     public static OrderedProperties getOrderedProperties(String configFileName) {
         OrderedProperties properties = new OrderedProperties();
         if (configFileName != null && !configFileName.isEmpty()) {
-            InputStream is = AbstractModel.class.getResourceAsStream("/" + configFileName);
-            if (is == null) {
-                log.warn("Cannot find resource '{}'", configFileName);
-            } else {
+            properties.addMapPairs(DEFAULT_PROPERTIES.computeIfAbsent(configFileName, AbstractModel::readOrderedProperties));
+        }
+        return properties;
+    }
+
+    private static Map<String, String> readOrderedProperties(String configFileName) {
+        OrderedProperties properties = new OrderedProperties();
+        InputStream is = AbstractModel.class.getResourceAsStream("/" + configFileName);
+        if (is == null) {
+            log.warn("Cannot find resource '{}'", configFileName);
+        } else {
+            try {
+                properties.addStringPairs(is);
+            } catch (IOException e) {
+                log.warn("Unable to read default log config from '{}'", configFileName);
+            } finally {
                 try {
-                    properties.addStringPairs(is);
+                    is.close();
                 } catch (IOException e) {
-                    log.warn("Unable to read default log config from '{}'", configFileName);
-                } finally {
-                    try {
-                        is.close();
-                    } catch (IOException e) {
-                        log.error("Failed to close stream. Reason: " + e.getMessage());
-                    }
+                    log.error("Failed to close stream. Reason: " + e.getMessage());
                 }
             }
         }
-        return properties;
+        return Collections.unmodifiableMap(new LinkedHashMap<>(properties.asMap()));
     }
 
     /**
@@ -393,6 +393,7 @@ public class KafkaBridgeCluster extends AbstractModel {
 
         if (tracing != null) {
             varList.add(buildEnvVar(ENV_VAR_STRIMZI_TRACING, tracing.getType()));
+            varList.addAll(ModelUtils.jaegerTracingEnvVars(tracing));
         }
 
         addContainerEnvsToExistingEnvs(varList, templateContainerEnvVars);
@@ -101,12 +101,15 @@ import io.vertx.core.json.JsonObject;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
@@ -123,6 +126,7 @@ public class KafkaCluster extends AbstractModel {
 
     public static final String ENV_VAR_KAFKA_ZOOKEEPER_CONNECT = "KAFKA_ZOOKEEPER_CONNECT";
     private static final String ENV_VAR_KAFKA_METRICS_ENABLED = "KAFKA_METRICS_ENABLED";
+    protected static final String ENV_VAR_KAFKA_EXEC_PROBES_ENABLED = "KAFKA_EXEC_PROBES_ENABLED";
 
     // OAUTH ENV VARS
     protected static final String ENV_VAR_STRIMZI_PLAIN_9092_OAUTH_CLIENT_SECRET = "STRIMZI_PLAIN_9092_OAUTH_CLIENT_SECRET";
@@ -144,6 +148,21 @@ public class KafkaCluster extends AbstractModel {
     protected static final int EXTERNAL_PORT = 9094;
     protected static final String EXTERNAL_PORT_NAME = "tcp-external";
 
+    /**
+     * Port of the kafka-agent which serves the liveness and readiness of the broker, passed to the agent by kafka_run.sh
+     */
+    public static final int HEALTHCHECK_PORT = 8080;
+    protected static final String HEALTHCHECK_PORT_NAME = "healthcheck";
+    protected static final String HEALTHCHECK_LIVENESS_PATH = "/v1/live";
+    protected static final String HEALTHCHECK_READINESS_PATH = "/v1/ready";
+
+    /**
+     * Probes testing the files created by the kafka-agent, which are used with custom images whose kafka-agent may not
+     * serve the health over HTTP
+     */
+    protected static final List<String> EXEC_LIVENESS_COMMAND = Collections.singletonList("/opt/kafka/kafka_liveness.sh");
+    protected static final List<String> EXEC_READINESS_COMMAND = Arrays.asList("test", "-f", "/var/opt/kafka/kafka-ready");
+
     protected static final int ROUTE_PORT = 443;
     protected static final String ROUTE_PORT_NAME = "route";
 
@@ -188,6 +207,11 @@ public class KafkaCluster extends AbstractModel {
      */
     public static final String ANNO_STRIMZI_BROKER_CONFIGURATION_HASH = Annotations.STRIMZI_DOMAIN + "broker-configuration-hash";
 
+    /**
+     * Records the IDs of the volumes added to the JBOD storage to which the partition replicas were not moved yet
+     */
+    public static final String ANNO_STRIMZI_IO_PENDING_LOG_DIR_VOLUMES = Annotations.STRIMZI_DOMAIN + "pending-log-dir-volumes";
+
     public static final String ANNO_STRIMZI_CUSTOM_CERT_THUMBPRINT_TLS_LISTENER = Annotations.STRIMZI_DOMAIN + "custom-cert-tls-listener-thumbprint";
     public static final String ANNO_STRIMZI_CUSTOM_CERT_THUMBPRINT_EXTERNAL_LISTENER = Annotations.STRIMZI_DOMAIN + "custom-cert-external-listener-thumbprint";
 
@@ -245,6 +269,17 @@ public class KafkaCluster extends AbstractModel {
      */
     private Map<String, CertAndKey> brokerCerts;
 
+    /**
+     * The broker configuration depends only on the model, so it is generated only once per model.
+     * It is reset by every setter of the fields it is generated from.
+     */
+    private String brokerConfiguration;
+
+    /**
+     * Whether the probes test the files created by the kafka-agent instead of using its HTTP endpoint
+     */
+    private boolean execProbes;
+
     /**
      * Lists with volumes, persistent volume claims and related volume mount paths for the storage
      */
@@ -315,6 +350,72 @@ public class KafkaCluster extends AbstractModel {
                 namespace);
     }
 
+    /**
+     * Returns the log directory of a broker on one of the data volumes, as configured in the log.dirs option of the
+     * broker (see {@link KafkaBrokerConfigurationBuilder#withLogDirs(List)}).
+     *
+     * @param volumeId  The ID of the volume, null for storage without ID
+     * @param brokerId  The ID of the broker
+     *
+     * @return The path of the log directory
+     */
+    public String logDir(Integer volumeId, int brokerId) {
+        return logDir(VolumeUtils.getDataVolumeMountPath(mountPath, volumeId), String.valueOf(brokerId));
+    }
+
+    /**
+     * Returns the log directory of a broker on a data volume
+     *
+     * @param volumeMountPath   The path where the data volume is mounted
+     * @param brokerId          The ID of the broker, or a placeholder substituted by the broker ID
+     *
+     * @return The path of the log directory
+     */
+    static String logDir(String volumeMountPath, String brokerId) {
+        return volumeMountPath + "/kafka-log" + brokerId;
+    }
+
+    /**
+     * Returns the IDs of the volumes added to the JBOD storage to which the partition replicas still have to be moved.
+     * These are the volumes recorded as pending in the StatefulSet together with the volumes added now, without the
+     * volumes which were removed in the meantime.
+     *
+     * @param pendingVolumes    The value of the {@code strimzi.io/pending-log-dir-volumes} annotation of the current
+     *                          StatefulSet, or null
+     * @param oldStorage        The storage of the current StatefulSet, or null
+     * @param storage           The desired storage
+     *
+     * @return The IDs of the volumes
+     */
+    public static Set<Integer> pendingLogDirVolumes(String pendingVolumes, Storage oldStorage, Storage storage) {
+        if (!(storage instanceof JbodStorage)) {
+            return Collections.emptySet();
+        }
+
+        Set<Integer> pending = new TreeSet<>();
+        if (pendingVolumes != null) {
+            for (String volumeId : pendingVolumes.split(",")) {
+                try {
+                    pending.add(Integer.valueOf(volumeId.trim()));
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring invalid volume ID '{}' in the {} annotation", volumeId, ANNO_STRIMZI_IO_PENDING_LOG_DIR_VOLUMES);
+                }
+            }
+        }
+
+        if (oldStorage != null) {
+            pending.addAll(new StorageDiff(oldStorage, storage).addedVolumes());
+        }
+
+        Set<Integer> volumeIds = new HashSet<>();
+        for (SingleVolumeStorage volume : ((JbodStorage) storage).getVolumes()) {
+            volumeIds.add(volume.getId());
+        }
+        pending.retainAll(volumeIds);
+
+        return pending;
+    }
+
     /**
      * Generates the name of the service used as bootstrap service for external clients.
      *
@@ -408,6 +509,8 @@ public class KafkaCluster extends AbstractModel {
         validateIntConfigProperty("transaction.state.log.min.isr", kafkaClusterSpec);
 
         result.setImage(versions.kafkaImage(kafkaClusterSpec.getImage(), kafkaClusterSpec.getVersion()));
+        // Only the images supplied with the operator are known to serve the health over HTTP
+        result.execProbes = kafkaClusterSpec.getImage() != null;
 
         if (kafkaClusterSpec.getReadinessProbe() != null) {
             result.setReadinessProbe(kafkaClusterSpec.getReadinessProbe());
@@ -1287,6 +1390,20 @@ public class KafkaCluster extends AbstractModel {
      * @return The generated Secret
      */
     public Secret generateBrokersSecret() {
+        return generateBrokersSecret(brokerCerts);
+    }
+
+    /**
+     * Generate the Secret containing the Kafka brokers certificates signed by the cluster CA certificate used for TLS
+     * based encryption and authentication. Unlike {@link #generateBrokersSecret()}, the certificates are not stored
+     * in the model, so this can be used with a model shared between reconciliations.
+     *
+     * @param brokerCerts The certificates of the brokers as generated by
+     *                    {@link ClusterCa#generateBrokerCerts(Kafka, Set, Map, boolean)}
+     *
+     * @return The generated Secret
+     */
+    public Secret generateBrokersSecret(Map<String, CertAndKey> brokerCerts) {
 
         Map<String, String> data = new HashMap<>();
         for (int i = 0; i < replicas; i++) {
@@ -1316,8 +1433,9 @@ public class KafkaCluster extends AbstractModel {
     }
 
     private List<ContainerPort> getContainerPortList() {
-        List<ContainerPort> portList = new ArrayList<>(5);
+        List<ContainerPort> portList = new ArrayList<>(6);
         portList.add(createContainerPort(REPLICATION_PORT_NAME, REPLICATION_PORT, "TCP"));
+        portList.add(createContainerPort(HEALTHCHECK_PORT_NAME, HEALTHCHECK_PORT, "TCP"));
 
         if (listeners != null && listeners.getPlain() != null) {
             portList.add(createContainerPort(CLIENT_PORT_NAME, CLIENT_PORT, "TCP"));
@@ -1671,15 +1789,12 @@ public class KafkaCluster extends AbstractModel {
                 .withEnv(getEnvVars())
                 .withVolumeMounts(getVolumeMounts())
                 .withPorts(getContainerPortList())
-                .withLivenessProbe(ModelUtils.newProbeBuilder(livenessProbeOptions)
-                        .withNewExec()
-                            .withCommand("/opt/kafka/kafka_liveness.sh")
-                        .endExec().build())
-                .withReadinessProbe(ModelUtils.newProbeBuilder(readinessProbeOptions)
-                        .withNewExec()
-                            // The kafka-agent will create /var/opt/kafka/kafka-ready in the container
-                            .withCommand("test", "-f", "/var/opt/kafka/kafka-ready")
-                        .endExec().build())
+                .withLivenessProbe(execProbes
+                        ? ModelUtils.createExecProbe(EXEC_LIVENESS_COMMAND, livenessProbeOptions)
+                        : ModelUtils.createHttpProbe(HEALTHCHECK_LIVENESS_PATH, HEALTHCHECK_PORT_NAME, livenessProbeOptions))
+                .withReadinessProbe(execProbes
+                        ? ModelUtils.createExecProbe(EXEC_READINESS_COMMAND, readinessProbeOptions)
+                        : ModelUtils.createHttpProbe(HEALTHCHECK_READINESS_PATH, HEALTHCHECK_PORT_NAME, readinessProbeOptions))
                 .withResources(getResources())
                 .withImagePullPolicy(determineImagePullPolicy(imagePullPolicy, getImage()))
                 .withCommand("/opt/kafka/kafka_run.sh")
@@ -1725,6 +1840,9 @@ public class KafkaCluster extends AbstractModel {
         if (javaSystemProperties != null) {
             varList.add(buildEnvVar(ENV_VAR_STRIMZI_JAVA_SYSTEM_PROPERTIES, ModelUtils.getJavaSystemPropertiesToString(javaSystemProperties)));
         }
+        if (execProbes) {
+            varList.add(buildEnvVar(ENV_VAR_KAFKA_EXEC_PROBES_ENABLED, "true"));
+        }
 
         heapOptions(varList, 0.5, 5L * 1024L * 1024L * 1024L);
         jvmPerformanceOptions(varList);
@@ -1855,10 +1973,24 @@ public class KafkaCluster extends AbstractModel {
 
     protected void setZookeeperConnect(String zookeeperConnect) {
         this.zookeeperConnect = zookeeperConnect;
+        this.brokerConfiguration = null;
     }
 
     protected void setRack(Rack rack) {
         this.rack = rack;
+        this.brokerConfiguration = null;
+    }
+
+    @Override
+    protected void setStorage(Storage storage) {
+        super.setStorage(storage);
+        this.brokerConfiguration = null;
+    }
+
+    @Override
+    protected void setConfiguration(AbstractConfiguration configuration) {
+        super.setConfiguration(configuration);
+        this.brokerConfiguration = null;
     }
 
     protected void setInitImage(String initImage) {
@@ -1943,7 +2075,7 @@ public class KafkaCluster extends AbstractModel {
      * @return The network policy.
      */
     public NetworkPolicy generateNetworkPolicy(boolean namespaceAndPodSelectorNetworkPolicySupported) {
-        List<NetworkPolicyIngressRule> rules = new ArrayList<>(5);
+        List<NetworkPolicyIngressRule> rules = new ArrayList<>(6);
 
         NetworkPolicyIngressRule replicationRule = new NetworkPolicyIngressRuleBuilder()
                 .addNewPort()
@@ -1990,6 +2122,25 @@ public class KafkaCluster extends AbstractModel {
 
         rules.add(replicationRule);
 
+        // The healthcheck port is queried by the Cluster Operator when rolling the brokers
+        NetworkPolicyIngressRule healthcheckRule = new NetworkPolicyIngressRuleBuilder()
+                .addNewPort()
+                    .withNewPort(HEALTHCHECK_PORT)
+                .endPort()
+                .build();
+
+        if (namespaceAndPodSelectorNetworkPolicySupported) {
+            healthcheckRule.setFrom(Collections.singletonList(new NetworkPolicyPeerBuilder()
+                    .withNewPodSelector() // cluster operator
+                        .addToMatchLabels(Labels.STRIMZI_KIND_LABEL, "cluster-operator")
+                    .endPodSelector()
+                    .withNewNamespaceSelector()
+                    .endNamespaceSelector()
+                    .build()));
+        }
+
+        rules.add(healthcheckRule);
+
         // Free access to 9092, 9093 and 9094 ports
         if (listeners != null) {
             if (listeners.getPlain() != null) {
@@ -2088,6 +2239,7 @@ public class KafkaCluster extends AbstractModel {
      */
     public void setListeners(KafkaListeners listeners) {
         this.listeners = listeners;
+        this.brokerConfiguration = null;
     }
 
     /**
@@ -2120,6 +2272,7 @@ public class KafkaCluster extends AbstractModel {
      */
     public void setAuthorization(KafkaAuthorization authorization) {
         this.authorization = authorization;
+        this.brokerConfiguration = null;
     }
 
     /**
@@ -2398,6 +2551,14 @@ public class KafkaCluster extends AbstractModel {
     }
 
     private String generateBrokerConfiguration()   {
+        if (brokerConfiguration == null) {
+            brokerConfiguration = buildBrokerConfiguration();
+        }
+
+        return brokerConfiguration;
+    }
+
+    private String buildBrokerConfiguration()   {
         return new KafkaBrokerConfigurationBuilder()
                 .withBrokerId()
                 .withRackId(rack)
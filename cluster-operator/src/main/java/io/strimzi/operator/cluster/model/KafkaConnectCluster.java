@@ -481,6 +481,7 @@ public class KafkaConnectCluster extends AbstractModel {
 
         if (tracing != null) {
             varList.add(buildEnvVar(ENV_VAR_STRIMZI_TRACING, tracing.getType()));
+            varList.addAll(ModelUtils.jaegerTracingEnvVars(tracing));
         }
 
         varList.addAll(getExternalConfigurationEnvVars());
@@ -34,6 +34,7 @@ import io.strimzi.api.kafka.model.tracing.Tracing;
 import io.strimzi.operator.common.model.Labels;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -58,6 +59,7 @@ public class KafkaMirrorMakerCluster extends AbstractModel {
     protected static final String ENV_VAR_PREFIX = "KAFKA_MIRRORMAKER_";
 
     protected static final String ENV_VAR_KAFKA_MIRRORMAKER_METRICS_ENABLED = "KAFKA_MIRRORMAKER_METRICS_ENABLED";
+    protected static final String ENV_VAR_KAFKA_MIRRORMAKER_EXEC_PROBES_ENABLED = "KAFKA_MIRRORMAKER_EXEC_PROBES_ENABLED";
     protected static final String ENV_VAR_KAFKA_MIRRORMAKER_BOOTSTRAP_SERVERS_CONSUMER = "KAFKA_MIRRORMAKER_BOOTSTRAP_SERVERS_CONSUMER";
     protected static final String ENV_VAR_KAFKA_MIRRORMAKER_TLS_CONSUMER = "KAFKA_MIRRORMAKER_TLS_CONSUMER";
     protected static final String ENV_VAR_KAFKA_MIRRORMAKER_TRUSTED_CERTS_CONSUMER = "KAFKA_MIRRORMAKER_TRUSTED_CERTS_CONSUMER";
@@ -96,6 +98,22 @@ public class KafkaMirrorMakerCluster extends AbstractModel {
     protected static final String ENV_VAR_STRIMZI_LIVENESS_PERIOD = "STRIMZI_LIVENESS_PERIOD";
     protected static final String ENV_VAR_STRIMZI_TRACING = "STRIMZI_TRACING";
 
+    /**
+     * Port of the mirror-maker-agent which serves the liveness and readiness, passed to the agent by
+     * kafka_mirror_maker_run.sh
+     */
+    protected static final int HEALTHCHECK_PORT = 8080;
+    protected static final String HEALTHCHECK_PORT_NAME = "healthcheck";
+    protected static final String HEALTHCHECK_LIVENESS_PATH = "/v1/live";
+    protected static final String HEALTHCHECK_READINESS_PATH = "/v1/ready";
+
+    /**
+     * Probes testing the files kept by the mirror-maker-agent, which are used with custom images whose
+     * mirror-maker-agent may not serve the health over HTTP
+     */
+    protected static final List<String> EXEC_LIVENESS_COMMAND = Collections.singletonList("/opt/kafka/kafka_mirror_maker_liveness.sh");
+    protected static final List<String> EXEC_READINESS_COMMAND = Arrays.asList("test", "-f", "/tmp/mirror-maker-ready");
+
     protected String whitelist;
     protected Tracing tracing;
 
@@ -103,6 +121,11 @@ public class KafkaMirrorMakerCluster extends AbstractModel {
     protected KafkaMirrorMakerConsumerSpec consumer;
     protected List<ContainerEnvVar> templateContainerEnvVars;
 
+    /**
+     * Whether the probes test the files kept by the mirror-maker-agent instead of using its HTTP endpoint
+     */
+    private boolean execProbes;
+
     /**
      * Constructor
      *
@@ -153,6 +176,8 @@ public class KafkaMirrorMakerCluster extends AbstractModel {
             kafkaMirrorMakerCluster.setConsumer(spec.getConsumer());
 
             kafkaMirrorMakerCluster.setImage(versions.kafkaMirrorMakerImage(spec.getImage(), spec.getVersion()));
+            // Only the images supplied with the operator are known to serve the health over HTTP
+            kafkaMirrorMakerCluster.execProbes = spec.getImage() != null;
 
             kafkaMirrorMakerCluster.setLogging(spec.getLogging());
             kafkaMirrorMakerCluster.setGcLoggingEnabled(spec.getJvmOptions() == null ? DEFAULT_JVM_GC_LOGGING_ENABLED : spec.getJvmOptions().isGcLoggingEnabled());
@@ -225,7 +250,8 @@ public class KafkaMirrorMakerCluster extends AbstractModel {
     }
 
     protected List<ContainerPort> getContainerPortList() {
-        List<ContainerPort> portList = new ArrayList<>(1);
+        List<ContainerPort> portList = new ArrayList<>(2);
+        portList.add(createContainerPort(HEALTHCHECK_PORT_NAME, HEALTHCHECK_PORT, "TCP"));
         if (isMetricsEnabled) {
             portList.add(createContainerPort(METRICS_PORT_NAME, METRICS_PORT, "TCP"));
         }
@@ -320,15 +346,12 @@ public class KafkaMirrorMakerCluster extends AbstractModel {
                 .withCommand("/opt/kafka/kafka_mirror_maker_run.sh")
                 .withEnv(getEnvVars())
                 .withPorts(getContainerPortList())
-                .withLivenessProbe(ModelUtils.newProbeBuilder(livenessProbeOptions)
-                        .withNewExec()
-                        .withCommand("/opt/kafka/kafka_mirror_maker_liveness.sh")
-                        .endExec().build())
-                .withReadinessProbe(ModelUtils.newProbeBuilder(readinessProbeOptions)
-                        .withNewExec()
-                        // The mirror-maker-agent will create /tmp/mirror-maker-ready in the container
-                        .withCommand("test", "-f", "/tmp/mirror-maker-ready")
-                        .endExec().build())
+                .withLivenessProbe(execProbes
+                        ? ModelUtils.createExecProbe(EXEC_LIVENESS_COMMAND, livenessProbeOptions)
+                        : ModelUtils.createHttpProbe(HEALTHCHECK_LIVENESS_PATH, HEALTHCHECK_PORT_NAME, livenessProbeOptions))
+                .withReadinessProbe(execProbes
+                        ? ModelUtils.createExecProbe(EXEC_READINESS_COMMAND, readinessProbeOptions)
+                        : ModelUtils.createHttpProbe(HEALTHCHECK_READINESS_PATH, HEALTHCHECK_PORT_NAME, readinessProbeOptions))
                 .withVolumeMounts(getVolumeMounts())
                 .withResources(getResources())
                 .withImagePullPolicy(determineImagePullPolicy(imagePullPolicy, getImage()))
@@ -387,6 +410,7 @@ public class KafkaMirrorMakerCluster extends AbstractModel {
 
         if (tracing != null) {
             varList.add(buildEnvVar(ENV_VAR_STRIMZI_TRACING, tracing.getType()));
+            varList.addAll(ModelUtils.jaegerTracingEnvVars(tracing));
         }
 
         heapOptions(varList, 1.0, 0L);
@@ -398,10 +422,14 @@ public class KafkaMirrorMakerCluster extends AbstractModel {
         /** producer */
         addProducerEnvVars(varList);
 
-        varList.add(buildEnvVar(ENV_VAR_STRIMZI_LIVENESS_PERIOD,
-                String.valueOf(livenessProbeOptions.getPeriodSeconds() != null ? livenessProbeOptions.getPeriodSeconds() : DEFAULT_HEALTHCHECK_PERIOD)));
-        varList.add(buildEnvVar(ENV_VAR_STRIMZI_READINESS_PERIOD,
-                String.valueOf(readinessProbeOptions.getPeriodSeconds() != null ? readinessProbeOptions.getPeriodSeconds() : DEFAULT_HEALTHCHECK_PERIOD)));
+        if (execProbes) {
+            varList.add(buildEnvVar(ENV_VAR_KAFKA_MIRRORMAKER_EXEC_PROBES_ENABLED, "true"));
+            // The older mirror-maker-agents keep the files at the pace of the probes
+            varList.add(buildEnvVar(ENV_VAR_STRIMZI_LIVENESS_PERIOD,
+                    String.valueOf(livenessProbeOptions.getPeriodSeconds() != null ? livenessProbeOptions.getPeriodSeconds() : DEFAULT_HEALTHCHECK_PERIOD)));
+            varList.add(buildEnvVar(ENV_VAR_STRIMZI_READINESS_PERIOD,
+                    String.valueOf(readinessProbeOptions.getPeriodSeconds() != null ? readinessProbeOptions.getPeriodSeconds() : DEFAULT_HEALTHCHECK_PERIOD)));
+        }
 
         addContainerEnvsToExistingEnvs(varList, templateContainerEnvVars);
 
@@ -0,0 +1,190 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the models generated from custom resources.
+ *
+ * The models are generated only from the spec, labels and annotations of the custom resource and from a few
+ * dependencies (e.g. the storage currently used by the StatefulSet). As long as the custom resource has the same
+ * uid and {@code metadata.generation}, the same labels and annotations and the dependencies did not change, the
+ * generated model is the same and it can be reused by the next reconciliation instead of being generated again.
+ *
+ * The cached models are shared by the reconciliations of the same custom resource, so they have to be treated as
+ * read-only. A reconciliation which needs a modified model (e.g. with a different image during an upgrade) has to
+ * generate its own model instead, and any state of a single reconciliation (e.g. the generated certificates) has to be
+ * kept outside of the model.
+ *
+ * The entries are invalidated as soon as the custom resource changes or when the custom resource is deleted. When
+ * the cache is full, the least recently used custom resource is evicted.
+ */
+public class ModelCache {
+    private static final Logger log = LogManager.getLogger(ModelCache.class.getName());
+
+    // Upper bound of the models cached per custom resource, protects against dependencies changing all the time
+    private static final int MAX_MODELS_PER_RESOURCE = 16;
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * @param maxResources The maximum number of custom resources whose models are cached
+     */
+    public ModelCache(int maxResources) {
+        if (maxResources <= 0) {
+            throw new IllegalArgumentException("The size of the cache has to be positive");
+        }
+
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxResources;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached model or generates it when it is not cached yet or when it is stale.
+     * Failures of the generation are not cached.
+     *
+     * @param resource The custom resource the model is generated from
+     * @param model The name of the model (e.g. the kind of the model class)
+     * @param generator Generates the model. It might return null when the model is not used by the custom resource.
+     * @param dependencies Other inputs of the generation (e.g. the current storage). They have to implement
+     *                     {@code equals} and {@code hashCode}.
+     * @param <T> The type of the model
+     *
+     * @return  The model
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(HasMetadata resource, String model, Supplier<T> generator, Object... dependencies) {
+        String key = key(resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+        Version version = new Version(resource.getMetadata());
+        List<Object> modelKey = new ArrayList<>(dependencies.length + 1);
+        modelKey.add(model);
+        modelKey.addAll(Arrays.asList(dependencies));
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version.equals(version)) {
+                Optional<?> cached = entry.models.get(modelKey);
+                if (cached != null) {
+                    log.trace("Using cached {} model of {}", model, key);
+                    return (T) cached.orElse(null);
+                }
+            }
+        }
+
+        T generated = generator.get();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null || !entry.version.equals(version)) {
+                entry = new Entry(version);
+                entries.put(key, entry);
+            }
+
+            entry.models.put(modelKey, Optional.ofNullable(generated));
+        }
+
+        return generated;
+    }
+
+    /**
+     * Removes all models of the custom resource. It should be called when the custom resource is deleted.
+     *
+     * @param namespace The namespace of the custom resource
+     * @param name The name of the custom resource
+     */
+    public void invalidate(String namespace, String name) {
+        synchronized (entries) {
+            entries.remove(key(namespace, name));
+        }
+    }
+
+    /**
+     * @return  The number of custom resources with cached models
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String key(String namespace, String name) {
+        return namespace + "/" + name;
+    }
+
+    /**
+     * The models cached for a single version of the custom resource.
+     */
+    private static final class Entry {
+        private final Version version;
+        private final Map<List<Object>, Optional<?>> models = new LinkedHashMap<List<Object>, Optional<?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Optional<?>> eldest) {
+                return size() > MAX_MODELS_PER_RESOURCE;
+            }
+        };
+
+        private Entry(Version version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * Identifies the version of the custom resource the models were generated from. Changes to the labels and
+     * annotations do not increase the generation, so they are part of the version as well.
+     */
+    private static final class Version {
+        private final String uid;
+        private final Long generation;
+        private final Map<String, String> labels;
+        private final Map<String, String> annotations;
+
+        private Version(ObjectMeta metadata) {
+            this.uid = metadata.getUid();
+            this.generation = metadata.getGeneration();
+            this.labels = metadata.getLabels() != null ? new HashMap<>(metadata.getLabels()) : null;
+            this.annotations = metadata.getAnnotations() != null ? new HashMap<>(metadata.getAnnotations()) : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Version version = (Version) o;
+            // Without uid or generation we cannot tell whether the resource changed
+            return uid != null && generation != null
+                    && uid.equals(version.uid)
+                    && generation.equals(version.generation)
+                    && Objects.equals(labels, version.labels)
+                    && Objects.equals(annotations, version.annotations);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uid, generation, labels, annotations);
+        }
+    }
+}
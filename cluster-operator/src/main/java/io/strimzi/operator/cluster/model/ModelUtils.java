@@ -24,6 +24,8 @@ import io.strimzi.api.kafka.model.TlsSidecar;
 import io.strimzi.api.kafka.model.TlsSidecarLogLevel;
 import io.strimzi.api.kafka.model.template.PodDisruptionBudgetTemplate;
 import io.strimzi.api.kafka.model.template.PodTemplate;
+import io.strimzi.api.kafka.model.tracing.JaegerTracing;
+import io.strimzi.api.kafka.model.tracing.Tracing;
 import io.strimzi.certs.CertAndKey;
 import io.strimzi.operator.cluster.KafkaUpgradeException;
 import io.strimzi.operator.common.Util;
@@ -56,6 +58,11 @@ public class ModelUtils {
 
     protected static final Logger log = LogManager.getLogger(ModelUtils.class.getName());
 
+    static final String ENV_VAR_JAEGER_SAMPLER_TYPE = "JAEGER_SAMPLER_TYPE";
+    static final String ENV_VAR_JAEGER_SAMPLER_PARAM = "JAEGER_SAMPLER_PARAM";
+    static final String ENV_VAR_JAEGER_REPORTER_MAX_QUEUE_SIZE = "JAEGER_REPORTER_MAX_QUEUE_SIZE";
+    static final String ENV_VAR_JAEGER_REPORTER_FLUSH_INTERVAL = "JAEGER_REPORTER_FLUSH_INTERVAL";
+
     public static final String KUBERNETES_SERVICE_DNS_DOMAIN =
             System.getenv().getOrDefault("KUBERNETES_SERVICE_DNS_DOMAIN", "cluster.local");
 
@@ -434,4 +441,32 @@ public class ModelUtils {
         }
         return String.join(" ", javaSystemPropertiesList);
     }
+
+    /**
+     * Returns the environment variables which configure the sampling and the reporting of the Jaeger tracer.
+     * Only the options set in the tracing configuration are returned, so that the defaults of the Jaeger client, or
+     * the variables set by the user through the container template, apply to the other options.
+     *
+     * @param tracing The tracing configuration
+     * @return The environment variables read by the Jaeger client
+     */
+    public static List<EnvVar> jaegerTracingEnvVars(Tracing tracing) {
+        List<EnvVar> varList = new ArrayList<>(4);
+        if (tracing instanceof JaegerTracing) {
+            JaegerTracing jaeger = (JaegerTracing) tracing;
+            if (jaeger.getSamplerType() != null) {
+                varList.add(AbstractModel.buildEnvVar(ENV_VAR_JAEGER_SAMPLER_TYPE, jaeger.getSamplerType().toValue()));
+            }
+            if (jaeger.getSamplerParam() != null) {
+                varList.add(AbstractModel.buildEnvVar(ENV_VAR_JAEGER_SAMPLER_PARAM, String.valueOf(jaeger.getSamplerParam())));
+            }
+            if (jaeger.getReporterMaxQueueSize() != null) {
+                varList.add(AbstractModel.buildEnvVar(ENV_VAR_JAEGER_REPORTER_MAX_QUEUE_SIZE, String.valueOf(jaeger.getReporterMaxQueueSize())));
+            }
+            if (jaeger.getReporterFlushInterval() != null) {
+                varList.add(AbstractModel.buildEnvVar(ENV_VAR_JAEGER_REPORTER_FLUSH_INTERVAL, String.valueOf(jaeger.getReporterFlushInterval())));
+            }
+        }
+        return varList;
+    }
 }
@@ -14,6 +14,7 @@ import io.strimzi.operator.common.operator.resource.AbstractResourceDiff;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -30,6 +31,7 @@ public class StorageDiff extends AbstractResourceDiff {
     private final boolean isEmpty;
     private final boolean changesType;
     private final boolean shrinkSize;
+    private final Set<Integer> addedVolumes;
 
     public StorageDiff(Storage current, Storage desired) {
         this(current, desired, "");
@@ -39,6 +41,7 @@ public class StorageDiff extends AbstractResourceDiff {
         boolean changesType = false;
         boolean shrinkSize = false;
         boolean isEmpty = true;
+        Set<Integer> addedVolumes = new HashSet<>();
 
         if (current instanceof JbodStorage && desired instanceof JbodStorage) {
             Set<Integer> volumeIds = new HashSet<>();
@@ -56,6 +59,10 @@ public class StorageDiff extends AbstractResourceDiff {
 
                 StorageDiff diff = new StorageDiff(currentVolume, desiredVolume, "(volume ID: " + volumeId + ") ");
 
+                if (currentVolume == null && desiredVolume != null) {
+                    addedVolumes.add(volumeId);
+                }
+
                 changesType |= diff.changesType();
                 shrinkSize |= diff.shrinkSize();
                 isEmpty &= diff.isEmpty();
@@ -107,6 +114,7 @@ public class StorageDiff extends AbstractResourceDiff {
         this.isEmpty = isEmpty;
         this.changesType = changesType;
         this.shrinkSize = shrinkSize;
+        this.addedVolumes = Collections.unmodifiableSet(addedVolumes);
     }
 
     /**
@@ -136,4 +144,13 @@ public class StorageDiff extends AbstractResourceDiff {
     public boolean shrinkSize() {
         return shrinkSize;
     }
+
+    /**
+     * Returns the IDs of the volumes added to the JBOD storage
+     *
+     * @return the IDs of the added volumes, empty when no volumes were added or the storage is not JBOD
+     */
+    public Set<Integer> addedVolumes() {
+        return addedVolumes;
+    }
 }
@@ -239,15 +239,24 @@ public class VolumeUtils {
                     throw new IllegalStateException("The declared storage '" + storage.getType() + "' is not supported");
                 }
 
-                String name = getVolumePrefix(id);
-                String namedMountPath = mountPath + "/" + name;
-                volumeMounts.add(createVolumeMount(name, namedMountPath));
+                volumeMounts.add(createVolumeMount(getVolumePrefix(id), getDataVolumeMountPath(mountPath, id)));
             }
         }
 
         return volumeMounts;
     }
 
+    /**
+     * Returns the path where a data volume is mounted
+     *
+     * @param mountPath The path under which the data volumes are mounted
+     * @param id identification number of the persistent storage
+     * @return The mount path of the volume.
+     */
+    public static String getDataVolumeMountPath(String mountPath, Integer id) {
+        return mountPath + "/" + getVolumePrefix(id);
+    }
+
     /**
      * Returns the prefix used for volumes and persistent volume claims
      *
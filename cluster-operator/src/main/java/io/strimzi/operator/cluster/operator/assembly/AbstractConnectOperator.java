@@ -44,9 +44,11 @@ import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
 import io.strimzi.operator.common.AbstractOperator;
 import io.strimzi.operator.common.Annotations;
 import io.strimzi.operator.common.BackOff;
+import io.strimzi.operator.common.ConcurrencyLimiter;
 import io.strimzi.operator.common.Reconciliation;
 import io.strimzi.operator.common.Util;
 import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.operator.resource.AbstractWatchableResourceOperator;
 import io.strimzi.operator.common.operator.resource.ConfigMapOperator;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.PodDisruptionBudgetOperator;
@@ -69,8 +71,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -93,6 +98,10 @@ public abstract class AbstractConnectOperator<C extends KubernetesClient, T exte
     protected final PlatformFeaturesAvailability pfa;
     protected final ServiceAccountOperator serviceAccountOperations;
     private final int port;
+    private final int maxConcurrentConnectorReconciliations;
+    private final long connectorEventsDebounceMs;
+    // Limits the number of connectors reconciled at the same time in each Connect cluster
+    private final Map<String, ConcurrencyLimiter> connectorLimiters = new ConcurrentHashMap<>();
 
     public AbstractConnectOperator(Vertx vertx, PlatformFeaturesAvailability pfa, String kind,
                                    CrdOperator<C, T, L, D> resourceOperator,
@@ -111,10 +120,14 @@ public abstract class AbstractConnectOperator<C extends KubernetesClient, T exte
         this.operationTimeoutMs = config.getOperationTimeoutMs();
         this.pfa = pfa;
         this.port = port;
+        this.maxConcurrentConnectorReconciliations = config.getMaxConcurrentConnectorReconciliations();
+        this.connectorEventsDebounceMs = config.getConnectorEventsDebounceMs();
     }
 
     @Override
     protected Future<Boolean> delete(Reconciliation reconciliation) {
+        connectorLimiters.remove(reconciliation.namespace() + "/" + reconciliation.name());
+
         // When deleting KafkaConnect we need to update the status of all selected KafkaConnector
         return connectorOperator.listAsync(reconciliation.namespace(), Labels.forCluster(reconciliation.name())).compose(connectors -> {
             List<Future> connectorFutures = new ArrayList<>();
@@ -130,12 +143,15 @@ public abstract class AbstractConnectOperator<C extends KubernetesClient, T exte
      * Create a watch on {@code KafkaConnector} in the given {@code namespace}.
      * The watcher will:
      * <ul>
-     * <li>{@link #reconcileConnectors(Reconciliation, CustomResource, KafkaConnectStatus)} on the KafkaConnect or KafkaConnectS2I
+     * <li>Reconcile the connector in the KafkaConnect or KafkaConnectS2I
      * identified by {@code KafkaConnector.metadata.labels[strimzi.io/cluster]}.</li>
      * <li>If there is a Connect and ConnectS2I cluster with the given name then the plain Connect one is used
      * (and an error is logged about the ambiguity).</li>
      * <li>The {@code KafkaConnector} status is updated with the result.</li>
      * </ul>
+     * The events are coalesced per connector and status-only changes are ignored (see {@link ConnectorWatchEventQueue}).
+     * Each connector is reconciled under its own lock, so that different connectors of the same Connect cluster
+     * can be reconciled concurrently (up to {@link ClusterOperatorConfig#getMaxConcurrentConnectorReconciliations()}).
      * @param connectOperator The operator for {@code KafkaConnect}.
      * @param connectS2IOperator The operator for {@code KafkaConnectS2I}.
      * @param watchNamespaceOrWildcard The namespace to watch.
@@ -144,6 +160,29 @@ public abstract class AbstractConnectOperator<C extends KubernetesClient, T exte
     public static Future<Void> createConnectorWatch(AbstractConnectOperator<KubernetesClient, KafkaConnect, KafkaConnectList, DoneableKafkaConnect, Resource<KafkaConnect, DoneableKafkaConnect>, KafkaConnectStatus> connectOperator,
             AbstractConnectOperator<OpenShiftClient, KafkaConnectS2I, KafkaConnectS2IList, DoneableKafkaConnectS2I, Resource<KafkaConnectS2I, DoneableKafkaConnectS2I>, KafkaConnectS2IStatus> connectS2IOperator,
             String watchNamespaceOrWildcard) {
+        return createConnectorWatch(connectOperator, connectS2IOperator, watchNamespaceOrWildcard, namespace -> true);
+    }
+
+    /**
+     * Create a single watch for {@code KafkaConnector} in all namespaces which handles only the connectors from the
+     * given namespaces. See {@link #createConnectorWatch(AbstractConnectOperator, AbstractConnectOperator, String)}.
+     * @param connectOperator The operator for {@code KafkaConnect}.
+     * @param connectS2IOperator The operator for {@code KafkaConnectS2I}.
+     * @param namespaces The namespaces to watch.
+     * @return A future which completes when the watch has been set up.
+     */
+    public static Future<Void> createConnectorWatch(AbstractConnectOperator<KubernetesClient, KafkaConnect, KafkaConnectList, DoneableKafkaConnect, Resource<KafkaConnect, DoneableKafkaConnect>, KafkaConnectStatus> connectOperator,
+            AbstractConnectOperator<OpenShiftClient, KafkaConnectS2I, KafkaConnectS2IList, DoneableKafkaConnectS2I, Resource<KafkaConnectS2I, DoneableKafkaConnectS2I>, KafkaConnectS2IStatus> connectS2IOperator,
+            Set<String> namespaces) {
+        return createConnectorWatch(connectOperator, connectS2IOperator, AbstractWatchableResourceOperator.ANY_NAMESPACE, namespaces::contains);
+    }
+
+    private static Future<Void> createConnectorWatch(AbstractConnectOperator<KubernetesClient, KafkaConnect, KafkaConnectList, DoneableKafkaConnect, Resource<KafkaConnect, DoneableKafkaConnect>, KafkaConnectStatus> connectOperator,
+            AbstractConnectOperator<OpenShiftClient, KafkaConnectS2I, KafkaConnectS2IList, DoneableKafkaConnectS2I, Resource<KafkaConnectS2I, DoneableKafkaConnectS2I>, KafkaConnectS2IStatus> connectS2IOperator,
+            String watchNamespaceOrWildcard, Predicate<String> namespaceFilter) {
+        ConnectorWatchEventQueue events = new ConnectorWatchEventQueue(connectOperator.vertx, connectOperator.connectorEventsDebounceMs,
+            (action, kafkaConnector) -> reconcileConnectorEvent(connectOperator, connectS2IOperator, action, kafkaConnector));
+
         return Util.async(connectOperator.vertx, () -> {
             connectOperator.connectorOperator.watch(watchNamespaceOrWildcard, new Watcher<KafkaConnector>() {
                 @Override
@@ -151,69 +190,17 @@ public abstract class AbstractConnectOperator<C extends KubernetesClient, T exte
                     String connectorName = kafkaConnector.getMetadata().getName();
                     String connectorNamespace = kafkaConnector.getMetadata().getNamespace();
                     String connectorKind = kafkaConnector.getKind();
-                    String connectName = kafkaConnector.getMetadata().getLabels() == null ? null : kafkaConnector.getMetadata().getLabels().get(Labels.STRIMZI_CLUSTER_LABEL);
-                    String connectNamespace = connectorNamespace;
+
+                    if (!namespaceFilter.test(connectorNamespace)) {
+                        log.trace("Ignoring {} of {} {} in namespace {} which is not watched", action, connectorKind, connectorName, connectorNamespace);
+                        return;
+                    }
 
                     switch (action) {
                         case ADDED:
                         case DELETED:
                         case MODIFIED:
-                            Future<Void> f;
-                            if (connectName != null) {
-                                // Check whether a KafkaConnect/S2I exists
-                                CompositeFuture.join(connectOperator.resourceOperator.getAsync(connectNamespace, connectName),
-                                        connectOperator.pfa.supportsS2I() ?
-                                                connectS2IOperator.resourceOperator.getAsync(connectNamespace, connectName) :
-                                                Future.succeededFuture())
-                                        .compose(cf -> {
-                                            KafkaConnect connect = cf.resultAt(0);
-                                            KafkaConnectS2I connectS2i = cf.resultAt(1);
-                                            KafkaConnectApi apiClient = connectOperator.connectClientProvider.apply(connectOperator.vertx);
-                                            if (connect == null && connectS2i == null) {
-                                                log.info("{} {} in namespace {} was {}, but Connect cluster {} does not exist", connectorKind, connectorName, connectorNamespace, action, connectName);
-                                                updateStatus(noConnectCluster(connectNamespace, connectName), kafkaConnector, connectOperator.connectorOperator);
-                                                return Future.succeededFuture();
-                                            } else if (connect != null && isOlderOrAlone(connect.getMetadata().getCreationTimestamp(), connectS2i)) {
-                                                // grab the lock and call reconcileConnectors()
-                                                // (i.e. short circuit doing a whole KafkaConnect reconciliation).
-                                                Reconciliation reconciliation = new Reconciliation("connector-watch", connectOperator.kind(),
-                                                        kafkaConnector.getMetadata().getNamespace(), connectName);
-                                                log.info("{}: {} {} in namespace {} was {}", reconciliation, connectorKind, connectorName, connectorNamespace, action);
-
-                                                return connectOperator.withLock(reconciliation, LOCK_TIMEOUT_MS,
-                                                    () -> connectOperator.reconcileConnector(reconciliation,
-                                                                KafkaConnectResources.qualifiedServiceName(connectName, connectNamespace), apiClient,
-                                                                isUseResources(connect),
-                                                                kafkaConnector.getMetadata().getName(), action == Action.DELETED ? null : kafkaConnector)
-                                                            .compose(reconcileResult -> {
-                                                                log.info("{}: reconciled", reconciliation);
-                                                                return Future.succeededFuture(reconcileResult);
-                                                            }));
-                                            } else {
-                                                // grab the lock and call reconcileConnectors()
-                                                // (i.e. short circuit doing a whole KafkaConnect reconciliation).
-                                                Reconciliation reconciliation = new Reconciliation("connector-watch", connectS2IOperator.kind(),
-                                                        kafkaConnector.getMetadata().getNamespace(), connectName);
-                                                log.info("{}: {} {} in namespace {} was {}", reconciliation, connectorKind, connectorName, connectorNamespace, action);
-
-                                                return connectS2IOperator.withLock(reconciliation, LOCK_TIMEOUT_MS,
-                                                    () -> connectS2IOperator.reconcileConnector(reconciliation,
-                                                                KafkaConnectResources.qualifiedServiceName(connectName, connectNamespace), apiClient,
-                                                                isUseResources(connectS2i),
-                                                                kafkaConnector.getMetadata().getName(), action == Action.DELETED ? null : kafkaConnector)
-                                                            .compose(reconcileResult -> {
-                                                                log.info("{}: reconciled", reconciliation);
-                                                                return Future.succeededFuture(reconcileResult);
-                                                            }));
-                                            }
-                                        });
-                            } else {
-                                updateStatus(new InvalidResourceException("Resource lacks label '"
-                                                + Labels.STRIMZI_CLUSTER_LABEL
-                                                + "': No connect cluster in which to create this connector."),
-                                        kafkaConnector, connectOperator.connectorOperator);
-                            }
-
+                            events.submit(action, kafkaConnector);
                             break;
                         case ERROR:
                             log.error("Failed {} {} in namespace {} ", connectorKind, connectorName, connectorNamespace);
@@ -234,6 +221,109 @@ public abstract class AbstractConnectOperator<C extends KubernetesClient, T exte
         });
     }
 
+    /**
+     * Reconciles the connector after it was added, modified or deleted.
+     *
+     * @param connectOperator The operator for {@code KafkaConnect}.
+     * @param connectS2IOperator The operator for {@code KafkaConnectS2I}.
+     * @param action The watch action
+     * @param kafkaConnector The KafkaConnector resource
+     *
+     * @return A Future which completes when the connector is reconciled
+     */
+    private static Future<Void> reconcileConnectorEvent(AbstractConnectOperator<KubernetesClient, KafkaConnect, KafkaConnectList, DoneableKafkaConnect, Resource<KafkaConnect, DoneableKafkaConnect>, KafkaConnectStatus> connectOperator,
+            AbstractConnectOperator<OpenShiftClient, KafkaConnectS2I, KafkaConnectS2IList, DoneableKafkaConnectS2I, Resource<KafkaConnectS2I, DoneableKafkaConnectS2I>, KafkaConnectS2IStatus> connectS2IOperator,
+            Watcher.Action action, KafkaConnector kafkaConnector) {
+        String connectorName = kafkaConnector.getMetadata().getName();
+        String connectorNamespace = kafkaConnector.getMetadata().getNamespace();
+        String connectorKind = kafkaConnector.getKind();
+        String connectName = kafkaConnector.getMetadata().getLabels() == null ? null : kafkaConnector.getMetadata().getLabels().get(Labels.STRIMZI_CLUSTER_LABEL);
+        String connectNamespace = connectorNamespace;
+
+        if (connectName == null) {
+            updateStatus(new InvalidResourceException("Resource lacks label '"
+                            + Labels.STRIMZI_CLUSTER_LABEL
+                            + "': No connect cluster in which to create this connector."),
+                    kafkaConnector, connectOperator.connectorOperator);
+            return Future.succeededFuture();
+        }
+
+        // Check whether a KafkaConnect/S2I exists
+        return CompositeFuture.join(connectOperator.resourceOperator.getAsync(connectNamespace, connectName),
+                connectOperator.pfa.supportsS2I() ?
+                        connectS2IOperator.resourceOperator.getAsync(connectNamespace, connectName) :
+                        Future.succeededFuture())
+                .compose(cf -> {
+                    KafkaConnect connect = cf.resultAt(0);
+                    KafkaConnectS2I connectS2i = cf.resultAt(1);
+                    if (connect == null && connectS2i == null) {
+                        log.info("{} {} in namespace {} was {}, but Connect cluster {} does not exist", connectorKind, connectorName, connectorNamespace, action, connectName);
+                        updateStatus(noConnectCluster(connectNamespace, connectName), kafkaConnector, connectOperator.connectorOperator);
+                        return Future.succeededFuture();
+                    } else if (connect != null && isOlderOrAlone(connect.getMetadata().getCreationTimestamp(), connectS2i)) {
+                        return connectOperator.reconcileConnectorWithLock(connectName, isUseResources(connect), action, kafkaConnector);
+                    } else {
+                        return connectS2IOperator.reconcileConnectorWithLock(connectName, isUseResources(connectS2i), action, kafkaConnector);
+                    }
+                });
+    }
+
+    /**
+     * Reconciles a single connector with the lock of the connector held (i.e. short circuit doing a whole KafkaConnect
+     * reconciliation). The number of connectors of the same Connect cluster reconciled at the same time is limited.
+     *
+     * @param connectName The name of the Connect cluster
+     * @param useResources Whether the Connect cluster uses the KafkaConnector resources
+     * @param action The watch action
+     * @param kafkaConnector The KafkaConnector resource
+     *
+     * @return A Future which completes when the connector is reconciled
+     */
+    private Future<Void> reconcileConnectorWithLock(String connectName, boolean useResources, Watcher.Action action, KafkaConnector kafkaConnector) {
+        String connectNamespace = kafkaConnector.getMetadata().getNamespace();
+        String connectorName = kafkaConnector.getMetadata().getName();
+        Reconciliation reconciliation = new Reconciliation("connector-watch", kind(), connectNamespace, connectName);
+
+        if (!isOwned(connectNamespace, connectName)) {
+            log.debug("{}: {} is owned by another operator replica, ignoring {} {}", reconciliation, kind(), kafkaConnector.getKind(), connectorName);
+            return Future.succeededFuture();
+        }
+
+        log.info("{}: {} {} in namespace {} was {}", reconciliation, kafkaConnector.getKind(), connectorName, connectNamespace, action);
+
+        return withConnectorLock(reconciliation, connectNamespace, connectName, connectorName,
+            () -> withOwnership(reconciliation, () -> reconcileConnector(reconciliation,
+                        KafkaConnectResources.qualifiedServiceName(connectName, connectNamespace), getKafkaConnectApi(),
+                        useResources, connectorName, action == Watcher.Action.DELETED ? null : kafkaConnector)
+                    .compose(reconcileResult -> {
+                        log.info("{}: reconciled", reconciliation);
+                        return Future.succeededFuture(reconcileResult);
+                    })));
+    }
+
+    /**
+     * Executes the callable with the lock of the connector held. The number of connectors of the same Connect cluster
+     * for which the callable is executed at the same time is limited. Both the reconciliations triggered by the
+     * {@code KafkaConnector} watch and the reconciliations of the whole Connect cluster use it, so that a connector
+     * is never reconciled by both of them at the same time.
+     *
+     * @param reconciliation The reconciliation
+     * @param connectNamespace The namespace of the Connect cluster
+     * @param connectName The name of the Connect cluster
+     * @param connectorName The name of the connector
+     * @param callable The callable to execute
+     *
+     * @return A Future which completes with the result of the callable
+     */
+    private Future<Void> withConnectorLock(Reconciliation reconciliation, String connectNamespace, String connectName, String connectorName,
+                                           Callable<Future<Void>> callable) {
+        ConcurrencyLimiter limiter = connectorLimiters.computeIfAbsent(connectNamespace + "/" + connectName,
+            ignored -> new ConcurrencyLimiter(vertx, maxConcurrentConnectorReconciliations));
+        String lockName = "lock::" + connectNamespace + "::" + KafkaConnector.RESOURCE_KIND + "::" + connectorName;
+
+        return limiter.execute(() -> withLock(reconciliation, lockName, LOCK_TIMEOUT_MS, callable));
+    }
+
     /**
      * Returns true if the resource is null or if the creationDate of the resource is newer than the creationDate. If
      * the dates are the same, it returns true. This is used to determine whether Connect and ConnectS2I both exist and
@@ -274,38 +364,105 @@ public abstract class AbstractConnectOperator<C extends KubernetesClient, T exte
         KafkaConnectApi apiClient = connectClientProvider.apply(vertx);
 
         return CompositeFuture.join(
-                apiClient.list(host, port),
+                listConnectors(reconciliation, host, apiClient),
                 connectorOperator.listAsync(namespace, Optional.of(new LabelSelectorBuilder().addToMatchLabels(Labels.STRIMZI_CLUSTER_LABEL, connectName).build())),
                 apiClient.listConnectorPlugins(host, port)
         ).compose(cf -> {
-            List<String> runningConnectorNames = cf.resultAt(0);
+            RunningConnectors runningConnectors = cf.resultAt(0);
             List<KafkaConnector> desiredConnectors = cf.resultAt(1);
             List<ConnectorPlugin> connectorPlugins = cf.resultAt(2);
 
             log.debug("{}: Setting list of connector plugins in Kafka Connect status", reconciliation);
             connectStatus.setConnectorPlugins(connectorPlugins);
 
-            Set<String> deleteConnectorNames = new HashSet<>(runningConnectorNames);
+            Set<String> deleteConnectorNames = new HashSet<>(runningConnectors.names);
             deleteConnectorNames.removeAll(desiredConnectors.stream().map(c -> c.getMetadata().getName()).collect(Collectors.toSet()));
             log.debug("{}: {} cluster: delete connectors: {}", reconciliation, kind(), deleteConnectorNames);
             Stream<Future<Void>> deletionFutures = deleteConnectorNames.stream().map(connectorName ->
-                reconcileConnector(reconciliation, host, apiClient, true, connectorName, null)
+                withConnectorLock(reconciliation, namespace, connectName, connectorName,
+                    () -> reconcileConnector(reconciliation, host, apiClient, true, connectorName, null))
             );
 
             log.debug("{}: {} cluster: required connectors: {}", reconciliation, kind(), desiredConnectors);
             Stream<Future<Void>> createUpdateFutures = desiredConnectors.stream()
-                    .map(connector -> reconcileConnector(reconciliation, host, apiClient, true, connector.getMetadata().getName(), connector));
+                    .map(connector -> withConnectorLock(reconciliation, namespace, connectName, connector.getMetadata().getName(),
+                        () -> reconcileConnector(reconciliation, host, apiClient, true, connector.getMetadata().getName(), connector,
+                            runningConnectors.expanded)));
 
             return CompositeFuture.join(Stream.concat(deletionFutures, createUpdateFutures).collect(Collectors.toList())).map((Void) null);
         });
     }
 
+    /**
+     * The connectors running in a Kafka Connect cluster.
+     */
+    private static class RunningConnectors {
+        private final Set<String> names;
+        // Status and info of all connectors indexed by the connector name or null when the expanded list is not supported
+        private final Map<String, Map<String, Object>> expanded;
+
+        RunningConnectors(Set<String> names, Map<String, Map<String, Object>> expanded) {
+            this.names = names;
+            this.expanded = expanded;
+        }
+    }
+
+    /**
+     * Gets the running connectors together with their status and configuration using a single request to the Kafka
+     * Connect REST API. Falls back to listing only the connector names when the expanded list is not supported by
+     * the Kafka Connect version. The status and the configuration are then fetched for each connector separately.
+     *
+     * @param reconciliation The reconciliation
+     * @param host The REST API host
+     * @param apiClient The client instance
+     *
+     * @return A Future with the running connectors
+     */
+    private Future<RunningConnectors> listConnectors(Reconciliation reconciliation, String host, KafkaConnectApi apiClient) {
+        return apiClient.listExpanded(host, port).map(expanded -> {
+            if (!expanded.containsValue(null)) {
+                return new RunningConnectors(expanded.keySet(), expanded);
+            } else {
+                log.debug("{}: Expanded list of connectors is not supported, falling back to per-connector requests", reconciliation);
+                return new RunningConnectors(new HashSet<>(expanded.keySet()), null);
+            }
+        });
+    }
+
     protected KafkaConnectApi getKafkaConnectApi() {
         return connectClientProvider.apply(vertx);
     }
 
+    /**
+     * Closes the client of the Kafka Connect REST API. It should be called when the operator is shut down.
+     */
+    public void close() {
+        getKafkaConnectApi().close();
+    }
+
     /*test*/ Future<Void> reconcileConnector(Reconciliation reconciliation, String host, KafkaConnectApi apiClient,
                                              boolean useResources, String connectorName, KafkaConnector connector) {
+        return reconcileConnector(reconciliation, host, apiClient, useResources, connectorName, connector, null);
+    }
+
+    /**
+     * Reconciles a single connector.
+     *
+     * @param reconciliation The reconciliation
+     * @param host The REST API host
+     * @param apiClient The client instance
+     * @param useResources Whether the Connect cluster uses the KafkaConnector resources
+     * @param connectorName The connector name
+     * @param connector The KafkaConnector resource or null if the connector should be deleted
+     * @param expandedConnectors The status and info of all running connectors as returned by
+     *                           {@link KafkaConnectApi#listExpanded(String, int)} or null if they should be fetched
+     *                           from the REST API for this connector
+     *
+     * @return A Future which completes when the connector is reconciled
+     */
+    private Future<Void> reconcileConnector(Reconciliation reconciliation, String host, KafkaConnectApi apiClient,
+                                            boolean useResources, String connectorName, KafkaConnector connector,
+                                            Map<String, Map<String, Object>> expandedConnectors) {
         if (connector == null) {
             if (useResources) {
                 log.info("{}: deleting connector: {}", reconciliation, connectorName);
@@ -324,7 +481,10 @@ public abstract class AbstractConnectOperator<C extends KubernetesClient, T exte
                         new NoSuchResourceException(reconciliation.kind() + " " + reconciliation.name() + " is not configured with annotation " + Annotations.STRIMZI_IO_USE_CONNECTOR_RESOURCES));
             } else {
                 Promise<Void> promise = Promise.promise();
-                maybeCreateOrUpdateConnector(reconciliation, host, apiClient, connectorName, connector.getSpec())
+                Future<Map<String, Object>> createOrUpdate = expandedConnectors != null
+                        ? maybeCreateOrUpdateConnector(reconciliation, host, apiClient, connectorName, connector.getSpec(), expandedConnectors.get(connectorName))
+                        : maybeCreateOrUpdateConnector(reconciliation, host, apiClient, connectorName, connector.getSpec());
+                createOrUpdate
                         .setHandler(result -> {
                             if (result.succeeded()) {
                                 maybeUpdateConnectorStatus(reconciliation, connector, result.result(), null);
@@ -376,6 +536,50 @@ public abstract class AbstractConnectOperator<C extends KubernetesClient, T exte
             });
     }
 
+    /**
+     * Same as {@link #maybeCreateOrUpdateConnector(Reconciliation, String, KafkaConnectApi, String, KafkaConnectorSpec)}
+     * but uses the connector status and info already obtained from the expanded list of connectors instead of getting
+     * the config and the status from the REST API.
+     * @param reconciliation The reconciliation.
+     * @param host The REST API host.
+     * @param apiClient The client instance.
+     * @param connectorName The connector name.
+     * @param connectorSpec The desired connector spec.
+     * @param expandedConnector The status and info of the connector or null if the connector does not exist.
+     * @return A Future whose result, when successfully completed, is a map of the current connector state.
+     */
+    @SuppressWarnings("unchecked")
+    private Future<Map<String, Object>> maybeCreateOrUpdateConnector(Reconciliation reconciliation, String host, KafkaConnectApi apiClient,
+                                                                     String connectorName, KafkaConnectorSpec connectorSpec,
+                                                                     Map<String, Object> expandedConnector) {
+        if (expandedConnector == null) {
+            log.debug("{}: Connector {} does not exist", reconciliation, connectorName);
+            return createOrUpdateConnector(reconciliation, host, apiClient, connectorName, connectorSpec);
+        }
+
+        Object info = expandedConnector.get("info");
+        Object status = expandedConnector.get("status");
+        Object config = info instanceof Map ? ((Map<String, Object>) info).get("config") : null;
+        if (!(config instanceof Map) || !(status instanceof Map)) {
+            // The connector might be just starting, so we use the per-connector requests which retry when needed
+            log.debug("{}: Expanded list lacks status or config of connector {}", reconciliation, connectorName);
+            return maybeCreateOrUpdateConnector(reconciliation, host, apiClient, connectorName, connectorSpec);
+        }
+
+        Map<String, String> actual = new HashMap<>();
+        for (Map.Entry<String, Object> entry : ((Map<String, Object>) config).entrySet()) {
+            actual.put(entry.getKey(), entry.getValue() != null ? entry.getValue().toString() : null);
+        }
+
+        if (!needsReconfiguring(reconciliation, connectorName, connectorSpec, actual)) {
+            log.debug("{}: Connector {} exists and has desired config, {}=={}", reconciliation, connectorName, connectorSpec.getConfig(), actual);
+            return pauseResume(reconciliation, host, apiClient, connectorName, connectorSpec, (Map<String, Object>) status);
+        } else {
+            log.debug("{}: Connector {} exists but does not have desired config, {}!={}", reconciliation, connectorName, connectorSpec.getConfig(), actual);
+            return createOrUpdateConnector(reconciliation, host, apiClient, connectorName, connectorSpec);
+        }
+    }
+
     private boolean needsReconfiguring(Reconciliation reconciliation, String connectorName,
                                        KafkaConnectorSpec connectorSpec,
                                        Map<String, String> actual) {
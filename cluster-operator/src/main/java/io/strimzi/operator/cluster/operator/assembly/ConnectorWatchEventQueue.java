@@ -0,0 +1,154 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.client.Watcher;
+import io.strimzi.api.kafka.model.KafkaConnector;
+import io.strimzi.operator.common.model.Labels;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Coalesces the watch events of {@code KafkaConnector} resources before they are handled:
+ * <ul>
+ * <li>{@code MODIFIED} events which do not change the generation or the {@code strimzi.io/cluster} label
+ * of the connector (e.g. status updates) are ignored.</li>
+ * <li>Events are handled after a short debounce delay. Only the latest event received for given connector
+ * during this delay is handled.</li>
+ * <li>Events for the same connector are never handled concurrently. Events received while the previous
+ * event of the same connector is being handled are coalesced and only the latest of them is handled once the
+ * previous handling completes.</li>
+ * </ul>
+ * Events of different connectors are handled independently of each other.
+ */
+class ConnectorWatchEventQueue {
+    private static final Logger log = LogManager.getLogger(ConnectorWatchEventQueue.class.getName());
+
+    private final Vertx vertx;
+    private final long debounceMs;
+    private final BiFunction<Watcher.Action, KafkaConnector, Future<Void>> handler;
+
+    // The generation and the Connect cluster of the last event accepted for each connector
+    private final Map<String, String> lastSeen = new HashMap<>();
+    // The latest not yet handled event of each connector
+    private final Map<String, Event> pending = new HashMap<>();
+    // Connectors which are being handled or which are scheduled to be handled
+    private final Set<String> scheduledOrRunning = new HashSet<>();
+
+    private static class Event {
+        private final Watcher.Action action;
+        private final KafkaConnector connector;
+
+        Event(Watcher.Action action, KafkaConnector connector) {
+            this.action = action;
+            this.connector = connector;
+        }
+    }
+
+    /**
+     * @param vertx The Vertx instance
+     * @param debounceMs The delay after which the events are handled
+     * @param handler The handler of the events. The returned Future should complete when the event is handled.
+     */
+    ConnectorWatchEventQueue(Vertx vertx, long debounceMs, BiFunction<Watcher.Action, KafkaConnector, Future<Void>> handler) {
+        this.vertx = vertx;
+        this.debounceMs = debounceMs;
+        this.handler = handler;
+    }
+
+    /**
+     * Adds the watch event to the queue.
+     *
+     * @param action The watch action
+     * @param connector The KafkaConnector resource
+     *
+     * @return True if the event will be handled. False if it was ignored.
+     */
+    synchronized boolean submit(Watcher.Action action, KafkaConnector connector) {
+        String key = connector.getMetadata().getNamespace() + "/" + connector.getMetadata().getName();
+
+        if (action == Watcher.Action.DELETED) {
+            lastSeen.remove(key);
+        } else {
+            String seen = signature(connector);
+            if (action == Watcher.Action.MODIFIED
+                    && connector.getMetadata().getGeneration() != null
+                    && seen.equals(lastSeen.get(key))) {
+                log.debug("Ignoring {} event of KafkaConnector {} which did not change its generation", action, key);
+                return false;
+            }
+            lastSeen.put(key, seen);
+        }
+
+        pending.put(key, new Event(action, connector));
+
+        if (scheduledOrRunning.add(key)) {
+            schedule(key);
+        } else {
+            log.debug("KafkaConnector {} is already scheduled for reconciliation, coalescing the {} event", key, action);
+        }
+
+        return true;
+    }
+
+    private void schedule(String key) {
+        if (debounceMs > 0) {
+            vertx.setTimer(debounceMs, ignored -> handle(key));
+        } else {
+            vertx.runOnContext(ignored -> handle(key));
+        }
+    }
+
+    private void handle(String key) {
+        Event event;
+        synchronized (this) {
+            event = pending.remove(key);
+        }
+
+        Future<Void> result;
+        try {
+            result = handler.apply(event.action, event.connector);
+        } catch (Throwable t) {
+            result = Future.failedFuture(t);
+        }
+
+        result.setHandler(res -> {
+            if (res.failed()) {
+                log.warn("Failed to handle {} event of KafkaConnector {}", event.action, key, res.cause());
+            }
+
+            synchronized (this) {
+                if (pending.containsKey(key)) {
+                    schedule(key);
+                } else {
+                    scheduledOrRunning.remove(key);
+                }
+            }
+        });
+    }
+
+    private static String signature(KafkaConnector connector) {
+        Map<String, String> labels = connector.getMetadata().getLabels();
+        String connectName = labels != null ? labels.get(Labels.STRIMZI_CLUSTER_LABEL) : null;
+        return connector.getMetadata().getGeneration() + "/" + Objects.toString(connectName);
+    }
+
+    /* test */ synchronized int pendingEvents() {
+        return pending.size();
+    }
+
+    /* test */ synchronized int knownConnectors() {
+        return lastSeen.size();
+    }
+}
@@ -15,7 +15,6 @@ import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodTemplateSpec;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.Service;
-import io.fabric8.kubernetes.api.model.ServiceSpec;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
@@ -27,6 +26,8 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteIngress;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.strimzi.api.kafka.KafkaList;
 import io.strimzi.api.kafka.model.CertAndKeySecretSource;
 import io.strimzi.api.kafka.model.CertificateAuthority;
@@ -45,7 +46,10 @@ import io.strimzi.api.kafka.model.status.ListenerAddress;
 import io.strimzi.api.kafka.model.status.ListenerAddressBuilder;
 import io.strimzi.api.kafka.model.status.ListenerStatus;
 import io.strimzi.api.kafka.model.status.ListenerStatusBuilder;
+import io.strimzi.api.kafka.model.status.RebalanceStatus;
+import io.strimzi.api.kafka.model.status.RebalanceStatusBuilder;
 import io.strimzi.api.kafka.model.storage.Storage;
+import io.strimzi.certs.CertAndKey;
 import io.strimzi.certs.CertManager;
 import io.strimzi.operator.PlatformFeaturesAvailability;
 import io.strimzi.operator.cluster.ClusterOperator;
@@ -64,12 +68,14 @@ import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.cluster.model.KafkaExporter;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.KafkaVersionChange;
+import io.strimzi.operator.cluster.model.ModelCache;
 import io.strimzi.operator.cluster.model.ModelUtils;
 import io.strimzi.operator.cluster.model.NoSuchResourceException;
 import io.strimzi.operator.cluster.model.NodeUtils;
 import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.cluster.model.StorageUtils;
 import io.strimzi.operator.cluster.model.ZookeeperCluster;
+import io.strimzi.operator.cluster.operator.resource.KafkaRebalancer;
 import io.strimzi.operator.cluster.operator.resource.KafkaSetOperator;
 import io.strimzi.operator.cluster.operator.resource.KafkaSpecChecker;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
@@ -81,7 +87,9 @@ import io.strimzi.operator.common.Annotations;
 import io.strimzi.operator.common.InvalidConfigurationException;
 import io.strimzi.operator.common.PasswordGenerator;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.ReconciliationCancelledException;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.operator.resource.AbstractScalableResourceOperator;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
@@ -93,11 +101,14 @@ import io.strimzi.operator.common.operator.resource.PvcOperator;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.strimzi.operator.common.operator.resource.RoleBindingOperator;
 import io.strimzi.operator.common.operator.resource.RouteOperator;
+import io.strimzi.operator.common.operator.resource.TimeoutException;
+import io.strimzi.operator.common.operator.resource.ServiceOperator;
 import io.strimzi.operator.common.operator.resource.StorageClassOperator;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.micrometer.backends.BackendRegistries;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.quartz.CronExpression;
@@ -118,9 +129,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -145,6 +160,12 @@ import static io.strimzi.operator.cluster.model.KafkaVersion.compareDottedVersio
 public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesClient, Kafka, KafkaList, DoneableKafka, Resource<Kafka, DoneableKafka>> {
     private static final Logger log = LogManager.getLogger(KafkaAssemblyOperator.class.getName());
 
+    // Values of the strimzi.io/rebalance annotation
+    static final String REBALANCE_DRY_RUN = "dry-run";
+    static final String REBALANCE_EXECUTE = "execute";
+
+    private static final String LEADERSHIP_SKEW_METRIC = "strimzi.kafka.leadership.skew";
+
     private final long operationTimeoutMs;
 
     private final ZookeeperSetOperator zkSetOperations;
@@ -159,6 +180,20 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
     private final NodeOperator nodeOperator;
     private final CrdOperator<KubernetesClient, Kafka, KafkaList, DoneableKafka> crdOperator;
     private final ZookeeperScalerProvider zkScalerProvider;
+    private final ModelCache modelCache;
+    private final long scaleDownThrottle;
+    private final long rebalanceThrottle;
+    private final int rebalanceMaxConcurrentMoves;
+    private final long logDirMoveThrottle;
+    private final int logDirMaxConcurrentMoves;
+    private final boolean periodicLeaderElection;
+    private final MeterRegistry metrics;
+    // The leadership skew of the Kafka clusters observed by the last reconciliation, keyed by namespace/name
+    private final Map<String, Double> leadershipSkews = new ConcurrentHashMap<>();
+    // The rebalancing being executed for the Kafka clusters, keyed by namespace/name
+    private final Map<String, RebalanceExecution> rebalances = new ConcurrentHashMap<>();
+    // The progress of the rebalancing observed in the status while it is not executed by this operator, keyed by namespace/name
+    private final Map<String, ObservedProgress> observedRebalances = new ConcurrentHashMap<>();
 
     /**
      * @param vertx The Vertx instance
@@ -187,6 +222,14 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         this.crdOperator = supplier.kafkaOperator;
         this.nodeOperator = supplier.nodeOperator;
         this.zkScalerProvider = supplier.zkScalerProvider;
+        this.modelCache = new ModelCache(config.getModelCacheSize());
+        this.scaleDownThrottle = config.getScaleDownThrottle();
+        this.rebalanceThrottle = config.getRebalanceThrottle();
+        this.rebalanceMaxConcurrentMoves = config.getRebalanceMaxConcurrentMoves();
+        this.logDirMoveThrottle = config.getLogDirMoveThrottle();
+        this.logDirMaxConcurrentMoves = config.getLogDirMaxConcurrentMoves();
+        this.periodicLeaderElection = config.isPeriodicLeaderElectionEnabled();
+        this.metrics = BackendRegistries.getDefaultNow();
     }
 
     @Override
@@ -246,6 +289,44 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         return createOrUpdatePromise.future();
     }
 
+    @Override
+    protected Future<Boolean> delete(Reconciliation reconciliation) {
+        modelCache.invalidate(reconciliation.namespace(), reconciliation.name());
+        String key = reconciliation.namespace() + "/" + reconciliation.name();
+        RebalanceExecution rebalance = rebalances.get(key);
+        if (rebalance != null) {
+            rebalance.cancelled = true;
+        }
+        observedRebalances.remove(key);
+        if (leadershipSkews.remove(reconciliation.namespace() + "/" + reconciliation.name()) != null && metrics != null) {
+            metrics.find(LEADERSHIP_SKEW_METRIC)
+                    .tag("namespace", reconciliation.namespace())
+                    .tag("cluster", reconciliation.name())
+                    .meters()
+                    .forEach(metrics::remove);
+        }
+        return super.delete(reconciliation);
+    }
+
+    /**
+     * Records the leadership skew of a Kafka cluster, which is exported as the strimzi_kafka_leadership_skew gauge
+     * when the metrics are enabled.
+     *
+     * @param namespace The namespace of the cluster
+     * @param name      The name of the cluster
+     * @param skew      The fraction of the partitions which are not led by their preferred leader
+     */
+    void recordLeadershipSkew(String namespace, String name, double skew) {
+        String key = namespace + "/" + name;
+        if (leadershipSkews.put(key, skew) == null && metrics != null) {
+            Gauge.builder(LEADERSHIP_SKEW_METRIC, leadershipSkews, skews -> skews.getOrDefault(key, Double.NaN))
+                    .description("Fraction of the partitions of the Kafka cluster which are not led by their preferred leader")
+                    .tag("namespace", namespace)
+                    .tag("cluster", name)
+                    .register(metrics);
+        }
+    }
+
     Future<Void> reconcile(ReconciliationState reconcileState)  {
         Promise<Void> chainPromise = Promise.promise();
 
@@ -316,6 +397,9 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 .compose(state -> state.kafkaPersistentClaimDeletion())
                 .compose(state -> state.kafkaTlsListenerCertificatesToStatus())
                 .compose(state -> state.kafkaExternalListenerCertificatesToStatus())
+                .compose(state -> state.kafkaLogDirBalancing())
+                .compose(state -> state.kafkaRebalance())
+                .compose(state -> state.kafkaPreferredLeaders())
 
                 .compose(state -> state.getTopicOperatorDescription())
                 .compose(state -> state.topicOperatorServiceAccount())
@@ -371,6 +455,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         /* test */ ClientsCa clientsCa;
 
         /* test */ ZookeeperCluster zkCluster;
+        private Storage zkOldStorage;
         private Service zkService;
         private Service zkHeadlessService;
         private ConfigMap zkMetricsAndLogsConfigMap;
@@ -378,6 +463,9 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private Integer zkCurrentReplicas = null;
 
         private KafkaCluster kafkaCluster = null;
+        private Map<String, CertAndKey> kafkaBrokerCerts;
+        private Integer kafkaCurrentReplicas = null;
+        private Set<Integer> kafkaPendingLogDirVolumes = Collections.emptySet();
         /* test */ KafkaStatus kafkaStatus = new KafkaStatus();
 
         private Service kafkaService;
@@ -387,6 +475,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private Set<String> kafkaExternalAdvertisedHostnames = new TreeSet<>();
         private Set<String> kafkaExternalAdvertisedPorts = new TreeSet<>();
         private Map<Integer, Set<String>> kafkaExternalDnsNames = new HashMap<>();
+        private Map<String, Service> kafkaExternalServices;
+        private Map<String, Route> kafkaRoutes;
 
         private String zkLoggingHash = "";
         private String kafkaLoggingHash = "";
@@ -434,6 +524,44 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             this.name = kafkaAssembly.getMetadata().getName();
         }
 
+        /**
+         * Rolls the pods of the StatefulSet which need a restart. When the reconciliation is cancelled, the rolling
+         * update stops before restarting the next pod.
+         *
+         * @param operations The StatefulSet operator
+         * @param sts The StatefulSet
+         * @param podNeedsRestart Predicate for deciding whether the pod needs to be restarted
+         *
+         * @return A future that completes when any necessary rolling has been completed
+         */
+        private Future<Void> maybeRollingUpdate(StatefulSetOperator operations, StatefulSet sts, Predicate<Pod> podNeedsRestart) {
+            return operations.maybeRollingUpdate(sts, unlessCancelled(podNeedsRestart));
+        }
+
+        private Future<Void> maybeRollingUpdate(StatefulSetOperator operations, StatefulSet sts, Predicate<Pod> podNeedsRestart,
+                                                Secret clusterCaSecret, Secret coKeySecret) {
+            return operations.maybeRollingUpdate(sts, unlessCancelled(podNeedsRestart), clusterCaSecret, coKeySecret);
+        }
+
+        private Predicate<Pod> unlessCancelled(Predicate<Pod> podNeedsRestart) {
+            return pod -> {
+                checkNotCancelled();
+                return podNeedsRestart.test(pod);
+            };
+        }
+
+        /**
+         * Stops the long running steps, such as rolling updates or partition reassignments, once the resource was
+         * handed over to another Cluster Operator replica.
+         *
+         * @throws ReconciliationCancelledException When the reconciliation was cancelled
+         */
+        private void checkNotCancelled() {
+            if (reconciliation.isCancelled()) {
+                throw new ReconciliationCancelledException(reconciliation);
+            }
+        }
+
         /**
          * Updates the Status field of the Kafka CR. It diffs the desired status against the current status and calls
          * the update only when there is any difference in non-timestamp fields.
@@ -557,7 +685,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     .withKubernetesPartOf(reconciliation.name())
                     .withKubernetesManagedBy(AbstractModel.STRIMZI_CLUSTER_OPERATOR_NAME);
             Promise<ReconciliationState> resultPromise = Promise.promise();
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            WorkerPools.executor(vertx, WorkerPools.CERTIFICATES).<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         String clusterCaCertName = AbstractModel.clusterCaCertSecretName(name);
@@ -691,7 +819,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 };
                 if (this.clusterCa.keyReplaced()) {
                     zkRollFuture = zkSetOperations.getAsync(namespace, ZookeeperCluster.zookeeperClusterName(name))
-                        .compose(sts -> zkSetOperations.maybeRollingUpdate(sts, rollPodAndLogReason,
+                        .compose(sts -> maybeRollingUpdate(zkSetOperations, sts, rollPodAndLogReason,
                         clusterCa.caCertSecret(),
                         oldCoSecret));
                 } else {
@@ -699,7 +827,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 }
                 return zkRollFuture
                         .compose(i -> kafkaSetOperations.getAsync(namespace, KafkaCluster.kafkaClusterName(name)))
-                        .compose(sts -> kafkaSetOperations.maybeRollingUpdate(sts, rollPodAndLogReason,
+                        .compose(sts -> maybeRollingUpdate(kafkaSetOperations, sts, rollPodAndLogReason,
                                 clusterCa.caCertSecret(),
                                 oldCoSecret))
                         .compose(i -> rollDeploymentIfExists(io.strimzi.operator.cluster.model.TopicOperator.topicOperatorName(name), reasons))
@@ -738,7 +866,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     if (sts != null) {
                         if (Annotations.booleanAnnotation(sts, Annotations.ANNO_STRIMZI_IO_MANUAL_ROLLING_UPDATE,
                                 false, Annotations.ANNO_OP_STRIMZI_IO_MANUAL_ROLLING_UPDATE)) {
-                            return kafkaSetOperations.maybeRollingUpdate(sts, pod -> {
+                            return maybeRollingUpdate(kafkaSetOperations, sts, pod -> {
 
                                 log.debug("{}: Rolling Kafka pod {} due to manual rolling update",
                                         reconciliation, pod.getMetadata().getName());
@@ -761,7 +889,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                         if (Annotations.booleanAnnotation(sts, Annotations.ANNO_STRIMZI_IO_MANUAL_ROLLING_UPDATE,
                                 false, Annotations.ANNO_OP_STRIMZI_IO_MANUAL_ROLLING_UPDATE)) {
 
-                            return zkSetOperations.maybeRollingUpdate(sts, pod -> {
+                            return maybeRollingUpdate(zkSetOperations, sts, pod -> {
 
                                 log.debug("{}: Rolling Zookeeper pod {} due to manual rolling update",
                                         reconciliation, pod.getMetadata().getName());
@@ -814,6 +942,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                         String newZkImage = versions.kafkaImage(kafkaAssembly.getSpec().getZookeeper().getImage(), versionChange.to().version());
 
                         log.debug("Setting new Zookeeper image: " + newZkImage);
+                        // The cached model is shared with the next reconciliations, so the modified model is generated separately
+                        this.zkCluster = ZookeeperCluster.fromCrd(kafkaAssembly, versions, zkOldStorage);
                         this.zkCluster.setImage(newZkImage);
 
                         if (versionChange.from().compareVersion("2.4.0") < 0) {
@@ -834,7 +964,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
          */
         public Future<Void> waitForQuiescence(StatefulSet sts) {
             if (sts != null) {
-                return kafkaSetOperations.maybeRollingUpdate(sts,
+                return maybeRollingUpdate(kafkaSetOperations, sts,
                     pod -> {
                         boolean notUpToDate = !isPodUpToDate(sts, pod);
                         if (notUpToDate) {
@@ -1054,7 +1184,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                             resultSts = (StatefulSet) ((ReconcileResult) result.resultAt(0)).resource();
                         }
 
-                        return kafkaSetOperations.maybeRollingUpdate(newSts, pod -> {
+                        return maybeRollingUpdate(kafkaSetOperations, newSts, pod -> {
                             log.info("{}: Upgrade: Maybe patch + rolling update of {}: Pod {}", reconciliation, stsName, pod.getMetadata().getName());
                             return true;
                         }).map(resultSts);
@@ -1112,7 +1242,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             String cmName = KafkaCluster.metricAndLogConfigsName(this.name);
             log.info("{}: Upgrade: Patch + rolling update of {}", reconciliation, stsName);
             return CompositeFuture.join(kafkaSetOperations.reconcile(namespace, stsName, newSts), configMapOperations.reconcile(namespace, cmName, newCm))
-                    .compose(ignored -> kafkaSetOperations.maybeRollingUpdate(sts, pod -> {
+                    .compose(ignored -> maybeRollingUpdate(kafkaSetOperations, sts, pod -> {
                         log.info("{}: Upgrade: Maybe patch + rolling update of {}: Pod {}", reconciliation, stsName, pod.getMetadata().getName());
                         return true;
                     }))
@@ -1210,7 +1340,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                             resultSts = (StatefulSet) ((ReconcileResult) result.resultAt(0)).resource();
                         }
 
-                        return kafkaSetOperations.maybeRollingUpdate(sts, pod -> {
+                        return maybeRollingUpdate(kafkaSetOperations, sts, pod -> {
                             log.info("{}: Downgrade: Maybe patch + rolling update of {}: Pod {}", reconciliation, stsName, pod.getMetadata().getName());
                             return true;
                         }).map(resultSts);
@@ -1267,7 +1397,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             String cmName = KafkaCluster.metricAndLogConfigsName(this.name);
             log.info("{}: Upgrade: Patch + rolling update of {}", reconciliation, stsName);
             return CompositeFuture.join(kafkaSetOperations.reconcile(namespace, stsName, newSts), configMapOperations.reconcile(namespace, cmName, newCm))
-                    .compose(ignored -> kafkaSetOperations.maybeRollingUpdate(sts, pod -> {
+                    .compose(ignored -> maybeRollingUpdate(kafkaSetOperations, sts, pod -> {
                         log.info("{}: Upgrade: Maybe patch + rolling update of {}: Pod {}", reconciliation, stsName, pod.getMetadata().getName());
                         return true;
                     }))
@@ -1282,7 +1412,9 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     .compose(sts -> {
                         Storage oldStorage = getOldStorage(sts);
 
-                        this.zkCluster = ZookeeperCluster.fromCrd(kafkaAssembly, versions, oldStorage);
+                        this.zkOldStorage = oldStorage;
+                        this.zkCluster = modelCache.computeIfAbsent(kafkaAssembly, ZookeeperCluster.class.getSimpleName(),
+                            () -> ZookeeperCluster.fromCrd(kafkaAssembly, versions, oldStorage), getOldStorageJson(sts));
                         this.zkService = zkCluster.generateService();
                         this.zkHeadlessService = zkCluster.generateHeadlessService();
 
@@ -1382,7 +1514,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         Future<ReconciliationState> zkRollingUpdate() {
             // Scale-down and Scale-up might have change the STS. we should get a fresh one.
             return zkSetOperations.getAsync(namespace, ZookeeperCluster.zookeeperClusterName(name))
-                    .compose(sts -> zkSetOperations.maybeRollingUpdate(sts,
+                    .compose(sts -> maybeRollingUpdate(zkSetOperations, sts,
                         pod -> isPodToRestart(zkDiffs.resource(), pod, existingZookeeperCertsChanged, this.clusterCa)))
                     .map(this);
         }
@@ -1597,7 +1729,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 return zkSetOperations.scaleUp(namespace, zkCluster.getName(), current + 1)
                         .compose(ignore -> podOperations.readiness(namespace, zkCluster.getPodName(current), 1_000, operationTimeoutMs))
                         .compose(ignore -> zkSetOperations.getAsync(namespace, ZookeeperCluster.zookeeperClusterName(name)))
-                        .compose(sts -> zkSetOperations.maybeRollingUpdate(sts, pod -> {
+                        .compose(sts -> maybeRollingUpdate(zkSetOperations, sts, pod -> {
                             String env = ModelUtils.getPodEnv(pod, ZookeeperCluster.ZOOKEEPER_NAME, ZookeeperCluster.ENV_VAR_ZOOKEEPER_NODE_COUNT);
                             // If the Pod is not yet configured for current+1 nodes, we need to roll it
                             return !String.valueOf(current + 1).equals(env);
@@ -1621,10 +1753,19 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     .compose(sts -> {
                         Storage oldStorage = getOldStorage(sts);
 
-                        this.kafkaCluster = KafkaCluster.fromCrd(kafkaAssembly, versions, oldStorage);
+                        if (sts != null && sts.getSpec() != null) {
+                            this.kafkaCurrentReplicas = sts.getSpec().getReplicas();
+                        }
+
+                        this.kafkaCluster = modelCache.computeIfAbsent(kafkaAssembly, KafkaCluster.class.getSimpleName(),
+                            () -> KafkaCluster.fromCrd(kafkaAssembly, versions, oldStorage), getOldStorageJson(sts));
                         this.kafkaService = kafkaCluster.generateService();
                         this.kafkaHeadlessService = kafkaCluster.generateHeadlessService();
 
+                        this.kafkaPendingLogDirVolumes = KafkaCluster.pendingLogDirVolumes(
+                                sts != null ? Annotations.stringAnnotation(sts, KafkaCluster.ANNO_STRIMZI_IO_PENDING_LOG_DIR_VOLUMES, null) : null,
+                                oldStorage, kafkaCluster.getStorage());
+
                         return Future.succeededFuture(this);
                     });
         }
@@ -1667,7 +1808,109 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         }
 
         Future<ReconciliationState> kafkaScaleDown() {
-            return withVoid(kafkaSetOperations.scaleDown(namespace, kafkaCluster.getName(), kafkaCluster.getReplicas()));
+            int desired = kafkaCluster.getReplicas();
+
+            if (kafkaCurrentReplicas != null && kafkaCurrentReplicas > desired) {
+                // The partition replicas are moved off the removed brokers first, so that shrinking the StatefulSet
+                // does not leave any partitions under-replicated or offline
+                log.info("{}: Moving the partition replicas off the Kafka brokers {} to {} before scaling down",
+                        reconciliation, desired, kafkaCurrentReplicas - 1);
+
+                return kafkaDrainBrokers(desired)
+                        .compose(ignore -> withVoid(kafkaSetOperations.scaleDown(namespace, kafkaCluster.getName(), desired)));
+            } else {
+                return withVoid(kafkaSetOperations.scaleDown(namespace, kafkaCluster.getName(), desired));
+            }
+        }
+
+        Future<Void> kafkaDrainBrokers(int desired) {
+            return withAdminSecrets((clusterCaCertSecret, coKeySecret) ->
+                    kafkaSetOperations.drainBrokers(namespace, name, desired, scaleDownThrottle, clusterCaCertSecret, coKeySecret,
+                        remaining -> reportProgress(scalingDownStatus(desired, remaining))));
+        }
+
+        /**
+         * Runs an operation which needs the secrets for connecting to the Kafka brokers using the Admin API
+         */
+        <T> Future<T> withAdminSecrets(BiFunction<Secret, Secret, Future<T>> operation) {
+            Future<Secret> clusterCaCertSecretFuture = secretOperations.getAsync(namespace, KafkaResources.clusterCaCertificateSecretName(name));
+            Future<Secret> coKeySecretFuture = secretOperations.getAsync(namespace, ClusterOperator.secretName(name));
+
+            return CompositeFuture.join(clusterCaCertSecretFuture, coKeySecretFuture)
+                    .compose(compositeFuture -> {
+                        Secret clusterCaCertSecret = compositeFuture.resultAt(0);
+                        if (clusterCaCertSecret == null) {
+                            return Future.failedFuture(Util.missingSecretException(namespace, KafkaCluster.clusterCaKeySecretName(name)));
+                        }
+
+                        Secret coKeySecret = compositeFuture.resultAt(1);
+                        if (coKeySecret == null) {
+                            return Future.failedFuture(Util.missingSecretException(namespace, ClusterOperator.secretName(name)));
+                        }
+
+                        return operation.apply(clusterCaCertSecret, coKeySecret);
+                    });
+        }
+
+        /**
+         * Updates the status while a long running operation is in progress. Failures are only logged, since the
+         * status is updated again at the end of the reconciliation.
+         */
+        void reportProgress(KafkaStatus status) {
+            updateStatus(status).setHandler(res -> {
+                if (res.failed()) {
+                    log.warn("{}: Failed to report the progress in the status", reconciliation, res.cause());
+                }
+            });
+        }
+
+        /**
+         * Creates a copy of the current status with the ScalingDown condition reporting how many partitions still
+         * have to be moved off the removed brokers.
+         *
+         * @param desired               The number of brokers after the scale-down
+         * @param remainingPartitions   The number of partitions which still have to be moved
+         *
+         * @return  The status with the progress of the scale-down
+         */
+        KafkaStatus scalingDownStatus(int desired, int remainingPartitions) {
+            return progressStatus("ScalingDown", "PartitionReassignment", "Scaling down to " + desired + " brokers, "
+                    + remainingPartitions + " partitions remaining to be moved off the removed brokers");
+        }
+
+        /**
+         * Creates a copy of the current status with a condition reporting the progress of a long running operation.
+         * The condition is not part of the status set at the end of the reconciliation, so it disappears once the
+         * operation is complete.
+         *
+         * @param type      The type of the condition
+         * @param reason    The reason of the condition
+         * @param message   The message describing the progress
+         *
+         * @return  The status with the progress of the operation
+         */
+        KafkaStatus progressStatus(String type, String reason, String message) {
+            KafkaStatus current = kafkaAssembly.getStatus();
+            List<Condition> conditions = new ArrayList<>();
+
+            if (current != null && current.getConditions() != null) {
+                for (Condition condition : current.getConditions()) {
+                    if (!type.equals(condition.getType())) {
+                        conditions.add(condition);
+                    }
+                }
+            }
+
+            conditions.add(new ConditionBuilder()
+                    .withLastTransitionTime(ModelUtils.formatTimestamp(dateSupplier()))
+                    .withType(type)
+                    .withStatus("True")
+                    .withReason(reason)
+                    .withMessage(message)
+                    .build());
+
+            KafkaStatusBuilder status = current != null ? new KafkaStatusBuilder(current) : new KafkaStatusBuilder();
+            return status.withConditions(conditions).build();
         }
 
         Future<ReconciliationState> kafkaService() {
@@ -1777,6 +2020,41 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             }
         }
 
+        /**
+         * @return  The labels selecting the resources of the Kafka cluster
+         */
+        private Labels kafkaSelectorLabels() {
+            return Labels.EMPTY.withKind(reconciliation.kind()).withCluster(reconciliation.name());
+        }
+
+        /**
+         * Waits until the load balancer addresses or node ports are assigned to all external Services of the Kafka
+         * cluster, i.e. to the bootstrap Service and to the per-broker Services. All of them are watched together.
+         * When they are not ready in time, the error lists the Services which are still waiting.
+         */
+        Future<Map<String, Service>> kafkaExternalServicesReady() {
+            Set<String> serviceNames = new HashSet<>();
+            serviceNames.add(KafkaCluster.externalBootstrapServiceName(name));
+            for (int i = 0; i < kafkaCluster.getReplicas(); i++) {
+                serviceNames.add(KafkaCluster.externalServiceName(name, i));
+            }
+
+            Predicate<Service> isReady = kafkaCluster.isExposedWithNodePort() ? ServiceOperator::isNodePortReady : ServiceOperator::isIngressAddressReady;
+
+            return serviceOperations.waitForAll(namespace, kafkaSelectorLabels(), serviceNames, operationTimeoutMs, isReady)
+                    .recover(error -> {
+                        String message;
+                        if (kafkaCluster.isExposedWithNodePort()) {
+                            message = "Node ports were not assigned to all Services. " + error.getMessage();
+                        } else {
+                            message = "No loadbalancer address found in the Status section of all Service resources. Loadbalancers were probably not provisioned. " + error.getMessage();
+                        }
+
+                        log.warn("{}: {}", reconciliation, message);
+                        return Future.failedFuture(message);
+                    });
+        }
+
         Future<ReconciliationState> kafkaExternalBootstrapServiceReady() {
             if (!kafkaCluster.isExposedWithLoadBalancer() && !kafkaCluster.isExposedWithNodePort()) {
                 return withVoid(Future.succeededFuture());
@@ -1787,64 +2065,32 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 this.kafkaExternalBootstrapDnsName.add(kafkaCluster.getExternalListenerBootstrapOverride().getAddress());
             }
 
-            Promise blockingPromise = Promise.promise();
-
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
-                future -> {
-                    String serviceName = KafkaCluster.externalBootstrapServiceName(name);
-                    Future<Void> address = null;
-
-                    if (kafkaCluster.isExposedWithNodePort()) {
-                        address = serviceOperations.hasNodePort(namespace, serviceName, 1_000, operationTimeoutMs);
-                    } else {
-                        address = serviceOperations.hasIngressAddress(namespace, serviceName, 1_000, operationTimeoutMs);
-                    }
+            return kafkaExternalServicesReady().map(services -> {
+                this.kafkaExternalServices = services;
 
-                    address.setHandler(res -> {
-                        if (res.succeeded()) {
-                            if (kafkaCluster.isExposedWithLoadBalancer()) {
-                                String bootstrapAddress = null;
+                String serviceName = KafkaCluster.externalBootstrapServiceName(name);
+                Service service = services.get(serviceName);
 
-                                if (serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getHostname() != null) {
-                                    bootstrapAddress = serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getHostname();
-                                } else {
-                                    bootstrapAddress = serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getIp();
-                                }
+                if (kafkaCluster.isExposedWithLoadBalancer()) {
+                    LoadBalancerIngress ingress = service.getStatus().getLoadBalancer().getIngress().get(0);
+                    String bootstrapAddress = ingress.getHostname() != null ? ingress.getHostname() : ingress.getIp();
 
-                                if (log.isTraceEnabled()) {
-                                    log.trace("{}: Found address {} for Service {}", reconciliation, bootstrapAddress, serviceName);
-                                }
+                    if (log.isTraceEnabled()) {
+                        log.trace("{}: Found address {} for Service {}", reconciliation, bootstrapAddress, serviceName);
+                    }
 
-                                this.kafkaExternalBootstrapDnsName.add(bootstrapAddress);
+                    this.kafkaExternalBootstrapDnsName.add(bootstrapAddress);
 
-                                setExternalListenerStatus(new ListenerAddressBuilder()
-                                        .withHost(bootstrapAddress)
-                                        .withPort(kafkaCluster.getLoadbalancerPort())
-                                        .build());
-                            } else if (kafkaCluster.isExposedWithNodePort()) {
-                                ServiceSpec sts = serviceOperations.get(namespace, serviceName).getSpec();
-                                externalBootstrapNodePort = sts.getPorts().get(0).getNodePort();
-                            }
-                            future.complete();
-                        } else {
-                            if (kafkaCluster.isExposedWithNodePort()) {
-                                log.warn("{}: Node port was not assigned for Service {}.", reconciliation, serviceName);
-                                future.fail("Node port was not assigned for Service " + serviceName + ".");
-                            } else {
-                                log.warn("{}: No loadbalancer address found in the Status section of Service {} resource. Loadbalancer was probably not provisioned.", reconciliation, serviceName);
-                                future.fail("No loadbalancer address found in the Status section of Service " + serviceName + " resource. Loadbalancer was probably not provisioned.");
-                            }
-                        }
-                    });
-                }, res -> {
-                    if (res.succeeded()) {
-                        blockingPromise.complete();
-                    } else {
-                        blockingPromise.fail(res.cause());
-                    }
-                });
+                    setExternalListenerStatus(new ListenerAddressBuilder()
+                            .withHost(bootstrapAddress)
+                            .withPort(kafkaCluster.getLoadbalancerPort())
+                            .build());
+                } else if (kafkaCluster.isExposedWithNodePort()) {
+                    externalBootstrapNodePort = service.getSpec().getPorts().get(0).getNodePort();
+                }
 
-            return withVoid(blockingPromise.future());
+                return this;
+            });
         }
 
         Future<ReconciliationState> kafkaNodePortExternalListenerStatus() {
@@ -1908,111 +2154,78 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 return withVoid(Future.succeededFuture());
             }
 
-            Promise blockingPromise = Promise.promise();
+            // The per-broker Services were already waited for together with the bootstrap Service
+            for (int i = 0; i < kafkaCluster.getReplicas(); i++) {
+                String serviceName = KafkaCluster.externalServiceName(name, i);
+                Service service = kafkaExternalServices.get(serviceName);
+                Set<String> dnsNames = new HashSet<>();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
-                future -> {
-                    int replicas = kafkaCluster.getReplicas();
-                    List<Future> serviceFutures = new ArrayList<>(replicas);
+                String dnsOverride = kafkaCluster.getExternalServiceAdvertisedHostOverride(i);
+                if (dnsOverride != null)    {
+                    dnsNames.add(dnsOverride);
+                }
 
-                    for (int i = 0; i < replicas; i++) {
-                        String serviceName = KafkaCluster.externalServiceName(name, i);
-                        Promise servicePromise = Promise.promise();
+                if (kafkaCluster.isExposedWithLoadBalancer()) {
+                    // Get the advertised URL
+                    LoadBalancerIngress firstIngress = service.getStatus().getLoadBalancer().getIngress().get(0);
+                    String serviceAddress = firstIngress.getHostname() != null ? firstIngress.getHostname() : firstIngress.getIp();
 
-                        Future<Void> address = null;
-                        Set<String> dnsNames = new HashSet<>();
+                    if (log.isTraceEnabled()) {
+                        log.trace("{}: Found address {} for Service {}", reconciliation, serviceAddress, serviceName);
+                    }
 
-                        String dnsOverride = kafkaCluster.getExternalServiceAdvertisedHostOverride(i);
-                        if (dnsOverride != null)    {
-                            dnsNames.add(dnsOverride);
-                        }
+                    this.kafkaExternalAdvertisedHostnames.add(kafkaCluster.getExternalAdvertisedHostname(i, serviceAddress));
+                    this.kafkaExternalAdvertisedPorts.add(kafkaCluster.getExternalAdvertisedPort(i, "9094"));
 
-                        if (kafkaCluster.isExposedWithNodePort()) {
-                            address = serviceOperations.hasNodePort(namespace, serviceName, 1_000, operationTimeoutMs);
+                    // Collect the DNS names for certificates
+                    for (LoadBalancerIngress ingress : service.getStatus().getLoadBalancer().getIngress())    {
+                        if (ingress.getHostname() != null) {
+                            dnsNames.add(ingress.getHostname());
                         } else {
-                            address = serviceOperations.hasIngressAddress(namespace, serviceName, 1_000, operationTimeoutMs);
+                            dnsNames.add(ingress.getIp());
                         }
+                    }
+                } else if (kafkaCluster.isExposedWithNodePort()) {
+                    // Get the advertised URL
+                    String port = service.getSpec().getPorts().get(0).getNodePort().toString();
 
-                        int podNumber = i;
-
-                        address.setHandler(res -> {
-                            if (res.succeeded()) {
-                                if (kafkaCluster.isExposedWithLoadBalancer()) {
-                                    // Get the advertised URL
-                                    String serviceAddress = null;
-
-                                    if (serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getHostname() != null) {
-                                        serviceAddress = serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getHostname();
-                                    } else {
-                                        serviceAddress = serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getIp();
-                                    }
-
-                                    if (log.isTraceEnabled()) {
-                                        log.trace("{}: Found address {} for Service {}", reconciliation, serviceAddress, serviceName);
-                                    }
-
-                                    this.kafkaExternalAdvertisedHostnames.add(kafkaCluster.getExternalAdvertisedHostname(podNumber, serviceAddress));
-                                    this.kafkaExternalAdvertisedPorts.add(kafkaCluster.getExternalAdvertisedPort(podNumber, "9094"));
-
-                                    // Collect the DNS names for certificates
-                                    for (LoadBalancerIngress ingress : serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress())    {
-                                        if (ingress.getHostname() != null) {
-                                            dnsNames.add(ingress.getHostname());
-                                        } else {
-                                            dnsNames.add(ingress.getIp());
-                                        }
-                                    }
-                                } else if (kafkaCluster.isExposedWithNodePort()) {
-                                    // Get the advertised URL
-                                    String port = serviceOperations.get(namespace, serviceName).getSpec().getPorts()
-                                        .get(0).getNodePort().toString();
-
-                                    if (log.isTraceEnabled()) {
-                                        log.trace("{}: Found port {} for Service {}", reconciliation, port, serviceName);
-                                    }
-
-                                    // For node ports, when the override is not set, we don't pass any advertised hostname
-                                    String advertisedHostname = kafkaCluster.getExternalAdvertisedHostname(podNumber, null);
-                                    if (advertisedHostname != null) {
-                                        this.kafkaExternalAdvertisedHostnames.add(advertisedHostname);
-                                    }
+                    if (log.isTraceEnabled()) {
+                        log.trace("{}: Found port {} for Service {}", reconciliation, port, serviceName);
+                    }
 
-                                    this.kafkaExternalAdvertisedPorts.add(kafkaCluster.getExternalAdvertisedPort(podNumber, port));
-                                }
+                    // For node ports, when the override is not set, we don't pass any advertised hostname
+                    String advertisedHostname = kafkaCluster.getExternalAdvertisedHostname(i, null);
+                    if (advertisedHostname != null) {
+                        this.kafkaExternalAdvertisedHostnames.add(advertisedHostname);
+                    }
 
-                                this.kafkaExternalDnsNames.put(podNumber, dnsNames);
+                    this.kafkaExternalAdvertisedPorts.add(kafkaCluster.getExternalAdvertisedPort(i, port));
+                }
 
-                                servicePromise.complete();
-                            } else {
-                                if (kafkaCluster.isExposedWithNodePort()) {
-                                    log.warn("{}: Node port was not assigned for Service {}.", reconciliation, serviceName);
-                                    servicePromise.fail("Node port was not assigned for Service " + serviceName + ".");
-                                } else {
-                                    log.warn("{}: No loadbalancer address found in the Status section of Service {} resource. Loadbalancer was probably not provisioned.", reconciliation, serviceName);
-                                    servicePromise.fail("No loadbalancer address found in the Status section of Service " + serviceName + " resource. Loadbalancer was probably not provisioned.");
-                                }
-                            }
-                        });
+                this.kafkaExternalDnsNames.put(i, dnsNames);
+            }
 
-                        serviceFutures.add(servicePromise.future());
-                    }
+            return withVoid(Future.succeededFuture());
+        }
 
-                    CompositeFuture.join(serviceFutures).setHandler(res -> {
-                        if (res.succeeded()) {
-                            future.complete();
-                        } else {
-                            future.fail(res.cause());
-                        }
+        /**
+         * Waits until the addresses are assigned to all Routes of the Kafka cluster, i.e. to the bootstrap Route and
+         * to the per-broker Routes. All of them are watched together. When they are not ready in time, the error lists
+         * the Routes which are still waiting.
+         */
+        Future<Map<String, Route>> kafkaRoutesReady() {
+            Set<String> routeNames = new HashSet<>();
+            routeNames.add(KafkaCluster.serviceName(name));
+            for (int i = 0; i < kafkaCluster.getReplicas(); i++) {
+                routeNames.add(KafkaCluster.externalServiceName(name, i));
+            }
+
+            return routeOperations.waitForAll(namespace, kafkaSelectorLabels(), routeNames, operationTimeoutMs, RouteOperator::isAddressReady)
+                    .recover(error -> {
+                        String message = "No route address found in the Status section of all Route resources. Routes were probably not provisioned by the OpenShift router. " + error.getMessage();
+                        log.warn("{}: {}", reconciliation, message);
+                        return Future.failedFuture(message);
                     });
-                }, res -> {
-                    if (res.succeeded()) {
-                        blockingPromise.complete();
-                    } else {
-                        blockingPromise.fail(res.cause());
-                    }
-                });
-
-            return withVoid(blockingPromise.future());
         }
 
         Future<ReconciliationState> kafkaBootstrapRouteReady() {
@@ -2025,43 +2238,24 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 this.kafkaExternalBootstrapDnsName.add(kafkaCluster.getExternalListenerBootstrapOverride().getAddress());
             }
 
-            Promise blockingPromise = Promise.promise();
+            return kafkaRoutesReady().map(routes -> {
+                this.kafkaRoutes = routes;
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
-                future -> {
-                    String routeName = KafkaCluster.serviceName(name);
-                    //Future future = Future.future();
-                    Future<Void> address = routeOperations.hasAddress(namespace, routeName, 1_000, operationTimeoutMs);
-
-                    address.setHandler(res -> {
-                        if (res.succeeded()) {
-                            String bootstrapAddress = routeOperations.get(namespace, routeName).getStatus().getIngress().get(0).getHost();
-                            this.kafkaExternalBootstrapDnsName.add(bootstrapAddress);
-
-                            setExternalListenerStatus(new ListenerAddressBuilder()
-                                    .withHost(bootstrapAddress)
-                                    .withPort(kafkaCluster.getRoutePort())
-                                    .build());
-
-                            if (log.isTraceEnabled()) {
-                                log.trace("{}: Found address {} for Route {}", reconciliation, bootstrapAddress, routeName);
-                            }
+                String routeName = KafkaCluster.serviceName(name);
+                String bootstrapAddress = routes.get(routeName).getStatus().getIngress().get(0).getHost();
+                this.kafkaExternalBootstrapDnsName.add(bootstrapAddress);
 
-                            future.complete();
-                        } else {
-                            log.warn("{}: No route address found in the Status section of Route {} resource. Route was probably not provisioned by the OpenShift router.", reconciliation, routeName);
-                            future.fail("No route address found in the Status section of Route " + routeName + " resource. Route was probably not provisioned by the OpenShift router.");
-                        }
-                    });
-                }, res -> {
-                    if (res.succeeded()) {
-                        blockingPromise.complete();
-                    } else {
-                        blockingPromise.fail(res.cause());
-                    }
-                });
+                setExternalListenerStatus(new ListenerAddressBuilder()
+                        .withHost(bootstrapAddress)
+                        .withPort(kafkaCluster.getRoutePort())
+                        .build());
+
+                if (log.isTraceEnabled()) {
+                    log.trace("{}: Found address {} for Route {}", reconciliation, bootstrapAddress, routeName);
+                }
 
-            return withVoid(blockingPromise.future());
+                return this;
+            });
         }
 
         Future<ReconciliationState> kafkaReplicaRoutesReady() {
@@ -2069,81 +2263,45 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 return withVoid(Future.succeededFuture());
             }
 
-            Promise blockingPromise = Promise.promise();
-
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
-                future -> {
-                    int replicas = kafkaCluster.getReplicas();
-                    List<Future> routeFutures = new ArrayList<>(replicas);
-
-                    for (int i = 0; i < replicas; i++) {
-                        String routeName = KafkaCluster.externalServiceName(name, i);
-                        Promise routePromise = Promise.promise();
-                        Future<Void> address = routeOperations.hasAddress(namespace, routeName, 1_000, operationTimeoutMs);
-                        int podNumber = i;
-
-                        Set<String> dnsNames = new HashSet<>();
-
-                        String dnsOverride = kafkaCluster.getExternalServiceAdvertisedHostOverride(i);
-                        if (dnsOverride != null)    {
-                            dnsNames.add(dnsOverride);
-                        }
-
-                        address.setHandler(res -> {
-                            if (res.succeeded()) {
-                                Route route = routeOperations.get(namespace, routeName);
-
-                                // Get the advertised URL
-                                String routeAddress = route.getStatus().getIngress().get(0).getHost();
-                                this.kafkaExternalAdvertisedHostnames.add(kafkaCluster.getExternalAdvertisedHostname(podNumber, routeAddress));
-                                this.kafkaExternalAdvertisedPorts.add(kafkaCluster.getExternalAdvertisedPort(podNumber, "443"));
+            // The per-broker Routes were already waited for together with the bootstrap Route
+            for (int i = 0; i < kafkaCluster.getReplicas(); i++) {
+                String routeName = KafkaCluster.externalServiceName(name, i);
+                Route route = kafkaRoutes.get(routeName);
+                Set<String> dnsNames = new HashSet<>();
 
-                                if (log.isTraceEnabled()) {
-                                    log.trace("{}: Found address {} for Route {}", reconciliation, routeAddress, routeName);
-                                }
-
-                                // Collect the DNS names for certificates
-                                for (RouteIngress ingress : route.getStatus().getIngress()) {
-                                    dnsNames.add(ingress.getHost());
-                                }
+                String dnsOverride = kafkaCluster.getExternalServiceAdvertisedHostOverride(i);
+                if (dnsOverride != null)    {
+                    dnsNames.add(dnsOverride);
+                }
 
-                                this.kafkaExternalDnsNames.put(podNumber, dnsNames);
+                // Get the advertised URL
+                String routeAddress = route.getStatus().getIngress().get(0).getHost();
+                this.kafkaExternalAdvertisedHostnames.add(kafkaCluster.getExternalAdvertisedHostname(i, routeAddress));
+                this.kafkaExternalAdvertisedPorts.add(kafkaCluster.getExternalAdvertisedPort(i, "443"));
 
-                                routePromise.complete();
-                            } else {
-                                log.warn("{}: No route address found in the Status section of Route {} resource. Route was probably not provisioned by the OpenShift router.", reconciliation, routeName);
-                                routePromise.fail("No route address found in the Status section of Route " + routeName + " resource. Route was probably not provisioned by the OpenShift router.");
-                            }
-                        });
+                if (log.isTraceEnabled()) {
+                    log.trace("{}: Found address {} for Route {}", reconciliation, routeAddress, routeName);
+                }
 
-                        routeFutures.add(routePromise.future());
-                    }
+                // Collect the DNS names for certificates
+                for (RouteIngress ingress : route.getStatus().getIngress()) {
+                    dnsNames.add(ingress.getHost());
+                }
 
-                    CompositeFuture.join(routeFutures).setHandler(res -> {
-                        if (res.succeeded()) {
-                            future.complete();
-                        } else {
-                            future.fail(res.cause());
-                        }
-                    });
-                }, res -> {
-                    if (res.succeeded()) {
-                        blockingPromise.complete();
-                    } else {
-                        blockingPromise.fail(res.cause());
-                    }
-                });
+                this.kafkaExternalDnsNames.put(i, dnsNames);
+            }
 
-            return withVoid(blockingPromise.future());
+            return withVoid(Future.succeededFuture());
         }
 
         Future<ReconciliationState> kafkaGenerateCertificates(Supplier<Date> dateSupplier) {
             Promise<ReconciliationState> resultPromise = Promise.promise();
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            WorkerPools.executor(vertx, WorkerPools.CERTIFICATES).<ReconciliationState>executeBlocking(
                 future -> {
                     try {
-                        kafkaCluster.generateCertificates(kafkaAssembly,
-                                clusterCa, kafkaExternalBootstrapDnsName, kafkaExternalDnsNames,
+                        // The certificates are kept outside of the cached model
+                        this.kafkaBrokerCerts = clusterCa.generateBrokerCerts(kafkaAssembly,
+                                kafkaExternalBootstrapDnsName, kafkaExternalDnsNames,
                                 isMaintenanceTimeWindowsSatisfied(dateSupplier));
                         future.complete(this);
                     } catch (Throwable e) {
@@ -2253,7 +2411,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         }
 
         Future<ReconciliationState> kafkaBrokersSecret() {
-            return updateCertificateSecretWithDiff(KafkaCluster.brokersSecretName(name), kafkaCluster.generateBrokersSecret())
+            return updateCertificateSecretWithDiff(KafkaCluster.brokersSecretName(name), kafkaCluster.generateBrokersSecret(kafkaBrokerCerts))
                     .map(changed -> {
                         existingKafkaCertsChanged = changed;
                         return this;
@@ -2431,6 +2589,13 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                         externalListenerCustomCertificateThumbprint);
             }
 
+            // The volumes pending the move of the replicas are recorded together with the storage, so that the moves
+            // are resumed when the operator restarts before they completed
+            if (!kafkaPendingLogDirVolumes.isEmpty()) {
+                Annotations.annotations(kafkaSts).put(KafkaCluster.ANNO_STRIMZI_IO_PENDING_LOG_DIR_VOLUMES,
+                        kafkaPendingLogDirVolumes.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            }
+
             return kafkaSts;
         }
 
@@ -2439,7 +2604,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         }
 
         Future<ReconciliationState> kafkaRollingUpdate() {
-            return withVoid(kafkaSetOperations.maybeRollingUpdate(kafkaDiffs.resource(), pod ->
+            return withVoid(maybeRollingUpdate(kafkaSetOperations, kafkaDiffs.resource(), pod ->
                 isPodToRestart(kafkaDiffs.resource(), pod, existingKafkaCertsChanged, this.clusterCa, this.clientsCa)
             ));
         }
@@ -2792,7 +2957,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         @SuppressWarnings("deprecation")
         private final Future<ReconciliationState> getTopicOperatorDescription() {
-            this.topicOperator = io.strimzi.operator.cluster.model.TopicOperator.fromCrd(kafkaAssembly, versions);
+            this.topicOperator = modelCache.computeIfAbsent(kafkaAssembly, io.strimzi.operator.cluster.model.TopicOperator.class.getSimpleName(),
+                () -> io.strimzi.operator.cluster.model.TopicOperator.fromCrd(kafkaAssembly, versions));
 
             if (topicOperator != null) {
                 this.toDeployment = topicOperator.generateDeployment(pfa.isOpenshift(), imagePullPolicy, imagePullSecrets);
@@ -2870,7 +3036,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         @SuppressWarnings("deprecation")
         private final Future<ReconciliationState> getEntityOperatorDescription() {
-            this.entityOperator = EntityOperator.fromCrd(kafkaAssembly, versions);
+            this.entityOperator = modelCache.computeIfAbsent(kafkaAssembly, EntityOperator.class.getSimpleName(),
+                () -> EntityOperator.fromCrd(kafkaAssembly, versions));
 
             if (entityOperator != null) {
                 EntityTopicOperator topicOperator = entityOperator.getTopicOperator();
@@ -3208,18 +3375,19 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         private Storage getOldStorage(StatefulSet sts)  {
             Storage storage = null;
+            String jsonStorage = getOldStorageJson(sts);
 
-            if (sts != null)    {
-                String jsonStorage = Annotations.stringAnnotation(sts, ANNO_STRIMZI_IO_STORAGE, null);
-
-                if (jsonStorage != null)    {
-                    storage = ModelUtils.decodeStorageFromJson(jsonStorage);
-                }
+            if (jsonStorage != null)    {
+                storage = ModelUtils.decodeStorageFromJson(jsonStorage);
             }
 
             return storage;
         }
 
+        private String getOldStorageJson(StatefulSet sts)  {
+            return sts != null ? Annotations.stringAnnotation(sts, ANNO_STRIMZI_IO_STORAGE, null) : null;
+        }
+
         void setExternalListenerStatus(ListenerAddress... addresses)   {
             KafkaListeners listeners = kafkaCluster.getListeners();
 
@@ -3298,6 +3466,268 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             return Future.succeededFuture(this);
         }
 
+        /**
+         * Moves partition replicas to the volumes added to the JBOD storage, so that the added volumes are used by
+         * the existing partitions as well. The reconciliation waits until all replicas were moved, at most for the
+         * operation timeout. The volumes stay recorded in the Kafka StatefulSet until then, so the moves are resumed
+         * by the next reconciliation when they time out or are interrupted.
+         */
+        Future<ReconciliationState> kafkaLogDirBalancing() {
+            if (kafkaPendingLogDirVolumes.isEmpty()) {
+                return Future.succeededFuture(this);
+            }
+
+            Map<Integer, Set<String>> addedLogDirs = new HashMap<>();
+            for (int broker = 0; broker < kafkaCluster.getReplicas(); broker++) {
+                Set<String> logDirs = new HashSet<>();
+                for (Integer volumeId : kafkaPendingLogDirVolumes) {
+                    logDirs.add(kafkaCluster.logDir(volumeId, broker));
+                }
+                addedLogDirs.put(broker, logDirs);
+            }
+
+            log.info("{}: Moving partition replicas to the added JBOD volumes {}", reconciliation, kafkaPendingLogDirVolumes);
+            return withVoid(withAdminSecrets((clusterCaCertSecret, coKeySecret) ->
+                    kafkaSetOperations.balanceLogDirs(namespace, name, addedLogDirs, logDirMoveThrottle, logDirMaxConcurrentMoves,
+                        clusterCaCertSecret, coKeySecret,
+                        remaining -> reportProgress(progressStatus("BalancingLogDirs", "ReplicaLogDirMove",
+                                remaining + " partition replicas remaining to be moved to the added JBOD volumes"))))
+                    .compose(ignored -> removePendingLogDirVolumes()));
+        }
+
+        /**
+         * Removes the volumes pending the move of the replicas from the Kafka StatefulSet once the moves completed
+         */
+        Future<Void> removePendingLogDirVolumes() {
+            return kafkaSetOperations.getAsync(namespace, KafkaCluster.kafkaClusterName(name))
+                    .compose(sts -> {
+                        if (sts == null || Annotations.stringAnnotation(sts, KafkaCluster.ANNO_STRIMZI_IO_PENDING_LOG_DIR_VOLUMES, null) == null) {
+                            return Future.succeededFuture();
+                        }
+
+                        StatefulSet updated = new StatefulSetBuilder(sts)
+                                .editMetadata()
+                                    .removeFromAnnotations(KafkaCluster.ANNO_STRIMZI_IO_PENDING_LOG_DIR_VOLUMES)
+                                .endMetadata()
+                                .build();
+                        return kafkaSetOperations.reconcile(namespace, KafkaCluster.kafkaClusterName(name), updated).map((Void) null);
+                    });
+        }
+
+        /**
+         * Rebalances the partitions across the brokers when enabled using the strimzi.io/rebalance annotation. In the
+         * dry-run mode, only the proposal is published in the status. In the execute mode, the proposal published in
+         * the status is executed as it is. The execution is not awaited by the reconciliation, which only reports
+         * its progress. Once it is done, the annotation is changed back to dry-run, so that a new proposal is
+         * executed only after it was reviewed as well. An execution which was interrupted is resumed only once it
+         * is not executed anymore by another operator (see {@link #isRebalanceAbandoned}).
+         */
+        Future<ReconciliationState> kafkaRebalance() {
+            String mode = Annotations.stringAnnotation(kafkaAssembly, Annotations.ANNO_STRIMZI_IO_REBALANCE, null);
+            boolean balanceLogSize = Annotations.booleanAnnotation(kafkaAssembly, Annotations.ANNO_STRIMZI_IO_REBALANCE_LOG_SIZE, false);
+
+            if (mode == null) {
+                return Future.succeededFuture(this);
+            } else if (REBALANCE_DRY_RUN.equals(mode)) {
+                return proposeRebalance(balanceLogSize);
+            } else if (REBALANCE_EXECUTE.equals(mode)) {
+                RebalanceExecution running = rebalances.get(namespace + "/" + name);
+                if (running != null) {
+                    log.debug("{}: The rebalancing is still in progress", reconciliation);
+                    kafkaStatus.setRebalance(running.status);
+                    return Future.succeededFuture(this);
+                }
+
+                RebalanceStatus proposal = kafkaAssembly.getStatus() != null ? kafkaAssembly.getStatus().getRebalance() : null;
+                if (proposal == null
+                        || !(KafkaRebalancer.STATE_PROPOSAL_READY.equals(proposal.getState()) || KafkaRebalancer.STATE_REBALANCING.equals(proposal.getState()))) {
+                    log.warn("{}: There is no proposal to execute, computing it in the {} mode first", reconciliation, REBALANCE_DRY_RUN);
+                    return proposeRebalance(balanceLogSize)
+                            .compose(state -> setRebalanceMode(REBALANCE_DRY_RUN))
+                            .map(this);
+                }
+
+                if (KafkaRebalancer.STATE_REBALANCING.equals(proposal.getState()) && !isRebalanceAbandoned(proposal)) {
+                    log.info("{}: The rebalancing might still be executed by another operator, it is resumed once its progress stops changing", reconciliation);
+                    kafkaStatus.setRebalance(proposal);
+                    return Future.succeededFuture(this);
+                }
+
+                kafkaStatus.setRebalance(executeRebalance(proposal, balanceLogSize));
+                return Future.succeededFuture(this);
+            } else {
+                log.warn("{}: Ignoring the {} annotation with the invalid value {}, it has to be {} or {}", reconciliation,
+                        Annotations.ANNO_STRIMZI_IO_REBALANCE, mode, REBALANCE_DRY_RUN, REBALANCE_EXECUTE);
+                return Future.succeededFuture(this);
+            }
+        }
+
+        /**
+         * Computes the rebalance proposal and publishes it in the status
+         */
+        Future<ReconciliationState> proposeRebalance(boolean balanceLogSize) {
+            return withAdminSecrets((clusterCaCertSecret, coKeySecret) ->
+                    kafkaSetOperations.proposeRebalance(namespace, name, balanceLogSize, clusterCaCertSecret, coKeySecret))
+                    .map(rebalance -> {
+                        kafkaStatus.setRebalance(rebalance);
+                        return this;
+                    });
+        }
+
+        /**
+         * A rebalancing in the Rebalancing state without any execution in this operator was interrupted, or is still
+         * being executed by another operator (e.g. by the previous owner of the Kafka resource when the operator is
+         * sharded). The execution reports its progress before each batch, and each batch completes or times out
+         * within the operation timeout. So the execution is considered abandoned once the reported progress did not
+         * change for twice the operation timeout, as observed by this operator (the clocks of the operators do not
+         * have to be in sync).
+         *
+         * @param rebalance The status of the rebalancing
+         *
+         * @return  True if the execution can be resumed by this operator
+         */
+        boolean isRebalanceAbandoned(RebalanceStatus rebalance) {
+            long nowMs = System.currentTimeMillis();
+            ObservedProgress observed = observedRebalances.compute(namespace + "/" + name,
+                (key, previous) -> previous != null && Objects.equals(previous.lastProgressTime, rebalance.getLastProgressTime())
+                        ? previous
+                        : new ObservedProgress(rebalance.getLastProgressTime(), nowMs));
+            return nowMs - observed.observedAtMs >= 2 * operationTimeoutMs;
+        }
+
+        /**
+         * Starts executing the proposal (or the remaining part of it, when the execution was interrupted before)
+         * without waiting for it to complete. The annotation is changed back to dry-run when the execution completes
+         * or fails, the next reconciliation then publishes a new proposal. When the execution times out, or is
+         * cancelled because the Kafka resource was deleted or is now owned by another operator, the annotation is
+         * kept and the status lists the remaining reassignments, which are resumed by the next reconciliation.
+         *
+         * @param proposal          The status with the proposal
+         * @param balanceLogSize    If true, the log sizes of the brokers are reported in the status as well
+         *
+         * @return  The status of the rebalancing when it starts
+         */
+        RebalanceStatus executeRebalance(RebalanceStatus proposal, boolean balanceLogSize) {
+            String key = namespace + "/" + name;
+            RebalanceExecution execution = new RebalanceExecution(withProgressTime(proposal));
+            rebalances.put(key, execution);
+            observedRebalances.remove(key);
+
+            log.info("{}: Executing the rebalance proposal", reconciliation);
+            withAdminSecrets((clusterCaCertSecret, coKeySecret) ->
+                    kafkaSetOperations.rebalance(namespace, name, proposal, balanceLogSize, rebalanceThrottle, rebalanceMaxConcurrentMoves,
+                        clusterCaCertSecret, coKeySecret, () -> execution.cancelled || !isOwned(namespace, name), progress -> {
+                            execution.status = withProgressTime(progress);
+                            reportRebalance(execution.status);
+                        }))
+                    .map(rebalance -> {
+                        log.info("{}: The rebalancing completed", reconciliation);
+                        execution.status = rebalance;
+                        return true;
+                    })
+                    .otherwise(error -> {
+                        if (error instanceof TimeoutException || error instanceof CancellationException) {
+                            log.warn("{}: The rebalancing was interrupted, the remaining reassignments are resumed by the next reconciliation",
+                                    reconciliation, error);
+                            return false;
+                        }
+
+                        log.warn("{}: The rebalancing failed, a new proposal has to be executed", reconciliation, error);
+                        return true;
+                    })
+                    .compose(done -> {
+                        if (done) {
+                            return setRebalanceMode(REBALANCE_DRY_RUN);
+                        } else if (!execution.cancelled && isOwned(namespace, name)) {
+                            // Timed out, so it is known not to be executed anymore and can be resumed right away
+                            observedRebalances.put(key, new ObservedProgress(execution.status.getLastProgressTime(), 0));
+                        }
+                        return Future.<Void>succeededFuture();
+                    })
+                    .setHandler(res -> {
+                        rebalances.remove(key, execution);
+                        if (res.failed()) {
+                            log.warn("{}: Failed to change the {} annotation to {}", reconciliation, Annotations.ANNO_STRIMZI_IO_REBALANCE,
+                                    REBALANCE_DRY_RUN, res.cause());
+                        }
+                    });
+
+            return execution.status;
+        }
+
+        /**
+         * @return  The status of the rebalancing in the Rebalancing state with the current time as its last progress
+         */
+        RebalanceStatus withProgressTime(RebalanceStatus rebalance) {
+            return new RebalanceStatusBuilder(rebalance)
+                    .withState(KafkaRebalancer.STATE_REBALANCING)
+                    .withLastProgressTime(ModelUtils.formatTimestamp(dateSupplier()))
+                    .build();
+        }
+
+        /**
+         * Sets the strimzi.io/rebalance annotation of the Kafka resource
+         */
+        Future<Void> setRebalanceMode(String mode) {
+            return crdOperator.getAsync(namespace, name)
+                    .compose(current -> {
+                        if (current == null) {
+                            return Future.succeededFuture();
+                        }
+
+                        Kafka updated = new KafkaBuilder(current)
+                                .editMetadata()
+                                    .addToAnnotations(Annotations.ANNO_STRIMZI_IO_REBALANCE, mode)
+                                .endMetadata()
+                                .build();
+                        return crdOperator.reconcile(namespace, name, updated).map((Void) null);
+                    });
+        }
+
+        /**
+         * Updates the status of the rebalancing in the current status of the Kafka resource, since the execution
+         * outlives the reconciliation which started it. Failures are only logged, since the status is updated again
+         * by the next reconciliation.
+         */
+        void reportRebalance(RebalanceStatus rebalance) {
+            crdOperator.getAsync(namespace, name)
+                    .compose(current -> {
+                        if (current == null) {
+                            return Future.succeededFuture();
+                        }
+
+                        KafkaStatusBuilder status = current.getStatus() != null ? new KafkaStatusBuilder(current.getStatus()) : new KafkaStatusBuilder();
+                        return updateStatus(status.withRebalance(rebalance).build());
+                    })
+                    .setHandler(res -> {
+                        if (res.failed()) {
+                            log.warn("{}: Failed to report the progress of the rebalancing in the status", reconciliation, res.cause());
+                        }
+                    });
+        }
+
+        /**
+         * Elects the preferred leaders of the partitions which are led by another broker while their preferred leader
+         * is in sync, e.g. after the brokers were restarted outside of a rolling update, and records the leadership
+         * skew. The preferred leaders are elected only when the periodic leader election is enabled in the Cluster
+         * Operator configuration, otherwise only the skew is recorded and the preferred leaders are elected only after
+         * the brokers were restarted by a rolling update (see {@link KafkaSetOperator#maybeRollingUpdate}). Failures are
+         * only logged, since this is done again by the next reconciliation.
+         */
+        Future<ReconciliationState> kafkaPreferredLeaders() {
+            return withAdminSecrets((clusterCaCertSecret, coKeySecret) -> periodicLeaderElection
+                        ? kafkaSetOperations.electPreferredLeaders(namespace, name, clusterCaCertSecret, coKeySecret)
+                        : kafkaSetOperations.leadershipSkew(namespace, name, clusterCaCertSecret, coKeySecret))
+                    .map(skew -> {
+                        recordLeadershipSkew(namespace, name, skew);
+                        return this;
+                    })
+                    .recover(error -> {
+                        log.warn("{}: Failed to elect the preferred leaders or to get the leadership skew", reconciliation, error);
+                        return Future.succeededFuture(this);
+                    });
+        }
+
         void addCertificateToListener(String type, String certificate)    {
             if (certificate == null)    {
                 // When custom certificate is not used, use the current CA certificate
@@ -3320,7 +3750,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         }
 
         private final Future<ReconciliationState> getKafkaExporterDescription() {
-            this.kafkaExporter = KafkaExporter.fromCrd(kafkaAssembly, versions);
+            this.kafkaExporter = modelCache.computeIfAbsent(kafkaAssembly, KafkaExporter.class.getSimpleName(),
+                () -> KafkaExporter.fromCrd(kafkaAssembly, versions));
             this.exporterDeployment = kafkaExporter.generateDeployment(pfa.isOpenshift(), imagePullPolicy, imagePullSecrets);
             return Future.succeededFuture(this);
         }
@@ -3388,7 +3819,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         Future<ReconciliationState> getJmxTransDescription() {
             try {
                 int numOfBrokers = kafkaCluster.getReplicas();
-                this.jmxTrans = JmxTrans.fromCrd(kafkaAssembly, versions);
+                this.jmxTrans = modelCache.computeIfAbsent(kafkaAssembly, JmxTrans.class.getSimpleName(),
+                    () -> JmxTrans.fromCrd(kafkaAssembly, versions));
                 if (this.jmxTrans != null) {
                     this.jmxTransConfigMap = jmxTrans.generateJmxTransConfigMap(kafkaAssembly.getSpec().getJmxTrans(), numOfBrokers);
                     this.jmxTransDeployment = jmxTrans.generateDeployment(imagePullPolicy, imagePullSecrets);
@@ -3451,6 +3883,33 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         return new Date();
     }
 
+    /**
+     * The execution of a rebalance proposal, which outlives the reconciliation which started it
+     */
+    static class RebalanceExecution {
+        // The last status of the execution
+        volatile RebalanceStatus status;
+        // Set when the Kafka resource was deleted
+        volatile boolean cancelled;
+
+        RebalanceExecution(RebalanceStatus status) {
+            this.status = status;
+        }
+    }
+
+    /**
+     * The last progress of a rebalancing reported in the status, and when it was first observed by this operator
+     */
+    static class ObservedProgress {
+        final String lastProgressTime;
+        final long observedAtMs;
+
+        ObservedProgress(String lastProgressTime, long observedAtMs) {
+            this.lastProgressTime = lastProgressTime;
+            this.observedAtMs = observedAtMs;
+        }
+    }
+
     private String getStringHash(String toBeHashed)  {
         try {
             MessageDigest hashFunc = MessageDigest.getInstance("SHA-512");
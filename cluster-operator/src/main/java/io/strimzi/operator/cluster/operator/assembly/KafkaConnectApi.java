@@ -5,18 +5,25 @@
 package io.strimzi.operator.cluster.operator.assembly;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.strimzi.api.kafka.model.connect.ConnectorPlugin;
+import io.strimzi.operator.cluster.ClusterOperatorConfig;
 import io.strimzi.operator.common.BackOff;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.micrometer.backends.BackendRegistries;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -24,9 +31,13 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static java.util.Arrays.asList;
@@ -125,6 +136,19 @@ public interface KafkaConnectApi {
      */
     Future<List<String>> list(String host, int port);
 
+    /**
+     * Make a {@code GET} request to {@code /connectors?expand=status&expand=info} to get the status and the
+     * configuration of all connectors in a single request.
+     * @param host The host to make the request to.
+     * @param port The port to make the request to.
+     * @return A Future which completes with the result of the request. If the request was successful,
+     * this returns a map from the connector name to an object with the {@code status} and {@code info} of the connector.
+     * When the Kafka Connect version does not support the {@code expand} parameter, it returns just the connector
+     * names. The map then contains the names with {@code null} values and the callers should fall back to the
+     * per-connector requests to get the status and info.
+     */
+    Future<Map<String, Map<String, Object>>> listExpanded(String host, int port);
+
     /**
      * Make a {@code GET} request to {@code /connector-plugins}.
      * @param host The host to make the request to.
@@ -133,6 +157,11 @@ public interface KafkaConnectApi {
      * this returns the list of connector plugins.
      */
     Future<List<ConnectorPlugin>> listConnectorPlugins(String host, int port);
+
+    /**
+     * Closes the HTTP client and its pooled connections. The client cannot be used once it is closed.
+     */
+    void close();
 }
 
 class ConnectRestException extends RuntimeException {
@@ -168,10 +197,100 @@ class KafkaConnectApiImpl implements KafkaConnectApi {
     };
     public static final TypeReference<Map<String, String>> MAP_OF_STRINGS = new TypeReference<Map<String, String>>() {
     };
+    public static final TypeReference<Map<String, Map<String, Object>>> MAP_OF_TREES = new TypeReference<Map<String, Map<String, Object>>>() {
+    };
+
+    // ObjectMapper and ObjectReader are thread-safe once configured, so they are shared by all requests
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader TREE_READER = MAPPER.readerFor(TREE_TYPE);
+    private static final ObjectReader MAP_OF_STRINGS_READER = MAPPER.readerFor(MAP_OF_STRINGS);
+    private static final ObjectReader CONNECTOR_PLUGINS_READER = MAPPER.readerFor(ConnectorPlugin[].class);
+
+    // Kafka Connect (Jetty) closes idle connections after 30s. We close them sooner to not reuse connections closed by the server.
+    /* test */ static final int IDLE_TIMEOUT_SECONDS = 20;
+    private static final String REQUEST_METRIC = "strimzi.connect.api.requests";
+
     private final Vertx vertx;
+    private final HttpClient httpClient;
+    private final long requestTimeoutMs;
+    private final MeterRegistry metrics;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
 
     public KafkaConnectApiImpl(Vertx vertx) {
+        this(vertx, ClusterOperatorConfig.DEFAULT_CONNECT_API_MAX_POOL_SIZE, ClusterOperatorConfig.DEFAULT_CONNECT_API_CONNECT_TIMEOUT_MS,
+                ClusterOperatorConfig.DEFAULT_CONNECT_API_REQUEST_TIMEOUT_MS);
+    }
+
+    /**
+     * Creates the client with a single pooled HTTP client. The HTTP client keeps a separate pool of keep-alive connections
+     * for each host and port, i.e. for each Kafka Connect cluster.
+     *
+     * @param vertx The Vertx instance
+     * @param maxPoolSize Maximal number of connections to a single Kafka Connect cluster
+     * @param connectTimeoutMs Connection timeout in milliseconds
+     * @param requestTimeoutMs Request timeout in milliseconds
+     */
+    public KafkaConnectApiImpl(Vertx vertx, int maxPoolSize, int connectTimeoutMs, long requestTimeoutMs) {
         this.vertx = vertx;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.httpClient = vertx.createHttpClient(new HttpClientOptions()
+                .setKeepAlive(true)
+                .setMaxPoolSize(maxPoolSize)
+                .setConnectTimeout(connectTimeoutMs)
+                .setIdleTimeout(IDLE_TIMEOUT_SECONDS));
+        this.metrics = BackendRegistries.getDefaultNow();
+    }
+
+    /**
+     * Creates a provider which returns the same client for all Kafka Connect clusters
+     * configured according to the Cluster Operator configuration.
+     *
+     * @param vertx The Vertx instance
+     * @param config The Cluster Operator configuration
+     *
+     * @return The provider of the shared client
+     */
+    static Function<Vertx, KafkaConnectApi> sharedClientProvider(Vertx vertx, ClusterOperatorConfig config) {
+        KafkaConnectApi client = new KafkaConnectApiImpl(vertx, config.getConnectApiMaxPoolSize(),
+                config.getConnectApiConnectTimeoutMs(), config.getConnectApiRequestTimeoutMs());
+        return ignored -> client;
+    }
+
+    /**
+     * Records the latency of the request once the result completes.
+     *
+     * @param method The HTTP method
+     * @param endpoint The REST API endpoint (without the connector name to keep the number of metrics bounded)
+     * @param result The result of the request
+     *
+     * @return A Future completed with the same result as the request
+     */
+    private <T> Future<T> timed(String method, String endpoint, Future<T> result) {
+        if (metrics == null) {
+            return result;
+        }
+
+        long startNanos = System.nanoTime();
+        Promise<T> timedResult = Promise.promise();
+        result.setHandler(res -> {
+            timer(method, endpoint, res.succeeded() ? "success" : "failure")
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            timedResult.handle(res);
+        });
+        return timedResult.future();
+    }
+
+    /**
+     * Returns the timer of the requests with given method, endpoint and outcome. The timers are registered only once,
+     * when they are first used.
+     */
+    private Timer timer(String method, String endpoint, String outcome) {
+        return timers.computeIfAbsent(method + " " + endpoint + " " + outcome, key -> Timer.builder(REQUEST_METRIC)
+                .description("Latency of the requests to the Kafka Connect REST API")
+                .tag("method", method)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(metrics));
     }
 
     @Override
@@ -180,20 +299,18 @@ class KafkaConnectApiImpl implements KafkaConnectApi {
             String host, int port,
             String connectorName, JsonObject configJson) {
         Future<Map<String, Object>> result = Future.future();
-        HttpClientOptions options = new HttpClientOptions().setLogActivity(true);
         Buffer data = configJson.toBuffer();
         String path = "/connectors/" + connectorName + "/config";
         log.debug("Making PUT request to {} with body {}", path, configJson);
-        vertx.createHttpClient(options)
+        httpClient
                 .put(port, host, path, response -> {
                     response.exceptionHandler(error -> {
                         result.fail(error);
                     });
                     if (response.statusCode() == 200 || response.statusCode() == 201) {
                         response.bodyHandler(buffer -> {
-                            ObjectMapper mapper = new ObjectMapper();
                             try {
-                                Map t = mapper.readValue(buffer.getBytes(), Map.class);
+                                Map<String, Object> t = TREE_READER.readValue(buffer.getBytes());
                                 log.debug("Got {} response to PUT request to {}: {}", response.statusCode(), path, t);
                                 result.complete(t);
                             } catch (IOException e) {
@@ -211,38 +328,36 @@ class KafkaConnectApiImpl implements KafkaConnectApi {
                 })
                 .exceptionHandler(result::fail)
                 .setFollowRedirects(true)
+                .setTimeout(requestTimeoutMs)
                 .putHeader("Accept", "application/json")
                 .putHeader("Content-Type", "application/json")
                 .putHeader("Content-Length", String.valueOf(data.length()))
                 .write(data)
                 .end();
-        return result;
+        return timed("PUT", "/connectors/{name}/config", result);
     }
 
     @Override
     public Future<Map<String, Object>> getConnector(
             String host, int port,
             String connectorName) {
-        return doGet(host, port, String.format("/connectors/%s", connectorName),
+        return doGet(host, port, String.format("/connectors/%s", connectorName), "/connectors/{name}",
                 new HashSet<>(asList(200, 201)),
-                TREE_TYPE);
+                TREE_READER);
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> Future<T> doGet(String host, int port, String path, Set<Integer> okStatusCodes, TypeReference<T> type) {
+    private <T> Future<T> doGet(String host, int port, String path, String endpoint, Set<Integer> okStatusCodes, ObjectReader reader) {
         Future<T> result = Future.future();
-        HttpClientOptions options = new HttpClientOptions().setLogActivity(true);
         log.debug("Making GET request to {}", path);
-        vertx.createHttpClient(options)
+        httpClient
                 .get(port, host, path, response -> {
                     response.exceptionHandler(error -> {
                         result.fail(error);
                     });
                     if (okStatusCodes.contains(response.statusCode())) {
                         response.bodyHandler(buffer -> {
-                            ObjectMapper mapper = new ObjectMapper();
                             try {
-                                T t = mapper.readValue(buffer.getBytes(), type);
+                                T t = reader.readValue(buffer.getBytes());
                                 log.debug("Got {} response to GET request to {}: {}", response.statusCode(), path, t);
                                 result.complete(t);
                             } catch (IOException e) {
@@ -260,18 +375,19 @@ class KafkaConnectApiImpl implements KafkaConnectApi {
                 })
                 .exceptionHandler(result::fail)
                 .setFollowRedirects(true)
+                .setTimeout(requestTimeoutMs)
                 .putHeader("Accept", "application/json")
                 .end();
-        return result;
+        return timed("GET", endpoint, result);
     }
 
     @Override
     public Future<Map<String, String>> getConnectorConfig(
             String host, int port,
             String connectorName) {
-        return doGet(host, port, String.format("/connectors/%s/config", connectorName),
+        return doGet(host, port, String.format("/connectors/%s/config", connectorName), "/connectors/{name}/config",
                 new HashSet<>(asList(200, 201)),
-                MAP_OF_STRINGS);
+                MAP_OF_STRINGS_READER);
     }
 
     @Override
@@ -283,9 +399,8 @@ class KafkaConnectApiImpl implements KafkaConnectApi {
     @Override
     public Future<Void> delete(String host, int port, String connectorName) {
         Future<Void> result = Future.future();
-        HttpClientOptions options = new HttpClientOptions().setLogActivity(true);
         String path = "/connectors/" + connectorName;
-        vertx.createHttpClient(options)
+        httpClient
                 .delete(port, host, path, response -> {
                     if (response.statusCode() == 204) {
                         result.complete();
@@ -299,10 +414,11 @@ class KafkaConnectApiImpl implements KafkaConnectApi {
                 })
                 .exceptionHandler(result::fail)
                 .setFollowRedirects(true)
+                .setTimeout(requestTimeoutMs)
                 .putHeader("Accept", "application/json")
                 .putHeader("Content-Type", "application/json")
                 .end();
-        return result;
+        return timed("DELETE", "/connectors/{name}", result);
     }
 
     @Override
@@ -368,23 +484,22 @@ class KafkaConnectApiImpl implements KafkaConnectApi {
     @Override
     public Future<Map<String, Object>> status(String host, int port, String connectorName) {
         String path = "/connectors/" + connectorName + "/status";
-        return doGet(host, port, path, Collections.singleton(200), TREE_TYPE);
+        return doGet(host, port, path, "/connectors/{name}/status", Collections.singleton(200), TREE_READER);
     }
 
     @Override
     public Future<Void> pause(String host, int port, String connectorName) {
-        return pauseResume(host, port, "/connectors/" + connectorName + "/pause");
+        return pauseResume(host, port, "/connectors/" + connectorName + "/pause", "/connectors/{name}/pause");
     }
 
     @Override
     public Future<Void> resume(String host, int port, String connectorName) {
-        return pauseResume(host, port, "/connectors/" + connectorName + "/resume");
+        return pauseResume(host, port, "/connectors/" + connectorName + "/resume", "/connectors/{name}/resume");
     }
 
-    private Future<Void> pauseResume(String host, int port, String path) {
+    private Future<Void> pauseResume(String host, int port, String path, String endpoint) {
         Future<Void> result = Future.future();
-        HttpClientOptions options = new HttpClientOptions().setLogActivity(true);
-        vertx.createHttpClient(options)
+        httpClient
                 .put(port, host, path, response -> {
                     response.exceptionHandler(error -> {
                         result.fail(error);
@@ -398,18 +513,18 @@ class KafkaConnectApiImpl implements KafkaConnectApi {
                 })
                 .exceptionHandler(result::fail)
                 .setFollowRedirects(true)
+                .setTimeout(requestTimeoutMs)
                 .putHeader("Accept", "application/json")
                 .end();
-        return result;
+        return timed("PUT", endpoint, result);
     }
 
     @Override
     public Future<List<String>> list(String host, int port) {
         String path = "/connectors";
         Future<List<String>> result = Future.future();
-        HttpClientOptions options = new HttpClientOptions().setLogActivity(true);
 
-        vertx.createHttpClient(options)
+        httpClient
                 .get(port, host, path, response -> {
                     response.exceptionHandler(error -> {
                         result.fail(error);
@@ -433,27 +548,67 @@ class KafkaConnectApiImpl implements KafkaConnectApi {
                 })
                 .exceptionHandler(result::fail)
                 .setFollowRedirects(true)
+                .setTimeout(requestTimeoutMs)
                 .putHeader("Accept", "application/json")
                 .end();
-        return result;
+        return timed("GET", "/connectors", result);
+    }
+
+    @Override
+    public Future<Map<String, Map<String, Object>>> listExpanded(String host, int port) {
+        String path = "/connectors?expand=status&expand=info";
+        Future<Map<String, Map<String, Object>>> result = Future.future();
+
+        httpClient
+                .get(port, host, path, response -> {
+                    response.exceptionHandler(error -> {
+                        result.fail(error);
+                    });
+                    if (response.statusCode() == 200) {
+                        response.bodyHandler(buffer -> {
+                            try {
+                                JsonNode tree = MAPPER.readTree(buffer.getBytes());
+                                if (tree.isArray()) {
+                                    // Kafka Connect before 2.3 ignores the expand parameter and returns just the list of names
+                                    log.debug("Kafka Connect at {}:{} does not support expanded connector list", host, port);
+                                    Map<String, Map<String, Object>> names = new LinkedHashMap<>(tree.size());
+                                    for (JsonNode name : tree) {
+                                        names.put(name.asText(), null);
+                                    }
+                                    result.complete(names);
+                                } else {
+                                    result.complete(MAPPER.convertValue(tree, MAP_OF_TREES));
+                                }
+                            } catch (IOException | IllegalArgumentException e) {
+                                result.fail(new ConnectRestException(response, "Could not deserialize response: " + e));
+                            }
+                        });
+                    } else {
+                        result.fail(new ConnectRestException(response, "Unexpected status code"));
+                    }
+                })
+                .exceptionHandler(result::fail)
+                .setFollowRedirects(true)
+                .setTimeout(requestTimeoutMs)
+                .putHeader("Accept", "application/json")
+                .end();
+        return timed("GET", "/connectors?expand", result);
     }
 
     @Override
     public Future<List<ConnectorPlugin>> listConnectorPlugins(String host, int port) {
         Future<List<ConnectorPlugin>> result = Future.future();
-        HttpClientOptions options = new HttpClientOptions().setLogActivity(true);
         String path = "/connector-plugins";
-        vertx.createHttpClient(options)
+        httpClient
                 .get(port, host, path, response -> {
                     response.exceptionHandler(error -> {
                         result.fail(error);
                     });
                     if (response.statusCode() == 200) {
                         response.bodyHandler(buffer -> {
-                            ObjectMapper mapper = new ObjectMapper();
-
                             try {
-                                result.complete(asList(mapper.readValue(buffer.getBytes(), ConnectorPlugin[].class)));
+                                ConnectorPlugin[] plugins = CONNECTOR_PLUGINS_READER.readValue(buffer.getBytes());
+                                result.complete(asList(plugins));
                             } catch (IOException e)  {
                                 log.warn("Failed to parse list of connector plugins", e);
                                 result.fail(new ConnectRestException(response, "Failed to parse list of connector plugins", e));
@@ -465,8 +620,14 @@ class KafkaConnectApiImpl implements KafkaConnectApi {
                 })
                 .exceptionHandler(result::fail)
                 .setFollowRedirects(true)
+                .setTimeout(requestTimeoutMs)
                 .putHeader("Accept", "application/json")
                 .end();
-        return result;
+        return timed("GET", "/connector-plugins", result);
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
     }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Queries the health endpoints served by the kafka-agent running in the Kafka brokers.
+ */
+class KafkaAgentClient {
+
+    private static final Logger log = LogManager.getLogger(KafkaAgentClient.class);
+
+    static final String SAFE_TO_RESTART_PATH = "/v1/safe-to-restart";
+
+    private final Vertx vertx;
+    private final long requestTimeoutMs;
+
+    /**
+     * @param vertx The Vertx instance
+     * @param requestTimeoutMs The timeout of the requests, including the connection
+     */
+    KafkaAgentClient(Vertx vertx, long requestTimeoutMs) {
+        this.vertx = vertx;
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    /**
+     * Asks the agent of the given broker whether none of the partitions led by the broker is at or under
+     * {@code min.insync.replicas}.
+     *
+     * @param host The hostname of the broker
+     *
+     * @return  Future with true when the agent reports the broker safe to restart and false when it does not.
+     *          The Future fails when the agent cannot be reached.
+     */
+    Future<Boolean> isSafeToRestart(String host) {
+        HttpClient httpClient = vertx.createHttpClient(new HttpClientOptions()
+                .setConnectTimeout((int) requestTimeoutMs));
+        Promise<Boolean> result = Promise.promise();
+
+        httpClient.get(KafkaCluster.HEALTHCHECK_PORT, host, SAFE_TO_RESTART_PATH, response -> {
+            response.exceptionHandler(result::tryFail);
+            response.bodyHandler(body -> {
+                log.trace("Got {} response to GET request to {}{}: {}", response.statusCode(), host, SAFE_TO_RESTART_PATH, body);
+                result.tryComplete(response.statusCode() == 200);
+            });
+        })
+                .exceptionHandler(result::tryFail)
+                .setTimeout(requestTimeoutMs)
+                .end();
+
+        Promise<Boolean> closed = Promise.promise();
+        result.future().setHandler(res -> {
+            httpClient.close();
+            closed.handle(res);
+        });
+        return closed.future();
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.strimzi.operator.cluster.operator.resource.KafkaReassignments.Throttles;
+import io.strimzi.operator.common.operator.resource.TimeoutException;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.PartitionReassignment;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.brokerRacks;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.describeTopics;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.ongoingReassignments;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.originalReplicas;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.reassign;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.reassignmentsInProgress;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.removeThrottles;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.replicas;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.replicasInRack;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.setThrottles;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.targetReplicas;
+
+/**
+ * Moves all partition replicas off the Kafka brokers which are removed when the cluster is scaled down.
+ *
+ * The brokers with the highest ids are removed, so the replicas on the brokers with ids greater than or equal to the
+ * desired number of brokers are reassigned to the remaining brokers (preferring racks without a replica of the
+ * partition and the least loaded brokers). The reassignment is optionally throttled and the returned future
+ * completes only once it finished and the new replicas joined the ISR. The throttles set by the drain are removed
+ * afterwards, restoring the values they replaced.
+ *
+ * Reassignments of partitions with replicas on the removed brokers which are already in progress (e.g. because the
+ * operator was restarted or the previous drain timed out) are not submitted again, their completion is awaited and
+ * they are throttled as well, because the failed drain removed its throttles. Other reassignments in progress are
+ * neither awaited nor touched.
+ */
+public class KafkaBrokerDrainer {
+    private static final Logger log = LogManager.getLogger(KafkaBrokerDrainer.class);
+
+    private final Vertx vertx;
+    private final Admin ac;
+    private final long pollIntervalMs;
+    private final long operationTimeoutMs;
+
+    /**
+     * @param vertx The Vertx instance
+     * @param ac The Admin client connected to one of the remaining brokers
+     * @param pollIntervalMs The interval between the checks of the progress of the reassignment
+     * @param operationTimeoutMs The maximum time to wait for the reassignment to complete
+     */
+    public KafkaBrokerDrainer(Vertx vertx, Admin ac, long pollIntervalMs, long operationTimeoutMs) {
+        this.vertx = vertx;
+        this.ac = ac;
+        this.pollIntervalMs = pollIntervalMs;
+        this.operationTimeoutMs = operationTimeoutMs;
+    }
+
+    /**
+     * Moves the replicas off the brokers with ids greater than or equal to {@code desiredBrokers}.
+     *
+     * @param desiredBrokers The number of brokers after the scale-down
+     * @param throttle The replication throttle in bytes per second, or {@code Long.MAX_VALUE} for no throttle
+     * @param progress Handler called with the number of partitions which still have to be moved,
+     *                 every time the progress is checked
+     *
+     * @return  Future which completes when no moved partition has a replica on the removed brokers
+     *          and the ISR of the moved partitions converged. It fails with a {@link TimeoutException} when this
+     *          takes longer than the operation timeout.
+     */
+    public Future<Void> drain(int desiredBrokers, long throttle, Handler<Integer> progress) {
+        Future<Map<Integer, String>> racksFuture = brokerRacks(ac).map(racks -> {
+            racks.keySet().removeIf(broker -> broker >= desiredBrokers);
+            return racks;
+        });
+        Future<Collection<TopicDescription>> descriptionsFuture = describeTopics(ac);
+        Future<Map<TopicPartition, PartitionReassignment>> ongoingFuture = reassignmentsInProgress(ac);
+
+        return racksFuture
+                .compose(racks -> descriptionsFuture)
+                .compose(descriptions -> ongoingFuture)
+                .compose(ongoing -> {
+                    Map<TopicPartition, List<Integer>> reassignments;
+                    try {
+                        reassignments = reassignments(descriptionsFuture.result(), racksFuture.result(), desiredBrokers, ongoing.keySet());
+                    } catch (IllegalStateException e) {
+                        return Future.failedFuture(e);
+                    }
+
+                    Set<TopicPartition> resumed = ongoingOffRemovedBrokers(descriptionsFuture.result(), desiredBrokers, ongoing.keySet());
+                    Set<TopicPartition> moving = new HashSet<>(reassignments.keySet());
+                    moving.addAll(resumed);
+
+                    if (moving.isEmpty()) {
+                        log.debug("No partition replicas have to be moved off brokers >= {}", desiredBrokers);
+                        return Future.succeededFuture();
+                    }
+
+                    log.info("Moving {} partitions off brokers >= {} ({} reassignments already in progress)",
+                            reassignments.size(), desiredBrokers, resumed.size());
+
+                    Future<Throttles> throttled = throttle < Long.MAX_VALUE
+                            ? setThrottles(ac, throttledReplicas(descriptionsFuture.result(), resumed, ongoing), throttledReassignments(reassignments, resumed, ongoing), throttle)
+                            : Future.succeededFuture(Throttles.NONE);
+
+                    return throttled.compose(throttles -> reassign(ac, reassignments)
+                            .compose(ignored -> awaitConvergence(desiredBrokers, moving, progress))
+                            // The throttles are removed when the drain fails as well, the next attempt sets them again
+                            // for the reassignments which are still in progress
+                            .recover(error -> removeThrottles(ac, throttles).compose(ignored -> Future.failedFuture(error)))
+                            .compose(ignored -> removeThrottles(ac, throttles)));
+                });
+    }
+
+    /**
+     * @return  The current replicas of all partitions, with the replicas of the resumed partitions from before their
+     *          reassignment started
+     */
+    private static Map<TopicPartition, List<Integer>> throttledReplicas(Collection<TopicDescription> descriptions, Set<TopicPartition> resumed,
+                                                                        Map<TopicPartition, PartitionReassignment> ongoing) {
+        Map<TopicPartition, List<Integer>> replicas = replicas(descriptions);
+        for (TopicPartition partition : resumed) {
+            replicas.put(partition, originalReplicas(ongoing.get(partition)));
+        }
+        return replicas;
+    }
+
+    /**
+     * @return  The submitted reassignments together with the target replicas of the resumed reassignments
+     */
+    private static Map<TopicPartition, List<Integer>> throttledReassignments(Map<TopicPartition, List<Integer>> reassignments, Set<TopicPartition> resumed,
+                                                                             Map<TopicPartition, PartitionReassignment> ongoing) {
+        Map<TopicPartition, List<Integer>> throttled = new HashMap<>(reassignments);
+        for (TopicPartition partition : resumed) {
+            throttled.put(partition, targetReplicas(ongoing.get(partition)));
+        }
+        return throttled;
+    }
+
+    /**
+     * @return  The partitions which are being reassigned and which have replicas on the removed brokers
+     */
+    private static Set<TopicPartition> ongoingOffRemovedBrokers(Collection<TopicDescription> descriptions, int desiredBrokers, Set<TopicPartition> ongoing) {
+        Set<TopicPartition> partitions = new HashSet<>();
+        for (TopicDescription description : descriptions) {
+            for (TopicPartitionInfo partition : description.partitions()) {
+                TopicPartition topicPartition = new TopicPartition(description.name(), partition.partition());
+                if (ongoing.contains(topicPartition) && partition.replicas().stream().anyMatch(node -> node.id() >= desiredBrokers)) {
+                    partitions.add(topicPartition);
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Computes the new replicas of the partitions which have replicas on the removed brokers. Each replica on a
+     * removed broker is replaced (at the same position) by a remaining broker in a rack with the fewest replicas of
+     * the partition, and among those by the broker with the fewest replicas.
+     *
+     * @param descriptions The descriptions of all topics
+     * @param brokerRacks The racks of the remaining brokers keyed by broker id (null for brokers without rack)
+     * @param desiredBrokers The number of brokers after the scale-down
+     * @param ongoing The partitions which are already being reassigned. They are skipped.
+     *
+     * @return  The new replicas keyed by partition
+     *
+     * @throws IllegalStateException When a partition has more replicas than the remaining brokers
+     */
+    static Map<TopicPartition, List<Integer>> reassignments(Collection<TopicDescription> descriptions, Map<Integer, String> brokerRacks,
+                                                            int desiredBrokers, Set<TopicPartition> ongoing) {
+        Map<Integer, Integer> load = new HashMap<>();
+        for (Integer broker : brokerRacks.keySet()) {
+            load.put(broker, 0);
+        }
+        for (TopicDescription description : descriptions) {
+            for (TopicPartitionInfo partition : description.partitions()) {
+                for (Node replica : partition.replicas()) {
+                    load.computeIfPresent(replica.id(), (broker, count) -> count + 1);
+                }
+            }
+        }
+
+        List<TopicDescription> sorted = new ArrayList<>(descriptions);
+        sorted.sort(Comparator.comparing(TopicDescription::name));
+
+        Map<TopicPartition, List<Integer>> reassignments = new LinkedHashMap<>();
+        for (TopicDescription description : sorted) {
+            for (TopicPartitionInfo partition : description.partitions()) {
+                TopicPartition topicPartition = new TopicPartition(description.name(), partition.partition());
+                List<Integer> replicas = partition.replicas().stream().map(Node::id).collect(Collectors.toList());
+
+                if (ongoing.contains(topicPartition) || replicas.stream().noneMatch(broker -> broker >= desiredBrokers)) {
+                    continue;
+                }
+
+                for (int i = 0; i < replicas.size(); i++) {
+                    if (replicas.get(i) < desiredBrokers) {
+                        continue;
+                    }
+
+                    Integer replacement = brokerRacks.keySet().stream()
+                            .filter(broker -> !replicas.contains(broker))
+                            .min(Comparator.<Integer>comparingInt(broker -> replicasInRack(replicas, brokerRacks, brokerRacks.get(broker)))
+                                    .thenComparingInt(load::get)
+                                    .thenComparingInt(broker -> broker))
+                            .orElseThrow(() -> new IllegalStateException("Cannot move the replicas of partition " + topicPartition
+                                    + " with " + replicas.size() + " replicas to " + desiredBrokers + " brokers"));
+                    replicas.set(i, replacement);
+                    load.merge(replacement, 1, Integer::sum);
+                }
+
+                reassignments.put(topicPartition, replicas);
+            }
+        }
+
+        return reassignments;
+    }
+
+    /**
+     * Checks whether the reassignment of the moved partitions finished and their ISR converged, otherwise checks again
+     * after the poll interval until the operation timeout.
+     */
+    private Future<Void> awaitConvergence(int desiredBrokers, Set<TopicPartition> moving, Handler<Integer> progress) {
+        Promise<Void> promise = Promise.promise();
+        Set<String> topics = moving.stream().map(TopicPartition::topic).collect(Collectors.toSet());
+        long deadline = System.currentTimeMillis() + operationTimeoutMs;
+        checkConvergence(desiredBrokers, moving, topics, deadline, progress, promise);
+        return promise.future();
+    }
+
+    private void checkConvergence(int desiredBrokers, Set<TopicPartition> moving, Set<String> topics, long deadline,
+                                  Handler<Integer> progress, Promise<Void> promise) {
+        ongoingReassignments(ac)
+                .compose(ongoing -> describeTopics(ac, topics).map(descriptions -> remaining(descriptions, desiredBrokers, moving, ongoing)))
+                .setHandler(res -> {
+                    if (res.failed()) {
+                        promise.fail(res.cause());
+                    } else if (res.result() == 0) {
+                        log.info("All partitions were moved off brokers >= {}", desiredBrokers);
+                        promise.complete();
+                    } else if (System.currentTimeMillis() + pollIntervalMs > deadline) {
+                        log.warn("{} partitions are still being moved off brokers >= {} after {}ms", res.result(), desiredBrokers, operationTimeoutMs);
+                        promise.fail(new TimeoutException());
+                    } else {
+                        log.info("{} partitions are still being moved off brokers >= {}", res.result(), desiredBrokers);
+                        progress.handle(res.result());
+                        vertx.setTimer(pollIntervalMs, timerId -> checkConvergence(desiredBrokers, moving, topics, deadline, progress, promise));
+                    }
+                });
+    }
+
+    /**
+     * @return  The number of moved partitions which are still being reassigned, still have a replica on a removed
+     *          broker, or whose replicas are not all in sync yet
+     */
+    static int remaining(Collection<TopicDescription> descriptions, int desiredBrokers, Set<TopicPartition> moving, Set<TopicPartition> ongoing) {
+        int remaining = 0;
+        for (TopicDescription description : descriptions) {
+            for (TopicPartitionInfo partition : description.partitions()) {
+                TopicPartition topicPartition = new TopicPartition(description.name(), partition.partition());
+                if (!moving.contains(topicPartition)) {
+                    continue;
+                }
+
+                boolean onRemovedBroker = partition.replicas().stream().anyMatch(node -> node.id() >= desiredBrokers);
+                boolean outOfSync = !partition.isr().containsAll(partition.replicas());
+                if (ongoing.contains(topicPartition) || onRemovedBroker || outOfSync) {
+                    remaining++;
+                }
+            }
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.ElectionType;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.describeTopics;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.toFuture;
+
+/**
+ * Moves the leadership of the partitions back to their preferred leaders. When the brokers are restarted one by one,
+ * the leadership moves to the brokers which were restarted first and stays there until the preferred leaders are
+ * elected again, which makes the load of the brokers uneven.
+ *
+ * The preferred leader is elected only for the partitions whose preferred leader is in sync, in batches of
+ * {@link #ELECTION_BATCH_SIZE} partitions. The leadership skew, i.e. the fraction of the partitions which are not led
+ * by their preferred leader, is returned once the elections completed.
+ */
+public class KafkaLeaderElector {
+    private static final Logger log = LogManager.getLogger(KafkaLeaderElector.class);
+
+    /**
+     * The maximum number of partitions whose preferred leader is elected by a single request
+     */
+    static final int ELECTION_BATCH_SIZE = 50;
+
+    private final Vertx vertx;
+    private final Admin ac;
+    private final long pollIntervalMs;
+
+    /**
+     * @param vertx The Vertx instance
+     * @param ac The Admin client
+     * @param pollIntervalMs The interval between the checks whether the restarted brokers are in sync
+     */
+    public KafkaLeaderElector(Vertx vertx, Admin ac, long pollIntervalMs) {
+        this.vertx = vertx;
+        this.ac = ac;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    /**
+     * Elects the preferred leaders of the partitions which are not led by their preferred leader.
+     *
+     * @param restartedBrokers The brokers which were restarted. The elections start once these brokers are in sync for
+     *                         all their partitions, or once the timeout expires.
+     * @param timeoutMs The maximum time to wait for the restarted brokers to be in sync
+     *
+     * @return  Future with the leadership skew after the elections
+     */
+    public Future<Double> electPreferredLeaders(Set<Integer> restartedBrokers, long timeoutMs) {
+        Promise<Collection<TopicDescription>> inSync = Promise.promise();
+        awaitInSync(restartedBrokers, System.currentTimeMillis() + timeoutMs, inSync);
+        return inSync.future().compose(this::elect);
+    }
+
+    /**
+     * @return  Future with the leadership skew, without electing any leaders
+     */
+    public Future<Double> leadershipSkew() {
+        return describeTopics(ac).map(topics -> skew(skewedPartitions(topics), totalPartitions(topics)));
+    }
+
+    /**
+     * Elects the preferred leaders of the electable partitions
+     *
+     * @return  Future with the leadership skew after the elections
+     */
+    private Future<Double> elect(Collection<TopicDescription> topics) {
+        List<TopicPartition> electable = electable(topics);
+        int skewed = skewedPartitions(topics);
+        int total = totalPartitions(topics);
+
+        if (electable.isEmpty()) {
+            return Future.succeededFuture(skew(skewed, total));
+        }
+
+        log.info("Electing the preferred leaders of {} partitions", electable.size());
+        Promise<Integer> elected = Promise.promise();
+        electBatches(electable, 0, 0, elected);
+        return elected.future().map(count -> skew(skewed - count, total));
+    }
+
+    /**
+     * Completes the promise with the current topic descriptions once the restarted brokers are in the ISR of all
+     * partitions they host, or once the deadline passed.
+     */
+    private void awaitInSync(Set<Integer> restartedBrokers, long deadline, Promise<Collection<TopicDescription>> promise) {
+        describeTopics(ac).setHandler(res -> {
+            if (res.failed()) {
+                promise.fail(res.cause());
+                return;
+            }
+
+            int outOfSync = outOfSyncPartitions(res.result(), restartedBrokers);
+            if (outOfSync == 0) {
+                promise.complete(res.result());
+            } else if (System.currentTimeMillis() >= deadline) {
+                log.warn("The restarted brokers {} are not in sync for {} partitions, electing the preferred leaders of the in-sync partitions only",
+                        restartedBrokers, outOfSync);
+                promise.complete(res.result());
+            } else {
+                log.debug("Waiting for the restarted brokers {} to be in sync for {} partitions", restartedBrokers, outOfSync);
+                vertx.setTimer(pollIntervalMs, timerId -> awaitInSync(restartedBrokers, deadline, promise));
+            }
+        });
+    }
+
+    /**
+     * Elects the preferred leaders one batch after another and completes the promise with the number of partitions
+     * whose preferred leader was elected. Partitions whose election failed are logged and skipped.
+     */
+    private void electBatches(List<TopicPartition> partitions, int from, int elected, Promise<Integer> promise) {
+        if (from >= partitions.size()) {
+            promise.complete(elected);
+            return;
+        }
+
+        Set<TopicPartition> batch = new HashSet<>(partitions.subList(from, Math.min(from + ELECTION_BATCH_SIZE, partitions.size())));
+        toFuture(ac.electLeaders(ElectionType.PREFERRED, batch).partitions()).setHandler(res -> {
+            if (res.failed()) {
+                promise.fail(res.cause());
+                return;
+            }
+
+            int batchElected = 0;
+            for (TopicPartition partition : batch) {
+                Throwable error = res.result().containsKey(partition) ? res.result().get(partition).orElse(null) : null;
+                if (error != null) {
+                    log.debug("Preferred leader of {} not elected: {}", partition, error.getMessage());
+                } else {
+                    batchElected++;
+                }
+            }
+            electBatches(partitions, from + ELECTION_BATCH_SIZE, elected + batchElected, promise);
+        });
+    }
+
+    /**
+     * @return  The partitions which are not led by their preferred leader while the preferred leader is in sync
+     */
+    static List<TopicPartition> electable(Collection<TopicDescription> topics) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (TopicDescription topic : topics) {
+            for (TopicPartitionInfo partition : topic.partitions()) {
+                if (!isLedByPreferredLeader(partition) && partition.isr().contains(partition.replicas().get(0))) {
+                    partitions.add(new TopicPartition(topic.name(), partition.partition()));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * @return  The number of partitions which are not led by their preferred leader
+     */
+    static int skewedPartitions(Collection<TopicDescription> topics) {
+        int count = 0;
+        for (TopicDescription topic : topics) {
+            for (TopicPartitionInfo partition : topic.partitions()) {
+                if (!isLedByPreferredLeader(partition)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return  The number of partitions with a replica on one of the brokers which is not in the ISR
+     */
+    static int outOfSyncPartitions(Collection<TopicDescription> topics, Set<Integer> brokers) {
+        int count = 0;
+        for (TopicDescription topic : topics) {
+            for (TopicPartitionInfo partition : topic.partitions()) {
+                for (Node replica : partition.replicas()) {
+                    if (brokers.contains(replica.id()) && !partition.isr().contains(replica)) {
+                        count++;
+                        break;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int totalPartitions(Collection<TopicDescription> topics) {
+        return topics.stream().mapToInt(topic -> topic.partitions().size()).sum();
+    }
+
+    private static boolean isLedByPreferredLeader(TopicPartitionInfo partition) {
+        return partition.replicas().isEmpty()
+                || (partition.leader() != null && partition.leader().id() == partition.replicas().get(0).id());
+    }
+
+    private static double skew(int skewed, int total) {
+        return total == 0 ? 0.0 : (double) Math.max(skewed, 0) / total;
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.strimzi.operator.cluster.operator.resource.KafkaReassignments.Throttles;
+import io.strimzi.operator.common.operator.resource.TimeoutException;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.DescribeReplicaLogDirsResult.ReplicaLogDirInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionReplica;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.protocol.Errors;
+import org.apache.kafka.common.requests.DescribeLogDirsResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.removeThrottles;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.setThrottles;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.toFuture;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Moves partition replicas to the log directories which were added to the Kafka brokers (e.g. by adding a volume
+ * to the JBOD storage). Without it, the added log directories are used only by the partitions created afterwards.
+ *
+ * The replicas are moved within each broker from the fullest of the existing log directories to the emptiest of the
+ * added log directories until their sizes are balanced. The moves are executed using {@code alterReplicaLogDirs},
+ * with at most a given number of moves in progress on each broker and optionally throttled using the
+ * {@code replica.alter.log.dirs.io.max.bytes.per.second} broker option. The returned future completes once all
+ * moves finished, and fails when this takes longer than the operation timeout. The throttle is restored to its
+ * previous value in both cases.
+ *
+ * Moves to the added log directories which are in progress (e.g. because the previous attempt timed out) are
+ * awaited and throttled as well. A move which stops without being completed (e.g. because the broker was restarted)
+ * is retried a few times and then skipped.
+ */
+public class KafkaLogDirBalancer {
+    private static final Logger log = LogManager.getLogger(KafkaLogDirBalancer.class);
+
+    static final String LOG_DIR_THROTTLE = "replica.alter.log.dirs.io.max.bytes.per.second";
+
+    /**
+     * The log directories are considered balanced when their sizes differ by less than this fraction of the average
+     * size of the log directories of the broker
+     */
+    private static final double LOG_SIZE_TOLERANCE = 0.05;
+
+    /**
+     * The number of times a replica is moved before the move is skipped
+     */
+    private static final int MAX_MOVE_ATTEMPTS = 3;
+
+    private final Vertx vertx;
+    private final Admin ac;
+    private final long pollIntervalMs;
+    private final long operationTimeoutMs;
+
+    /**
+     * @param vertx The Vertx instance
+     * @param ac The Admin client
+     * @param pollIntervalMs The interval between the checks of the progress of the moves
+     * @param operationTimeoutMs The maximum time to wait for the moves to complete
+     */
+    public KafkaLogDirBalancer(Vertx vertx, Admin ac, long pollIntervalMs, long operationTimeoutMs) {
+        this.vertx = vertx;
+        this.ac = ac;
+        this.pollIntervalMs = pollIntervalMs;
+        this.operationTimeoutMs = operationTimeoutMs;
+    }
+
+    /**
+     * Moves the replicas to the added log directories.
+     *
+     * @param addedLogDirs The added log directories keyed by broker id
+     * @param throttle The throttle of the moves in bytes per second, or {@code Long.MAX_VALUE} for no throttle
+     * @param maxConcurrentMoves The maximum number of replicas which are moved at the same time on each broker
+     * @param progress Handler called with the number of replicas which still have to be moved,
+     *                 every time the progress is checked
+     *
+     * @return  Future which completes when all replicas were moved. It fails with a {@link TimeoutException} when
+     *          this takes longer than the operation timeout.
+     */
+    public Future<Void> balance(Map<Integer, Set<String>> addedLogDirs, long throttle, int maxConcurrentMoves, Handler<Integer> progress) {
+        return toFuture(ac.describeLogDirs(addedLogDirs.keySet()).all())
+                .compose(logDirs -> {
+                    Map<TopicPartitionReplica, String> ongoing = ongoingMoves(logDirs, addedLogDirs);
+                    Map<TopicPartitionReplica, String> moves = new LinkedHashMap<>(ongoing);
+                    moves.putAll(plan(replicaSizes(logDirs), addedLogDirs));
+                    if (moves.isEmpty()) {
+                        log.debug("No replicas have to be moved to the log directories {}", addedLogDirs);
+                        return Future.succeededFuture();
+                    }
+
+                    Set<Integer> brokers = moves.keySet().stream().map(TopicPartitionReplica::brokerId).collect(Collectors.toSet());
+                    log.info("Moving {} replicas to the added log directories of brokers {} ({} moves already in progress)",
+                            moves.size(), brokers, ongoing.size());
+
+                    Map<ConfigResource, Map<String, String>> throttleConfigs = new HashMap<>();
+                    for (Integer broker : brokers) {
+                        throttleConfigs.put(new ConfigResource(ConfigResource.Type.BROKER, String.valueOf(broker)),
+                                singletonMap(LOG_DIR_THROTTLE, String.valueOf(throttle)));
+                    }
+
+                    return (throttle < Long.MAX_VALUE ? setThrottles(ac, throttleConfigs) : Future.succeededFuture(Throttles.NONE))
+                            .compose(throttles -> {
+                                Map<Integer, Deque<TopicPartitionReplica>> queues = new TreeMap<>();
+                                for (TopicPartitionReplica replica : moves.keySet()) {
+                                    queues.computeIfAbsent(replica.brokerId(), broker -> new ArrayDeque<>());
+                                    if (!ongoing.containsKey(replica)) {
+                                        queues.get(replica.brokerId()).add(replica);
+                                    }
+                                }
+                                Promise<Void> promise = Promise.promise();
+                                long deadline = System.currentTimeMillis() + operationTimeoutMs;
+                                executeMoves(moves, queues, new HashSet<>(ongoing.keySet()), new HashMap<>(), maxConcurrentMoves, deadline, progress, promise);
+                                return promise.future()
+                                        // The throttle is restored when the moves failed as well, the next attempt sets it again
+                                        .recover(error -> removeThrottles(ac, throttles).compose(ignored -> Future.failedFuture(error)))
+                                        .compose(ignored -> removeThrottles(ac, throttles));
+                            });
+                });
+    }
+
+    /**
+     * Starts the queued moves up to the concurrency limit of each broker, checks which moves completed and repeats
+     * after the poll interval until all moves completed or the deadline passed. Moves which are not in progress
+     * anymore without being completed (e.g. because the broker was restarted) are queued again, unless they were
+     * attempted {@link #MAX_MOVE_ATTEMPTS} times already.
+     */
+    private void executeMoves(Map<TopicPartitionReplica, String> moves, Map<Integer, Deque<TopicPartitionReplica>> queues,
+                              Set<TopicPartitionReplica> inProgress, Map<TopicPartitionReplica, Integer> attempts, int maxConcurrentMoves,
+                              long deadline, Handler<Integer> progress, Promise<Void> promise) {
+        Map<TopicPartitionReplica, String> started = new HashMap<>();
+        for (Map.Entry<Integer, Deque<TopicPartitionReplica>> queue : queues.entrySet()) {
+            long brokerMoves = inProgress.stream().filter(replica -> replica.brokerId() == queue.getKey()).count();
+            while (brokerMoves < maxConcurrentMoves && !queue.getValue().isEmpty()) {
+                TopicPartitionReplica replica = queue.getValue().poll();
+                started.put(replica, moves.get(replica));
+                attempts.merge(replica, 1, Integer::sum);
+                brokerMoves++;
+            }
+        }
+        inProgress.addAll(started.keySet());
+
+        (started.isEmpty() ? Future.<Void>succeededFuture() : toFuture(ac.alterReplicaLogDirs(started).all()))
+                .compose(ignored -> toFuture(ac.describeReplicaLogDirs(new HashSet<>(inProgress)).all()))
+                .setHandler(res -> {
+                    if (res.failed()) {
+                        promise.fail(res.cause());
+                        return;
+                    }
+
+                    for (Map.Entry<TopicPartitionReplica, ReplicaLogDirInfo> replica : res.result().entrySet()) {
+                        String target = moves.get(replica.getKey());
+                        ReplicaLogDirInfo info = replica.getValue();
+                        if (info.getFutureReplicaLogDir() == null) {
+                            inProgress.remove(replica.getKey());
+                            if (!target.equals(info.getCurrentReplicaLogDir())) {
+                                if (attempts.getOrDefault(replica.getKey(), 0) < MAX_MOVE_ATTEMPTS) {
+                                    log.debug("The move of {} to {} is not in progress anymore, retrying", replica.getKey(), target);
+                                    queues.get(replica.getKey().brokerId()).addFirst(replica.getKey());
+                                } else {
+                                    log.warn("The move of {} to {} stopped {} times, skipping it", replica.getKey(), target, MAX_MOVE_ATTEMPTS);
+                                }
+                            }
+                        }
+                    }
+
+                    int remaining = inProgress.size() + queues.values().stream().mapToInt(Deque::size).sum();
+                    if (remaining == 0) {
+                        log.info("All replicas were moved to the added log directories");
+                        promise.complete();
+                    } else if (System.currentTimeMillis() + pollIntervalMs > deadline) {
+                        log.warn("{} replicas are still being moved to the added log directories after {}ms", remaining, operationTimeoutMs);
+                        promise.fail(new TimeoutException());
+                    } else {
+                        log.info("{} replicas are still being moved to the added log directories", remaining);
+                        progress.handle(remaining);
+                        vertx.setTimer(pollIntervalMs, timerId -> executeMoves(moves, queues, inProgress, attempts, maxConcurrentMoves,
+                                deadline, progress, promise));
+                    }
+                });
+    }
+
+    /**
+     * @return  The moves to the added log directories which are in progress, i.e. the future replicas in the added
+     *          log directories
+     */
+    static Map<TopicPartitionReplica, String> ongoingMoves(Map<Integer, Map<String, DescribeLogDirsResponse.LogDirInfo>> logDirs,
+                                                           Map<Integer, Set<String>> addedLogDirs) {
+        Map<TopicPartitionReplica, String> moves = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Map<String, DescribeLogDirsResponse.LogDirInfo>> broker : new TreeMap<>(logDirs).entrySet()) {
+            Set<String> added = addedLogDirs.getOrDefault(broker.getKey(), emptySet());
+            for (Map.Entry<String, DescribeLogDirsResponse.LogDirInfo> logDir : new TreeMap<>(broker.getValue()).entrySet()) {
+                if (!added.contains(logDir.getKey()) || logDir.getValue().error != Errors.NONE) {
+                    continue;
+                }
+
+                logDir.getValue().replicaInfos.forEach((partition, replica) -> {
+                    if (replica.isFuture) {
+                        moves.put(new TopicPartitionReplica(partition.topic(), partition.partition(), broker.getKey()), logDir.getKey());
+                    }
+                });
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * @return  The sizes of the replicas in each online log directory keyed by broker id and log directory. Replicas
+     *          which are being moved already are not included.
+     */
+    private static Map<Integer, Map<String, Map<TopicPartition, Long>>> replicaSizes(Map<Integer, Map<String, DescribeLogDirsResponse.LogDirInfo>> logDirs) {
+        Map<Integer, Map<String, Map<TopicPartition, Long>>> sizes = new HashMap<>();
+        for (Map.Entry<Integer, Map<String, DescribeLogDirsResponse.LogDirInfo>> broker : logDirs.entrySet()) {
+            Set<TopicPartition> moving = new HashSet<>();
+            for (DescribeLogDirsResponse.LogDirInfo logDir : broker.getValue().values()) {
+                logDir.replicaInfos.forEach((partition, replica) -> {
+                    if (replica.isFuture) {
+                        moving.add(partition);
+                    }
+                });
+            }
+
+            Map<String, Map<TopicPartition, Long>> brokerSizes = new HashMap<>();
+            for (Map.Entry<String, DescribeLogDirsResponse.LogDirInfo> logDir : broker.getValue().entrySet()) {
+                if (logDir.getValue().error != Errors.NONE) {
+                    continue;
+                }
+
+                Map<TopicPartition, Long> replicas = new HashMap<>();
+                logDir.getValue().replicaInfos.forEach((partition, replica) -> {
+                    if (!replica.isFuture && !moving.contains(partition)) {
+                        replicas.put(partition, replica.size);
+                    }
+                });
+                brokerSizes.put(logDir.getKey(), replicas);
+            }
+            sizes.put(broker.getKey(), brokerSizes);
+        }
+        return sizes;
+    }
+
+    /**
+     * Computes the moves of the replicas to the added log directories. On each broker, the replicas are moved from the
+     * fullest of the existing log directories to the emptiest of the added log directories as long as this makes
+     * their sizes more even.
+     *
+     * @param replicaSizes The sizes of the replicas in each online log directory keyed by broker id and log directory
+     * @param addedLogDirs The added log directories keyed by broker id
+     *
+     * @return  The new log directories of the moved replicas
+     */
+    static Map<TopicPartitionReplica, String> plan(Map<Integer, Map<String, Map<TopicPartition, Long>>> replicaSizes,
+                                                   Map<Integer, Set<String>> addedLogDirs) {
+        Map<TopicPartitionReplica, String> moves = new LinkedHashMap<>();
+
+        for (Map.Entry<Integer, Set<String>> broker : new TreeMap<>(addedLogDirs).entrySet()) {
+            Map<String, Map<TopicPartition, Long>> logDirs = replicaSizes.get(broker.getKey());
+            if (logDirs == null) {
+                continue;
+            }
+
+            Set<String> targets = new HashSet<>(broker.getValue());
+            targets.retainAll(logDirs.keySet());
+            if (targets.isEmpty()) {
+                log.warn("None of the log directories {} is online on broker {}", broker.getValue(), broker.getKey());
+                continue;
+            }
+
+            Map<String, Map<TopicPartition, Long>> replicas = new HashMap<>();
+            Map<String, Long> sizes = new HashMap<>();
+            int replicaCount = 0;
+            for (Map.Entry<String, Map<TopicPartition, Long>> logDir : logDirs.entrySet()) {
+                replicas.put(logDir.getKey(), new HashMap<>(logDir.getValue()));
+                sizes.put(logDir.getKey(), logDir.getValue().values().stream().mapToLong(Long::longValue).sum());
+                replicaCount += logDir.getValue().size();
+            }
+            long tolerance = (long) (LOG_SIZE_TOLERANCE * sizes.values().stream().mapToLong(Long::longValue).sum() / sizes.size());
+
+            Comparator<String> bySize = Comparator.<String>comparingLong(sizes::get).thenComparing(Comparator.naturalOrder());
+            for (int i = 0; i < replicaCount; i++) {
+                String target = targets.stream().min(bySize).get();
+                List<String> sources = logDirs.keySet().stream()
+                        .filter(logDir -> !targets.contains(logDir))
+                        .sorted(bySize.reversed())
+                        .collect(Collectors.toList());
+
+                boolean moved = false;
+                for (String source : sources) {
+                    long difference = sizes.get(source) - sizes.get(target);
+                    if (difference <= tolerance) {
+                        break;
+                    }
+
+                    // The best replica to move brings the sizes of both log directories closest to each other
+                    TopicPartition best = null;
+                    long bestSize = 0;
+                    List<TopicPartition> candidates = replicas.get(source).keySet().stream()
+                            .sorted(Comparator.comparing(TopicPartition::topic).thenComparingInt(TopicPartition::partition))
+                            .collect(Collectors.toList());
+                    for (TopicPartition candidate : candidates) {
+                        long size = replicas.get(source).get(candidate);
+                        if (size > 0 && size < difference
+                                && (best == null || Math.abs(difference - 2 * size) < Math.abs(difference - 2 * bestSize))) {
+                            best = candidate;
+                            bestSize = size;
+                        }
+                    }
+
+                    if (best != null) {
+                        replicas.get(source).remove(best);
+                        replicas.get(target).put(best, bestSize);
+                        sizes.merge(source, -bestSize, Long::sum);
+                        sizes.merge(target, bestSize, Long::sum);
+                        moves.put(new TopicPartitionReplica(best.topic(), best.partition(), broker.getKey()), target);
+                        moved = true;
+                        break;
+                    }
+                }
+
+                if (!moved) {
+                    break;
+                }
+            }
+        }
+
+        return moves;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.ListTopicsOptions;
+import org.apache.kafka.clients.admin.NewPartitionReassignment;
+import org.apache.kafka.clients.admin.PartitionReassignment;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+
+/**
+ * The Admin API calls shared by the operations which reassign partitions
+ * (see {@link KafkaBrokerDrainer} and {@link KafkaRebalancer}) or move them between log directories
+ * (see {@link KafkaLogDirBalancer}).
+ */
+class KafkaReassignments {
+    private static final Logger log = LogManager.getLogger(KafkaReassignments.class);
+
+    static final String LEADER_THROTTLED_RATE = "leader.replication.throttled.rate";
+    static final String FOLLOWER_THROTTLED_RATE = "follower.replication.throttled.rate";
+    static final String LEADER_THROTTLED_REPLICAS = "leader.replication.throttled.replicas";
+    static final String FOLLOWER_THROTTLED_REPLICAS = "follower.replication.throttled.replicas";
+
+    private KafkaReassignments() { }
+
+    /**
+     * @return  The current replicas of all partitions of the described topics
+     */
+    static Map<TopicPartition, List<Integer>> replicas(Collection<TopicDescription> descriptions) {
+        Map<TopicPartition, List<Integer>> replicas = new HashMap<>();
+        for (TopicDescription description : descriptions) {
+            for (TopicPartitionInfo partition : description.partitions()) {
+                replicas.put(new TopicPartition(description.name(), partition.partition()),
+                        partition.replicas().stream().map(Node::id).collect(Collectors.toList()));
+            }
+        }
+        return replicas;
+    }
+
+    /**
+     * @return  The number of replicas of the partition hosted in the given rack. Brokers without rack are considered
+     *          to be in a rack of their own.
+     */
+    static int replicasInRack(List<Integer> replicas, Map<Integer, String> brokerRacks, String rack) {
+        if (rack == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (Integer broker : replicas) {
+            if (Objects.equals(rack, brokerRacks.get(broker))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The throttles set by {@link #setThrottles}, together with the values they replaced, so that
+     * {@link #removeThrottles} removes only the throttles which were set and restores the previous values.
+     */
+    static class Throttles {
+        static final Throttles NONE = new Throttles(emptyMap(), emptyMap());
+
+        // The values which were set keyed by the config resource and the config name
+        final Map<ConfigResource, Map<String, String>> set;
+        // The dynamic values which were replaced, null when the config was not set dynamically before
+        final Map<ConfigResource, Map<String, String>> previous;
+
+        Throttles(Map<ConfigResource, Map<String, String>> set, Map<ConfigResource, Map<String, String>> previous) {
+            this.set = set;
+            this.previous = previous;
+        }
+
+        /**
+         * @param set The values which are set
+         * @param described The configs of the resources before the values were set
+         *
+         * @return  The throttles with the values which are replaced
+         */
+        static Throttles replacing(Map<ConfigResource, Map<String, String>> set, Map<ConfigResource, Config> described) {
+            Map<ConfigResource, Map<String, String>> previous = new HashMap<>(set.size());
+            for (Map.Entry<ConfigResource, Map<String, String>> resource : set.entrySet()) {
+                Map<String, String> values = new HashMap<>(resource.getValue().size());
+                for (String key : resource.getValue().keySet()) {
+                    values.put(key, dynamicValue(described.get(resource.getKey()), key));
+                }
+                previous.put(resource.getKey(), values);
+            }
+            return new Throttles(set, previous);
+        }
+
+        /**
+         * Restores the previous values of the configs which still have the value which was set. The configs which
+         * were changed since are kept.
+         *
+         * @param described The current configs of the resources
+         *
+         * @return  The operations restoring the previous values
+         */
+        Map<ConfigResource, Collection<AlterConfigOp>> restore(Map<ConfigResource, Config> described) {
+            Map<ConfigResource, Collection<AlterConfigOp>> configs = new HashMap<>();
+            for (Map.Entry<ConfigResource, Map<String, String>> resource : set.entrySet()) {
+                List<AlterConfigOp> ops = new ArrayList<>(resource.getValue().size());
+                for (Map.Entry<String, String> config : resource.getValue().entrySet()) {
+                    if (!config.getValue().equals(dynamicValue(described.get(resource.getKey()), config.getKey()))) {
+                        log.debug("Keeping {} of {}, it was changed since it was set", config.getKey(), resource.getKey());
+                        continue;
+                    }
+
+                    String previousValue = previous.get(resource.getKey()).get(config.getKey());
+                    ops.add(previousValue == null
+                            ? new AlterConfigOp(new ConfigEntry(config.getKey(), ""), AlterConfigOp.OpType.DELETE)
+                            : new AlterConfigOp(new ConfigEntry(config.getKey(), previousValue), AlterConfigOp.OpType.SET));
+                }
+                if (!ops.isEmpty()) {
+                    configs.put(resource.getKey(), ops);
+                }
+            }
+            return configs;
+        }
+
+        private static String dynamicValue(Config config, String key) {
+            ConfigEntry entry = config != null ? config.get(key) : null;
+            if (entry != null
+                    && (entry.source() == ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG || entry.source() == ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG)) {
+                return entry.value();
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Throttles the replication of the reassigned partitions like {@code kafka-reassign-partitions.sh --throttle}:
+     * the current replicas are throttled as leaders, the added replicas as followers and the throttled rate is set on
+     * all brokers hosting the current or the added replicas.
+     *
+     * @return  The throttles which were set and the values they replaced
+     */
+    static Future<Throttles> setThrottles(Admin ac, Map<TopicPartition, List<Integer>> current, Map<TopicPartition, List<Integer>> reassignments, long throttle) {
+        Map<String, List<String>> leaders = new TreeMap<>();
+        Map<String, List<String>> followers = new TreeMap<>();
+        Set<Integer> brokers = new HashSet<>();
+        for (Map.Entry<TopicPartition, List<Integer>> reassignment : reassignments.entrySet()) {
+            TopicPartition partition = reassignment.getKey();
+            List<Integer> currentReplicas = current.get(partition);
+            for (Integer broker : currentReplicas) {
+                leaders.computeIfAbsent(partition.topic(), topic -> new ArrayList<>()).add(partition.partition() + ":" + broker);
+            }
+            for (Integer broker : reassignment.getValue()) {
+                if (!currentReplicas.contains(broker)) {
+                    followers.computeIfAbsent(partition.topic(), topic -> new ArrayList<>()).add(partition.partition() + ":" + broker);
+                }
+            }
+            brokers.addAll(currentReplicas);
+            brokers.addAll(reassignment.getValue());
+        }
+
+        Map<ConfigResource, Map<String, String>> set = new HashMap<>();
+        for (Map.Entry<String, List<String>> topic : leaders.entrySet()) {
+            Map<String, String> values = new HashMap<>(2);
+            values.put(LEADER_THROTTLED_REPLICAS, String.join(",", topic.getValue()));
+            if (followers.containsKey(topic.getKey())) {
+                values.put(FOLLOWER_THROTTLED_REPLICAS, String.join(",", followers.get(topic.getKey())));
+            }
+            set.put(new ConfigResource(ConfigResource.Type.TOPIC, topic.getKey()), values);
+        }
+        for (Integer broker : brokers) {
+            Map<String, String> values = new HashMap<>(2);
+            values.put(LEADER_THROTTLED_RATE, String.valueOf(throttle));
+            values.put(FOLLOWER_THROTTLED_RATE, String.valueOf(throttle));
+            set.put(new ConfigResource(ConfigResource.Type.BROKER, String.valueOf(broker)), values);
+        }
+
+        log.debug("Throttling the reassignment to {} bytes/s on brokers {}", throttle, brokers);
+        return setThrottles(ac, set);
+    }
+
+    /**
+     * Sets the given throttle configs
+     *
+     * @return  The throttles which were set and the values they replaced
+     */
+    static Future<Throttles> setThrottles(Admin ac, Map<ConfigResource, Map<String, String>> set) {
+        Map<ConfigResource, Collection<AlterConfigOp>> configs = new HashMap<>(set.size());
+        for (Map.Entry<ConfigResource, Map<String, String>> resource : set.entrySet()) {
+            configs.put(resource.getKey(), resource.getValue().entrySet().stream()
+                    .map(value -> new AlterConfigOp(new ConfigEntry(value.getKey(), value.getValue()), AlterConfigOp.OpType.SET))
+                    .collect(Collectors.toList()));
+        }
+
+        return toFuture(ac.describeConfigs(set.keySet()).all())
+                .compose(described -> {
+                    Throttles throttles = Throttles.replacing(set, described);
+                    return toFuture(ac.incrementalAlterConfigs(configs).all()).map(throttles);
+                });
+    }
+
+    /**
+     * Removes the given throttles. The configs which were changed since they were set are kept, the others are
+     * restored to the values they had before.
+     */
+    static Future<Void> removeThrottles(Admin ac, Throttles throttles) {
+        if (throttles.set.isEmpty()) {
+            return Future.succeededFuture();
+        }
+
+        return toFuture(ac.describeConfigs(throttles.set.keySet()).all())
+                .compose(described -> {
+                    Map<ConfigResource, Collection<AlterConfigOp>> configs = throttles.restore(described);
+                    if (configs.isEmpty()) {
+                        return Future.succeededFuture();
+                    }
+
+                    log.debug("Removing the reassignment throttles of {}", configs.keySet());
+                    return toFuture(ac.incrementalAlterConfigs(configs).all());
+                });
+    }
+
+    static Future<Void> reassign(Admin ac, Map<TopicPartition, List<Integer>> reassignments) {
+        if (reassignments.isEmpty()) {
+            return Future.succeededFuture();
+        }
+
+        Map<TopicPartition, Optional<NewPartitionReassignment>> newReassignments = new HashMap<>(reassignments.size());
+        for (Map.Entry<TopicPartition, List<Integer>> reassignment : reassignments.entrySet()) {
+            newReassignments.put(reassignment.getKey(), Optional.of(new NewPartitionReassignment(reassignment.getValue())));
+        }
+
+        log.debug("Reassigning partitions {}", reassignments);
+        return toFuture(ac.alterPartitionReassignments(newReassignments).all());
+    }
+
+    /**
+     * @return  The racks of all brokers keyed by broker id (null for brokers without rack)
+     */
+    static Future<Map<Integer, String>> brokerRacks(Admin ac) {
+        return toFuture(ac.describeCluster().nodes()).map(nodes -> {
+            Map<Integer, String> racks = new HashMap<>();
+            for (Node node : nodes) {
+                racks.put(node.id(), node.rack());
+            }
+            return racks;
+        });
+    }
+
+    static Future<Collection<TopicDescription>> describeTopics(Admin ac) {
+        return toFuture(ac.listTopics(new ListTopicsOptions().listInternal(true)).names())
+                .compose(names -> describeTopics(ac, names));
+    }
+
+    static Future<Collection<TopicDescription>> describeTopics(Admin ac, Collection<String> names) {
+        return toFuture(ac.describeTopics(names).all())
+                .map(Map::values);
+    }
+
+    static Future<Set<TopicPartition>> ongoingReassignments(Admin ac) {
+        return reassignmentsInProgress(ac).map(Map::keySet);
+    }
+
+    static Future<Map<TopicPartition, PartitionReassignment>> reassignmentsInProgress(Admin ac) {
+        return toFuture(ac.listPartitionReassignments().reassignments());
+    }
+
+    /**
+     * @return  The replicas of the partition before the reassignment in progress started
+     */
+    static List<Integer> originalReplicas(PartitionReassignment reassignment) {
+        return reassignment.replicas().stream()
+                .filter(broker -> !reassignment.addingReplicas().contains(broker))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return  The replicas of the partition once the reassignment in progress completes
+     */
+    static List<Integer> targetReplicas(PartitionReassignment reassignment) {
+        return reassignment.replicas().stream()
+                .filter(broker -> !reassignment.removingReplicas().contains(broker))
+                .collect(Collectors.toList());
+    }
+
+    static <T> Future<T> toFuture(KafkaFuture<T> kafkaFuture) {
+        Promise<T> promise = Promise.promise();
+        kafkaFuture.whenComplete((result, error) -> {
+            if (error != null) {
+                promise.fail(error);
+            } else {
+                promise.complete(result);
+            }
+        });
+        return promise.future();
+    }
+}
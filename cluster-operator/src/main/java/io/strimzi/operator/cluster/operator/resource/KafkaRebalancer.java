@@ -0,0 +1,833 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.strimzi.api.kafka.model.status.BrokerLoad;
+import io.strimzi.api.kafka.model.status.BrokerLoadBuilder;
+import io.strimzi.api.kafka.model.status.PartitionAssignment;
+import io.strimzi.api.kafka.model.status.PartitionAssignmentBuilder;
+import io.strimzi.api.kafka.model.status.RebalanceStatus;
+import io.strimzi.api.kafka.model.status.RebalanceStatusBuilder;
+import io.strimzi.operator.cluster.operator.resource.KafkaReassignments.Throttles;
+import io.strimzi.operator.common.WorkerPools;
+import io.strimzi.operator.common.operator.resource.TimeoutException;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.ElectionType;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.requests.DescribeLogDirsResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.brokerRacks;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.describeTopics;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.ongoingReassignments;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.originalReplicas;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.reassign;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.reassignmentsInProgress;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.removeThrottles;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.replicas;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.replicasInRack;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.setThrottles;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.targetReplicas;
+import static io.strimzi.operator.cluster.operator.resource.KafkaReassignments.toFuture;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+
+/**
+ * Rebalances the partitions across the Kafka brokers, e.g. to use the brokers added by a scale-up.
+ *
+ * The proposed assignment evens out the number of partition replicas of the brokers and, optionally, the size of the
+ * replicas hosted by each broker (obtained using {@code describeLogDirs}). Then the preferred leaders are evened out
+ * by reordering the replicas. The replicas are never moved to a rack which already hosts a replica of the partition,
+ * unless the replica is moved within its rack.
+ *
+ * The proposal is computed in the dry-run mode and executed later as it is, in batches of a limited number of
+ * partitions. Each batch is optionally throttled and the next batch starts only once the replicas of the previous one
+ * are in sync. Afterwards, the preferred leaders are elected. Reassignments of the proposed partitions which are in
+ * progress when the execution starts (e.g. because the operator was restarted) are awaited first.
+ *
+ * Waiting for each batch (and for the reassignments in progress) is bounded by the operation timeout, and the
+ * execution stops before the next batch or poll when it is cancelled. The throttles of the current batch are removed
+ * in both cases, the remaining reassignments can be resumed using the last reported status. The reassignments which
+ * are still in progress when the execution is resumed are throttled again.
+ */
+public class KafkaRebalancer {
+    private static final Logger log = LogManager.getLogger(KafkaRebalancer.class);
+
+    /**
+     * State of the proposal computed in the dry-run mode
+     */
+    public static final String STATE_PROPOSAL_READY = "ProposalReady";
+
+    /**
+     * State while the proposal is being executed
+     */
+    public static final String STATE_REBALANCING = "Rebalancing";
+
+    /**
+     * State when no reassignments are needed
+     */
+    public static final String STATE_BALANCED = "Balanced";
+
+    /**
+     * The brokers are considered balanced when their log sizes differ by less than this fraction of the average size
+     */
+    private static final double LOG_SIZE_TOLERANCE = 0.05;
+
+    private static final Comparator<TopicPartition> PARTITION_ORDER =
+            Comparator.comparing(TopicPartition::topic).thenComparingInt(TopicPartition::partition);
+
+    private final Vertx vertx;
+    private final Admin ac;
+    private final long pollIntervalMs;
+    private final long operationTimeoutMs;
+
+    /**
+     * @param vertx The Vertx instance
+     * @param ac The Admin client
+     * @param pollIntervalMs The interval between the checks of the progress of the reassignments
+     * @param operationTimeoutMs The maximum time to wait for the reassignments of a batch to complete
+     */
+    public KafkaRebalancer(Vertx vertx, Admin ac, long pollIntervalMs, long operationTimeoutMs) {
+        this.vertx = vertx;
+        this.ac = ac;
+        this.pollIntervalMs = pollIntervalMs;
+        this.operationTimeoutMs = operationTimeoutMs;
+    }
+
+    /**
+     * Computes the proposed reassignments without executing them. The partitions which are being reassigned
+     * are left as they are.
+     *
+     * @param balanceLogSize If true, the size of the replicas hosted by the brokers is balanced as well
+     *
+     * @return  Future with the status describing the proposal
+     */
+    public Future<RebalanceStatus> propose(boolean balanceLogSize) {
+        return proposal(balanceLogSize)
+                .map(proposal -> proposal.status(proposal.reassignments.isEmpty() ? STATE_BALANCED : STATE_PROPOSAL_READY, proposal.reassignments));
+    }
+
+    /**
+     * Executes the proposal computed by {@link #propose(boolean)}. The partitions which already have the proposed
+     * replicas are skipped, so an execution which was interrupted (e.g. because the operator was restarted) can be
+     * resumed using the status with the remaining reassignments.
+     *
+     * @param proposed The status with the proposal to execute
+     * @param balanceLogSize If true, the size of the replicas hosted by the brokers is reported in the status as well
+     * @param throttle The replication throttle in bytes per second, or {@code Long.MAX_VALUE} for no throttle
+     * @param maxConcurrentMoves The maximum number of partitions whose replicas are moved at the same time
+     * @param cancelled Checked before each batch and each check of its progress, the execution stops once it returns true
+     * @param progress Handler called with the status listing the remaining reassignments before each batch
+     *
+     * @return  Future with the status of the rebalanced cluster. It fails with an {@link IllegalStateException} when
+     *          the proposal moves replicas to brokers which do not exist anymore, with a {@link TimeoutException} when
+     *          a batch does not complete within the operation timeout and with a {@link CancellationException} when
+     *          the execution was cancelled.
+     */
+    public Future<RebalanceStatus> rebalance(RebalanceStatus proposed, boolean balanceLogSize, long throttle, int maxConcurrentMoves,
+                                             BooleanSupplier cancelled, Handler<RebalanceStatus> progress) {
+        Map<TopicPartition, List<Integer>> proposal = new TreeMap<>(PARTITION_ORDER);
+        if (proposed.getProposal() != null) {
+            for (PartitionAssignment assignment : proposed.getProposal()) {
+                proposal.put(new TopicPartition(assignment.getTopic(), assignment.getPartition()), assignment.getReplicas());
+            }
+        }
+
+        return reassignmentsInProgress(ac)
+                .compose(ongoing -> {
+                    Set<TopicPartition> awaited = new HashSet<>(ongoing.keySet());
+                    awaited.retainAll(proposal.keySet());
+                    if (awaited.isEmpty()) {
+                        return Future.succeededFuture();
+                    }
+
+                    // The reassignments to the proposed replicas were started by an interrupted execution, which
+                    // removed their throttles, so they are throttled again. The throttles of the other reassignments
+                    // were not set by this rebalance, so they are left to their owner.
+                    Map<TopicPartition, List<Integer>> original = new HashMap<>();
+                    Map<TopicPartition, List<Integer>> resumed = new HashMap<>();
+                    for (TopicPartition partition : awaited) {
+                        List<Integer> target = targetReplicas(ongoing.get(partition));
+                        if (new HashSet<>(target).equals(new HashSet<>(proposal.get(partition)))) {
+                            original.put(partition, originalReplicas(ongoing.get(partition)));
+                            resumed.put(partition, target);
+                        }
+                    }
+
+                    log.info("Waiting for {} reassignments of the proposed partitions in progress before rebalancing", awaited.size());
+                    return (throttle < Long.MAX_VALUE && !resumed.isEmpty() ? setThrottles(ac, original, resumed, throttle) : Future.succeededFuture(Throttles.NONE))
+                            .compose(throttles -> awaitCompletion(awaited, cancelled)
+                                    .recover(error -> removeThrottles(ac, throttles).compose(ignored -> Future.failedFuture(error)))
+                                    .compose(ignored -> removeThrottles(ac, throttles)));
+                })
+                .compose(ignored -> cluster(balanceLogSize))
+                .compose(cluster -> {
+                    Map<TopicPartition, List<Integer>> pending;
+                    try {
+                        pending = pending(proposal, cluster.current, cluster.brokerRacks.keySet());
+                    } catch (IllegalStateException e) {
+                        return Future.failedFuture(e);
+                    }
+
+                    return execute(cluster.withReassignments(pending), throttle, maxConcurrentMoves, cancelled, progress);
+                });
+    }
+
+    private Future<Proposal> proposal(boolean balanceLogSize) {
+        Future<Set<TopicPartition>> ongoingFuture = ongoingReassignments(ac);
+
+        return cluster(balanceLogSize)
+                .compose(cluster -> ongoingFuture.compose(ongoing -> {
+                    // The proposal can take a while to compute for large clusters, so it is computed in its own
+                    // bounded pool, which cannot use up the threads needed by the other operations
+                    Promise<Proposal> promise = Promise.promise();
+                    WorkerPools.executor(vertx, WorkerPools.REBALANCE).<Proposal>executeBlocking(future -> {
+                        future.complete(cluster.withReassignments(plan(cluster.current, cluster.brokerRacks, cluster.sizes, ongoing)));
+                    }, false, promise);
+                    return promise.future();
+                }));
+    }
+
+    /**
+     * @return  Future with the current replicas, the racks of the brokers and optionally the sizes of the partitions,
+     *          without any reassignments
+     */
+    private Future<Proposal> cluster(boolean balanceLogSize) {
+        Future<Map<Integer, String>> racksFuture = brokerRacks(ac);
+        Future<Collection<TopicDescription>> descriptionsFuture = describeTopics(ac);
+
+        return racksFuture
+                .compose(racks -> descriptionsFuture)
+                .compose(descriptions -> balanceLogSize ? partitionSizes(racksFuture.result().keySet()) : Future.succeededFuture(null))
+                .map(sizes -> new Proposal(replicas(descriptionsFuture.result()), racksFuture.result(), sizes, emptyMap()));
+    }
+
+    /**
+     * @param proposal The proposed replicas keyed by partition
+     * @param current The current replicas keyed by partition
+     * @param brokers The ids of the brokers
+     *
+     * @return  The proposed reassignments which were not executed yet. The partitions which do not exist anymore are
+     *          skipped.
+     *
+     * @throws IllegalStateException When the proposal moves replicas to brokers which do not exist
+     */
+    static Map<TopicPartition, List<Integer>> pending(Map<TopicPartition, List<Integer>> proposal, Map<TopicPartition, List<Integer>> current,
+                                                      Set<Integer> brokers) {
+        Map<TopicPartition, List<Integer>> pending = new LinkedHashMap<>();
+        for (Map.Entry<TopicPartition, List<Integer>> reassignment : proposal.entrySet()) {
+            List<Integer> currentReplicas = current.get(reassignment.getKey());
+            if (currentReplicas == null) {
+                log.warn("Skipping the proposed reassignment of partition {}, it does not exist anymore", reassignment.getKey());
+            } else if (!currentReplicas.equals(reassignment.getValue())) {
+                if (!brokers.containsAll(reassignment.getValue())) {
+                    throw new IllegalStateException("The proposal moves partition " + reassignment.getKey() + " to brokers "
+                            + reassignment.getValue() + " which do not all exist, a new proposal has to be computed");
+                }
+                pending.put(reassignment.getKey(), reassignment.getValue());
+            }
+        }
+        return pending;
+    }
+
+    private Future<RebalanceStatus> execute(Proposal proposal, long throttle, int maxConcurrentMoves, BooleanSupplier cancelled,
+                                            Handler<RebalanceStatus> progress) {
+        if (proposal.reassignments.isEmpty()) {
+            log.debug("The partitions are balanced");
+            return Future.succeededFuture(proposal.status(STATE_BALANCED, proposal.reassignments));
+        }
+
+        // The replicas are moved in batches, the changes of the preferred leaders do not copy any data
+        List<Map<TopicPartition, List<Integer>>> batches = new ArrayList<>();
+        Map<TopicPartition, List<Integer>> leaderChanges = new LinkedHashMap<>();
+        Map<TopicPartition, List<Integer>> batch = new LinkedHashMap<>();
+        for (Map.Entry<TopicPartition, List<Integer>> reassignment : proposal.reassignments.entrySet()) {
+            if (new HashSet<>(reassignment.getValue()).equals(new HashSet<>(proposal.current.get(reassignment.getKey())))) {
+                leaderChanges.put(reassignment.getKey(), reassignment.getValue());
+            } else {
+                if (batch.size() == maxConcurrentMoves) {
+                    batches.add(batch);
+                    batch = new LinkedHashMap<>();
+                }
+                batch.put(reassignment.getKey(), reassignment.getValue());
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        if (!leaderChanges.isEmpty()) {
+            batches.add(leaderChanges);
+        }
+
+        log.info("Rebalancing {} partitions in {} batches", proposal.reassignments.size(), batches.size());
+        Map<TopicPartition, List<Integer>> remaining = new LinkedHashMap<>(proposal.reassignments);
+        Future<Void> chain = Future.succeededFuture();
+        for (Map<TopicPartition, List<Integer>> next : batches) {
+            chain = chain.compose(ignored -> {
+                if (cancelled.getAsBoolean()) {
+                    return Future.failedFuture(new CancellationException("The rebalancing was cancelled"));
+                }
+
+                progress.handle(proposal.status(STATE_REBALANCING, remaining));
+                return executeBatch(proposal.current, next, next != leaderChanges ? throttle : Long.MAX_VALUE, cancelled)
+                        .map(done -> {
+                            remaining.keySet().removeAll(next.keySet());
+                            return null;
+                        });
+            });
+        }
+
+        return chain
+                .compose(ignored -> electPreferredLeaders(proposal.reassignments.keySet()))
+                .map(ignored -> proposal.status(STATE_BALANCED, remaining));
+    }
+
+    private Future<Void> executeBatch(Map<TopicPartition, List<Integer>> current, Map<TopicPartition, List<Integer>> batch, long throttle,
+                                      BooleanSupplier cancelled) {
+        return (throttle < Long.MAX_VALUE ? setThrottles(ac, current, batch, throttle) : Future.succeededFuture(Throttles.NONE))
+                .compose(throttles -> reassign(ac, batch)
+                        .compose(ignored -> awaitCompletion(batch.keySet(), cancelled))
+                        // The throttles are removed when the batch fails as well, the resumed execution sets them again
+                        .recover(error -> removeThrottles(ac, throttles).compose(ignored -> Future.failedFuture(error)))
+                        .compose(ignored -> removeThrottles(ac, throttles)));
+    }
+
+    /**
+     * Waits until the given partitions are not being reassigned anymore and all their replicas are in sync, at most
+     * for the operation timeout and only until the execution is cancelled.
+     */
+    private Future<Void> awaitCompletion(Set<TopicPartition> partitions, BooleanSupplier cancelled) {
+        Promise<Void> promise = Promise.promise();
+        long deadline = System.currentTimeMillis() + operationTimeoutMs;
+        checkCompletion(partitions, deadline, cancelled, promise);
+        return promise.future();
+    }
+
+    private void checkCompletion(Set<TopicPartition> partitions, long deadline, BooleanSupplier cancelled, Promise<Void> promise) {
+        Set<String> topics = partitions.stream().map(TopicPartition::topic).collect(Collectors.toSet());
+
+        ongoingReassignments(ac)
+                .compose(ongoing -> toFuture(ac.describeTopics(topics).all()).map(descriptions -> {
+                    int remaining = 0;
+                    for (TopicDescription description : descriptions.values()) {
+                        for (TopicPartitionInfo partition : description.partitions()) {
+                            TopicPartition topicPartition = new TopicPartition(description.name(), partition.partition());
+                            if (partitions.contains(topicPartition)
+                                    && (ongoing.contains(topicPartition) || !partition.isr().containsAll(partition.replicas()))) {
+                                remaining++;
+                            }
+                        }
+                    }
+                    return remaining;
+                }))
+                .setHandler(res -> {
+                    if (res.failed()) {
+                        promise.fail(res.cause());
+                    } else if (res.result() == 0) {
+                        promise.complete();
+                    } else if (cancelled.getAsBoolean()) {
+                        promise.fail(new CancellationException("The rebalancing was cancelled"));
+                    } else if (System.currentTimeMillis() + pollIntervalMs > deadline) {
+                        log.warn("{} partitions are still being reassigned after {}ms", res.result(), operationTimeoutMs);
+                        promise.fail(new TimeoutException());
+                    } else {
+                        log.debug("{} partitions are still being reassigned", res.result());
+                        vertx.setTimer(pollIntervalMs, timerId -> checkCompletion(partitions, deadline, cancelled, promise));
+                    }
+                });
+    }
+
+    /**
+     * Elects the preferred leaders of the reassigned partitions. The failures (e.g. because the preferred leader
+     * is not in sync) are only logged, the leadership moves to the preferred leader later anyway when
+     * {@code auto.leader.rebalance.enable} is set.
+     */
+    private Future<Void> electPreferredLeaders(Set<TopicPartition> partitions) {
+        Promise<Void> promise = Promise.promise();
+        toFuture(ac.electLeaders(ElectionType.PREFERRED, partitions).partitions()).setHandler(res -> {
+            if (res.failed()) {
+                log.warn("Failed to elect the preferred leaders", res.cause());
+            } else {
+                res.result().forEach((partition, error) -> error.ifPresent(e -> log.debug("Preferred leader of {} not elected: {}", partition, e.getMessage())));
+            }
+            promise.complete();
+        });
+        return promise.future();
+    }
+
+    /**
+     * @return  The size of each partition, i.e. the size of its largest replica
+     */
+    private Future<Map<TopicPartition, Long>> partitionSizes(Collection<Integer> brokers) {
+        return toFuture(ac.describeLogDirs(brokers).all()).map(logDirs -> {
+            Map<TopicPartition, Long> sizes = new HashMap<>();
+            for (Map<String, DescribeLogDirsResponse.LogDirInfo> brokerLogDirs : logDirs.values()) {
+                for (DescribeLogDirsResponse.LogDirInfo logDir : brokerLogDirs.values()) {
+                    for (Map.Entry<TopicPartition, DescribeLogDirsResponse.ReplicaInfo> replica : logDir.replicaInfos.entrySet()) {
+                        if (!replica.getValue().isFuture) {
+                            sizes.merge(replica.getKey(), replica.getValue().size, Math::max);
+                        }
+                    }
+                }
+            }
+            return sizes;
+        });
+    }
+
+    /**
+     * Computes the new replicas of the partitions. First the replicas are moved from the brokers with the most replicas
+     * to the brokers with the fewest replicas until their numbers differ by at most one. When the sizes of the
+     * partitions are given, replicas are then swapped between the brokers with the largest and the smallest log size
+     * until the sizes are balanced. Last, the preferred leaders are evened out by reordering the replicas.
+     *
+     * The partitions hosted by each broker are indexed by their sizes, so each step looks up the replicas which even
+     * out the brokers best instead of going through all partitions.
+     *
+     * @param current The current replicas keyed by partition
+     * @param brokerRacks The racks of the brokers keyed by broker id (null for brokers without rack)
+     * @param sizes The sizes of the partitions, or null when the log size should not be balanced
+     * @param fixed The partitions which must not be reassigned (e.g. because they are being reassigned already)
+     *
+     * @return  The new replicas of the partitions whose replicas change, ordered by topic and partition
+     */
+    static Map<TopicPartition, List<Integer>> plan(Map<TopicPartition, List<Integer>> current, Map<Integer, String> brokerRacks,
+                                                   Map<TopicPartition, Long> sizes, Set<TopicPartition> fixed) {
+        Map<TopicPartition, List<Integer>> assignment = new TreeMap<>(PARTITION_ORDER);
+        Set<TopicPartition> movable = new HashSet<>();
+        int totalReplicas = 0;
+        for (Map.Entry<TopicPartition, List<Integer>> partition : current.entrySet()) {
+            assignment.put(partition.getKey(), new ArrayList<>(partition.getValue()));
+            totalReplicas += partition.getValue().size();
+            // Partitions with replicas on unknown (e.g. offline) brokers are left alone
+            if (!fixed.contains(partition.getKey()) && brokerRacks.keySet().containsAll(partition.getValue())) {
+                movable.add(partition.getKey());
+            }
+        }
+
+        Load load = new Load(brokerRacks, assignment, sizes, movable);
+
+        for (int i = 0; i < totalReplicas && load.moveReplica(); i++) {
+            // Keeps moving replicas until the numbers of replicas are balanced
+        }
+
+        if (sizes != null) {
+            for (int i = 0; i < totalReplicas && load.swapReplicas(); i++) {
+                // Keeps swapping replicas until the log sizes are balanced
+            }
+        }
+
+        for (int i = 0; i < assignment.size() && load.moveLeader(); i++) {
+            // Keeps reordering replicas until the numbers of preferred leaders are balanced
+        }
+
+        Map<TopicPartition, List<Integer>> reassignments = new LinkedHashMap<>();
+        for (Map.Entry<TopicPartition, List<Integer>> partition : assignment.entrySet()) {
+            if (!partition.getValue().equals(current.get(partition.getKey()))) {
+                reassignments.put(partition.getKey(), partition.getValue());
+            }
+        }
+        return reassignments;
+    }
+
+    /**
+     * The number of replicas, the log size and the number of preferred leaders of each broker while the proposal is
+     * computed, together with the movable partitions hosted and led by each broker.
+     */
+    private static class Load {
+        private final Map<Integer, String> brokerRacks;
+        private final Map<TopicPartition, List<Integer>> assignment;
+        private final Map<TopicPartition, Long> sizes;
+        private final Map<Integer, Integer> replicas = new HashMap<>();
+        private final Map<Integer, Long> logSizes = new HashMap<>();
+        private final Map<Integer, Integer> leaders = new HashMap<>();
+        // The movable partitions with a replica on each broker keyed by their sizes and the movable partitions whose
+        // preferred leader is each broker, ordered by topic and partition
+        private final Map<Integer, TreeMap<Long, Set<TopicPartition>>> hosted = new HashMap<>();
+        private final Map<Integer, Set<TopicPartition>> led = new HashMap<>();
+        private final long logSizeTolerance;
+
+        Load(Map<Integer, String> brokerRacks, Map<TopicPartition, List<Integer>> assignment, Map<TopicPartition, Long> sizes,
+             Set<TopicPartition> movable) {
+            this.brokerRacks = brokerRacks;
+            this.assignment = assignment;
+            this.sizes = sizes;
+
+            for (Integer broker : brokerRacks.keySet()) {
+                replicas.put(broker, 0);
+                logSizes.put(broker, 0L);
+                leaders.put(broker, 0);
+                hosted.put(broker, new TreeMap<>());
+                led.put(broker, new TreeSet<>(PARTITION_ORDER));
+            }
+
+            long totalSize = 0;
+            for (Map.Entry<TopicPartition, List<Integer>> partition : assignment.entrySet()) {
+                boolean isMovable = movable.contains(partition.getKey());
+                for (Integer broker : partition.getValue()) {
+                    if (brokerRacks.containsKey(broker)) {
+                        replicas.merge(broker, 1, Integer::sum);
+                        logSizes.merge(broker, size(partition.getKey()), Long::sum);
+                        totalSize += size(partition.getKey());
+                        if (isMovable) {
+                            host(broker, partition.getKey());
+                        }
+                    }
+                }
+                if (!partition.getValue().isEmpty() && brokerRacks.containsKey(partition.getValue().get(0))) {
+                    leaders.merge(partition.getValue().get(0), 1, Integer::sum);
+                    if (isMovable) {
+                        led.get(partition.getValue().get(0)).add(partition.getKey());
+                    }
+                }
+            }
+
+            this.logSizeTolerance = brokerRacks.isEmpty() ? 0 : (long) (LOG_SIZE_TOLERANCE * totalSize / brokerRacks.size());
+        }
+
+        private long size(TopicPartition partition) {
+            return sizes != null ? sizes.getOrDefault(partition, 0L) : 0L;
+        }
+
+        private void host(Integer broker, TopicPartition partition) {
+            hosted.get(broker).computeIfAbsent(size(partition), size -> new TreeSet<>(PARTITION_ORDER)).add(partition);
+        }
+
+        private void unhost(Integer broker, TopicPartition partition) {
+            Set<TopicPartition> sameSize = hosted.get(broker).get(size(partition));
+            sameSize.remove(partition);
+            if (sameSize.isEmpty()) {
+                hosted.get(broker).remove(size(partition));
+            }
+        }
+
+        /**
+         * @param bySize The partitions keyed by their sizes
+         * @param size The ideal size
+         * @param filter The condition the partitions have to meet
+         *
+         * @return  The smallest partition which is at least as large as the ideal size and the largest partition
+         *          which is smaller than the ideal size, among those meeting the condition. Since the imbalances
+         *          evened out by the steps grow with the distance from the ideal size, one of them is the best.
+         */
+        private List<TopicPartition> closest(NavigableMap<Long, Set<TopicPartition>> bySize, long size, Predicate<TopicPartition> filter) {
+            List<TopicPartition> closest = new ArrayList<>(2);
+            for (NavigableMap<Long, Set<TopicPartition>> side : asList(bySize.tailMap(size, true), bySize.headMap(size, false).descendingMap())) {
+                first:
+                for (Set<TopicPartition> sameSize : side.values()) {
+                    for (TopicPartition partition : sameSize) {
+                        if (filter.test(partition)) {
+                            closest.add(partition);
+                            break first;
+                        }
+                    }
+                }
+            }
+            return closest;
+        }
+
+        /**
+         * @return  The brokers ordered by the given value (and by their ids)
+         */
+        private List<Integer> ordered(ToLongFunction<Integer> value, boolean descending) {
+            Comparator<Integer> comparator = Comparator.comparingLong(value);
+            return brokerRacks.keySet().stream()
+                    .sorted((descending ? comparator.reversed() : comparator).thenComparing(Comparator.naturalOrder()))
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * @return  True when moving a replica of the partition from the source to the target broker does not put more
+         *          replicas of the partition into the same rack
+         */
+        private boolean rackAllows(List<Integer> partitionReplicas, Integer source, Integer target) {
+            String targetRack = brokerRacks.get(target);
+            return targetRack == null
+                    || targetRack.equals(brokerRacks.get(source))
+                    || replicasInRack(partitionReplicas, brokerRacks, targetRack) == 0;
+        }
+
+        private void move(TopicPartition partition, Integer source, Integer target) {
+            List<Integer> partitionReplicas = assignment.get(partition);
+            int index = partitionReplicas.indexOf(source);
+            partitionReplicas.set(index, target);
+
+            replicas.merge(source, -1, Integer::sum);
+            replicas.merge(target, 1, Integer::sum);
+            logSizes.merge(source, -size(partition), Long::sum);
+            logSizes.merge(target, size(partition), Long::sum);
+            unhost(source, partition);
+            host(target, partition);
+            if (index == 0) {
+                leaders.merge(source, -1, Integer::sum);
+                leaders.merge(target, 1, Integer::sum);
+                led.get(source).remove(partition);
+                led.get(target).add(partition);
+            }
+        }
+
+        /**
+         * Moves one replica from a broker with more replicas to a broker with at least two replicas less.
+         * When the sizes are known, the replica which evens out the log sizes of the two brokers best is moved.
+         *
+         * @return  True if a replica was moved
+         */
+        boolean moveReplica() {
+            for (Integer source : ordered(replicas::get, true)) {
+                for (Integer target : ordered(replicas::get, false)) {
+                    if (replicas.get(source) - replicas.get(target) < 2) {
+                        break;
+                    }
+
+                    // The moved replica evens out the log sizes best when it has half the size difference
+                    long sizeDifference = logSizes.get(source) - logSizes.get(target);
+                    TopicPartition best = null;
+                    for (TopicPartition partition : closest(hosted.get(source), sizeDifference / 2,
+                            candidate -> !assignment.get(candidate).contains(target) && rackAllows(assignment.get(candidate), source, target))) {
+                        if (best == null || Math.abs(sizeDifference - 2 * size(partition)) < Math.abs(sizeDifference - 2 * size(best))) {
+                            best = partition;
+                        }
+                    }
+
+                    if (best != null) {
+                        move(best, source, target);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Swaps a replica of a broker with a larger log size with a smaller replica of a broker with a smaller log
+         * size, keeping the numbers of replicas of the brokers. The larger replicas are tried from the largest one,
+         * each only with the smaller replicas closest to the ideal size among the sorted sizes, until the remaining
+         * ones cannot be swapped for a better imbalance.
+         *
+         * @return  True if replicas were swapped
+         */
+        boolean swapReplicas() {
+            for (Integer source : ordered(logSizes::get, true)) {
+                for (Integer target : ordered(logSizes::get, false)) {
+                    long sizeDifference = logSizes.get(source) - logSizes.get(target);
+                    if (sizeDifference <= logSizeTolerance) {
+                        break;
+                    }
+
+                    // The replicas which can be moved from the target to the source keyed by their sizes, the first
+                    // one by topic and partition for each size
+                    TreeMap<Long, TopicPartition> smallerBySize = new TreeMap<>();
+                    for (Set<TopicPartition> sameSize : hosted.get(target).values()) {
+                        for (TopicPartition smaller : sameSize) {
+                            List<Integer> partitionReplicas = assignment.get(smaller);
+                            if (!partitionReplicas.contains(source) && rackAllows(partitionReplicas, target, source)) {
+                                smallerBySize.put(size(smaller), smaller);
+                                break;
+                            }
+                        }
+                    }
+                    if (smallerBySize.isEmpty()) {
+                        continue;
+                    }
+
+                    TopicPartition bestLarger = null;
+                    TopicPartition bestSmaller = null;
+                    long bestImbalance = sizeDifference;
+                    for (Map.Entry<Long, Set<TopicPartition>> sameSize : hosted.get(source).descendingMap().entrySet()) {
+                        long largerSize = sameSize.getKey();
+                        if (sizeDifference - 2 * (largerSize - smallerBySize.firstKey()) >= bestImbalance) {
+                            // Neither this nor any smaller replica can be swapped for a better imbalance
+                            break;
+                        }
+
+                        for (TopicPartition larger : sameSize.getValue()) {
+                            List<Integer> partitionReplicas = assignment.get(larger);
+                            if (partitionReplicas.contains(target) || !rackAllows(partitionReplicas, source, target)) {
+                                continue;
+                            }
+
+                            // The imbalance is the smallest when the smaller replica is smaller by half the difference
+                            NavigableMap<Long, TopicPartition> candidates = smallerBySize.headMap(largerSize, false);
+                            long idealSize = largerSize - sizeDifference / 2;
+                            for (Map.Entry<Long, TopicPartition> smaller : asList(candidates.floorEntry(idealSize), candidates.ceilingEntry(idealSize))) {
+                                if (smaller == null) {
+                                    continue;
+                                }
+
+                                long imbalance = Math.abs(sizeDifference - 2 * (largerSize - smaller.getKey()));
+                                if (imbalance < bestImbalance) {
+                                    bestLarger = larger;
+                                    bestSmaller = smaller.getValue();
+                                    bestImbalance = imbalance;
+                                }
+                            }
+                            // The other replicas of the same size cannot be swapped for a better imbalance
+                            break;
+                        }
+                    }
+
+                    if (bestLarger != null) {
+                        move(bestLarger, source, target);
+                        move(bestSmaller, target, source);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Makes a broker with fewer preferred leaders the preferred leader of a partition led by a broker with at
+         * least two preferred leaders more, by moving its replica to the first position.
+         *
+         * @return  True if the preferred leader of a partition was changed
+         */
+        boolean moveLeader() {
+            for (Integer source : ordered(leaders::get, true)) {
+                for (Integer target : ordered(leaders::get, false)) {
+                    if (leaders.get(source) - leaders.get(target) < 2) {
+                        break;
+                    }
+
+                    for (TopicPartition partition : led.get(source)) {
+                        List<Integer> partitionReplicas = assignment.get(partition);
+                        if (partitionReplicas.contains(target)) {
+                            int index = partitionReplicas.indexOf(target);
+                            partitionReplicas.set(index, source);
+                            partitionReplicas.set(0, target);
+                            leaders.merge(source, -1, Integer::sum);
+                            leaders.merge(target, 1, Integer::sum);
+                            led.get(source).remove(partition);
+                            led.get(target).add(partition);
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The proposed reassignments together with the data they were computed from
+     */
+    private static class Proposal {
+        private final Map<TopicPartition, List<Integer>> current;
+        private final Map<Integer, String> brokerRacks;
+        private final Map<TopicPartition, Long> sizes;
+        private final Map<TopicPartition, List<Integer>> reassignments;
+
+        Proposal(Map<TopicPartition, List<Integer>> current, Map<Integer, String> brokerRacks,
+                 Map<TopicPartition, Long> sizes, Map<TopicPartition, List<Integer>> reassignments) {
+            this.current = current;
+            this.brokerRacks = brokerRacks;
+            this.sizes = sizes;
+            this.reassignments = reassignments;
+        }
+
+        /**
+         * @return  A proposal with the same data and the given reassignments
+         */
+        Proposal withReassignments(Map<TopicPartition, List<Integer>> reassignments) {
+            return new Proposal(current, brokerRacks, sizes, reassignments);
+        }
+
+        /**
+         * @param state The state of the rebalancing
+         * @param remaining The reassignments which were not executed yet
+         *
+         * @return  The status with the load of the brokers and the remaining reassignments
+         */
+        RebalanceStatus status(String state, Map<TopicPartition, List<Integer>> remaining) {
+            // The reassignments which are not remaining anymore were executed already
+            Map<TopicPartition, List<Integer>> before = new HashMap<>(current);
+            for (Map.Entry<TopicPartition, List<Integer>> reassignment : reassignments.entrySet()) {
+                if (!remaining.containsKey(reassignment.getKey())) {
+                    before.put(reassignment.getKey(), reassignment.getValue());
+                }
+            }
+            Map<TopicPartition, List<Integer>> after = new HashMap<>(current);
+            after.putAll(reassignments);
+
+            Map<Integer, BrokerLoad> brokers = new TreeMap<>();
+            for (Integer broker : brokerRacks.keySet()) {
+                brokers.put(broker, new BrokerLoadBuilder()
+                        .withBroker(broker)
+                        .withReplicas(0)
+                        .withProposedReplicas(0)
+                        .withLeaders(0)
+                        .withProposedLeaders(0)
+                        .withLogSize(sizes != null ? 0L : null)
+                        .withProposedLogSize(sizes != null ? 0L : null)
+                        .build());
+            }
+            for (Map.Entry<TopicPartition, List<Integer>> partition : before.entrySet()) {
+                List<Integer> partitionReplicas = partition.getValue();
+                for (int i = 0; i < partitionReplicas.size(); i++) {
+                    BrokerLoad load = brokers.get(partitionReplicas.get(i));
+                    if (load != null) {
+                        load.setReplicas(load.getReplicas() + 1);
+                        load.setLeaders(load.getLeaders() + (i == 0 ? 1 : 0));
+                        if (sizes != null) {
+                            load.setLogSize(load.getLogSize() + sizes.getOrDefault(partition.getKey(), 0L));
+                        }
+                    }
+                }
+            }
+            for (Map.Entry<TopicPartition, List<Integer>> partition : after.entrySet()) {
+                List<Integer> partitionReplicas = partition.getValue();
+                for (int i = 0; i < partitionReplicas.size(); i++) {
+                    BrokerLoad load = brokers.get(partitionReplicas.get(i));
+                    if (load != null) {
+                        load.setProposedReplicas(load.getProposedReplicas() + 1);
+                        load.setProposedLeaders(load.getProposedLeaders() + (i == 0 ? 1 : 0));
+                        if (sizes != null) {
+                            load.setProposedLogSize(load.getProposedLogSize() + sizes.getOrDefault(partition.getKey(), 0L));
+                        }
+                    }
+                }
+            }
+
+            List<PartitionAssignment> proposal = new ArrayList<>(remaining.size());
+            for (Map.Entry<TopicPartition, List<Integer>> reassignment : remaining.entrySet()) {
+                proposal.add(new PartitionAssignmentBuilder()
+                        .withTopic(reassignment.getKey().topic())
+                        .withPartition(reassignment.getKey().partition())
+                        .withReplicas(reassignment.getValue())
+                        .build());
+            }
+
+            return new RebalanceStatusBuilder()
+                    .withState(state)
+                    .withBrokers(new ArrayList<>(brokers.values()))
+                    .withProposal(proposal)
+                    .build();
+        }
+    }
+}
@@ -8,10 +8,13 @@ import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.internal.readiness.Readiness;
 import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.common.AdminClientProvider;
 import io.strimzi.operator.common.BackOff;
 import io.strimzi.operator.common.DefaultAdminClientProvider;
+import io.strimzi.operator.common.ReconciliationCancelledException;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.operator.resource.PodOperator;
 import io.vertx.core.CompositeFuture;
@@ -27,7 +30,11 @@ import org.apache.logging.log4j.Logger;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
@@ -56,7 +63,8 @@ import java.util.function.Supplier;
  *         If so, and there are still pods to be maybe-restarted then:
  *           i.  Reschedule the restart of this pod by appending it the list
  *           ii. Continue from 1.
- *     5. Otherwise, check whether the pod can be restarted without "impacting availability"
+ *     5. Otherwise, check whether the pod can be restarted without "impacting availability",
+ *        first by asking the kafka-agents of all pods and then, unless they all agree, by describing the topics
  *         If not then:
  *           i.  Reschedule the restart of this pod by appending it the list
  *           ii. Continue from 1.
@@ -75,17 +83,27 @@ import java.util.function.Supplier;
  *     <li>rolling should happen without impacting any topic's min.isr.</li>
  *     <li>even pods which aren't candidates for rolling are checked for readiness which partly avoids
  *     successive reconciliations each restarting a pod which never becomes ready</li>
+ *     <li>once some pods were restarted, the preferred leaders are elected after the restarted brokers are back
+ *     in sync, so that the leadership does not stay on the brokers which were restarted first
+ *     (see {@link KafkaLeaderElector}).</li>
  * </ul>
  */
 public class KafkaRoller {
 
     private static final Logger log = LogManager.getLogger(KafkaRoller.class);
 
+    /**
+     * The timeout of the requests to the kafka-agents, after which the rollability is determined by
+     * {@link KafkaAvailability} instead
+     */
+    private static final long AGENT_REQUEST_TIMEOUT_MS = 5_000;
+
     private final PodOperator podOperations;
     private final long pollingIntervalMs;
     protected final long operationTimeoutMs;
     protected final Vertx vertx;
     private final String cluster;
+    private final Labels selector;
     private final Secret clusterCaCertSecret;
     private final Secret coKeySecret;
     private final Integer numPods;
@@ -106,6 +124,7 @@ public class KafkaRoller {
                 AdminClientProvider adminClientProvider) {
         this.namespace = sts.getMetadata().getNamespace();
         this.cluster = Labels.cluster(sts);
+        this.selector = Labels.fromMap(sts.getSpec().getSelector().getMatchLabels());
         this.numPods = sts.getSpec().getReplicas();
         this.backoffSupplier = backOffSupplier;
         this.clusterCaCertSecret = clusterCaCertSecret;
@@ -130,6 +149,10 @@ public class KafkaRoller {
 
     private ConcurrentHashMap<Integer, RestartContext> podToContext = new ConcurrentHashMap<>();
     private Predicate<Pod> podNeedsRestart;
+    // Snapshot of the pods keyed by their names, null when it has to be listed again.
+    // Used only by the singleExecutor (and by rollingRestart() before any pod is scheduled).
+    private Map<String, Pod> pods;
+    private final Set<Integer> restartedPods = ConcurrentHashMap.newKeySet();
 
     /**
      * Asynchronously perform a rolling restart of some subset of the pods,
@@ -141,12 +164,23 @@ public class KafkaRoller {
      */
     Future<Void> rollingRestart(Predicate<Pod> podNeedsRestart) {
         this.podNeedsRestart = podNeedsRestart;
+        return podOperations.listAsync(namespace, selector)
+            .map(KafkaRoller::podsByName)
+            .otherwise(error -> {
+                log.warn("Error listing pods of {}/{}, they will be listed again before rolling", namespace, KafkaCluster.kafkaClusterName(cluster), error);
+                return null;
+            })
+            .compose(this::rollingRestart);
+    }
+
+    private Future<Void> rollingRestart(Map<String, Pod> listedPods) {
+        pods = listedPods;
         List<Future> futures = new ArrayList<>(numPods);
         List<Integer> podIds = new ArrayList<>(numPods);
         for (int podId = 0; podId < numPods; podId++) {
             // Order the podIds unready first otherwise repeated reconciliations might each restart a pod
             // only for it not to become ready and thus drive the cluster to a worse state.
-            podIds.add(podOperations.isReady(namespace, podName(podId)) ? podIds.size() : 0, podId);
+            podIds.add(pods == null || isPodReady(pods.get(podName(podId))) ? podIds.size() : 0, podId);
         }
         log.debug("Initial order for rolling restart {}", podIds);
         for (Integer podId: podIds) {
@@ -155,7 +189,20 @@ public class KafkaRoller {
         Promise<Void> result = Promise.promise();
         CompositeFuture.join(futures).setHandler(ar -> {
             singleExecutor.shutdown();
-            vertx.runOnContext(ignored -> result.handle(ar.map((Void) null)));
+            vertx.runOnContext(ignored -> {
+                if (ar.succeeded() && !restartedPods.isEmpty()) {
+                    // The roll is not failed when the leadership cannot be rebalanced. The remaining skew is reported by the
+                    // next reconciliation, which elects the preferred leaders again only when the periodic leader election is enabled
+                    electPreferredLeaders(new TreeSet<>(restartedPods)).setHandler(electionResult -> {
+                        if (electionResult.failed()) {
+                            log.warn("Failed to elect the preferred leaders after restarting pods {}", restartedPods, electionResult.cause());
+                        }
+                        result.complete();
+                    });
+                } else {
+                    result.handle(ar.map((Void) null));
+                }
+            });
         });
         return result.future();
     }
@@ -199,7 +246,8 @@ public class KafkaRoller {
             } catch (InterruptedException e) {
                 // Let the executor deal with interruption.
                 Thread.currentThread().interrupt();
-            } catch (FatalProblem e) {
+            } catch (FatalProblem | ReconciliationCancelledException e) {
+                // The cancelled reconciliation is not retried either
                 log.info("Could not restart pod {}, giving up after {} attempts/{}ms",
                         podId, ctx.backOff.maxAttempts(), ctx.backOff.totalDelayMs(), e);
                 ctx.promise.fail(e);
@@ -215,6 +263,8 @@ public class KafkaRoller {
                             new io.strimzi.operator.common.operator.resource.TimeoutException() :
                             e);
                 } else {
+                    // The pods might have changed since they were listed
+                    pods = null;
                     long delay1 = ctx.backOff.delayMs();
                     log.debug("Could not roll pod {} due to {}, retrying after at least {}ms",
                             podId, e, delay1);
@@ -238,7 +288,10 @@ public class KafkaRoller {
             throws InterruptedException, ForceableProblem, UnforceableProblem, FatalProblem {
         Pod pod;
         try {
-            pod = podOperations.get(namespace, KafkaCluster.kafkaPodName(cluster, podId));
+            if (pods == null) {
+                pods = listPods();
+            }
+            pod = pods.get(podName(podId));
         } catch (KubernetesClientException e) {
             throw new UnforceableProblem("Error getting pod " + podName(podId), e);
         }
@@ -259,6 +312,7 @@ public class KafkaRoller {
                         if (canRoll(adminClient, podId, 60_000, TimeUnit.MILLISECONDS)) {
                             log.debug("Pod {} can be rolled now", podId);
                             restartAndAwaitReadiness(pod, operationTimeoutMs, TimeUnit.MILLISECONDS);
+                            restartedPods.add(podId);
                         } else {
                             log.debug("Pod {} cannot be rolled right now", podId);
                             throw new UnforceableProblem("Pod " + podName(podId) + " is currently not rollable");
@@ -270,6 +324,7 @@ public class KafkaRoller {
             } catch (ForceableProblem e) {
                 if (finalAttempt) {
                     restartAndAwaitReadiness(pod, operationTimeoutMs, TimeUnit.MILLISECONDS);
+                    restartedPods.add(podId);
                 } else {
                     throw e;
                 }
@@ -285,6 +340,28 @@ public class KafkaRoller {
         }
     }
 
+    /**
+     * Lists all the pods of the cluster with a single request, so that the restart decisions are evaluated over
+     * the same snapshot instead of getting each pod separately.
+     * This method blocks.
+     * @return The pods keyed by their names.
+     */
+    private Map<String, Pod> listPods() {
+        return podsByName(podOperations.list(namespace, selector));
+    }
+
+    private static Map<String, Pod> podsByName(List<Pod> pods) {
+        Map<String, Pod> result = new HashMap<>(pods.size());
+        for (Pod pod : pods) {
+            result.put(pod.getMetadata().getName(), pod);
+        }
+        return result;
+    }
+
+    private static boolean isPodReady(Pod pod) {
+        return pod != null && Readiness.isPodReady(pod);
+    }
+
     private void closeLoggingAnyError(Admin adminClient) {
         if (adminClient != null) {
             try {
@@ -324,6 +401,11 @@ public class KafkaRoller {
 
     private boolean canRoll(Admin adminClient, int podId, long timeout, TimeUnit unit)
             throws ForceableProblem, InterruptedException {
+        if (await(agentsReportSafeToRestart(), timeout, unit,
+            t -> new ForceableProblem("An error while trying to determine rollability from the kafka-agents", t))) {
+            log.debug("The kafka-agents of all pods report that pod {} can be rolled", podId);
+            return true;
+        }
         return await(availability(adminClient).canRoll(podId), timeout, unit,
             t -> new ForceableProblem("An error while trying to determine rollability", t));
     }
@@ -405,6 +487,57 @@ public class KafkaRoller {
         return new KafkaAvailability(ac);
     }
 
+    /**
+     * Asks the kafka-agent of every pod whether none of the partitions led by the broker is at or under
+     * {@code min.insync.replicas}. When all agents agree, restarting any single broker does not drop any partition
+     * below {@code min.insync.replicas}, so the topics do not have to be described.
+     * @return A future which completes with true when all agents report the brokers safe to restart, and with false
+     * when any of them does not or cannot be reached, in which case {@link KafkaAvailability} has to be consulted.
+     */
+    protected Future<Boolean> agentsReportSafeToRestart() {
+        KafkaAgentClient agentClient = new KafkaAgentClient(vertx, AGENT_REQUEST_TIMEOUT_MS);
+        List<Future> futures = new ArrayList<>(numPods);
+        for (int podId = 0; podId < numPods; podId++) {
+            futures.add(agentClient.isSafeToRestart(KafkaCluster.podDnsName(namespace, cluster, podName(podId))));
+        }
+        return CompositeFuture.join(futures)
+                .map(all -> all.list().stream().allMatch(Boolean.TRUE::equals))
+                .recover(error -> {
+                    log.debug("Could not query the kafka-agents of {}/{}", namespace, KafkaCluster.kafkaClusterName(cluster), error);
+                    return Future.succeededFuture(false);
+                });
+    }
+
+    /**
+     * Elects the preferred leaders once the restarted brokers are in sync again.
+     * @param restartedPods The ids of the restarted pods.
+     * @return A future which completes when the elections completed.
+     */
+    protected Future<Void> electPreferredLeaders(Set<Integer> restartedPods) {
+        Promise<Admin> adminPromise = Promise.promise();
+        WorkerPools.executor(vertx, WorkerPools.KAFKA_ADMIN).executeBlocking(future -> {
+            try {
+                future.complete(adminClient(restartedPods.iterator().next()));
+            } catch (ForceableProblem e) {
+                future.fail(e);
+            }
+        }, false, adminPromise);
+
+        return adminPromise.future().compose(ac -> {
+            Promise<Void> result = Promise.promise();
+            new KafkaLeaderElector(vertx, ac, pollingIntervalMs).electPreferredLeaders(restartedPods, operationTimeoutMs).setHandler(res -> {
+                if (res.succeeded()) {
+                    log.info("Elected the preferred leaders after restarting pods {}, the leadership skew is {}", restartedPods, res.result());
+                }
+                WorkerPools.executor(vertx, WorkerPools.KAFKA_ADMIN).executeBlocking(future -> {
+                    closeLoggingAnyError(ac);
+                    future.complete();
+                }, false, closeResult -> result.handle(res.map((Void) null)));
+            });
+            return result.future();
+        });
+    }
+
     String podName(Integer podId) {
         return KafkaCluster.kafkaPodName(this.cluster, podId);
     }
@@ -8,13 +8,24 @@ import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.strimzi.api.kafka.model.status.RebalanceStatus;
+import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.common.AdminClientProvider;
 import io.strimzi.operator.common.BackOff;
+import io.strimzi.operator.common.WorkerPools;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.Admin;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -24,6 +35,12 @@ public class KafkaSetOperator extends StatefulSetOperator {
 
     private static final Logger log = LogManager.getLogger(KafkaSetOperator.class);
 
+    /**
+     * The interval between the checks of the progress of the reassignments when draining brokers or rebalancing,
+     * and of the moves of replicas between log directories
+     */
+    private static final long REASSIGNMENT_POLL_INTERVAL_MS = 10_000;
+
     private final AdminClientProvider adminClientProvider;
 
     /**
@@ -73,4 +90,147 @@ public class KafkaSetOperator extends StatefulSetOperator {
                 .rollingRestart(podNeedsRestart);
     }
 
+    /**
+     * Moves all partition replicas off the brokers which are removed when scaling the cluster down to the desired
+     * number of brokers and waits until the reassignment completed. See {@link KafkaBrokerDrainer}.
+     *
+     * @param namespace The namespace of the cluster
+     * @param cluster The name of the cluster
+     * @param desiredReplicas The number of brokers after the scale-down
+     * @param throttle The replication throttle in bytes per second, or {@code Long.MAX_VALUE} for no throttle
+     * @param clusterCaCertSecret Secret with the cluster CA certificate
+     * @param coKeySecret Secret with the key and certificate of the Cluster Operator
+     * @param progress Handler called with the number of partitions which still have to be moved
+     *
+     * @return  Future which completes when the brokers do not host any partition replicas anymore
+     */
+    public Future<Void> drainBrokers(String namespace, String cluster, int desiredReplicas, long throttle,
+                                     Secret clusterCaCertSecret, Secret coKeySecret, Handler<Integer> progress) {
+        return withAdminClient(namespace, cluster, clusterCaCertSecret, coKeySecret,
+            ac -> new KafkaBrokerDrainer(vertx, ac, REASSIGNMENT_POLL_INTERVAL_MS, operationTimeoutMs).drain(desiredReplicas, throttle, progress));
+    }
+
+    /**
+     * Computes the proposal for rebalancing the partitions across the brokers, without executing it.
+     * See {@link KafkaRebalancer}.
+     *
+     * @param namespace The namespace of the cluster
+     * @param cluster The name of the cluster
+     * @param balanceLogSize If true, the size of the replicas hosted by the brokers is balanced as well
+     * @param clusterCaCertSecret Secret with the cluster CA certificate
+     * @param coKeySecret Secret with the key and certificate of the Cluster Operator
+     *
+     * @return  Future with the status describing the proposal
+     */
+    public Future<RebalanceStatus> proposeRebalance(String namespace, String cluster, boolean balanceLogSize,
+                                                    Secret clusterCaCertSecret, Secret coKeySecret) {
+        return withAdminClient(namespace, cluster, clusterCaCertSecret, coKeySecret,
+            ac -> new KafkaRebalancer(vertx, ac, REASSIGNMENT_POLL_INTERVAL_MS, operationTimeoutMs).propose(balanceLogSize));
+    }
+
+    /**
+     * Executes the proposal computed by {@link #proposeRebalance} and waits until the rebalancing completed.
+     * See {@link KafkaRebalancer}.
+     *
+     * @param namespace The namespace of the cluster
+     * @param cluster The name of the cluster
+     * @param proposal The status with the proposal to execute
+     * @param balanceLogSize If true, the size of the replicas hosted by the brokers is reported in the status as well
+     * @param throttle The replication throttle in bytes per second, or {@code Long.MAX_VALUE} for no throttle
+     * @param maxConcurrentMoves The maximum number of partitions whose replicas are moved at the same time
+     * @param clusterCaCertSecret Secret with the cluster CA certificate
+     * @param coKeySecret Secret with the key and certificate of the Cluster Operator
+     * @param cancelled Checked during the execution, which stops once it returns true
+     * @param progress Handler called with the status listing the remaining reassignments before each batch
+     *
+     * @return  Future with the status of the rebalanced cluster
+     */
+    public Future<RebalanceStatus> rebalance(String namespace, String cluster, RebalanceStatus proposal, boolean balanceLogSize, long throttle,
+                                             int maxConcurrentMoves, Secret clusterCaCertSecret, Secret coKeySecret,
+                                             BooleanSupplier cancelled, Handler<RebalanceStatus> progress) {
+        return withAdminClient(namespace, cluster, clusterCaCertSecret, coKeySecret,
+            ac -> new KafkaRebalancer(vertx, ac, REASSIGNMENT_POLL_INTERVAL_MS, operationTimeoutMs)
+                    .rebalance(proposal, balanceLogSize, throttle, maxConcurrentMoves, cancelled, progress));
+    }
+
+    /**
+     * Moves partition replicas to the log directories which were added to the brokers and waits until the moves
+     * completed. See {@link KafkaLogDirBalancer}.
+     *
+     * @param namespace The namespace of the cluster
+     * @param cluster The name of the cluster
+     * @param addedLogDirs The added log directories keyed by broker id
+     * @param throttle The throttle of the moves in bytes per second, or {@code Long.MAX_VALUE} for no throttle
+     * @param maxConcurrentMoves The maximum number of replicas which are moved at the same time on each broker
+     * @param clusterCaCertSecret Secret with the cluster CA certificate
+     * @param coKeySecret Secret with the key and certificate of the Cluster Operator
+     * @param progress Handler called with the number of replicas which still have to be moved
+     *
+     * @return  Future which completes when all replicas were moved
+     */
+    public Future<Void> balanceLogDirs(String namespace, String cluster, Map<Integer, Set<String>> addedLogDirs, long throttle, int maxConcurrentMoves,
+                                       Secret clusterCaCertSecret, Secret coKeySecret, Handler<Integer> progress) {
+        return withAdminClient(namespace, cluster, clusterCaCertSecret, coKeySecret,
+            ac -> new KafkaLogDirBalancer(vertx, ac, REASSIGNMENT_POLL_INTERVAL_MS, operationTimeoutMs).balance(addedLogDirs, throttle, maxConcurrentMoves, progress));
+    }
+
+    /**
+     * Elects the preferred leaders of the partitions which are not led by their preferred leader while it is in sync.
+     * See {@link KafkaLeaderElector}.
+     *
+     * @param namespace The namespace of the cluster
+     * @param cluster The name of the cluster
+     * @param clusterCaCertSecret Secret with the cluster CA certificate
+     * @param coKeySecret Secret with the key and certificate of the Cluster Operator
+     *
+     * @return  Future with the leadership skew, i.e. the fraction of the partitions which are not led by their
+     *          preferred leader, after the elections
+     */
+    public Future<Double> electPreferredLeaders(String namespace, String cluster, Secret clusterCaCertSecret, Secret coKeySecret) {
+        return withAdminClient(namespace, cluster, clusterCaCertSecret, coKeySecret,
+            ac -> new KafkaLeaderElector(vertx, ac, REASSIGNMENT_POLL_INTERVAL_MS).electPreferredLeaders(Collections.emptySet(), 0));
+    }
+
+    /**
+     * Gets the leadership skew of the cluster without electing any leaders. See {@link KafkaLeaderElector}.
+     *
+     * @param namespace The namespace of the cluster
+     * @param cluster The name of the cluster
+     * @param clusterCaCertSecret Secret with the cluster CA certificate
+     * @param coKeySecret Secret with the key and certificate of the Cluster Operator
+     *
+     * @return  Future with the leadership skew, i.e. the fraction of the partitions which are not led by their
+     *          preferred leader
+     */
+    public Future<Double> leadershipSkew(String namespace, String cluster, Secret clusterCaCertSecret, Secret coKeySecret) {
+        return withAdminClient(namespace, cluster, clusterCaCertSecret, coKeySecret,
+            ac -> new KafkaLeaderElector(vertx, ac, REASSIGNMENT_POLL_INTERVAL_MS).leadershipSkew());
+    }
+
+    /**
+     * Creates an Admin client connected to the first broker of the cluster, which is never removed by a scale-down,
+     * runs the operation and closes the client once the operation completed.
+     */
+    private <T> Future<T> withAdminClient(String namespace, String cluster, Secret clusterCaCertSecret, Secret coKeySecret,
+                                          Function<Admin, Future<T>> operation) {
+        String hostname = KafkaCluster.podDnsName(namespace, cluster, 0) + ":" + KafkaCluster.REPLICATION_PORT;
+
+        Promise<Admin> adminPromise = Promise.promise();
+        WorkerPools.executor(vertx, WorkerPools.KAFKA_ADMIN).executeBlocking(future -> {
+            log.debug("Creating AdminClient for {}", hostname);
+            future.complete(adminClientProvider.createAdminClient(hostname, clusterCaCertSecret, coKeySecret, "cluster-operator"));
+        }, false, adminPromise);
+
+        return adminPromise.future().compose(ac -> {
+            Promise<T> resultPromise = Promise.promise();
+            operation.apply(ac).setHandler(res -> {
+                WorkerPools.executor(vertx, WorkerPools.KAFKA_ADMIN).executeBlocking(future -> {
+                    ac.close();
+                    future.complete();
+                }, false, closeRes -> resultPromise.handle(res));
+            });
+            return resultPromise.future();
+        });
+    }
+
 }
@@ -30,6 +30,7 @@ import io.strimzi.operator.PlatformFeaturesAvailability;
 import io.strimzi.operator.common.AdminClientProvider;
 import io.strimzi.operator.common.BackOff;
 import io.strimzi.operator.common.DefaultAdminClientProvider;
+import io.strimzi.operator.common.operator.resource.AbstractResourceOperator;
 import io.strimzi.operator.common.operator.resource.BuildConfigOperator;
 import io.strimzi.operator.common.operator.resource.ClusterRoleBindingOperator;
 import io.strimzi.operator.common.operator.resource.ConfigMapOperator;
@@ -53,8 +54,15 @@ import io.fabric8.openshift.client.OpenShiftClient;
 import io.strimzi.operator.common.operator.resource.StorageClassOperator;
 import io.vertx.core.Vertx;
 
+import static java.util.Arrays.asList;
+
 @SuppressWarnings("checkstyle:ClassDataAbstractionCoupling")
 public class ResourceOperatorSupplier {
+    /**
+     * The field manager used for server-side apply
+     */
+    public static final String FIELD_MANAGER = "strimzi-cluster-operator";
+
     public final SecretOperator secretOperations;
     public final ServiceOperator serviceOperations;
     public final RouteOperator routeOperations;
@@ -184,4 +192,18 @@ public class ResourceOperatorSupplier {
         this.nodeOperator = nodeOperator;
         this.zkScalerProvider = zkScalerProvider;
     }
+
+    /**
+     * Makes the operators of the kinds generated by the Cluster Operator (Services, ConfigMaps, Secrets, StatefulSets,
+     * Deployments, NetworkPolicies and PodDisruptionBudgets) patch the existing resources using server-side apply.
+     * It has to be called before the operators are used.
+     *
+     * @param fieldManager The name of the field manager owning the applied fields
+     */
+    public void enableServerSideApply(String fieldManager) {
+        for (AbstractResourceOperator<?, ?, ?, ?, ?> operator : asList(serviceOperations, configMapOperations, secretOperations,
+                zkSetOperations, kafkaSetOperations, deploymentOperations, networkPolicyOperator, podDisruptionBudgetOperator)) {
+            operator.setServerSideApply(fieldManager);
+        }
+    }
 }
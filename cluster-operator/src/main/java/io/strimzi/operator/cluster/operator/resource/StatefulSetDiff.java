@@ -7,139 +7,191 @@ package io.strimzi.operator.cluster.operator.resource;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
-import io.fabric8.zjsonpatch.JsonDiff;
 import io.strimzi.operator.common.Annotations;
 import io.strimzi.operator.common.operator.resource.AbstractResourceDiff;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
 
+/**
+ * Compares the current and desired StatefulSet.
+ * The trees of both StatefulSets are walked together and the path of every difference is looked up in a trie of
+ * the paths we care about (see {@link PathNode}). Differences in ignorable paths are skipped. Once a difference
+ * is found in some part of the StatefulSet (e.g. {@code /spec/template}), the rest of that part is not compared
+ * anymore, because it cannot change the result.
+ */
 public class StatefulSetDiff extends AbstractResourceDiff {
 
     private static final Logger log = LogManager.getLogger(StatefulSetDiff.class.getName());
 
     private static final String SHORTENED_STRIMZI_DOMAIN = Annotations.STRIMZI_DOMAIN.substring(0, Annotations.STRIMZI_DOMAIN.length() - 1);
 
-    private static final Pattern IGNORABLE_PATHS = Pattern.compile(
-        "^(/spec/revisionHistoryLimit"
-        + "|/spec/template/metadata/annotations/" + SHORTENED_STRIMZI_DOMAIN + "~1generation"
-        + "|/spec/template/spec/initContainers/[0-9]+/resources"
-        + "|/spec/template/spec/initContainers/[0-9]+/terminationMessagePath"
-        + "|/spec/template/spec/initContainers/[0-9]+/terminationMessagePolicy"
-        + "|/spec/template/spec/initContainers/[0-9]+/env/[0-9]+/valueFrom/fieldRef/apiVersion"
-        + "|/spec/template/spec/containers/[0-9]+/resources"
-        + "|/spec/template/spec/containers/[0-9]+/env/[0-9]+/valueFrom/fieldRef/apiVersion"
-        + "|/spec/template/spec/containers/[0-9]+/livenessProbe/failureThreshold"
-        + "|/spec/template/spec/containers/[0-9]+/livenessProbe/periodSeconds"
-        + "|/spec/template/spec/containers/[0-9]+/livenessProbe/successThreshold"
-        + "|/spec/template/spec/containers/[0-9]+/readinessProbe/failureThreshold"
-        + "|/spec/template/spec/containers/[0-9]+/readinessProbe/periodSeconds"
-        + "|/spec/template/spec/containers/[0-9]+/readinessProbe/successThreshold"
-        + "|/spec/template/spec/containers/[0-9]+/terminationMessagePath"
-        + "|/spec/template/spec/containers/[0-9]+/terminationMessagePolicy"
-        + "|/spec/template/spec/dnsPolicy"
-        + "|/spec/template/spec/restartPolicy"
-        + "|/spec/template/spec/securityContext"
-        + "|/spec/template/spec/volumes/[0-9]+/configMap/defaultMode"
-        + "|/spec/template/spec/volumes/[0-9]+/secret/defaultMode"
-        + "|/spec/volumeClaimTemplates/[0-9]+/status"
-        + "|/spec/volumeClaimTemplates/[0-9]+/spec/volumeMode"
-        + "|/spec/volumeClaimTemplates/[0-9]+/spec/dataSource"
-        + "|/spec/template/spec/serviceAccount"
-        + "|/status)$");
-
-    private static final Pattern RESOURCE_PATH = Pattern.compile("^/spec/template/spec/(?:initContainers|containers)/[0-9]+/resources/(?:limits|requests)/(memory|cpu)$");
-    private static final Pattern VOLUME_SIZE = Pattern.compile("^/spec/volumeClaimTemplates/[0-9]+/spec/resources/.*$");
-
-    private static boolean equalsOrPrefix(String path, String pathValue) {
-        return pathValue.equals(path)
-                || pathValue.startsWith(path + "/");
-    }
-
-    private final boolean changesVolumeClaimTemplate;
-    private final boolean changesVolumeSize;
-    private final boolean isEmpty;
-    private final boolean changesSpecTemplate;
-    private final boolean changesLabels;
-    private final boolean changesSpecReplicas;
+    // Paths use the JSON pointer syntax, * matches any array index
+    private static final String[] IGNORABLE_PATHS = {
+        "/spec/revisionHistoryLimit",
+        "/spec/template/metadata/annotations/" + SHORTENED_STRIMZI_DOMAIN + "~1generation",
+        "/spec/template/spec/initContainers/*/resources",
+        "/spec/template/spec/initContainers/*/terminationMessagePath",
+        "/spec/template/spec/initContainers/*/terminationMessagePolicy",
+        "/spec/template/spec/initContainers/*/env/*/valueFrom/fieldRef/apiVersion",
+        "/spec/template/spec/containers/*/resources",
+        "/spec/template/spec/containers/*/env/*/valueFrom/fieldRef/apiVersion",
+        "/spec/template/spec/containers/*/livenessProbe/failureThreshold",
+        "/spec/template/spec/containers/*/livenessProbe/periodSeconds",
+        "/spec/template/spec/containers/*/livenessProbe/successThreshold",
+        "/spec/template/spec/containers/*/readinessProbe/failureThreshold",
+        "/spec/template/spec/containers/*/readinessProbe/periodSeconds",
+        "/spec/template/spec/containers/*/readinessProbe/successThreshold",
+        "/spec/template/spec/containers/*/terminationMessagePath",
+        "/spec/template/spec/containers/*/terminationMessagePolicy",
+        "/spec/template/spec/dnsPolicy",
+        "/spec/template/spec/restartPolicy",
+        "/spec/template/spec/securityContext",
+        "/spec/template/spec/volumes/*/configMap/defaultMode",
+        "/spec/template/spec/volumes/*/secret/defaultMode",
+        "/spec/volumeClaimTemplates/*/status",
+        "/spec/volumeClaimTemplates/*/spec/volumeMode",
+        "/spec/volumeClaimTemplates/*/spec/dataSource",
+        "/spec/template/spec/serviceAccount",
+        "/status"
+    };
+
+    // Replaced CPU and memory quantities are compared by their value instead of their representation
+    private static final String[] RESOURCE_PATHS = {
+        "/spec/template/spec/initContainers/*/resources/limits",
+        "/spec/template/spec/initContainers/*/resources/requests",
+        "/spec/template/spec/containers/*/resources/limits",
+        "/spec/template/spec/containers/*/resources/requests"
+    };
+
+    /**
+     * The parts of the StatefulSet which are tracked by the diff.
+     */
+    private enum Part {
+        OTHER,
+        LABELS,
+        REPLICAS,
+        SPEC_TEMPLATE,
+        VOLUME_CLAIM_TEMPLATES,
+        // Anything below /spec/volumeClaimTemplates/[0-9]+/spec/resources/
+        VOLUME_SIZE
+    }
+
+    private static final PathNode ROOT = PathNode.root();
+
+    static {
+        ROOT.add("/metadata/labels", Part.LABELS);
+        ROOT.add("/spec/replicas", Part.REPLICAS);
+        ROOT.add("/spec/template", Part.SPEC_TEMPLATE);
+        ROOT.add("/spec/volumeClaimTemplates", Part.VOLUME_CLAIM_TEMPLATES);
+        ROOT.add("/spec/volumeClaimTemplates/*/spec/resources", Part.VOLUME_CLAIM_TEMPLATES).below = Part.VOLUME_SIZE;
+
+        for (String path : IGNORABLE_PATHS) {
+            ROOT.add(path, null).ignorable = true;
+        }
+
+        for (String path : RESOURCE_PATHS) {
+            PathNode resources = ROOT.add(path, null);
+            resources.add("/cpu", null).quantity = QuantityType.CPU;
+            resources.add("/memory", null).quantity = QuantityType.MEMORY;
+        }
+
+        ROOT.seal();
+    }
+
+    private final ObjectMeta metadata;
+    private final EnumSet<Part> changed = EnumSet.noneOf(Part.class);
+    private int num = 0;
 
     public StatefulSetDiff(StatefulSet current, StatefulSet desired) {
+        this.metadata = current.getMetadata();
+
         JsonNode source = patchMapper().valueToTree(current);
         JsonNode target = patchMapper().valueToTree(desired);
-        JsonNode diff = JsonDiff.asJson(source, target);
-        int num = 0;
-        boolean changesVolumeClaimTemplate = false;
-        boolean changesVolumeSize = false;
-        boolean changesSpecTemplate = false;
-        boolean changesLabels = false;
-        boolean changesSpecReplicas = false;
-        for (JsonNode d : diff) {
-            String pathValue = d.get("path").asText();
-            if (IGNORABLE_PATHS.matcher(pathValue).matches()) {
-                ObjectMeta md = current.getMetadata();
-                log.debug("StatefulSet {}/{} ignoring diff {}", md.getNamespace(), md.getName(), d);
-                continue;
+        compare(ROOT, null, source, target);
+    }
+
+    private boolean isSettled(PathNode node) {
+        // Nothing below this node can change the result of the diff anymore
+        return changed.containsAll(node.parts);
+    }
+
+    private void compare(PathNode node, Path path, JsonNode source, JsonNode target) {
+        if (isSettled(node)) {
+            return;
+        }
+
+        if (source.isObject() && target.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = source.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                PathNode child = node.child(field.getKey());
+                JsonNode targetValue = target.get(field.getKey());
+
+                if (targetValue == null) {
+                    difference(child, new Path(path, field.getKey()), field.getValue(), null);
+                } else {
+                    compare(child, new Path(path, field.getKey()), field.getValue(), targetValue);
+                }
             }
-            Matcher resourceMatchers = RESOURCE_PATH.matcher(pathValue);
-            if (resourceMatchers.matches()) {
-                if ("replace".equals(d.path("op").asText())) {
-                    boolean same = compareMemoryAndCpuResources(source, target, pathValue, resourceMatchers);
-                    if (same) {
-                        ObjectMeta md = current.getMetadata();
-                        log.debug("StatefulSet {}/{} ignoring diff {}", md.getNamespace(), md.getName(), d);
-                        continue;
-                    }
+
+            Iterator<String> names = target.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!source.has(name)) {
+                    difference(node.child(name), new Path(path, name), null, target.get(name));
                 }
             }
-            if (log.isDebugEnabled()) {
-                ObjectMeta md = current.getMetadata();
-                log.debug("StatefulSet {}/{} differs: {}", md.getNamespace(), md.getName(), d);
-                log.debug("Current StatefulSet path {} has value {}", pathValue, lookupPath(source, pathValue));
-                log.debug("Desired StatefulSet path {} has value {}", pathValue, lookupPath(target, pathValue));
+        } else if (source.isArray() && target.isArray()) {
+            int common = Math.min(source.size(), target.size());
+            PathNode child = node.anyIndex();
+
+            for (int i = 0; i < common; i++) {
+                compare(child, new Path(path, i), source.get(i), target.get(i));
             }
 
-            num++;
-            // Any volume claim template changes apart from size change should trigger rolling update
-            // Size changes should not trigger rolling update. Therefore we need to separate these two in the diff.
-            changesVolumeClaimTemplate |= equalsOrPrefix("/spec/volumeClaimTemplates", pathValue) && !VOLUME_SIZE.matcher(pathValue).matches();
-            changesVolumeSize |= VOLUME_SIZE.matcher(pathValue).matches();
-            // Change changes to /spec/template/spec, except to imagePullPolicy, which gets changed
-            // by k8s
-            changesSpecTemplate |= equalsOrPrefix("/spec/template", pathValue);
-            changesLabels |= equalsOrPrefix("/metadata/labels", pathValue);
-            changesSpecReplicas |= equalsOrPrefix("/spec/replicas", pathValue);
-        }
-        this.isEmpty = num == 0;
-        this.changesLabels = changesLabels;
-        this.changesSpecReplicas = changesSpecReplicas;
-        this.changesSpecTemplate = changesSpecTemplate;
-        this.changesVolumeClaimTemplate = changesVolumeClaimTemplate;
-        this.changesVolumeSize = changesVolumeSize;
-    }
-
-    boolean compareMemoryAndCpuResources(JsonNode source, JsonNode target, String pathValue, Matcher resourceMatchers) {
-        JsonNode s = lookupPath(source, pathValue);
-        JsonNode t = lookupPath(target, pathValue);
-        String group = resourceMatchers.group(1);
-        if (!s.isMissingNode()
-            && !t.isMissingNode()) {
-            if ("cpu".equals(group)) {
-                // Ignore single millicpu differences as they could be due to rounding error
-                if (Math.abs(Quantities.parseCpuAsMilliCpus(s.asText()) - Quantities.parseCpuAsMilliCpus(t.asText())) < 1) {
-                    return true;
-                }
+            // Added or removed items
+            if (source.size() != target.size()) {
+                difference(child, new Path(path, common),
+                        common < source.size() ? source.get(common) : null,
+                        common < target.size() ? target.get(common) : null);
+            }
+        } else if (!source.equals(target)) {
+            if (node.quantity != null && node.quantity.sameValue(source, target)) {
+                ignore(path, source, target);
             } else {
-                // Ignore single byte differences as they could be due to rounding error
-                if (Math.abs(Quantities.parseMemory(s.asText()) - Quantities.parseMemory(t.asText())) < 1) {
-                    return true;
-                }
+                difference(node, path, source, target);
             }
         }
-        return false;
+    }
+
+    private void difference(PathNode node, Path path, JsonNode source, JsonNode target) {
+        if (node.ignorable) {
+            ignore(path, source, target);
+            return;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("StatefulSet {}/{} differs: {}", metadata.getNamespace(), metadata.getName(), path);
+            log.debug("Current StatefulSet path {} has value {}", path, source);
+            log.debug("Desired StatefulSet path {} has value {}", path, target);
+        }
+
+        num++;
+        changed.add(node.part);
+        changed.add(Part.OTHER);
+    }
+
+    private void ignore(Path path, JsonNode source, JsonNode target) {
+        if (log.isDebugEnabled()) {
+            log.debug("StatefulSet {}/{} ignoring diff {} (from {} to {})", metadata.getNamespace(), metadata.getName(), path, source, target);
+        }
     }
 
     /**
@@ -149,31 +201,145 @@ public class StatefulSetDiff extends AbstractResourceDiff {
      */
     @Override
     public boolean isEmpty() {
-        return isEmpty;
+        return num == 0;
     }
 
     /** @return True if there's a difference in {@code /spec/volumeClaimTemplates} but not to {@code /spec/volumeClaimTemplates/[0-9]+/spec/resources} */
     public boolean changesVolumeClaimTemplates() {
-        return changesVolumeClaimTemplate;
+        return changed.contains(Part.VOLUME_CLAIM_TEMPLATES);
     }
 
     /** @return True if there's a difference in {@code /spec/volumeClaimTemplates/[0-9]+/spec/resources} */
     public boolean changesVolumeSize() {
-        return changesVolumeSize;
+        return changed.contains(Part.VOLUME_SIZE);
     }
 
     /** @return True if there's a difference in {@code /spec/template/spec} */
     public boolean changesSpecTemplate() {
-        return changesSpecTemplate;
+        return changed.contains(Part.SPEC_TEMPLATE);
     }
 
     /** @return True if there's a difference in {@code /metadata/labels} */
     public boolean changesLabels() {
-        return changesLabels;
+        return changed.contains(Part.LABELS);
     }
 
     /** @return True if there's a difference in {@code /spec/replicas} */
     public boolean changesSpecReplicas() {
-        return changesSpecReplicas;
+        return changed.contains(Part.REPLICAS);
+    }
+
+    private enum QuantityType {
+        CPU {
+            @Override
+            boolean sameValue(JsonNode source, JsonNode target) {
+                // Ignore single millicpu differences as they could be due to rounding error
+                return Math.abs(Quantities.parseCpuAsMilliCpus(source.asText()) - Quantities.parseCpuAsMilliCpus(target.asText())) < 1;
+            }
+        },
+        MEMORY {
+            @Override
+            boolean sameValue(JsonNode source, JsonNode target) {
+                // Ignore single byte differences as they could be due to rounding error
+                return Math.abs(Quantities.parseMemory(source.asText()) - Quantities.parseMemory(target.asText())) < 1;
+            }
+        };
+
+        abstract boolean sameValue(JsonNode source, JsonNode target);
+    }
+
+    /**
+     * Node of the precompiled trie of the paths which the diff cares about.
+     * Paths which are not in the trie are mapped to a shared node of the part they belong to.
+     */
+    private static final class PathNode {
+        private static final String ANY_INDEX = "*";
+
+        private final Map<String, PathNode> children = new HashMap<>();
+        private final Part part;
+        // The part of the paths below this node which are not in the trie
+        private Part below;
+        private PathNode other;
+        private boolean ignorable;
+        private QuantityType quantity;
+        // All the parts this node and the paths below it belong to
+        private EnumSet<Part> parts;
+
+        private PathNode(Part part) {
+            this.part = part;
+            this.below = part;
+        }
+
+        static PathNode root() {
+            return new PathNode(Part.OTHER);
+        }
+
+        /**
+         * Adds the path to the trie.
+         *
+         * @param path Path relative to this node in the JSON pointer syntax
+         * @param part The part the path and the paths below it belong to or null to inherit it from the parent
+         *
+         * @return  The node of the path
+         */
+        PathNode add(String path, Part part) {
+            PathNode node = this;
+            String[] segments = path.substring(1).split("/");
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i].replace("~1", "/").replace("~0", "~");
+                Part childPart = part != null && i == segments.length - 1 ? part : node.below;
+                node = node.children.computeIfAbsent(segment, s -> new PathNode(childPart));
+            }
+            return node;
+        }
+
+        void seal() {
+            other = new PathNode(below);
+            other.other = other;
+            other.parts = EnumSet.of(below);
+
+            parts = EnumSet.of(part, below);
+            for (PathNode child : children.values()) {
+                child.seal();
+                parts.addAll(child.parts);
+            }
+        }
+
+        PathNode child(String name) {
+            PathNode child = children.get(name);
+            return child != null ? child : other;
+        }
+
+        PathNode anyIndex() {
+            return child(ANY_INDEX);
+        }
+    }
+
+    /**
+     * Path of a node in the compared trees. The string representation is built only when needed for logging.
+     */
+    private static final class Path {
+        private final Path parent;
+        // Field name or array index
+        private final Object segment;
+
+        Path(Path parent, Object segment) {
+            this.parent = parent;
+            this.segment = segment;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            append(sb, this);
+            return sb.toString();
+        }
+
+        private static void append(StringBuilder sb, Path path) {
+            if (path != null) {
+                append(sb, path.parent);
+                sb.append('/').append(path.segment.toString().replace("~", "~0").replace("/", "~1"));
+            }
+        }
     }
 }
@@ -19,6 +19,7 @@ import io.strimzi.operator.cluster.ClusterOperator;
 import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.common.Annotations;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.operator.resource.AbstractScalableResourceOperator;
 import io.strimzi.operator.common.operator.resource.PodOperator;
@@ -139,22 +140,34 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
      * @return a Future which completes when the given (possibly recreated) pod is ready.
      */
     Future<Void> maybeRestartPod(StatefulSet sts, String podName, Predicate<Pod> podNeedsRestart) {
+        return podOperations.getAsync(sts.getMetadata().getNamespace(), podName)
+                .compose(pod -> maybeRestartPod(sts, podName, pod, podNeedsRestart));
+    }
+
+    /**
+     * Like {@link #maybeRestartPod(StatefulSet, String, Predicate)}, but applies the {@code podNeedsRestart}
+     * to the given {@code pod} (e.g. from a list of all the pods of the StatefulSet) instead of getting it again.
+     * @param sts The StatefulSet.
+     * @param podName The name of the Pod to possibly restart.
+     * @param pod The current Pod or null if it does not exist.
+     * @param podNeedsRestart The predicate for deciding whether to restart the pod.
+     * @return a Future which completes when the given (possibly recreated) pod is ready.
+     */
+    Future<Void> maybeRestartPod(StatefulSet sts, String podName, Pod pod, Predicate<Pod> podNeedsRestart) {
         long pollingIntervalMs = 1_000;
         long timeoutMs = operationTimeoutMs;
         String namespace = sts.getMetadata().getNamespace();
         String name = sts.getMetadata().getName();
-        return podOperations.getAsync(sts.getMetadata().getNamespace(), podName).compose(pod -> {
-            Future<Void> fut;
-            if (podNeedsRestart.test(pod)) {
-                fut = restartPod(sts, pod);
-            } else {
-                log.debug("Rolling update of {}/{}: pod {} no need to roll", namespace, name, podName);
-                fut = Future.succeededFuture();
-            }
-            return fut.compose(ignored -> {
-                log.debug("Rolling update of {}/{}: wait for pod {} readiness", namespace, name, podName);
-                return podOperations.readiness(namespace, podName, pollingIntervalMs, timeoutMs);
-            });
+        Future<Void> fut;
+        if (podNeedsRestart.test(pod)) {
+            fut = restartPod(sts, pod);
+        } else {
+            log.debug("Rolling update of {}/{}: pod {} no need to roll", namespace, name, podName);
+            fut = Future.succeededFuture();
+        }
+        return fut.compose(ignored -> {
+            log.debug("Rolling update of {}/{}: wait for pod {} readiness", namespace, name, podName);
+            return podOperations.readiness(namespace, podName, pollingIntervalMs, timeoutMs);
         });
     }
 
@@ -359,7 +372,7 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
      */
     public Future<Void> deleteAsync(String namespace, String name, boolean cascading) {
         Promise<Void> result = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
             future -> {
                 try {
                     Boolean deleted = operation().inNamespace(namespace).withName(name).cascading(cascading).withGracePeriod(-1L).delete();
@@ -19,6 +19,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.PemKeyCertOptions;
@@ -30,8 +31,11 @@ import java.io.ByteArrayInputStream;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -49,10 +53,27 @@ public class ZookeeperLeaderFinder {
 
     public static final int UNKNOWN_LEADER = -1;
 
+    // Upper bound of the clusters with a cached NetClient, the least recently used client is closed
+    private static final int MAX_CLIENTS = 100;
+
     private final Vertx vertx;
     final SecretOperator secretOperator;
     private final Supplier<BackOff> backOffSupplier;
 
+    // NetClients keyed by namespace/cluster, guarded by itself
+    private final Map<String, CachedClient> clients = new LinkedHashMap<String, CachedClient>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedClient> eldest) {
+            if (size() > MAX_CLIENTS) {
+                eldest.getValue().client.close();
+                return true;
+            }
+            return false;
+        }
+    };
+    // The name of the last known leader pod keyed by namespace/cluster
+    private final Map<String, String> lastLeaders = new ConcurrentHashMap<>();
+
     public ZookeeperLeaderFinder(Vertx vertx, SecretOperator secretOperator, Supplier<BackOff> backOffSupplier) {
         this.vertx = vertx;
         this.secretOperator = secretOperator;
@@ -148,21 +169,51 @@ public class ZookeeperLeaderFinder {
             }
             try {
                 NetClientOptions netClientOptions = clientOptions(coKeySecret, clusterCaCertificateSecret);
-                return zookeeperLeader(cluster, namespace, pods, netClientOptions);
+                return zookeeperLeader(cluster, namespace, pods, netClient(cluster, namespace, netClientOptions));
             } catch (Throwable e) {
                 return Future.failedFuture(e);
             }
         });
 
     }
+    /**
+     * Returns the NetClient used for connecting to the Zookeeper cluster. The client is reused for all the connections
+     * to the cluster (so they share the SSL context and the TLS sessions) until the certificates change.
+     */
+    private NetClient netClient(String cluster, String namespace, NetClientOptions netClientOptions) {
+        String key = namespace + "/" + cluster;
+        NetClient oldClient = null;
+        NetClient client;
+
+        synchronized (clients) {
+            CachedClient cached = clients.get(key);
+            if (cached != null && cached.options.equals(netClientOptions)) {
+                client = cached.client;
+            } else {
+                if (cached != null) {
+                    log.debug("Certificates for cluster {} in namespace {} changed, creating a new client", cluster, namespace);
+                    oldClient = cached.client;
+                }
+                client = vertx.createNetClient(netClientOptions);
+                clients.put(key, new CachedClient(new NetClientOptions(netClientOptions), client));
+            }
+        }
+
+        if (oldClient != null) {
+            oldClient.close();
+        }
+
+        return client;
+    }
+
     private Future<Integer> zookeeperLeader(String cluster, String namespace, List<Pod> pods,
-                                            NetClientOptions netClientOptions) {
+                                            NetClient netClient) {
         Promise<Integer> result = Promise.promise();
         BackOff backOff = backOffSupplier.get();
         Handler<Long> handler = new Handler<Long>() {
             @Override
             public void handle(Long tid) {
-                zookeeperLeader(pods, netClientOptions).setHandler(leader -> {
+                zookeeperLeader(namespace + "/" + cluster, pods, netClient).setHandler(leader -> {
                     if (leader.succeeded()) {
                         if (leader.result() != UNKNOWN_LEADER) {
                             result.complete(leader.result());
@@ -204,96 +255,143 @@ public class ZookeeperLeaderFinder {
     }
 
     /**
-     * Synchronously find the leader by testing each pod in the given list
-     * using {@link #isLeader(Pod, NetClientOptions)}.
+     * Find the leader by testing the pods in the given list using {@link #isLeader(Pod, NetClient)}.
+     * The last known leader is tested first. When it is not the leader anymore, all the other pods are tested
+     * concurrently and the first pod which is the leader completes the returned future.
      */
-    private Future<Integer> zookeeperLeader(List<Pod> pods, NetClientOptions netClientOptions) {
+    private Future<Integer> zookeeperLeader(String key, List<Pod> pods, NetClient netClient) {
         try {
-            Future<Integer> f = Future.succeededFuture(UNKNOWN_LEADER);
+            int lastLeader = UNKNOWN_LEADER;
+            String lastLeaderName = lastLeaders.get(key);
             for (int i = 0; i < pods.size(); i++) {
-                final int podNum = i;
-                Pod pod = pods.get(i);
-                String podName = pod.getMetadata().getName();
-                f = f.compose(leader -> {
-                    if (leader == UNKNOWN_LEADER) {
-                        log.debug("Checker whether {} is leader", podName);
-                        return isLeader(pod, netClientOptions).map(isLeader -> {
-                            if (isLeader != null && isLeader) {
-                                log.info("Pod {} is leader", podName);
-                                return podNum;
-                            } else {
-                                log.info("Pod {} is not a leader", podName);
-                                return UNKNOWN_LEADER;
-                            }
-                        });
-                    } else {
-                        return Future.succeededFuture(leader);
-                    }
-                });
+                if (pods.get(i).getMetadata().getName().equals(lastLeaderName)) {
+                    lastLeader = i;
+                }
             }
-            return f;
+
+            if (lastLeader == UNKNOWN_LEADER) {
+                return zookeeperLeader(key, pods, netClient, UNKNOWN_LEADER);
+            }
+
+            int lastLeaderNum = lastLeader;
+            return isLeader(pods.get(lastLeaderNum), netClient).compose(isLeader -> {
+                if (isLeader != null && isLeader) {
+                    log.info("Pod {} is still leader", lastLeaderName);
+                    return Future.succeededFuture(lastLeaderNum);
+                } else {
+                    log.info("Pod {} is not a leader anymore", lastLeaderName);
+                    lastLeaders.remove(key, lastLeaderName);
+                    return zookeeperLeader(key, pods, netClient, lastLeaderNum);
+                }
+            });
         } catch (Throwable t) {
             return Future.failedFuture(t);
         }
     }
 
+    /**
+     * Concurrently tests all the pods except the {@code skip} one.
+     */
+    private Future<Integer> zookeeperLeader(String key, List<Pod> pods, NetClient netClient, int skip) {
+        Promise<Integer> result = Promise.promise();
+        AtomicInteger remaining = new AtomicInteger(skip == UNKNOWN_LEADER ? pods.size() : pods.size() - 1);
+
+        if (remaining.get() == 0) {
+            return Future.succeededFuture(UNKNOWN_LEADER);
+        }
+
+        for (int i = 0; i < pods.size(); i++) {
+            if (i == skip) {
+                continue;
+            }
+
+            final int podNum = i;
+            String podName = pods.get(i).getMetadata().getName();
+            log.debug("Checker whether {} is leader", podName);
+            isLeader(pods.get(i), netClient).setHandler(isLeader -> {
+                if (isLeader.succeeded() && isLeader.result() != null && isLeader.result()) {
+                    log.info("Pod {} is leader", podName);
+                    if (result.tryComplete(podNum)) {
+                        lastLeaders.put(key, podName);
+                    }
+                } else {
+                    log.info("Pod {} is not a leader", podName);
+                }
+
+                if (remaining.decrementAndGet() == 0) {
+                    result.tryComplete(UNKNOWN_LEADER);
+                }
+            });
+        }
+
+        return result.future();
+    }
+
     /**
      * Returns whether the given pod is the zookeeper leader.
      */
-    protected Future<Boolean> isLeader(Pod pod, NetClientOptions netClientOptions) {
+    protected Future<Boolean> isLeader(Pod pod, NetClient netClient) {
 
         Promise<Boolean> promise = Promise.promise();
         String host = host(pod);
         int port = port(pod);
         log.debug("Connecting to zookeeper on {}:{}", host, port);
-        vertx.createNetClient(netClientOptions)
-            .connect(port, host, ar -> {
-                if (ar.failed()) {
-                    log.warn("ZK {}:{}: failed to connect to zookeeper:", host, port, ar.cause().getMessage());
-                    promise.fail(ar.cause());
-                } else {
-                    log.debug("ZK {}:{}: connected", host, port);
-                    NetSocket socket = ar.result();
-                    socket.exceptionHandler(ex -> {
-                        if (!promise.tryFail(ex)) {
-                            log.debug("ZK {}:{}: Ignoring error, since leader status of pod {} is already known: {}",
-                                    host, port, pod.getMetadata().getName(), ex);
-                        }
-                    });
-                    StringBuilder sb = new StringBuilder();
-                    // We could use socket idle timeout, but this times out even if the server just responds
-                    // very slowly
-                    long timerId = vertx.setTimer(10_000, tid -> {
-                        log.debug("ZK {}:{}: Timeout waiting for Zookeeper {} to close socket",
-                                host, port, socket.remoteAddress());
-                        socket.close();
-                    });
-                    socket.closeHandler(v -> {
-                        vertx.cancelTimer(timerId);
-                        Matcher matcher = LEADER_MODE_PATTERN.matcher(sb);
-                        boolean isLeader = matcher.find();
-                        log.debug("ZK {}:{}: {} leader", host, port, isLeader ? "is" : "is not");
-                        if (!promise.tryComplete(isLeader)) {
-                            log.debug("ZK {}:{}: Ignoring leader result: Future is already complete",
-                                    host, port);
-                        }
-                    });
-                    log.debug("ZK {}:{}: upgrading to TLS", host, port);
-                    socket.handler(buffer -> {
-                        log.trace("buffer: {}", buffer);
-                        sb.append(buffer.toString());
-                    });
-                    log.debug("ZK {}:{}: sending stat", host, port);
-                    socket.write("stat");
-                }
-
-            });
+        netClient.connect(port, host, ar -> {
+            if (ar.failed()) {
+                log.warn("ZK {}:{}: failed to connect to zookeeper:", host, port, ar.cause().getMessage());
+                promise.fail(ar.cause());
+            } else {
+                log.debug("ZK {}:{}: connected", host, port);
+                NetSocket socket = ar.result();
+                socket.exceptionHandler(ex -> {
+                    if (!promise.tryFail(ex)) {
+                        log.debug("ZK {}:{}: Ignoring error, since leader status of pod {} is already known: {}",
+                                host, port, pod.getMetadata().getName(), ex);
+                    }
+                });
+                StringBuilder sb = new StringBuilder();
+                // We could use socket idle timeout, but this times out even if the server just responds
+                // very slowly
+                long timerId = vertx.setTimer(10_000, tid -> {
+                    log.debug("ZK {}:{}: Timeout waiting for Zookeeper {} to close socket",
+                            host, port, socket.remoteAddress());
+                    socket.close();
+                });
+                socket.closeHandler(v -> {
+                    vertx.cancelTimer(timerId);
+                    Matcher matcher = LEADER_MODE_PATTERN.matcher(sb);
+                    boolean isLeader = matcher.find();
+                    log.debug("ZK {}:{}: {} leader", host, port, isLeader ? "is" : "is not");
+                    if (!promise.tryComplete(isLeader)) {
+                        log.debug("ZK {}:{}: Ignoring leader result: Future is already complete",
+                                host, port);
+                    }
+                });
+                log.debug("ZK {}:{}: upgrading to TLS", host, port);
+                socket.handler(buffer -> {
+                    log.trace("buffer: {}", buffer);
+                    sb.append(buffer.toString());
+                });
+                log.debug("ZK {}:{}: sending stat", host, port);
+                socket.write("stat");
+            }
+        });
         return promise.future().recover(error -> {
             log.debug("ZK {}:{}: Error trying to determine whether leader ({}) => not leader", host, port, error);
             return Future.succeededFuture(Boolean.FALSE);
         });
     }
 
+    private static class CachedClient {
+        private final NetClientOptions options;
+        private final NetClient client;
+
+        private CachedClient(NetClientOptions options, NetClient client) {
+            this.options = options;
+            this.client = client;
+        }
+    }
+
     /** The hostname for connecting to zookeeper in the given pod. */
     protected String host(Pod pod) {
         String cluster = Labels.cluster(pod);
@@ -17,6 +17,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Predicate;
 
 
@@ -73,51 +75,60 @@ public class ZookeeperSetOperator extends StatefulSetOperator {
         final int replicas = sts.getSpec().getReplicas();
         log.debug("Considering rolling update of {}/{}", namespace, name);
 
-        boolean zkRoll = false;
-        ArrayList<Pod> pods = new ArrayList<>();
         String cluster = sts.getMetadata().getLabels().get(Labels.STRIMZI_CLUSTER_LABEL);
-        for (int i = 0; i < replicas; i++) {
-            Pod pod = podOperations.get(sts.getMetadata().getNamespace(), KafkaResources.zookeeperPodName(cluster, i));
-            zkRoll |= podRestart.test(pod);
-            pods.add(pod);
-        }
 
-        final Future<Void> rollFuture;
-        if (zkRoll) {
-            // Find the leader
-            Promise<Void> promise = Promise.promise();
-            rollFuture = promise.future();
-            Future<Integer> leaderFuture = leaderFinder.findZookeeperLeader(cluster, namespace, pods, coKeySecret);
-            leaderFuture.compose(leader -> {
-                log.debug("Zookeeper leader is " + (leader == ZookeeperLeaderFinder.UNKNOWN_LEADER ? "unknown" : "pod " + leader));
-                Future<Void> fut = Future.succeededFuture();
-                // Then roll each non-leader pod
-                for (int i = 0; i < replicas; i++) {
-                    String podName = KafkaResources.zookeeperPodName(cluster, i);
-                    if (i != leader) {
-                        log.debug("Possibly restarting non-leader pod {}", podName);
-                        // roll the pod and wait until it is ready
-                        // this prevents rolling into faulty state (note: this applies just for ZK pods)
-                        fut = fut.compose(ignore -> maybeRestartPod(sts, podName, podRestart));
+        // All pods are listed with a single request and the restart decisions are evaluated over this snapshot
+        return podOperations.listAsync(namespace, Labels.fromMap(sts.getSpec().getSelector().getMatchLabels())).compose(list -> {
+            Map<String, Pod> podsByName = new HashMap<>(list.size());
+            for (Pod pod : list) {
+                podsByName.put(pod.getMetadata().getName(), pod);
+            }
+
+            boolean zkRoll = false;
+            ArrayList<Pod> pods = new ArrayList<>();
+            for (int i = 0; i < replicas; i++) {
+                Pod pod = podsByName.get(KafkaResources.zookeeperPodName(cluster, i));
+                zkRoll |= podRestart.test(pod);
+                pods.add(pod);
+            }
+
+            final Future<Void> rollFuture;
+            if (zkRoll) {
+                // Find the leader
+                Promise<Void> promise = Promise.promise();
+                rollFuture = promise.future();
+                Future<Integer> leaderFuture = leaderFinder.findZookeeperLeader(cluster, namespace, pods, coKeySecret);
+                leaderFuture.compose(leader -> {
+                    log.debug("Zookeeper leader is " + (leader == ZookeeperLeaderFinder.UNKNOWN_LEADER ? "unknown" : "pod " + leader));
+                    Future<Void> fut = Future.succeededFuture();
+                    // Then roll each non-leader pod
+                    for (int i = 0; i < replicas; i++) {
+                        String podName = KafkaResources.zookeeperPodName(cluster, i);
+                        Pod pod = pods.get(i);
+                        if (i != leader) {
+                            log.debug("Possibly restarting non-leader pod {}", podName);
+                            // roll the pod and wait until it is ready
+                            // this prevents rolling into faulty state (note: this applies just for ZK pods)
+                            fut = fut.compose(ignore -> maybeRestartPod(sts, podName, pod, podRestart));
+                        } else {
+                            log.debug("Deferring restart of leader {}", podName);
+                        }
+                    }
+                    if (leader == ZookeeperLeaderFinder.UNKNOWN_LEADER) {
+                        return fut;
                     } else {
-                        log.debug("Deferring restart of leader {}", podName);
+                        // Finally roll the leader pod
+                        return fut.compose(ar -> {
+                            // the leader is rolled as the last
+                            log.debug("Possibly restarting leader pod (previously deferred) {}", leader);
+                            return maybeRestartPod(sts, KafkaResources.zookeeperPodName(cluster, leader), pods.get(leader), podRestart);
+                        });
                     }
-                }
-                if (leader == ZookeeperLeaderFinder.UNKNOWN_LEADER) {
-                    return fut;
-                } else {
-                    // Finally roll the leader pod
-                    return fut.compose(ar -> {
-                        // the leader is rolled as the last
-                        log.debug("Possibly restarting leader pod (previously deferred) {}", leader);
-                        return maybeRestartPod(sts, KafkaResources.zookeeperPodName(cluster, leader), podRestart);
-                    });
-                }
-            }).setHandler(rollFuture);
-        } else {
-            rollFuture = Future.succeededFuture();
-        }
-        return rollFuture;
+                }).setHandler(rollFuture);
+            } else {
+                rollFuture = Future.succeededFuture();
+            }
+            return rollFuture;
+        });
     }
-
 }
@@ -9,6 +9,7 @@ import io.fabric8.kubernetes.api.model.LocalObjectReferenceBuilder;
 import io.strimzi.operator.cluster.model.ImagePullPolicy;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.common.InvalidConfigurationException;
+import io.strimzi.operator.common.WorkerPools;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
@@ -230,4 +231,228 @@ public class ClusterOperatorConfigTest {
             ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
         });
     }
+
+    @Test
+    public void testConnectApiConfig() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_CONNECT_API_MAX_POOL_SIZE, "10");
+        envVars.put(ClusterOperatorConfig.STRIMZI_CONNECT_API_CONNECT_TIMEOUT_MS, "5000");
+        envVars.put(ClusterOperatorConfig.STRIMZI_CONNECT_API_REQUEST_TIMEOUT_MS, "120000");
+
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+
+        assertThat(config.getConnectApiMaxPoolSize(), is(10));
+        assertThat(config.getConnectApiConnectTimeoutMs(), is(5_000));
+        assertThat(config.getConnectApiRequestTimeoutMs(), is(120_000L));
+    }
+
+    @Test
+    public void testMaxConcurrentConnectorReconciliations() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_CONNECTOR_RECONCILIATIONS, "3");
+
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getMaxConcurrentConnectorReconciliations(), is(3));
+
+        config = ClusterOperatorConfig.fromMap(ClusterOperatorConfigTest.envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getMaxConcurrentConnectorReconciliations(), is(ClusterOperatorConfig.DEFAULT_MAX_CONCURRENT_CONNECTOR_RECONCILIATIONS));
+    }
+
+    @Test
+    public void testConnectorEventsDebounce() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_CONNECTOR_EVENTS_DEBOUNCE_MS, "500");
+
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getConnectorEventsDebounceMs(), is(500L));
+
+        config = ClusterOperatorConfig.fromMap(ClusterOperatorConfigTest.envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getConnectorEventsDebounceMs(), is(ClusterOperatorConfig.DEFAULT_CONNECTOR_EVENTS_DEBOUNCE_MS));
+
+        // Zero disables the debouncing
+        envVars.put(ClusterOperatorConfig.STRIMZI_CONNECTOR_EVENTS_DEBOUNCE_MS, "0");
+        config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getConnectorEventsDebounceMs(), is(0L));
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_CONNECTOR_EVENTS_DEBOUNCE_MS, "-1");
+        assertThrows(InvalidConfigurationException.class, () -> ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup()));
+    }
+
+    @Test
+    public void testConnectApiConfigDefaults() {
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+
+        assertThat(config.getConnectApiMaxPoolSize(), is(ClusterOperatorConfig.DEFAULT_CONNECT_API_MAX_POOL_SIZE));
+        assertThat(config.getConnectApiConnectTimeoutMs(), is(ClusterOperatorConfig.DEFAULT_CONNECT_API_CONNECT_TIMEOUT_MS));
+        assertThat(config.getConnectApiRequestTimeoutMs(), is(ClusterOperatorConfig.DEFAULT_CONNECT_API_REQUEST_TIMEOUT_MS));
+    }
+
+    @Test
+    public void testInvalidConnectApiPoolSizeThrowsInvalidConfigurationException() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_CONNECT_API_MAX_POOL_SIZE, "0");
+
+        assertThrows(InvalidConfigurationException.class, () -> {
+            ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        });
+    }
+
+    @Test
+    public void testShardingConfig() {
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.isShardingEnabled(), is(false));
+        assertThat(config.getShardingLeaseDurationMs(), is(ClusterOperatorConfig.DEFAULT_SHARDING_LEASE_DURATION_MS));
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_SHARDING_ENABLED, "true");
+        envVars.put(ClusterOperatorConfig.STRIMZI_SHARDING_LEASE_DURATION_MS, "30000");
+        envVars.put(ClusterOperatorConfig.STRIMZI_SHARDING_NAMESPACE, "operator-namespace");
+
+        config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.isShardingEnabled(), is(true));
+        assertThat(config.getShardingLeaseDurationMs(), is(30_000L));
+        assertThat(config.getShardingNamespace(), is("operator-namespace"));
+    }
+
+    @Test
+    public void testShardingWithoutNamespaceThrowsInvalidConfigurationException() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_SHARDING_ENABLED, "true");
+
+        assertThrows(InvalidConfigurationException.class, () -> {
+            ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        });
+    }
+
+    @Test
+    public void testMultiplexedWatches() {
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.isMultiplexedWatches(), is(false));
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_MULTIPLEXED_WATCHES, "true");
+
+        config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.isMultiplexedWatches(), is(true));
+    }
+
+    @Test
+    public void testModelCacheSize() {
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getModelCacheSize(), is(ClusterOperatorConfig.DEFAULT_MODEL_CACHE_SIZE));
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_MODEL_CACHE_SIZE, "10");
+
+        config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getModelCacheSize(), is(10));
+    }
+
+    @Test
+    public void testServerSideApply() {
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.isServerSideApply(), is(false));
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_SERVER_SIDE_APPLY, "true");
+
+        config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.isServerSideApply(), is(true));
+    }
+
+    @Test
+    public void testWorkerPoolSizes() {
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getWorkerPoolSizes(), is(WorkerPools.defaultSizes()));
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put("STRIMZI_KUBERNETES_OPS_POOL_SIZE", "40");
+        envVars.put("STRIMZI_CERTIFICATE_OPS_POOL_SIZE", "1");
+
+        config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getWorkerPoolSizes().get(WorkerPools.KUBERNETES), is(40));
+        assertThat(config.getWorkerPoolSizes().get(WorkerPools.CERTIFICATES), is(1));
+        assertThat(config.getWorkerPoolSizes().get(WorkerPools.ZOOKEEPER), is(WorkerPools.defaultSizes().get(WorkerPools.ZOOKEEPER)));
+    }
+
+    @Test
+    public void testInvalidWorkerPoolSizeThrowsInvalidConfigurationException() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put("STRIMZI_ZOOKEEPER_OPS_POOL_SIZE", "0");
+
+        assertThrows(InvalidConfigurationException.class, () -> ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup()));
+    }
+
+    @Test
+    public void testScaleDownThrottle() {
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getScaleDownThrottle(), is(ClusterOperatorConfig.DEFAULT_SCALE_DOWN_THROTTLE));
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_SCALE_DOWN_THROTTLE, "1048576");
+
+        config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getScaleDownThrottle(), is(1_048_576L));
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_SCALE_DOWN_THROTTLE, "-1");
+        assertThrows(InvalidConfigurationException.class, () -> ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup()));
+    }
+
+    @Test
+    public void testRebalanceConfiguration() {
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getRebalanceThrottle(), is(ClusterOperatorConfig.DEFAULT_REBALANCE_THROTTLE));
+        assertThat(config.getRebalanceMaxConcurrentMoves(), is(ClusterOperatorConfig.DEFAULT_REBALANCE_MAX_CONCURRENT_MOVES));
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_REBALANCE_THROTTLE, "1048576");
+        envVars.put(ClusterOperatorConfig.STRIMZI_REBALANCE_MAX_CONCURRENT_MOVES, "3");
+
+        config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getRebalanceThrottle(), is(1_048_576L));
+        assertThat(config.getRebalanceMaxConcurrentMoves(), is(3));
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_REBALANCE_MAX_CONCURRENT_MOVES, "0");
+        assertThrows(InvalidConfigurationException.class, () -> ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup()));
+    }
+
+    @Test
+    public void testLogDirMoveConfiguration() {
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getLogDirMoveThrottle(), is(ClusterOperatorConfig.DEFAULT_LOG_DIR_MOVE_THROTTLE));
+        assertThat(config.getLogDirMaxConcurrentMoves(), is(ClusterOperatorConfig.DEFAULT_LOG_DIR_MAX_CONCURRENT_MOVES));
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_LOG_DIR_MOVE_THROTTLE, "1048576");
+        envVars.put(ClusterOperatorConfig.STRIMZI_LOG_DIR_MAX_CONCURRENT_MOVES, "1");
+
+        config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.getLogDirMoveThrottle(), is(1_048_576L));
+        assertThat(config.getLogDirMaxConcurrentMoves(), is(1));
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_LOG_DIR_MAX_CONCURRENT_MOVES, "0");
+        assertThrows(InvalidConfigurationException.class, () -> ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup()));
+    }
+
+    @Test
+    public void testPeriodicLeaderElectionConfiguration() {
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.isPeriodicLeaderElectionEnabled(), is(false));
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_PERIODIC_LEADER_ELECTION_ENABLED, "true");
+
+        config = ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        assertThat(config.isPeriodicLeaderElectionEnabled(), is(true));
+    }
+
+    @Test
+    public void testInvalidModelCacheSizeThrowsInvalidConfigurationException() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_MODEL_CACHE_SIZE, "0");
+
+        assertThrows(InvalidConfigurationException.class, () -> {
+            ClusterOperatorConfig.fromMap(envVars, KafkaVersionTestUtils.getKafkaVersionLookup());
+        });
+    }
 }
@@ -8,6 +8,7 @@ import io.fabric8.kubernetes.api.model.apiextensions.CustomResourceDefinition;
 import io.fabric8.kubernetes.api.model.apiextensions.CustomResourceDefinitionList;
 import io.fabric8.kubernetes.api.model.apiextensions.DoneableCustomResourceDefinition;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.FilterWatchListMultiDeletable;
@@ -46,6 +47,7 @@ import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.mockito.ArgumentMatchers.any;
@@ -114,6 +116,90 @@ public class ClusterOperatorTest {
         startStopAllNamespaces(context, "*", false);
     }
 
+    @Test
+    public void startStopMultiNamespaceMultiplexedOs(VertxTestContext context) throws InterruptedException, ExecutionException, TimeoutException {
+        startStopAllNamespaces(context, "namespace1,namespace2,namespace3", true, true);
+    }
+
+    @Test
+    public void startStopMultiNamespaceMultiplexedK8s(VertxTestContext context) throws InterruptedException, ExecutionException, TimeoutException {
+        startStopAllNamespaces(context, "namespace1,namespace2,namespace3", false, true);
+    }
+
+    @Test
+    public void startStopMultiNamespaceMultiplexedWithoutClusterWideRights(VertxTestContext context) throws InterruptedException {
+        AtomicInteger numWatchers = new AtomicInteger(0);
+        KubernetesClient client = mock(KubernetesClient.class);
+        when(client.isAdaptable(eq(OpenShiftClient.class))).thenReturn(false);
+        when(client.isAdaptable(eq(OkHttpClient.class))).thenReturn(true);
+        try {
+            when(client.getMasterUrl()).thenReturn(new URL("http://localhost"));
+        } catch (MalformedURLException e) {
+            throw new RuntimeException(e);
+        }
+        MixedOperation mockCms = mock(MixedOperation.class);
+        NonNamespaceOperation<CustomResourceDefinition, CustomResourceDefinitionList, DoneableCustomResourceDefinition,
+                Resource<CustomResourceDefinition, DoneableCustomResourceDefinition>> mockCrds = mock(NonNamespaceOperation.class);
+        Resource<CustomResourceDefinition, DoneableCustomResourceDefinition> mockResource = mock(Resource.class);
+        when(mockResource.get()).thenReturn(null);
+        when(mockCrds.withName(KafkaConnectS2I.CRD_NAME)).thenReturn(mockResource);
+        when(client.customResourceDefinitions()).thenReturn(mockCrds);
+        when(client.customResources(any(), any(), any(), any())).thenReturn(mockCms);
+
+        // The watches in all namespaces are forbidden
+        FilterWatchListMultiDeletable mockFilteredCms = mock(FilterWatchListMultiDeletable.class);
+        when(mockFilteredCms.withLabels(any())).thenReturn(mockFilteredCms);
+        when(mockFilteredCms.watch(any())).thenThrow(new KubernetesClientException("Forbidden", 403, null));
+        when(mockCms.inAnyNamespace()).thenReturn(mockFilteredCms);
+
+        String namespaces = "namespace1,namespace2,namespace3";
+        for (String namespace : namespaces.split(",")) {
+            MixedOperation mockNamespacedCms = mock(MixedOperation.class);
+            when(mockNamespacedCms.watch(any())).thenAnswer(invo -> {
+                numWatchers.incrementAndGet();
+                return mock(Watch.class);
+            });
+            when(mockNamespacedCms.withLabels(any())).thenReturn(mockNamespacedCms);
+            when(mockCms.inNamespace(namespace)).thenReturn(mockNamespacedCms);
+        }
+
+        CountDownLatch async = new CountDownLatch(1);
+
+        Map<String, String> env = buildEnv(namespaces);
+        env.put(ClusterOperatorConfig.STRIMZI_MULTIPLEXED_WATCHES, "true");
+
+        Main.run(vertx, client, new PlatformFeaturesAvailability(false, KubernetesVersion.V1_9),
+                ClusterOperatorConfig.fromMap(env, KafkaVersionTestUtils.getKafkaVersionLookup()))
+            .setHandler(context.succeeding(f -> async.countDown()));
+
+        if (!async.await(60, TimeUnit.SECONDS)) {
+            context.failNow(new Throwable("Test timeout"));
+        }
+
+        context.verify(() -> {
+            assertThat("A single verticle for all namespaces", vertx.deploymentIDs(), hasSize(1));
+            assertThat("Watches in each namespace were opened", numWatchers.get(), greaterThan(0));
+            assertThat(numWatchers.get() % 3, is(0));
+        });
+
+        CountDownLatch async2 = new CountDownLatch(vertx.deploymentIDs().size());
+        for (String deploymentId: vertx.deploymentIDs()) {
+            vertx.undeploy(deploymentId, ar -> async2.countDown());
+        }
+        if (!async2.await(60, TimeUnit.SECONDS)) {
+            context.failNow(new Throwable("Test timeout"));
+        }
+
+        context.completeNow();
+    }
+
+    @Test
+    public void testIsForbidden() {
+        assertThat(ClusterOperator.isForbidden(new KubernetesClientException("Forbidden", 403, null)), is(true));
+        assertThat(ClusterOperator.isForbidden(new KubernetesClientException("Not found", 404, null)), is(false));
+        assertThat(ClusterOperator.isForbidden(new RuntimeException("Forbidden")), is(false));
+    }
+
     /**
      * Does the CO start and then stop a verticle per namespace?
      * @param context
@@ -202,6 +288,15 @@ public class ClusterOperatorTest {
      * @param namespaces
      */
     private void startStopAllNamespaces(VertxTestContext context, String namespaces, boolean openShift) throws InterruptedException {
+        startStopAllNamespaces(context, namespaces, openShift, false);
+    }
+
+    /**
+     * Does the CO start and then stop a single verticle watching all namespaces with multiplexed watches?
+     * @param context
+     * @param namespaces
+     */
+    private void startStopAllNamespaces(VertxTestContext context, String namespaces, boolean openShift, boolean multiplexed) throws InterruptedException {
         AtomicInteger numWatchers = new AtomicInteger(0);
         KubernetesClient client;
         if (openShift) {
@@ -247,6 +342,7 @@ public class ClusterOperatorTest {
         CountDownLatch async = new CountDownLatch(1);
 
         Map<String, String> env = buildEnv(namespaces);
+        env.put(ClusterOperatorConfig.STRIMZI_MULTIPLEXED_WATCHES, String.valueOf(multiplexed));
 
         Main.run(vertx, client, new PlatformFeaturesAvailability(openShift, KubernetesVersion.V1_9),
                 ClusterOperatorConfig.fromMap(env, KafkaVersionTestUtils.getKafkaVersionLookup()))
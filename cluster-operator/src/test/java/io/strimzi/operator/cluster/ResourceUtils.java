@@ -11,9 +11,11 @@ import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.ResourceRequirements;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.api.model.ServiceBuilder;
 import io.fabric8.kubernetes.api.model.ServicePortBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteBuilder;
 import io.strimzi.api.kafka.model.Kafka;
 import io.strimzi.api.kafka.model.KafkaBridge;
@@ -85,13 +87,14 @@ import io.strimzi.operator.common.operator.resource.StorageClassOperator;
 import io.strimzi.test.TestUtils;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
-import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.NetClient;
 import io.vertx.core.net.PemKeyCertOptions;
 import io.vertx.core.net.PemTrustOptions;
 import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.DescribeClusterResult;
 import org.apache.kafka.clients.admin.DescribeConfigsResult;
+import org.apache.kafka.clients.admin.DescribeLogDirsResult;
 import org.apache.kafka.clients.admin.DescribeTopicsResult;
 import org.apache.kafka.clients.admin.ListTopicsResult;
 import org.apache.kafka.clients.admin.TopicListing;
@@ -105,8 +108,10 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singleton;
@@ -565,7 +570,7 @@ public class ResourceUtils {
         return new ZookeeperLeaderFinder(vertx, new SecretOperator(vertx, client),
             () -> new BackOff(5_000, 2, 4)) {
                 @Override
-                protected Future<Boolean> isLeader(Pod pod, NetClientOptions options) {
+                protected Future<Boolean> isLeader(Pod pod, NetClient netClient) {
                     return Future.succeededFuture(true);
                 }
 
@@ -627,6 +632,16 @@ public class ResourceUtils {
                     throw new RuntimeException(e);
                 }
                 when(mock.describeConfigs(any())).thenReturn(dcfr);
+
+                DescribeLogDirsResult dldr;
+                try {
+                    Constructor<DescribeLogDirsResult> declaredConstructor = DescribeLogDirsResult.class.getDeclaredConstructor(Map.class);
+                    declaredConstructor.setAccessible(true);
+                    dldr = declaredConstructor.newInstance(emptyMap());
+                } catch (ReflectiveOperationException e) {
+                    throw new RuntimeException(e);
+                }
+                when(mock.describeLogDirs(any())).thenReturn(dldr);
                 return mock;
             }
         };
@@ -659,6 +674,8 @@ public class ResourceUtils {
         when(supplier.serviceAccountOperations.reconcile(anyString(), anyString(), any())).thenReturn(Future.succeededFuture());
         when(supplier.roleBindingOperations.reconcile(anyString(), anyString(), any())).thenReturn(Future.succeededFuture());
         when(supplier.clusterRoleBindingOperator.reconcile(anyString(), any())).thenReturn(Future.succeededFuture());
+        when(supplier.kafkaSetOperations.electPreferredLeaders(anyString(), anyString(), any(), any())).thenReturn(Future.succeededFuture(0.0));
+        when(supplier.kafkaSetOperations.leadershipSkew(anyString(), anyString(), any(), any())).thenReturn(Future.succeededFuture(0.0));
 
         if (openShift) {
             when(supplier.routeOperations.reconcile(anyString(), anyString(), any())).thenReturn(Future.succeededFuture());
@@ -672,6 +689,13 @@ public class ResourceUtils {
                         .endStatus()
                         .build();
             });
+            when(supplier.routeOperations.waitForAll(anyString(), any(), any(), anyLong(), any())).thenAnswer(i -> {
+                Map<String, Route> routes = new HashMap<>();
+                for (String name : i.<Set<String>>getArgument(2)) {
+                    routes.put(name, supplier.routeOperations.get(i.getArgument(0), name));
+                }
+                return Future.succeededFuture(routes);
+            });
         }
 
         when(supplier.serviceOperations.hasIngressAddress(anyString(), anyString(), anyLong(), anyLong())).thenReturn(Future.succeededFuture());
@@ -688,6 +712,13 @@ public class ResourceUtils {
                     .endSpec()
                     .build();
         });
+        when(supplier.serviceOperations.waitForAll(anyString(), any(), any(), anyLong(), any())).thenAnswer(i -> {
+            Map<String, Service> services = new HashMap<>();
+            for (String name : i.<Set<String>>getArgument(2)) {
+                services.put(name, supplier.serviceOperations.get(i.getArgument(0), name));
+            }
+            return Future.succeededFuture(services);
+        });
 
         return supplier;
     }
@@ -0,0 +1,293 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import io.fabric8.kubernetes.client.dsl.internal.RawCustomResourceOperationsImpl;
+import io.strimzi.operator.common.ConsistentHashRing;
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.model.NamespaceAndName;
+import io.strimzi.test.TestUtils;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ShardManagerTest {
+    private static final String NAMESPACE = "co-namespace";
+    private static final long LEASE_DURATION_MS = 1_000;
+    private static final long OPERATION_TIMEOUT_MS = 60_000;
+
+    private static Vertx vertx;
+
+    @BeforeAll
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void after() {
+        vertx.close();
+    }
+
+    private static Map<String, Object> lease(String holder, String renewTime, Integer durationSeconds) {
+        return lease(holder, renewTime, durationSeconds, null, null);
+    }
+
+    private static Map<String, Object> lease(String holder, String renewTime, Integer durationSeconds, String members, String inProgress) {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("holderIdentity", holder);
+        spec.put("renewTime", renewTime);
+        spec.put("leaseDurationSeconds", durationSeconds);
+
+        Map<String, String> annotations = new HashMap<>();
+        annotations.put(ShardManager.ANNO_MEMBERS, members);
+        annotations.put(ShardManager.ANNO_IN_PROGRESS, inProgress);
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("name", ShardManager.LEASE_NAME_PREFIX + holder);
+        metadata.put("annotations", annotations);
+
+        Map<String, Object> lease = new HashMap<>();
+        lease.put("metadata", metadata);
+        lease.put("spec", spec);
+        return lease;
+    }
+
+    @SafeVarargs
+    private static Map<String, Object> leaseList(Map<String, Object>... leases) {
+        return singletonMap("items", asList(leases));
+    }
+
+    @Test
+    public void testPeersAreLiveForLeaseDurationAfterRenewalWasObserved() {
+        // The renew times are far from the local clock to show that the clock skew does not matter
+        long now = 1_000;
+        Map<String, ShardManager.Peer> peers = ShardManager.observePeers(leaseList(
+                lease("co-1", "2020-03-01T09:59:50.000000Z", 15),
+                lease("co-2", "2120-03-01T09:59:59.123456Z", 15),
+                // Invalid leases
+                lease("co-3", null, 15),
+                lease(null, "2020-03-01T09:59:59.000000Z", 15)), emptyMap(), now);
+
+        assertThat(peers.keySet(), containsInAnyOrder("co-1", "co-2"));
+        assertThat(peers.get("co-1").isLive(now + 15_000), is(true));
+        assertThat(peers.get("co-2").isLive(now + 15_000), is(true));
+
+        // Only co-1 renewed its lease
+        now += 10_000;
+        peers = ShardManager.observePeers(leaseList(
+                lease("co-1", "2020-03-01T10:00:00.000000Z", 15),
+                lease("co-2", "2120-03-01T09:59:59.123456Z", 15)), peers, now);
+
+        assertThat(peers.get("co-1").isLive(now + 15_000), is(true));
+        assertThat(peers.get("co-2").isLive(now + 15_000), is(false));
+        assertThat(peers.get("co-2").isLive(now + 5_000), is(true));
+    }
+
+    @Test
+    public void testPeersPublishTheirRingsAndReconciliationsInProgress() {
+        Map<String, ShardManager.Peer> peers = ShardManager.observePeers(leaseList(
+                lease("co-1", "2020-03-01T09:59:50.000000Z", 15, "co-1,co-2", "ns/my-cluster,ns/my-connect")), emptyMap(), 1_000);
+
+        ShardManager.Peer peer = peers.get("co-1");
+        assertThat(peer.ring.members(), containsInAnyOrder("co-1", "co-2"));
+        assertThat(peer.inProgressSinceMs.get("ns/my-cluster"), is(1_000L));
+        assertThat(peer.inProgressSinceMs.get("ns/my-connect"), is(1_000L));
+
+        // The reconciliations are timed from when they were first seen in progress
+        peers = ShardManager.observePeers(leaseList(
+                lease("co-1", "2020-03-01T10:00:00.000000Z", 15, "co-1,co-2", "ns/my-cluster,ns/my-bridge")), peers, 6_000);
+
+        peer = peers.get("co-1");
+        assertThat(peer.inProgressSinceMs.keySet(), containsInAnyOrder("ns/my-cluster", "ns/my-bridge"));
+        assertThat(peer.inProgressSinceMs.get("ns/my-cluster"), is(1_000L));
+        assertThat(peer.inProgressSinceMs.get("ns/my-bridge"), is(6_000L));
+    }
+
+    @Test
+    public void testNoLeases() {
+        assertThat(ShardManager.observePeers(emptyMap(), emptyMap(), System.currentTimeMillis()).isEmpty(), is(true));
+    }
+
+    /**
+     * Mocks the Kubernetes client with the leases stored in the given map
+     */
+    @SuppressWarnings("unchecked")
+    private static KubernetesClient mockClient(Map<String, Map<String, Object>> leases) throws Exception {
+        RawCustomResourceOperationsImpl raw = mock(RawCustomResourceOperationsImpl.class);
+        when(raw.createOrReplace(eq(NAMESPACE), any(Map.class))).thenAnswer(invocation -> {
+            Map<String, Object> lease = invocation.getArgument(1);
+            leases.put((String) ((Map<String, Object>) lease.get("metadata")).get("name"), lease);
+            return lease;
+        });
+        when(raw.list(eq(NAMESPACE), any(Map.class))).thenAnswer(invocation ->
+                singletonMap("items", new ArrayList<>(leases.values())));
+        when(raw.delete(eq(NAMESPACE), anyString())).thenAnswer(invocation ->
+                leases.remove(invocation.<String>getArgument(1)));
+
+        KubernetesClient client = mock(KubernetesClient.class);
+        when(client.customResource(any(CustomResourceDefinitionContext.class))).thenReturn(raw);
+        return client;
+    }
+
+    /**
+     * Finds a resource which the ring assigns to the given member
+     */
+    private static NamespaceAndName resourceOwnedBy(ConsistentHashRing ring, String member) {
+        for (int i = 0; ; i++) {
+            NamespaceAndName resource = new NamespaceAndName("ns", "my-cluster-" + i);
+            if (member.equals(ring.owner(resource.getNamespace() + "/" + resource.getName()))) {
+                return resource;
+            }
+        }
+    }
+
+    private static void await(Future<Void> future) {
+        TestUtils.waitFor("future to complete", 10, 10_000, future::isComplete);
+        assertThat(future.succeeded(), is(true));
+    }
+
+    /**
+     * Waits until the new owner takes over the resource and checks that the resource is never owned by both
+     * replicas in the meantime
+     */
+    private static void awaitHandoff(ShardManager previousOwner, ShardManager newOwner, NamespaceAndName resource) {
+        TestUtils.waitFor("resource to be handed off", 10, 10_000, () -> {
+            boolean ownedByPrevious = previousOwner.isOwned(resource);
+            boolean ownedByNew = newOwner.isOwned(resource);
+            assertThat("Resource " + resource + " is owned by both replicas", ownedByPrevious && ownedByNew, is(false));
+            return !ownedByPrevious && ownedByNew;
+        });
+    }
+
+    @Test
+    public void testOwnershipIsHandedOffWhenReplicaJoinsAndLeaves() throws Exception {
+        Map<String, Map<String, Object>> leases = new ConcurrentHashMap<>();
+        KubernetesClient client = mockClient(leases);
+        ConsistentHashRing ring = new ConsistentHashRing(asList("co-a", "co-b"));
+        NamespaceAndName movedResource = resourceOwnedBy(ring, "co-b");
+        NamespaceAndName keptResource = resourceOwnedBy(ring, "co-a");
+
+        AtomicInteger changesA = new AtomicInteger();
+        AtomicInteger changesB = new AtomicInteger();
+        ShardManager a = new ShardManager(vertx, client, NAMESPACE, "co-a", LEASE_DURATION_MS, OPERATION_TIMEOUT_MS, changesA::incrementAndGet);
+        ShardManager b = new ShardManager(vertx, client, NAMESPACE, "co-b", LEASE_DURATION_MS, OPERATION_TIMEOUT_MS, changesB::incrementAndGet);
+
+        try {
+            // A single replica owns all resources without any handoff
+            await(a.start());
+            assertThat(a.isOwned(movedResource), is(true));
+            assertThat(a.isOwned(keptResource), is(true));
+
+            // The joining replica waits for the previous owner to release the resources
+            await(b.start());
+            assertThat(b.isOwned(movedResource), is(false));
+            assertThat(b.isOwned(keptResource), is(false));
+
+            awaitHandoff(a, b, movedResource);
+            assertThat(a.isOwned(keptResource), is(true));
+            assertThat(b.isOwned(keptResource), is(false));
+            // Notified when joining the ring and when the previous owner released the resource
+            TestUtils.waitFor("new owner to be notified", 10, 10_000, () -> changesB.get() == 2);
+
+            // The remaining replica takes over the resources of the leaving replica
+            b.stop();
+            awaitHandoff(b, a, movedResource);
+            assertThat(a.isOwned(keptResource), is(true));
+            TestUtils.waitFor("remaining owner to be notified", 10, 10_000, () -> changesA.get() == 2);
+        } finally {
+            a.stop();
+            b.stop();
+        }
+    }
+
+    @Test
+    public void testReconciliationInProgressIsCancelledAndWaitedFor() throws Exception {
+        Map<String, Map<String, Object>> leases = new ConcurrentHashMap<>();
+        KubernetesClient client = mockClient(leases);
+        NamespaceAndName resource = resourceOwnedBy(new ConsistentHashRing(asList("co-a", "co-b")), "co-b");
+        Reconciliation reconciliation = new Reconciliation("test", "Kafka", resource.getNamespace(), resource.getName());
+
+        ShardManager a = new ShardManager(vertx, client, NAMESPACE, "co-a", LEASE_DURATION_MS, OPERATION_TIMEOUT_MS, () -> { });
+        ShardManager b = new ShardManager(vertx, client, NAMESPACE, "co-b", LEASE_DURATION_MS, OPERATION_TIMEOUT_MS, () -> { });
+
+        try {
+            await(a.start());
+            assertThat(a.acquire(reconciliation), is(true));
+
+            // The previous owner cancels its reconciliation once it notices the new replica
+            await(b.start());
+            TestUtils.waitFor("reconciliation to be cancelled", 10, 10_000, reconciliation::isCancelled);
+            assertThat(a.acquire(new Reconciliation("test", "Kafka", resource.getNamespace(), resource.getName())), is(false));
+
+            // But the new owner waits until the reconciliation finished
+            Thread.sleep(LEASE_DURATION_MS * 3);
+            assertThat(b.isOwned(resource), is(false));
+
+            a.release(reconciliation);
+            TestUtils.waitFor("resource to be handed off", 10, 10_000, () -> b.isOwned(resource));
+        } finally {
+            a.stop();
+            b.stop();
+        }
+    }
+
+    @Test
+    public void testUnresponsiveOwnerIsWaitedForAtMostForHandoffTimeout() throws Exception {
+        Map<String, Map<String, Object>> leases = new ConcurrentHashMap<>();
+        NamespaceAndName resource = new NamespaceAndName("ns", "my-cluster");
+        // A replica which stopped renewing its lease in the middle of a reconciliation, with its clock ahead
+        leases.put(ShardManager.LEASE_NAME_PREFIX + "co-a",
+                lease("co-a", "2120-03-01T10:00:00.000000Z", 1, "co-a", "ns/my-cluster"));
+
+        // With no operation timeout, the handoff timeout is one lease duration
+        ShardManager b = new ShardManager(vertx, mockClient(leases), NAMESPACE, "co-b", LEASE_DURATION_MS, 0, () -> { });
+
+        try {
+            await(b.start());
+            assertThat(b.isOwned(resource), is(false));
+
+            TestUtils.waitFor("resource to be handed off", 10, 10_000, () -> b.isOwned(resource));
+        } finally {
+            b.stop();
+        }
+    }
+
+    @Test
+    public void testReplicaDoesNotOwnResourcesWhenLeaseIsNotRenewed() throws Exception {
+        Map<String, Map<String, Object>> leases = new ConcurrentHashMap<>();
+        ShardManager a = new ShardManager(vertx, mockClient(leases), NAMESPACE, "co-a", LEASE_DURATION_MS, OPERATION_TIMEOUT_MS, () -> { });
+        NamespaceAndName resource = new NamespaceAndName("ns", "my-cluster");
+
+        assertThat(a.isOwned(resource), is(false));
+
+        await(a.renew());
+        assertThat(a.isOwned(resource), is(true));
+
+        TestUtils.waitFor("lease to expire", 10, 10_000, () -> !a.isOwned(resource));
+    }
+}
@@ -213,4 +213,14 @@ public class AbstractModelTest {
         assertThat(am.determineImagePullPolicy(null, "docker.io/repo/image:latest"), is(ImagePullPolicy.ALWAYS.toString()));
         assertThat(am.determineImagePullPolicy(null, "docker.io/repo/image:not-so-latest"), is(ImagePullPolicy.IFNOTPRESENT.toString()));
     }
+
+    @Test
+    public void testCachedOrderedPropertiesCannotBeModifiedByCaller()  {
+        OrderedProperties properties = AbstractModel.getOrderedProperties("kafkaDefaultLoggingProperties");
+        String rootLogger = properties.asMap().get("log4j.rootLogger");
+        properties.addPair("log4j.rootLogger", "DEBUG, CONSOLE");
+
+        assertThat(AbstractModel.getOrderedProperties("kafkaDefaultLoggingProperties").asMap().get("log4j.rootLogger"), is(rootLogger));
+        assertThat(AbstractModel.getOrderedProperties("kafkaDefaultLoggingProperties"), is(AbstractModel.getOrderedProperties("kafkaDefaultLoggingProperties")));
+    }
 }
@@ -7,6 +7,7 @@ package io.strimzi.operator.cluster.model;
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.ContainerPort;
+import io.fabric8.kubernetes.api.model.ContainerPortBuilder;
 import io.fabric8.kubernetes.api.model.EnvVar;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.IntOrString;
@@ -92,6 +93,8 @@ import static io.strimzi.test.TestUtils.set;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.hamcrest.CoreMatchers.is;
@@ -146,6 +149,35 @@ public class KafkaClusterTest {
 
     private final KafkaCluster kc = KafkaCluster.fromCrd(kafkaAssembly, VERSIONS);
 
+    @Test
+    public void testLogDir() {
+        assertThat(kc.logDir(1, 3), is("/var/lib/kafka/data-1/kafka-log3"));
+        assertThat(kc.logDir(null, 0), is("/var/lib/kafka/data/kafka-log0"));
+    }
+
+    @Test
+    public void testPendingLogDirVolumes() {
+        Storage oldStorage = new JbodStorageBuilder().withVolumes(
+                new PersistentClaimStorageBuilder().withId(0).withSize("100Gi").build(),
+                new PersistentClaimStorageBuilder().withId(1).withSize("100Gi").build())
+                .build();
+        Storage storage = new JbodStorageBuilder().withVolumes(
+                new PersistentClaimStorageBuilder().withId(0).withSize("100Gi").build(),
+                new PersistentClaimStorageBuilder().withId(2).withSize("100Gi").build(),
+                new PersistentClaimStorageBuilder().withId(3).withSize("100Gi").build())
+                .build();
+
+        // The added volumes
+        assertThat(KafkaCluster.pendingLogDirVolumes(null, oldStorage, storage), is(new HashSet<>(asList(2, 3))));
+        // The volumes still pending from previous reconciliations, without the removed volume 1
+        assertThat(KafkaCluster.pendingLogDirVolumes("1,2", storage, storage), is(singleton(2)));
+        assertThat(KafkaCluster.pendingLogDirVolumes("0, 2", oldStorage, storage), is(new HashSet<>(asList(0, 2, 3))));
+        // Invalid IDs are ignored
+        assertThat(KafkaCluster.pendingLogDirVolumes("2,x", storage, storage), is(singleton(2)));
+        // Without JBOD storage
+        assertThat(KafkaCluster.pendingLogDirVolumes("2", null, new PersistentClaimStorageBuilder().withSize("100Gi").build()), is(emptySet()));
+    }
+
     @Test
     public void testMetricsConfigMap() {
         ConfigMap metricsCm = kc.generateMetricsAndLogConfigMap(null);
@@ -419,6 +451,25 @@ public class KafkaClusterTest {
         assertThat(sts.getSpec().getPodManagementPolicy(), is(PodManagementPolicy.ORDERED_READY.toValue()));
     }
 
+    @Test
+    public void testHttpProbesWithOperatorImage() {
+        Kafka kafka = new KafkaBuilder(kafkaAssembly)
+                .editSpec()
+                    .editKafka()
+                        .withImage(null)
+                    .endKafka()
+                .endSpec()
+                .build();
+        KafkaCluster kc = KafkaCluster.fromCrd(kafka, VERSIONS);
+        Container container = kc.generateStatefulSet(false, null, null).getSpec().getTemplate().getSpec().getContainers().get(0);
+
+        assertThat(container.getLivenessProbe().getHttpGet().getPath(), is(KafkaCluster.HEALTHCHECK_LIVENESS_PATH));
+        assertThat(container.getLivenessProbe().getHttpGet().getPort().getStrVal(), is(KafkaCluster.HEALTHCHECK_PORT_NAME));
+        assertThat(container.getReadinessProbe().getHttpGet().getPath(), is(KafkaCluster.HEALTHCHECK_READINESS_PATH));
+        assertThat(container.getReadinessProbe().getHttpGet().getPort().getStrVal(), is(KafkaCluster.HEALTHCHECK_PORT_NAME));
+        assertThat(AbstractModel.containerEnvVars(container).get(KafkaCluster.ENV_VAR_KAFKA_EXEC_PROBES_ENABLED), is(nullValue()));
+    }
+
     private void checkStatefulSet(StatefulSet sts, Kafka cm, boolean isOpenShift) {
         assertThat(sts.getMetadata().getName(), is(KafkaCluster.kafkaClusterName(cluster)));
         // ... in the same namespace ...
@@ -447,6 +498,12 @@ public class KafkaClusterTest {
         assertThat(containers.get(0).getReadinessProbe().getFailureThreshold(), is(new Integer(10)));
         assertThat(containers.get(0).getReadinessProbe().getSuccessThreshold(), is(new Integer(4)));
         assertThat(containers.get(0).getReadinessProbe().getPeriodSeconds(), is(new Integer(33)));
+        // The custom image may not serve the health over HTTP
+        assertThat(containers.get(0).getLivenessProbe().getExec().getCommand(), is(KafkaCluster.EXEC_LIVENESS_COMMAND));
+        assertThat(containers.get(0).getReadinessProbe().getExec().getCommand(), is(KafkaCluster.EXEC_READINESS_COMMAND));
+        assertThat(AbstractModel.containerEnvVars(containers.get(0)).get(KafkaCluster.ENV_VAR_KAFKA_EXEC_PROBES_ENABLED), is("true"));
+        assertThat(containers.get(0).getPorts().contains(new ContainerPortBuilder().withName(KafkaCluster.HEALTHCHECK_PORT_NAME)
+                .withContainerPort(KafkaCluster.HEALTHCHECK_PORT).withProtocol("TCP").build()), is(true));
         assertThat(AbstractModel.containerEnvVars(containers.get(0)).get(KafkaCluster.ENV_VAR_STRIMZI_KAFKA_GC_LOG_ENABLED), is(Boolean.toString(AbstractModel.DEFAULT_JVM_GC_LOGGING_ENABLED)));
         assertThat(containers.get(0).getVolumeMounts().get(2).getName(), is(KafkaCluster.BROKER_CERTS_VOLUME));
         assertThat(containers.get(0).getVolumeMounts().get(2).getMountPath(), is(KafkaCluster.BROKER_CERTS_VOLUME_MOUNT));
@@ -1310,6 +1367,30 @@ public class KafkaClusterTest {
         return kc.generateBrokersSecret();
     }
 
+    @Test
+    public void testGenerateBrokersSecretWithCertificatesKeptOutsideOfModel() throws IOException {
+        ClusterCa clusterCa = new ClusterCa(new OpenSslCertManager(), new PasswordGenerator(10, "a", "a"), cluster, null, null);
+        clusterCa.createRenewOrReplace(namespace, cluster, emptyMap(), null, true);
+
+        Secret secret = kc.generateBrokersSecret(clusterCa.generateBrokerCerts(kafkaAssembly, emptySet(), emptyMap(), true));
+        assertThat(secret.getData().keySet(), is(set(
+                "foo-kafka-0.crt",  "foo-kafka-0.key", "foo-kafka-0.p12", "foo-kafka-0.password",
+                "foo-kafka-1.crt", "foo-kafka-1.key", "foo-kafka-1.p12", "foo-kafka-1.password",
+                "foo-kafka-2.crt", "foo-kafka-2.key", "foo-kafka-2.p12", "foo-kafka-2.password")));
+    }
+
+    @Test
+    public void testBrokerConfigurationIsRegeneratedWhenModelChanges() {
+        KafkaCluster kc = KafkaCluster.fromCrd(kafkaAssembly, VERSIONS);
+        String configuration = kc.generateAncillaryConfigMap(null, emptySet(), emptySet()).getData().get(KafkaCluster.BROKER_CONFIGURATION_FILENAME);
+        assertThat(configuration.contains("broker.rack"), is(false));
+
+        kc.setRack(new RackBuilder().withTopologyKey("topology-key").build());
+
+        configuration = kc.generateAncillaryConfigMap(null, emptySet(), emptySet()).getData().get(KafkaCluster.BROKER_CONFIGURATION_FILENAME);
+        assertThat(configuration.contains("broker.rack=${STRIMZI_RACK_ID}"), is(true));
+    }
+
     @Test
     public void testTemplate() {
         Map<String, String> ssLabels = TestUtils.map("l1", "v1", "l2", "v2");
@@ -1500,6 +1581,11 @@ public class KafkaClusterTest {
         assertThat(rules.contains(eoPeer), is(true));
         assertThat(rules.contains(kafkaExporterPeer), is(true));
         assertThat(rules.contains(clusterOperatorPeer), is(true));
+
+        List<NetworkPolicyPeer> healthcheckRules = np.getSpec().getIngress().stream().filter(ing -> ing.getPorts().get(0).getPort().equals(new IntOrString(KafkaCluster.HEALTHCHECK_PORT))).map(NetworkPolicyIngressRule::getFrom).findFirst().orElse(null);
+
+        assertThat(healthcheckRules.size(), is(1));
+        assertThat(healthcheckRules.contains(clusterOperatorPeer), is(true));
     }
 
     @Test
@@ -31,6 +31,7 @@ import io.strimzi.api.kafka.model.KafkaMirrorMakerResources;
 import io.strimzi.api.kafka.model.authentication.KafkaClientAuthenticationOAuthBuilder;
 import io.strimzi.api.kafka.model.authentication.KafkaClientAuthenticationTlsBuilder;
 import io.strimzi.api.kafka.model.template.ContainerTemplate;
+import io.strimzi.api.kafka.model.tracing.JaegerSamplerType;
 import io.strimzi.kafka.oauth.client.ClientConfig;
 import io.strimzi.kafka.oauth.server.ServerConfig;
 import io.strimzi.operator.cluster.KafkaVersionTestUtils;
@@ -147,6 +148,7 @@ public class KafkaMirrorMakerClusterTest {
         expected.add(new EnvVarBuilder().withName(KafkaMirrorMakerCluster.ENV_VAR_KAFKA_MIRRORMAKER_ABORT_ON_SEND_FAILURE).withValue(Boolean.toString(abortOnSendFailure)).build());
         expected.add(new EnvVarBuilder().withName(KafkaMirrorMakerCluster.ENV_VAR_STRIMZI_KAFKA_GC_LOG_ENABLED).withValue(Boolean.toString(AbstractModel.DEFAULT_JVM_GC_LOGGING_ENABLED)).build());
         expected.add(new EnvVarBuilder().withName(KafkaMirrorMakerCluster.ENV_VAR_KAFKA_HEAP_OPTS).withValue(kafkaHeapOpts).build());
+        expected.add(new EnvVarBuilder().withName(KafkaMirrorMakerCluster.ENV_VAR_KAFKA_MIRRORMAKER_EXEC_PROBES_ENABLED).withValue("true").build());
         expected.add(new EnvVarBuilder().withName(KafkaMirrorMakerCluster.ENV_VAR_STRIMZI_LIVENESS_PERIOD).withValue("10").build());
         expected.add(new EnvVarBuilder().withName(KafkaMirrorMakerCluster.ENV_VAR_STRIMZI_READINESS_PERIOD).withValue("10").build());
 
@@ -207,7 +209,9 @@ public class KafkaMirrorMakerClusterTest {
         assertThat(dep.getSpec().getTemplate().getSpec().getContainers().get(0).getName(), is(KafkaMirrorMakerResources.deploymentName(this.cluster)));
         assertThat(dep.getSpec().getTemplate().getSpec().getContainers().get(0).getImage(), is(mm.image));
         assertThat(dep.getSpec().getTemplate().getSpec().getContainers().get(0).getEnv(), is(getExpectedEnvVars()));
-        assertThat(dep.getSpec().getTemplate().getSpec().getContainers().get(0).getPorts().size(), is(1));
+        assertThat(dep.getSpec().getTemplate().getSpec().getContainers().get(0).getPorts().size(), is(2));
+        assertThat(dep.getSpec().getTemplate().getSpec().getContainers().get(0).getPorts().get(0).getName(), is(KafkaMirrorMakerCluster.HEALTHCHECK_PORT_NAME));
+        assertThat(dep.getSpec().getTemplate().getSpec().getContainers().get(0).getPorts().get(0).getContainerPort(), is(new Integer(KafkaMirrorMakerCluster.HEALTHCHECK_PORT)));
         checkOwnerReference(mm.createOwnerReference(), dep);
     }
 
@@ -725,19 +729,38 @@ public class KafkaMirrorMakerClusterTest {
         Probe livenessProbe = cont.getLivenessProbe();
         Probe readinessProbe = cont.getReadinessProbe();
 
-        assertThat(livenessProbe.getExec().getCommand().get(0), is("/opt/kafka/kafka_mirror_maker_liveness.sh"));
+        // The custom image may not serve the health over HTTP
+        assertThat(livenessProbe.getExec().getCommand(), is(KafkaMirrorMakerCluster.EXEC_LIVENESS_COMMAND));
         assertThat(livenessProbe.getInitialDelaySeconds(), is(new Integer(60)));
         assertThat(livenessProbe.getTimeoutSeconds(), is(new Integer(5)));
 
-        assertThat(readinessProbe.getExec().getCommand().size(), is(3));
-        assertThat(readinessProbe.getExec().getCommand().get(0), is("test"));
-        assertThat(readinessProbe.getExec().getCommand().get(1), is("-f"));
-        assertThat(readinessProbe.getExec().getCommand().get(2), is("/tmp/mirror-maker-ready"));
+        assertThat(readinessProbe.getExec().getCommand(), is(KafkaMirrorMakerCluster.EXEC_READINESS_COMMAND));
         assertThat(readinessProbe.getInitialDelaySeconds(), is(new Integer(60)));
         assertThat(readinessProbe.getTimeoutSeconds(), is(new Integer(5)));
 
-        assertThat(cont.getEnv().stream().filter(env -> "STRIMZI_READINESS_PERIOD".equals(env.getName())).map(EnvVar::getValue).findFirst().orElse("").equals("10"), is(true));
-        assertThat(cont.getEnv().stream().filter(env -> "STRIMZI_LIVENESS_PERIOD".equals(env.getName())).map(EnvVar::getValue).findFirst().orElse("").equals("10"), is(true));
+        assertThat(AbstractModel.containerEnvVars(cont).get(KafkaMirrorMakerCluster.ENV_VAR_KAFKA_MIRRORMAKER_EXEC_PROBES_ENABLED), is("true"));
+        assertThat(AbstractModel.containerEnvVars(cont).get(KafkaMirrorMakerCluster.ENV_VAR_STRIMZI_LIVENESS_PERIOD), is("10"));
+        assertThat(AbstractModel.containerEnvVars(cont).get(KafkaMirrorMakerCluster.ENV_VAR_STRIMZI_READINESS_PERIOD), is("10"));
+    }
+
+    @Test
+    public void testHttpProbesWithOperatorImage() {
+        KafkaMirrorMaker resource = new KafkaMirrorMakerBuilder(this.resource)
+                .editSpec()
+                    .withImage(null)
+                .endSpec()
+                .build();
+        KafkaMirrorMakerCluster mmc = KafkaMirrorMakerCluster.fromCrd(resource, VERSIONS);
+
+        Deployment dep = mmc.generateDeployment(Collections.EMPTY_MAP, true, null, null);
+        Container cont = dep.getSpec().getTemplate().getSpec().getContainers().get(0);
+
+        assertThat(cont.getLivenessProbe().getHttpGet().getPath(), is(KafkaMirrorMakerCluster.HEALTHCHECK_LIVENESS_PATH));
+        assertThat(cont.getLivenessProbe().getHttpGet().getPort().getStrVal(), is(KafkaMirrorMakerCluster.HEALTHCHECK_PORT_NAME));
+        assertThat(cont.getReadinessProbe().getHttpGet().getPath(), is(KafkaMirrorMakerCluster.HEALTHCHECK_READINESS_PATH));
+        assertThat(cont.getReadinessProbe().getHttpGet().getPort().getStrVal(), is(KafkaMirrorMakerCluster.HEALTHCHECK_PORT_NAME));
+        assertThat(AbstractModel.containerEnvVars(cont).get(KafkaMirrorMakerCluster.ENV_VAR_KAFKA_MIRRORMAKER_EXEC_PROBES_ENABLED), is(nullValue()));
+        assertThat(AbstractModel.containerEnvVars(cont).get(KafkaMirrorMakerCluster.ENV_VAR_STRIMZI_LIVENESS_PERIOD), is(nullValue()));
     }
 
     @Test
@@ -763,21 +786,18 @@ public class KafkaMirrorMakerClusterTest {
         Probe livenessProbe = cont.getLivenessProbe();
         Probe readinessProbe = cont.getReadinessProbe();
 
-        assertThat(livenessProbe.getExec().getCommand().get(0), is("/opt/kafka/kafka_mirror_maker_liveness.sh"));
+        assertThat(livenessProbe.getExec().getCommand(), is(KafkaMirrorMakerCluster.EXEC_LIVENESS_COMMAND));
         assertThat(livenessProbe.getInitialDelaySeconds(), is(new Integer(120)));
         assertThat(livenessProbe.getTimeoutSeconds(), is(new Integer(10)));
         assertThat(livenessProbe.getPeriodSeconds(), is(new Integer(60)));
 
-        assertThat(readinessProbe.getExec().getCommand().size(), is(3));
-        assertThat(readinessProbe.getExec().getCommand().get(0), is("test"));
-        assertThat(readinessProbe.getExec().getCommand().get(1), is("-f"));
-        assertThat(readinessProbe.getExec().getCommand().get(2), is("/tmp/mirror-maker-ready"));
+        assertThat(readinessProbe.getExec().getCommand(), is(KafkaMirrorMakerCluster.EXEC_READINESS_COMMAND));
         assertThat(readinessProbe.getInitialDelaySeconds(), is(new Integer(121)));
         assertThat(readinessProbe.getTimeoutSeconds(), is(new Integer(11)));
         assertThat(readinessProbe.getPeriodSeconds(), is(new Integer(61)));
 
-        assertThat(cont.getEnv().stream().filter(env -> "STRIMZI_READINESS_PERIOD".equals(env.getName())).map(EnvVar::getValue).findFirst().orElse("").equals("61"), is(true));
-        assertThat(cont.getEnv().stream().filter(env -> "STRIMZI_LIVENESS_PERIOD".equals(env.getName())).map(EnvVar::getValue).findFirst().orElse("").equals("60"), is(true));
+        assertThat(AbstractModel.containerEnvVars(cont).get(KafkaMirrorMakerCluster.ENV_VAR_STRIMZI_LIVENESS_PERIOD), is("60"));
+        assertThat(AbstractModel.containerEnvVars(cont).get(KafkaMirrorMakerCluster.ENV_VAR_STRIMZI_READINESS_PERIOD), is("61"));
     }
 
     @Test
@@ -871,6 +891,29 @@ public class KafkaMirrorMakerClusterTest {
         assertThat(cont.getEnv().stream().filter(env -> KafkaMirrorMakerCluster.ENV_VAR_STRIMZI_TRACING.equals(env.getName())).map(EnvVar::getValue).findFirst().orElse("").equals("jaeger"), is(true));
         assertThat(cont.getEnv().stream().filter(env -> KafkaMirrorMakerCluster.ENV_VAR_KAFKA_MIRRORMAKER_CONFIGURATION_CONSUMER.equals(env.getName())).map(EnvVar::getValue).findFirst().orElse("").contains("interceptor.classes=io.opentracing.contrib.kafka.TracingConsumerInterceptor"), is(true));
         assertThat(cont.getEnv().stream().filter(env -> KafkaMirrorMakerCluster.ENV_VAR_KAFKA_MIRRORMAKER_CONFIGURATION_PRODUCER.equals(env.getName())).map(EnvVar::getValue).findFirst().orElse("").contains("interceptor.classes=io.opentracing.contrib.kafka.TracingProducerInterceptor"), is(true));
+        assertThat(cont.getEnv().stream().anyMatch(env -> env.getName().startsWith("JAEGER_")), is(false));
+    }
+
+    @Test
+    public void testTracingWithSamplingAndReporting() {
+        KafkaMirrorMaker resource = new KafkaMirrorMakerBuilder(this.resource)
+                .editSpec()
+                    .withNewJaegerTracing()
+                        .withSamplerType(JaegerSamplerType.PROBABILISTIC)
+                        .withSamplerParam(0.01)
+                        .withReporterMaxQueueSize(500)
+                        .withReporterFlushInterval(2000)
+                    .endJaegerTracing()
+                .endSpec()
+                .build();
+        KafkaMirrorMakerCluster mmc = KafkaMirrorMakerCluster.fromCrd(resource, VERSIONS);
+
+        Deployment dep = mmc.generateDeployment(Collections.EMPTY_MAP, true, null, null);
+        Container cont = dep.getSpec().getTemplate().getSpec().getContainers().get(0);
+        assertThat(cont.getEnv().stream().filter(env -> ModelUtils.ENV_VAR_JAEGER_SAMPLER_TYPE.equals(env.getName())).map(EnvVar::getValue).findFirst().orElse(""), is("probabilistic"));
+        assertThat(cont.getEnv().stream().filter(env -> ModelUtils.ENV_VAR_JAEGER_SAMPLER_PARAM.equals(env.getName())).map(EnvVar::getValue).findFirst().orElse(""), is("0.01"));
+        assertThat(cont.getEnv().stream().filter(env -> ModelUtils.ENV_VAR_JAEGER_REPORTER_MAX_QUEUE_SIZE.equals(env.getName())).map(EnvVar::getValue).findFirst().orElse(""), is("500"));
+        assertThat(cont.getEnv().stream().filter(env -> ModelUtils.ENV_VAR_JAEGER_REPORTER_FLUSH_INTERVAL.equals(env.getName())).map(EnvVar::getValue).findFirst().orElse(""), is("2000"));
     }
 
     @Test
@@ -0,0 +1,172 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ModelCacheTest {
+    private static Kafka kafka(String name, String uid, Long generation) {
+        return new KafkaBuilder()
+                .withNewMetadata()
+                    .withNamespace("my-namespace")
+                    .withName(name)
+                    .withUid(uid)
+                    .withGeneration(generation)
+                .endMetadata()
+                .build();
+    }
+
+    private static Supplier<Object> counting(AtomicInteger counter) {
+        return () -> {
+            counter.incrementAndGet();
+            return new Object();
+        };
+    }
+
+    @Test
+    public void testModelIsReusedForSameGeneration() {
+        ModelCache cache = new ModelCache(10);
+        AtomicInteger generated = new AtomicInteger();
+
+        Object first = cache.computeIfAbsent(kafka("my-cluster", "uid-1", 1L), "KafkaCluster", counting(generated));
+        Object second = cache.computeIfAbsent(kafka("my-cluster", "uid-1", 1L), "KafkaCluster", counting(generated));
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(generated.get(), is(1));
+    }
+
+    @Test
+    public void testModelIsGeneratedForNewGenerationOrUid() {
+        ModelCache cache = new ModelCache(10);
+        AtomicInteger generated = new AtomicInteger();
+
+        cache.computeIfAbsent(kafka("my-cluster", "uid-1", 1L), "KafkaCluster", counting(generated));
+        cache.computeIfAbsent(kafka("my-cluster", "uid-1", 2L), "KafkaCluster", counting(generated));
+        cache.computeIfAbsent(kafka("my-cluster", "uid-2", 2L), "KafkaCluster", counting(generated));
+
+        assertThat(generated.get(), is(3));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void testModelIsGeneratedWhenLabelsOrAnnotationsChange() {
+        ModelCache cache = new ModelCache(10);
+        AtomicInteger generated = new AtomicInteger();
+
+        Kafka kafka = kafka("my-cluster", "uid-1", 1L);
+        cache.computeIfAbsent(kafka, "KafkaCluster", counting(generated));
+
+        kafka.getMetadata().setLabels(singletonMap("app", "my-app"));
+        cache.computeIfAbsent(kafka, "KafkaCluster", counting(generated));
+
+        kafka.getMetadata().setAnnotations(singletonMap("my-annotation", "value"));
+        cache.computeIfAbsent(kafka, "KafkaCluster", counting(generated));
+        cache.computeIfAbsent(kafka, "KafkaCluster", counting(generated));
+
+        assertThat(generated.get(), is(3));
+    }
+
+    @Test
+    public void testModelIsGeneratedWhenDependenciesChange() {
+        ModelCache cache = new ModelCache(10);
+        AtomicInteger generated = new AtomicInteger();
+        Kafka kafka = kafka("my-cluster", "uid-1", 1L);
+
+        cache.computeIfAbsent(kafka, "KafkaCluster", counting(generated), (Object) null);
+        cache.computeIfAbsent(kafka, "KafkaCluster", counting(generated), "{\"type\":\"ephemeral\"}");
+        cache.computeIfAbsent(kafka, "KafkaCluster", counting(generated), "{\"type\":\"ephemeral\"}");
+        cache.computeIfAbsent(kafka, "ZookeeperCluster", counting(generated), "{\"type\":\"ephemeral\"}");
+
+        assertThat(generated.get(), is(3));
+    }
+
+    @Test
+    public void testNullModelIsCached() {
+        ModelCache cache = new ModelCache(10);
+        AtomicInteger generated = new AtomicInteger();
+        Supplier<Object> generator = () -> {
+            generated.incrementAndGet();
+            return null;
+        };
+
+        assertThat(cache.computeIfAbsent(kafka("my-cluster", "uid-1", 1L), "JmxTrans", generator), is(nullValue()));
+        assertThat(cache.computeIfAbsent(kafka("my-cluster", "uid-1", 1L), "JmxTrans", generator), is(nullValue()));
+        assertThat(generated.get(), is(1));
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        ModelCache cache = new ModelCache(10);
+        AtomicInteger generated = new AtomicInteger();
+        Supplier<Object> generator = () -> {
+            generated.incrementAndGet();
+            throw new InvalidResourceException("Invalid");
+        };
+
+        assertThrows(InvalidResourceException.class, () -> cache.computeIfAbsent(kafka("my-cluster", "uid-1", 1L), "KafkaCluster", generator));
+        assertThrows(InvalidResourceException.class, () -> cache.computeIfAbsent(kafka("my-cluster", "uid-1", 1L), "KafkaCluster", generator));
+        assertThat(generated.get(), is(2));
+    }
+
+    @Test
+    public void testResourcesWithoutGenerationAreNotCached() {
+        ModelCache cache = new ModelCache(10);
+        AtomicInteger generated = new AtomicInteger();
+
+        cache.computeIfAbsent(kafka("my-cluster", null, null), "KafkaCluster", counting(generated));
+        cache.computeIfAbsent(kafka("my-cluster", null, null), "KafkaCluster", counting(generated));
+
+        assertThat(generated.get(), is(2));
+    }
+
+    @Test
+    public void testInvalidate() {
+        ModelCache cache = new ModelCache(10);
+        AtomicInteger generated = new AtomicInteger();
+
+        cache.computeIfAbsent(kafka("my-cluster", "uid-1", 1L), "KafkaCluster", counting(generated));
+        cache.invalidate("my-namespace", "my-cluster");
+        cache.computeIfAbsent(kafka("my-cluster", "uid-1", 1L), "KafkaCluster", counting(generated));
+
+        assertThat(generated.get(), is(2));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResourceIsEvicted() {
+        ModelCache cache = new ModelCache(2);
+        AtomicInteger generated = new AtomicInteger();
+
+        cache.computeIfAbsent(kafka("cluster-a", "uid-a", 1L), "KafkaCluster", counting(generated));
+        cache.computeIfAbsent(kafka("cluster-b", "uid-b", 1L), "KafkaCluster", counting(generated));
+        // Uses cluster-a so that cluster-b is evicted
+        cache.computeIfAbsent(kafka("cluster-a", "uid-a", 1L), "KafkaCluster", counting(generated));
+        cache.computeIfAbsent(kafka("cluster-c", "uid-c", 1L), "KafkaCluster", counting(generated));
+        assertThat(cache.size(), is(2));
+        assertThat(generated.get(), is(3));
+
+        cache.computeIfAbsent(kafka("cluster-a", "uid-a", 1L), "KafkaCluster", counting(generated));
+        assertThat(generated.get(), is(3));
+
+        cache.computeIfAbsent(kafka("cluster-b", "uid-b", 1L), "KafkaCluster", counting(generated));
+        assertThat(generated.get(), is(4));
+    }
+
+    @Test
+    public void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ModelCache(0));
+    }
+}
@@ -11,6 +11,8 @@ import io.strimzi.api.kafka.model.storage.PersistentClaimStorageOverrideBuilder;
 import io.strimzi.api.kafka.model.storage.Storage;
 import org.junit.jupiter.api.Test;
 
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -172,12 +174,14 @@ public class StorageDiffTest {
         assertThat(diff.changesType(), is(false));
         assertThat(diff.isEmpty(), is(true));
         assertThat(diff.shrinkSize(), is(false));
+        assertThat(diff.addedVolumes(), is(singleton(1)));
 
         // Volume removed
         diff = new StorageDiff(jbod2, jbod);
         assertThat(diff.changesType(), is(false));
         assertThat(diff.isEmpty(), is(true));
         assertThat(diff.shrinkSize(), is(false));
+        assertThat(diff.addedVolumes(), is(emptySet()));
 
         // Volume added with changes
         diff = new StorageDiff(jbod, jbod3);
@@ -214,6 +218,7 @@ public class StorageDiffTest {
         assertThat(diff.changesType(), is(false));
         assertThat(diff.isEmpty(), is(true));
         assertThat(diff.shrinkSize(), is(false));
+        assertThat(diff.addedVolumes(), is(singleton(2)));
     }
 
     @Test
@@ -15,6 +15,7 @@ import io.strimzi.api.kafka.model.DoneableKafkaConnect;
 import io.strimzi.api.kafka.model.DoneableKafkaConnectS2I;
 import io.strimzi.api.kafka.model.DoneableKafkaConnector;
 import io.strimzi.api.kafka.model.KafkaConnect;
+import io.strimzi.api.kafka.model.KafkaConnectBuilder;
 import io.strimzi.api.kafka.model.KafkaConnectResources;
 import io.strimzi.api.kafka.model.KafkaConnectS2I;
 import io.strimzi.api.kafka.model.KafkaConnector;
@@ -22,6 +23,7 @@ import io.strimzi.api.kafka.model.KafkaConnectorBuilder;
 import io.strimzi.api.kafka.model.connect.ConnectorPlugin;
 import io.strimzi.api.kafka.model.connect.ConnectorPluginBuilder;
 import io.strimzi.api.kafka.model.status.HasStatus;
+import io.strimzi.api.kafka.model.status.KafkaConnectStatus;
 import io.strimzi.operator.KubernetesVersion;
 import io.strimzi.operator.PlatformFeaturesAvailability;
 import io.strimzi.operator.cluster.ClusterOperatorConfig;
@@ -66,6 +68,7 @@ import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -121,6 +124,22 @@ public class ConnectorMockTest {
         return connectorState != null ? Future.succeededFuture(statusNode) : Future.failedFuture("No such connector " + connectorName);
     }
 
+    private Future<Map<String, Map<String, Object>>> kafkaConnectApiExpandedMock(String host) {
+        Map<String, Map<String, Object>> expanded = new HashMap<>();
+        for (Map.Entry<String, ConnectorState> entry : runningConnectors.entrySet()) {
+            if (entry.getKey().startsWith(host + "##")) {
+                String connectorName = entry.getKey().substring(host.length() + 2);
+                Map<String, Object> config = new HashMap<>(entry.getValue().config.getMap());
+                // Connect adds the connector name to the config
+                config.put("name", connectorName);
+                expanded.put(connectorName, map(
+                        "status", kafkaConnectApiStatusMock(host, KafkaConnectCluster.REST_API_PORT, connectorName).result(),
+                        "info", map("name", connectorName, "config", config)));
+            }
+        }
+        return Future.succeededFuture(expanded);
+    }
+
     @BeforeEach
     public void setup(VertxTestContext testContext) throws InterruptedException {
         vertx = Vertx.vertx();
@@ -138,6 +157,15 @@ public class ConnectorMockTest {
 
         api = mock(KafkaConnectApi.class);
         runningConnectors = new HashMap<>();
+        // Simulates Kafka Connect without support for the expanded list of connectors, which returns just the names
+        when(api.listExpanded(any(), anyInt())).thenAnswer(i -> {
+            String host = i.getArgument(0);
+            Map<String, Map<String, Object>> names = new HashMap<>();
+            runningConnectors.keySet().stream()
+                    .filter(s -> s.startsWith(host + "##"))
+                    .forEach(s -> names.put(s.substring(host.length() + 2), null));
+            return Future.succeededFuture(names);
+        });
         when(api.list(any(), anyInt())).thenAnswer(i -> {
             String host = i.getArgument(0);
             return Future.succeededFuture(runningConnectors.keySet().stream()
@@ -486,6 +514,56 @@ public class ConnectorMockTest {
                 "KafkaConnect cluster is not configured with annotation " + Annotations.STRIMZI_IO_USE_CONNECTOR_RESOURCES);
     }
 
+    /** Reconcile connectors using the expanded list of connectors without per-connector requests */
+    @Test
+    public void testReconcileConnectorsWithExpandedList() {
+        String connectName = "cluster";
+        String connectorName = "connector";
+        String host = KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE);
+
+        when(api.listExpanded(any(), anyInt())).thenAnswer(i -> kafkaConnectApiExpandedMock(i.getArgument(0)));
+        JsonObject config = new JsonObject().put("tasks.max", 1).put("connector.class", "Dummy");
+        runningConnectors.put(key(host, connectorName), new ConnectorState(false, config));
+        runningConnectors.put(key(host, "removed-connector"), new ConnectorState(false, config));
+
+        Crds.kafkaConnectorOperation(client).inNamespace(NAMESPACE).createNew()
+                .withNewMetadata()
+                    .withName(connectorName)
+                    .withNamespace(NAMESPACE)
+                    .addToLabels(Labels.STRIMZI_CLUSTER_LABEL, connectName)
+                .endMetadata()
+                .withNewSpec()
+                    .withTasksMax(1)
+                    .withClassName("Dummy")
+                .endSpec()
+                .done();
+        waitForConnectorNotReady(connectorName, "NoSuchResourceException",
+            "KafkaConnect resource 'cluster' identified by label '" + Labels.STRIMZI_CLUSTER_LABEL + "' does not exist in namespace ns.");
+
+        // The KafkaConnect resource is not created in Kubernetes, so that the connector watch does not call the REST API
+        KafkaConnect connect = new KafkaConnectBuilder()
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(connectName)
+                    .addToAnnotations(Annotations.STRIMZI_IO_USE_CONNECTOR_RESOURCES, "true")
+                .endMetadata()
+                .withNewSpec()
+                .endSpec()
+                .build();
+        Future<Void> result = kafkaConnectOperator.reconcileConnectors(
+                new Reconciliation("test", KafkaConnect.RESOURCE_KIND, NAMESPACE, connectName), connect, new KafkaConnectStatus());
+        waitFor("connectors to be reconciled", 100, 30_000, result::isComplete);
+        assertTrue(result.succeeded());
+
+        verify(api, atLeastOnce()).listExpanded(eq(host), eq(KafkaConnectCluster.REST_API_PORT));
+        verify(api, never()).list(eq(host), eq(KafkaConnectCluster.REST_API_PORT));
+        verify(api, never()).getConnectorConfig(any(), eq(host), eq(KafkaConnectCluster.REST_API_PORT), eq(connectorName));
+        verify(api, never()).status(eq(host), eq(KafkaConnectCluster.REST_API_PORT), eq(connectorName));
+        verify(api, never()).createOrUpdatePutRequest(eq(host), eq(KafkaConnectCluster.REST_API_PORT), eq(connectorName), any());
+        verify(api).delete(eq(host), eq(KafkaConnectCluster.REST_API_PORT), eq("removed-connector"));
+        assertEquals(runningConnectors.keySet(), set(key(host, connectorName)));
+    }
+
     /** Create connect, create connector, delete connector, delete connect */
     @Test
     public void testConnectConnectorConnectorConnect() {
@@ -505,7 +583,7 @@ public class ConnectorMockTest {
         waitForConnectReady(connectName);
 
         // triggered twice (creation+status update)
-        verify(api, atLeastOnce()).list(
+        verify(api, atLeastOnce()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, never()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -525,7 +603,7 @@ public class ConnectorMockTest {
             .done();
         waitForConnectorReady(connectorName);
 
-        verify(api, atLeastOnce()).list(
+        verify(api, atLeastOnce()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, atLeastOnce()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -563,7 +641,7 @@ public class ConnectorMockTest {
         waitForConnectorNotReady(connectorName, "NoSuchResourceException",
             "KafkaConnect resource 'cluster' identified by label '" + Labels.STRIMZI_CLUSTER_LABEL + "' does not exist in namespace ns.");
 
-        verify(api, never()).list(
+        verify(api, never()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, never()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -582,7 +660,7 @@ public class ConnectorMockTest {
                 .done();
         waitForConnectReady(connectName);
         // (connect crt, connector status, connect status)
-        verify(api, atLeastOnce()).list(
+        verify(api, atLeastOnce()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, atLeastOnce()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -619,7 +697,7 @@ public class ConnectorMockTest {
                 .done();
         waitForConnectReady(connectName);
 
-        verify(api, atLeastOnce()).list(
+        verify(api, atLeastOnce()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, never()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -639,7 +717,7 @@ public class ConnectorMockTest {
                 .done();
         waitForConnectorReady(connectorName);
 
-        verify(api, atLeastOnce()).list(
+        verify(api, atLeastOnce()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, atLeastOnce()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -675,7 +753,7 @@ public class ConnectorMockTest {
         waitForConnectorNotReady(connectorName, "NoSuchResourceException",
                 "KafkaConnect resource 'cluster' identified by label '" + Labels.STRIMZI_CLUSTER_LABEL + "' does not exist in namespace ns.");
 
-        verify(api, never()).list(
+        verify(api, never()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, never()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -694,7 +772,7 @@ public class ConnectorMockTest {
                 .done();
         waitForConnectReady(connectName);
 
-        verify(api, atLeastOnce()).list(
+        verify(api, atLeastOnce()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, atLeastOnce()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -815,7 +893,7 @@ public class ConnectorMockTest {
         waitForConnectReady(connectName);
 
         // triggered twice (creation+status update)
-        verify(api, atLeastOnce()).list(
+        verify(api, atLeastOnce()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, never()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -834,7 +912,7 @@ public class ConnectorMockTest {
         waitForConnectorNotReady(connectorName,
                 "ConnectRestException", "GET /foo returned 500 (Internal server error): Bad stuff happened");
 
-        verify(api, atLeastOnce()).list(
+        verify(api, atLeastOnce()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, atLeastOnce()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -861,7 +939,7 @@ public class ConnectorMockTest {
         waitForConnectReady(connectName);
 
         // triggered twice (creation+status update)
-        verify(api, atLeastOnce()).list(
+        verify(api, atLeastOnce()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, never()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -882,7 +960,7 @@ public class ConnectorMockTest {
         waitForConnectorReady(connectorName);
         waitForConnectorState(connectorName, "RUNNING");
 
-        verify(api, atLeastOnce()).list(
+        verify(api, atLeastOnce()).listExpanded(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT));
         verify(api, atLeastOnce()).createOrUpdatePutRequest(
                 eq(KafkaConnectResources.qualifiedServiceName(connectName, NAMESPACE)), eq(KafkaConnectCluster.REST_API_PORT),
@@ -0,0 +1,124 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.client.Watcher;
+import io.strimzi.api.kafka.model.KafkaConnector;
+import io.strimzi.api.kafka.model.KafkaConnectorBuilder;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.test.TestUtils;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ConnectorWatchEventQueueTest {
+    private static Vertx vertx;
+
+    @BeforeAll
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void after() {
+        vertx.close();
+    }
+
+    private static KafkaConnector connector(String name, long generation, String connectName) {
+        return new KafkaConnectorBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace("ns")
+                    .withGeneration(generation)
+                    .addToLabels(Labels.STRIMZI_CLUSTER_LABEL, connectName)
+                .endMetadata()
+                .build();
+    }
+
+    @Test
+    public void testStatusOnlyChangesAreIgnored() {
+        List<KafkaConnector> handled = new CopyOnWriteArrayList<>();
+        ConnectorWatchEventQueue queue = new ConnectorWatchEventQueue(vertx, 0, (action, connector) -> {
+            handled.add(connector);
+            return Future.succeededFuture();
+        });
+
+        assertThat(queue.submit(Watcher.Action.ADDED, connector("my-connector", 1, "my-connect")), is(true));
+        TestUtils.waitFor("connector to be handled", 10, 10_000, () -> handled.size() == 1);
+
+        // Status update => same generation
+        assertThat(queue.submit(Watcher.Action.MODIFIED, connector("my-connector", 1, "my-connect")), is(false));
+        // Spec update
+        assertThat(queue.submit(Watcher.Action.MODIFIED, connector("my-connector", 2, "my-connect")), is(true));
+        TestUtils.waitFor("connector to be handled", 10, 10_000, () -> handled.size() == 2);
+        // Moved to a different Connect cluster
+        assertThat(queue.submit(Watcher.Action.MODIFIED, connector("my-connector", 2, "other-connect")), is(true));
+        TestUtils.waitFor("connector to be handled", 10, 10_000, () -> handled.size() == 3);
+        assertThat(queue.submit(Watcher.Action.DELETED, connector("my-connector", 2, "other-connect")), is(true));
+        TestUtils.waitFor("connector to be handled", 10, 10_000, () -> handled.size() == 4);
+    }
+
+    @Test
+    public void testDeletedConnectorsAreForgotten() {
+        List<KafkaConnector> handled = new CopyOnWriteArrayList<>();
+        ConnectorWatchEventQueue queue = new ConnectorWatchEventQueue(vertx, 0, (action, connector) -> {
+            handled.add(connector);
+            return Future.succeededFuture();
+        });
+
+        queue.submit(Watcher.Action.ADDED, connector("my-connector", 1, "my-connect"));
+        queue.submit(Watcher.Action.ADDED, connector("other-connector", 1, "my-connect"));
+        TestUtils.waitFor("connectors to be handled", 10, 10_000, () -> handled.size() == 2);
+        assertThat(queue.knownConnectors(), is(2));
+
+        queue.submit(Watcher.Action.DELETED, connector("my-connector", 1, "my-connect"));
+        TestUtils.waitFor("connector to be handled", 10, 10_000, () -> handled.size() == 3);
+        assertThat(queue.knownConnectors(), is(1));
+        assertThat(queue.pendingEvents(), is(0));
+
+        // A connector re-created with the same name is handled even though its generation is the same
+        assertThat(queue.submit(Watcher.Action.MODIFIED, connector("my-connector", 1, "my-connect")), is(true));
+        TestUtils.waitFor("connector to be handled", 10, 10_000, () -> handled.size() == 4);
+    }
+
+    @Test
+    public void testEventsAreCoalescedWhileConnectorIsReconciled() {
+        List<Long> handled = new CopyOnWriteArrayList<>();
+        List<Promise<Void>> results = new CopyOnWriteArrayList<>();
+        ConnectorWatchEventQueue queue = new ConnectorWatchEventQueue(vertx, 0, (action, connector) -> {
+            handled.add(connector.getMetadata().getGeneration());
+            Promise<Void> result = Promise.promise();
+            results.add(result);
+            return result.future();
+        });
+
+        queue.submit(Watcher.Action.ADDED, connector("my-connector", 1, "my-connect"));
+        TestUtils.waitFor("connector to be handled", 10, 10_000, () -> handled.size() == 1);
+
+        // The first event is still being handled => the next events are coalesced
+        queue.submit(Watcher.Action.MODIFIED, connector("my-connector", 2, "my-connect"));
+        queue.submit(Watcher.Action.MODIFIED, connector("my-connector", 3, "my-connect"));
+        queue.submit(Watcher.Action.MODIFIED, connector("my-connector", 4, "my-connect"));
+        assertThat(queue.pendingEvents(), is(1));
+
+        // Other connectors are not blocked
+        queue.submit(Watcher.Action.ADDED, connector("other-connector", 1, "my-connect"));
+        TestUtils.waitFor("other connector to be handled", 10, 10_000, () -> handled.size() == 2);
+
+        results.get(0).complete();
+        TestUtils.waitFor("latest event to be handled", 10, 10_000, () -> handled.size() == 3);
+        assertThat(handled.get(2), is(4L));
+        assertThat(queue.pendingEvents(), is(0));
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.KafkaResources;
+import io.strimzi.api.kafka.model.status.PartitionAssignmentBuilder;
+import io.strimzi.api.kafka.model.status.RebalanceStatus;
+import io.strimzi.api.kafka.model.status.RebalanceStatusBuilder;
+import io.strimzi.operator.KubernetesVersion;
+import io.strimzi.operator.PlatformFeaturesAvailability;
+import io.strimzi.operator.cluster.ClusterOperator;
+import io.strimzi.operator.cluster.ClusterOperatorConfig;
+import io.strimzi.operator.cluster.KafkaVersionTestUtils;
+import io.strimzi.operator.cluster.ResourceUtils;
+import io.strimzi.operator.cluster.operator.resource.KafkaRebalancer;
+import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.common.Annotations;
+import io.strimzi.operator.common.PasswordGenerator;
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.operator.MockCertManager;
+import io.strimzi.operator.common.operator.resource.ReconcileResult;
+import io.strimzi.operator.common.operator.resource.TimeoutException;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(VertxExtension.class)
+public class KafkaAssemblyOperatorRebalanceTest {
+    private static final String NAMESPACE = "testns";
+    private static final String CLUSTER_NAME = "testkafka";
+
+    private static Vertx vertx;
+
+    @BeforeAll
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void after() {
+        vertx.close();
+    }
+
+    private static Kafka kafka(String mode, RebalanceStatus rebalance) {
+        return new KafkaBuilder()
+                .withNewMetadata()
+                    .withName(CLUSTER_NAME)
+                    .withNamespace(NAMESPACE)
+                    .withAnnotations(singletonMap(Annotations.ANNO_STRIMZI_IO_REBALANCE, mode))
+                .endMetadata()
+                .withNewSpec()
+                .endSpec()
+                .withNewStatus()
+                    .withRebalance(rebalance)
+                .endStatus()
+                .build();
+    }
+
+    private static RebalanceStatus rebalance(String state) {
+        return new RebalanceStatusBuilder()
+                .withState(state)
+                .withProposal(new PartitionAssignmentBuilder()
+                        .withTopic("my-topic")
+                        .withPartition(0)
+                        .withReplicas(1, 0)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Mocks the operators used by the rebalancing. The Kafka resources patched by the operator are added to the
+     * given list.
+     */
+    @SuppressWarnings("unchecked")
+    private static ResourceOperatorSupplier supplier(Kafka kafka, List<Kafka> patched) {
+        ResourceOperatorSupplier supplier = ResourceUtils.supplierWithMocks(false);
+        when(supplier.secretOperations.getAsync(NAMESPACE, KafkaResources.clusterCaCertificateSecretName(CLUSTER_NAME)))
+                .thenReturn(Future.succeededFuture(new Secret()));
+        when(supplier.secretOperations.getAsync(NAMESPACE, ClusterOperator.secretName(CLUSTER_NAME)))
+                .thenReturn(Future.succeededFuture(new Secret()));
+        when(supplier.kafkaOperator.getAsync(NAMESPACE, CLUSTER_NAME)).thenReturn(Future.succeededFuture(kafka));
+        when(supplier.kafkaOperator.updateStatusAsync(any())).thenReturn(Future.succeededFuture());
+        when(supplier.kafkaOperator.reconcile(eq(NAMESPACE), eq(CLUSTER_NAME), any())).thenAnswer(invocation -> {
+            Kafka desired = invocation.getArgument(2);
+            patched.add(desired);
+            return Future.succeededFuture(ReconcileResult.patched(desired));
+        });
+        return supplier;
+    }
+
+    private static KafkaAssemblyOperator operator(ResourceOperatorSupplier supplier, long operationTimeoutMs) {
+        return new KafkaAssemblyOperator(vertx, new PlatformFeaturesAvailability(false, KubernetesVersion.V1_11),
+                new MockCertManager(), new PasswordGenerator(10, "a", "a"), supplier,
+                ResourceUtils.dummyClusterOperatorConfig(KafkaVersionTestUtils.getKafkaVersionLookup(), operationTimeoutMs));
+    }
+
+    private static KafkaAssemblyOperator operator(ResourceOperatorSupplier supplier) {
+        return operator(supplier, ClusterOperatorConfig.DEFAULT_OPERATION_TIMEOUT_MS);
+    }
+
+    private static Reconciliation reconciliation() {
+        return new Reconciliation("test-trigger", Kafka.RESOURCE_KIND, NAMESPACE, CLUSTER_NAME);
+    }
+
+    private static String rebalanceMode(Kafka kafka) {
+        return kafka.getMetadata().getAnnotations().get(Annotations.ANNO_STRIMZI_IO_REBALANCE);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStoredProposalIsExecutedOutsideOfReconciliation(VertxTestContext context) {
+        RebalanceStatus proposal = rebalance(KafkaRebalancer.STATE_PROPOSAL_READY);
+        Kafka kafka = kafka(KafkaAssemblyOperator.REBALANCE_EXECUTE, proposal);
+        List<Kafka> patched = new CopyOnWriteArrayList<>();
+        ResourceOperatorSupplier supplier = supplier(kafka, patched);
+
+        Promise<RebalanceStatus> execution = Promise.promise();
+        ArgumentCaptor<RebalanceStatus> executed = ArgumentCaptor.forClass(RebalanceStatus.class);
+        ArgumentCaptor<Handler<RebalanceStatus>> progress = ArgumentCaptor.forClass(Handler.class);
+        when(supplier.kafkaSetOperations.rebalance(eq(NAMESPACE), eq(CLUSTER_NAME), executed.capture(), anyBoolean(), anyLong(), anyInt(),
+                any(), any(), any(), progress.capture())).thenReturn(execution.future());
+
+        KafkaAssemblyOperator kao = operator(supplier);
+        KafkaAssemblyOperator.ReconciliationState first = kao.createReconciliationState(reconciliation(), kafka);
+        KafkaAssemblyOperator.ReconciliationState second = kao.createReconciliationState(reconciliation(), kafka);
+
+        first.kafkaRebalance()
+            .compose(state -> {
+                // The reconciliation does not wait for the execution of the proposal
+                assertThat(executed.getValue(), is(sameInstance(proposal)));
+                assertThat(first.kafkaStatus.getRebalance().getState(), is(KafkaRebalancer.STATE_REBALANCING));
+                assertThat(first.kafkaStatus.getRebalance().getProposal(), is(proposal.getProposal()));
+                verify(supplier.kafkaSetOperations, never()).proposeRebalance(any(), any(), anyBoolean(), any(), any());
+
+                progress.getValue().handle(rebalance(KafkaRebalancer.STATE_REBALANCING));
+                return second.kafkaRebalance();
+            })
+            .setHandler(context.succeeding(state -> context.verify(() -> {
+                // The next reconciliation reports the progress instead of executing the proposal again
+                verify(supplier.kafkaSetOperations, times(1)).rebalance(any(), any(), any(), anyBoolean(), anyLong(), anyInt(), any(), any(), any(), any());
+                assertThat(second.kafkaStatus.getRebalance().getState(), is(KafkaRebalancer.STATE_REBALANCING));
+                assertThat(patched.isEmpty(), is(true));
+
+                // Once the execution completed, the next proposal has to be reviewed before it is executed
+                execution.complete(rebalance(KafkaRebalancer.STATE_BALANCED));
+                assertThat(patched.size(), is(1));
+                assertThat(rebalanceMode(patched.get(0)), is(KafkaAssemblyOperator.REBALANCE_DRY_RUN));
+                context.completeNow();
+            })));
+    }
+
+    @Test
+    public void testInterruptedExecutionIsResumedOnceItsProgressStopsChanging(VertxTestContext context) {
+        Kafka kafka = kafka(KafkaAssemblyOperator.REBALANCE_EXECUTE, rebalance(KafkaRebalancer.STATE_REBALANCING));
+        List<Kafka> patched = new CopyOnWriteArrayList<>();
+        ResourceOperatorSupplier supplier = supplier(kafka, patched);
+
+        Promise<RebalanceStatus> execution = Promise.promise();
+        when(supplier.kafkaSetOperations.rebalance(any(), any(), any(), anyBoolean(), anyLong(), anyInt(), any(), any(), any(), any()))
+                .thenReturn(execution.future());
+
+        KafkaAssemblyOperator kao = operator(supplier, 10);
+        KafkaAssemblyOperator.ReconciliationState first = kao.createReconciliationState(reconciliation(), kafka);
+        KafkaAssemblyOperator.ReconciliationState second = kao.createReconciliationState(reconciliation(), kafka);
+
+        first.kafkaRebalance()
+            .compose(state -> {
+                // Another operator might still be executing the proposal
+                verify(supplier.kafkaSetOperations, never()).rebalance(any(), any(), any(), anyBoolean(), anyLong(), anyInt(), any(), any(), any(), any());
+                assertThat(first.kafkaStatus.getRebalance().getState(), is(KafkaRebalancer.STATE_REBALANCING));
+
+                Promise<Void> timer = Promise.promise();
+                vertx.setTimer(100, timerId -> timer.complete());
+                return timer.future();
+            })
+            .compose(ignored -> second.kafkaRebalance())
+            .setHandler(context.succeeding(v -> context.verify(() -> {
+                // The progress did not change for twice the operation timeout, so the execution is resumed
+                verify(supplier.kafkaSetOperations, times(1)).rebalance(any(), any(), any(), anyBoolean(), anyLong(), anyInt(), any(), any(), any(), any());
+                assertThat(second.kafkaStatus.getRebalance().getState(), is(KafkaRebalancer.STATE_REBALANCING));
+                assertThat(second.kafkaStatus.getRebalance().getLastProgressTime() != null, is(true));
+                context.completeNow();
+            })));
+    }
+
+    @Test
+    public void testFailedExecutionIsNotRetried(VertxTestContext context) {
+        Kafka kafka = kafka(KafkaAssemblyOperator.REBALANCE_EXECUTE, rebalance(KafkaRebalancer.STATE_PROPOSAL_READY));
+        List<Kafka> patched = new CopyOnWriteArrayList<>();
+        ResourceOperatorSupplier supplier = supplier(kafka, patched);
+
+        Promise<RebalanceStatus> execution = Promise.promise();
+        when(supplier.kafkaSetOperations.rebalance(any(), any(), any(), anyBoolean(), anyLong(), anyInt(), any(), any(), any(), any()))
+                .thenReturn(execution.future());
+
+        KafkaAssemblyOperator.ReconciliationState state = operator(supplier).createReconciliationState(reconciliation(), kafka);
+        state.kafkaRebalance().setHandler(context.succeeding(v -> context.verify(() -> {
+            assertThat(state.kafkaStatus.getRebalance().getState(), is(KafkaRebalancer.STATE_REBALANCING));
+
+            execution.fail(new IllegalStateException("The proposal is outdated"));
+            assertThat(patched.size(), is(1));
+            assertThat(rebalanceMode(patched.get(0)), is(KafkaAssemblyOperator.REBALANCE_DRY_RUN));
+            context.completeNow();
+        })));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTimedOutExecutionIsResumedAndCancelledWhenKafkaIsDeleted(VertxTestContext context) {
+        RebalanceStatus proposal = rebalance(KafkaRebalancer.STATE_PROPOSAL_READY);
+        Kafka kafka = kafka(KafkaAssemblyOperator.REBALANCE_EXECUTE, proposal);
+        List<Kafka> patched = new CopyOnWriteArrayList<>();
+        ResourceOperatorSupplier supplier = supplier(kafka, patched);
+
+        Promise<RebalanceStatus> timedOut = Promise.promise();
+        Promise<RebalanceStatus> resumed = Promise.promise();
+        ArgumentCaptor<BooleanSupplier> cancelled = ArgumentCaptor.forClass(BooleanSupplier.class);
+        when(supplier.kafkaSetOperations.rebalance(any(), any(), any(), anyBoolean(), anyLong(), anyInt(), any(), any(), cancelled.capture(), any()))
+                .thenReturn(timedOut.future(), resumed.future());
+
+        KafkaAssemblyOperator kao = operator(supplier);
+        KafkaAssemblyOperator.ReconciliationState first = kao.createReconciliationState(reconciliation(), kafka);
+
+        first.kafkaRebalance()
+            .compose(state -> {
+                timedOut.fail(new TimeoutException());
+                // The annotation is kept, so that the execution is resumed using the status
+                assertThat(patched.isEmpty(), is(true));
+
+                Kafka interrupted = kafka(KafkaAssemblyOperator.REBALANCE_EXECUTE, first.kafkaStatus.getRebalance());
+                return kao.createReconciliationState(reconciliation(), interrupted).kafkaRebalance();
+            })
+            .setHandler(context.succeeding(state -> context.verify(() -> {
+                // This operator knows the timed out execution stopped, so it does not wait before resuming it
+                verify(supplier.kafkaSetOperations, times(2)).rebalance(any(), any(), any(), anyBoolean(), anyLong(), anyInt(), any(), any(), any(), any());
+                assertThat(cancelled.getValue().getAsBoolean(), is(false));
+
+                kao.delete(reconciliation());
+                assertThat(cancelled.getValue().getAsBoolean(), is(true));
+                context.completeNow();
+            })));
+    }
+
+    @Test
+    public void testExecuteWithoutProposalComputesProposalFirst(VertxTestContext context) {
+        Kafka kafka = kafka(KafkaAssemblyOperator.REBALANCE_EXECUTE, rebalance(KafkaRebalancer.STATE_BALANCED));
+        List<Kafka> patched = new CopyOnWriteArrayList<>();
+        ResourceOperatorSupplier supplier = supplier(kafka, patched);
+
+        RebalanceStatus proposal = rebalance(KafkaRebalancer.STATE_PROPOSAL_READY);
+        when(supplier.kafkaSetOperations.proposeRebalance(eq(NAMESPACE), eq(CLUSTER_NAME), anyBoolean(), any(), any()))
+                .thenReturn(Future.succeededFuture(proposal));
+
+        KafkaAssemblyOperator.ReconciliationState state = operator(supplier).createReconciliationState(reconciliation(), kafka);
+        state.kafkaRebalance().setHandler(context.succeeding(v -> context.verify(() -> {
+            verify(supplier.kafkaSetOperations, never()).rebalance(any(), any(), any(), anyBoolean(), anyLong(), anyInt(), any(), any(), any(), any());
+            assertThat(state.kafkaStatus.getRebalance(), is(sameInstance(proposal)));
+            assertThat(patched.size(), is(1));
+            assertThat(rebalanceMode(patched.get(0)), is(KafkaAssemblyOperator.REBALANCE_DRY_RUN));
+            context.completeNow();
+        })));
+    }
+
+    @Test
+    public void testDryRunOnlyPublishesProposal(VertxTestContext context) {
+        Kafka kafka = kafka(KafkaAssemblyOperator.REBALANCE_DRY_RUN, null);
+        List<Kafka> patched = new CopyOnWriteArrayList<>();
+        ResourceOperatorSupplier supplier = supplier(kafka, patched);
+
+        RebalanceStatus proposal = rebalance(KafkaRebalancer.STATE_PROPOSAL_READY);
+        when(supplier.kafkaSetOperations.proposeRebalance(eq(NAMESPACE), eq(CLUSTER_NAME), anyBoolean(), any(), any()))
+                .thenReturn(Future.succeededFuture(proposal));
+
+        KafkaAssemblyOperator.ReconciliationState state = operator(supplier).createReconciliationState(reconciliation(), kafka);
+        state.kafkaRebalance().setHandler(context.succeeding(v -> context.verify(() -> {
+            verify(supplier.kafkaSetOperations, never()).rebalance(any(), any(), any(), anyBoolean(), anyLong(), anyInt(), any(), any(), any(), any());
+            assertThat(state.kafkaStatus.getRebalance(), is(sameInstance(proposal)));
+            assertThat(patched.isEmpty(), is(true));
+            context.completeNow();
+        })));
+    }
+}
@@ -35,6 +35,7 @@ import java.util.concurrent.TimeoutException;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
@@ -242,6 +243,11 @@ public class KafkaConnectApiTest {
                         }
                     });
             }).compose(createResponse -> {
+                return client.listExpanded("localhost", PORT);
+            }).compose(expanded -> {
+                assertEquals(singleton("test"), expanded.keySet());
+                assertEquals("test", ((Map) expanded.get("test").get("status")).get("name"));
+                assertEquals("/dev/null", ((Map) ((Map) expanded.get("test").get("info")).get("config")).get("file"));
                 return client.list("localhost", PORT);
             }).compose(connectorNames -> {
                 assertEquals(singletonList("test"), connectorNames);
@@ -0,0 +1,388 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.strimzi.operator.cluster.operator.resource.KafkaReassignments.Throttles;
+import io.strimzi.operator.common.operator.resource.TimeoutException;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.AlterConfigsResult;
+import org.apache.kafka.clients.admin.AlterPartitionReassignmentsResult;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
+import org.apache.kafka.clients.admin.DescribeConfigsResult;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ListPartitionReassignmentsResult;
+import org.apache.kafka.clients.admin.ListTopicsOptions;
+import org.apache.kafka.clients.admin.ListTopicsResult;
+import org.apache.kafka.clients.admin.NewPartitionReassignment;
+import org.apache.kafka.clients.admin.PartitionReassignment;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.config.ConfigResource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(VertxExtension.class)
+public class KafkaBrokerDrainerTest {
+    private static final ConfigResource BROKER_0 = new ConfigResource(ConfigResource.Type.BROKER, "0");
+    private static final ConfigResource MY_TOPIC = new ConfigResource(ConfigResource.Type.TOPIC, "my-topic");
+
+    private static Vertx vertx;
+
+    @BeforeAll
+    public static void startVertx() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void stopVertx() {
+        vertx.close();
+    }
+
+    @SafeVarargs
+    private static TopicDescription topic(String name, List<Integer>... partitions) {
+        List<TopicPartitionInfo> infos = IntStream.range(0, partitions.length)
+                .mapToObj(i -> {
+                    List<Node> replicas = partitions[i].stream().map(id -> new Node(id, "broker-" + id, 9091)).collect(Collectors.toList());
+                    return new TopicPartitionInfo(i, replicas.get(0), replicas, replicas);
+                })
+                .collect(Collectors.toList());
+        return new TopicDescription(name, false, infos);
+    }
+
+    private static Map<Integer, String> brokers(String... racks) {
+        Map<Integer, String> brokerRacks = new HashMap<>();
+        for (int i = 0; i < racks.length; i++) {
+            brokerRacks.put(i, racks[i]);
+        }
+        return brokerRacks;
+    }
+
+    @Test
+    public void testReplicasOnRemovedBrokersAreReplacedInPlace() {
+        TopicDescription topic = topic("my-topic", asList(3, 0), asList(0, 1), asList(1, 3));
+
+        Map<TopicPartition, List<Integer>> reassignments = KafkaBrokerDrainer.reassignments(singletonList(topic),
+                brokers(null, null, null), 3, emptySet());
+
+        Map<TopicPartition, List<Integer>> expected = new HashMap<>();
+        expected.put(new TopicPartition("my-topic", 0), asList(2, 0));
+        expected.put(new TopicPartition("my-topic", 2), asList(1, 2));
+        assertThat(reassignments, is(expected));
+    }
+
+    @Test
+    public void testReplacementsAreRackAware() {
+        TopicDescription topic = topic("my-topic", asList(0, 3), asList(2, 1));
+
+        Map<TopicPartition, List<Integer>> reassignments = KafkaBrokerDrainer.reassignments(singletonList(topic),
+                brokers("rack-a", "rack-a", "rack-b"), 3, emptySet());
+
+        assertThat(reassignments, is(singletonMap(new TopicPartition("my-topic", 0), asList(0, 2))));
+    }
+
+    @Test
+    public void testOngoingReassignmentsAreSkipped() {
+        TopicDescription topic = topic("my-topic", asList(3, 0), asList(1, 3));
+
+        Map<TopicPartition, List<Integer>> reassignments = KafkaBrokerDrainer.reassignments(singletonList(topic),
+                brokers(null, null, null), 3, singleton(new TopicPartition("my-topic", 0)));
+
+        assertThat(reassignments, is(singletonMap(new TopicPartition("my-topic", 1), asList(1, 2))));
+    }
+
+    @Test
+    public void testNotEnoughBrokersForReplicationFactor() {
+        TopicDescription topic = topic("my-topic", asList(0, 1, 2));
+
+        assertThrows(IllegalStateException.class, () -> KafkaBrokerDrainer.reassignments(singletonList(topic),
+                brokers(null, null), 2, emptySet()));
+    }
+
+    private static TopicPartitionInfo partition(int partition, List<Integer> replicas, List<Integer> isr) {
+        List<Node> replicaNodes = replicas.stream().map(id -> new Node(id, "broker-" + id, 9091)).collect(Collectors.toList());
+        List<Node> isrNodes = isr.stream().map(id -> new Node(id, "broker-" + id, 9091)).collect(Collectors.toList());
+        return new TopicPartitionInfo(partition, replicaNodes.get(0), replicaNodes, isrNodes);
+    }
+
+    @Test
+    public void testRemainingCountsOnlyMovedPartitions() {
+        TopicDescription topic = new TopicDescription("my-topic", false, asList(
+                // Moved and converged
+                partition(0, asList(1, 0), asList(1, 0)),
+                // Moved, but the new replica is not in sync yet
+                partition(1, asList(0, 2), asList(0)),
+                // Moved, but still on the removed broker
+                partition(2, asList(3, 1), asList(3, 1)),
+                // Moved and still being reassigned
+                partition(3, asList(1, 2), asList(1, 2)),
+                // Not moved by the drain
+                partition(4, asList(3, 0), asList(3))));
+        Set<TopicPartition> moving = IntStream.range(0, 4).mapToObj(i -> new TopicPartition("my-topic", i)).collect(Collectors.toSet());
+
+        assertThat(KafkaBrokerDrainer.remaining(singletonList(topic), 3, moving, singleton(new TopicPartition("my-topic", 3))), is(3));
+        assertThat(KafkaBrokerDrainer.remaining(singletonList(topic), 3, singleton(new TopicPartition("my-topic", 0)), emptySet()), is(0));
+    }
+
+    private static ConfigEntry entry(String name, String value, ConfigEntry.ConfigSource source) {
+        ConfigEntry entry = mock(ConfigEntry.class);
+        when(entry.name()).thenReturn(name);
+        when(entry.value()).thenReturn(value);
+        when(entry.source()).thenReturn(source);
+        return entry;
+    }
+
+    private static List<String> ops(Collection<AlterConfigOp> ops) {
+        return ops.stream()
+                .map(op -> op.opType() + " " + op.configEntry().name() + (op.opType() == AlterConfigOp.OpType.SET ? "=" + op.configEntry().value() : ""))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testThrottlesRestoreOnlyTheValuesWhichWereSet() {
+        Map<ConfigResource, Map<String, String>> set = new HashMap<>();
+        Map<String, String> rates = new HashMap<>();
+        rates.put(KafkaReassignments.LEADER_THROTTLED_RATE, "1000");
+        rates.put(KafkaReassignments.FOLLOWER_THROTTLED_RATE, "1000");
+        set.put(BROKER_0, rates);
+        set.put(MY_TOPIC, singletonMap(KafkaReassignments.LEADER_THROTTLED_REPLICAS, "0:0"));
+
+        Map<ConfigResource, Config> before = new HashMap<>();
+        before.put(BROKER_0, new Config(asList(
+                entry(KafkaReassignments.LEADER_THROTTLED_RATE, "5000", ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG),
+                entry(KafkaReassignments.FOLLOWER_THROTTLED_RATE, "9223372036854775807", ConfigEntry.ConfigSource.DEFAULT_CONFIG))));
+        before.put(MY_TOPIC, new Config(emptySet()));
+        Throttles throttles = Throttles.replacing(set, before);
+
+        Map<ConfigResource, Config> after = new HashMap<>();
+        after.put(BROKER_0, new Config(asList(
+                entry(KafkaReassignments.LEADER_THROTTLED_RATE, "1000", ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG),
+                entry(KafkaReassignments.FOLLOWER_THROTTLED_RATE, "1000", ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG))));
+        // Changed by someone else since the drain set it
+        after.put(MY_TOPIC, new Config(singletonList(
+                entry(KafkaReassignments.LEADER_THROTTLED_REPLICAS, "0:0,1:1", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG))));
+
+        Map<ConfigResource, Collection<AlterConfigOp>> restore = throttles.restore(after);
+        assertThat(restore.keySet(), is(singleton(BROKER_0)));
+        assertThat(ops(restore.get(BROKER_0)), is(asList(
+                "DELETE " + KafkaReassignments.FOLLOWER_THROTTLED_RATE,
+                "SET " + KafkaReassignments.LEADER_THROTTLED_RATE + "=5000")));
+    }
+
+    @Test
+    public void testNoThrottlesRestoreNothing() {
+        assertThat(Throttles.NONE.restore(emptyMap()), is(emptyMap()));
+    }
+
+    /**
+     * Mocks the Admin client of a cluster with 3 brokers, the given partitions and dynamic configs. The submitted
+     * reassignments either complete immediately or stay in progress.
+     */
+    private static Admin mockAdmin(Map<TopicPartition, List<Integer>> assignment, Map<ConfigResource, Map<String, String>> dynamicConfigs,
+                                   boolean completeReassignments) {
+        Map<TopicPartition, PartitionReassignment> ongoing = new ConcurrentHashMap<>();
+        Admin ac = mock(Admin.class);
+
+        DescribeClusterResult cluster = mock(DescribeClusterResult.class);
+        when(cluster.nodes()).thenReturn(KafkaFuture.completedFuture(asList(
+                new Node(0, "broker-0", 9091), new Node(1, "broker-1", 9091), new Node(2, "broker-2", 9091))));
+        when(ac.describeCluster()).thenReturn(cluster);
+
+        ListTopicsResult listTopics = mock(ListTopicsResult.class);
+        when(listTopics.names()).thenAnswer(invocation -> KafkaFuture.completedFuture(
+                assignment.keySet().stream().map(TopicPartition::topic).collect(Collectors.toSet())));
+        when(ac.listTopics(any(ListTopicsOptions.class))).thenReturn(listTopics);
+
+        when(ac.describeTopics(any())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            Map<String, TopicDescription> descriptions = new HashMap<>();
+            for (String name : names) {
+                List<TopicPartitionInfo> partitions = assignment.entrySet().stream()
+                        .filter(partition -> partition.getKey().topic().equals(name))
+                        .map(partition -> partition(partition.getKey().partition(), partition.getValue(), partition.getValue()))
+                        .collect(Collectors.toList());
+                descriptions.put(name, new TopicDescription(name, false, partitions));
+            }
+            DescribeTopicsResult result = mock(DescribeTopicsResult.class);
+            when(result.all()).thenReturn(KafkaFuture.completedFuture(descriptions));
+            return result;
+        });
+
+        ListPartitionReassignmentsResult listReassignments = mock(ListPartitionReassignmentsResult.class);
+        when(listReassignments.reassignments()).thenAnswer(invocation -> KafkaFuture.completedFuture(new HashMap<>(ongoing)));
+        when(ac.listPartitionReassignments()).thenReturn(listReassignments);
+
+        when(ac.alterPartitionReassignments(any())).thenAnswer(invocation -> {
+            Map<TopicPartition, Optional<NewPartitionReassignment>> reassignments = invocation.getArgument(0);
+            for (Map.Entry<TopicPartition, Optional<NewPartitionReassignment>> reassignment : reassignments.entrySet()) {
+                if (completeReassignments) {
+                    assignment.put(reassignment.getKey(), reassignment.getValue().get().targetReplicas());
+                } else {
+                    List<Integer> current = assignment.get(reassignment.getKey());
+                    List<Integer> target = reassignment.getValue().get().targetReplicas();
+                    List<Integer> replicas = new ArrayList<>(target);
+                    current.stream().filter(broker -> !target.contains(broker)).forEach(replicas::add);
+                    ongoing.put(reassignment.getKey(), new PartitionReassignment(replicas,
+                            target.stream().filter(broker -> !current.contains(broker)).collect(Collectors.toList()),
+                            current.stream().filter(broker -> !target.contains(broker)).collect(Collectors.toList())));
+                }
+            }
+            AlterPartitionReassignmentsResult result = mock(AlterPartitionReassignmentsResult.class);
+            when(result.all()).thenReturn(KafkaFuture.completedFuture(null));
+            return result;
+        });
+
+        when(ac.describeConfigs(any())).thenAnswer(invocation -> {
+            Collection<ConfigResource> resources = invocation.getArgument(0);
+            Map<ConfigResource, Config> configs = new HashMap<>();
+            for (ConfigResource resource : resources) {
+                ConfigEntry.ConfigSource source = resource.type() == ConfigResource.Type.BROKER
+                        ? ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG : ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG;
+                configs.put(resource, new Config(dynamicConfigs.getOrDefault(resource, emptyMap()).entrySet().stream()
+                        .map(config -> entry(config.getKey(), config.getValue(), source))
+                        .collect(Collectors.toList())));
+            }
+            DescribeConfigsResult result = mock(DescribeConfigsResult.class);
+            when(result.all()).thenReturn(KafkaFuture.completedFuture(configs));
+            return result;
+        });
+
+        when(ac.incrementalAlterConfigs(any())).thenAnswer(invocation -> {
+            Map<ConfigResource, Collection<AlterConfigOp>> configs = invocation.getArgument(0);
+            for (Map.Entry<ConfigResource, Collection<AlterConfigOp>> resource : configs.entrySet()) {
+                Map<String, String> values = dynamicConfigs.computeIfAbsent(resource.getKey(), key -> new ConcurrentHashMap<>());
+                for (AlterConfigOp op : resource.getValue()) {
+                    if (op.opType() == AlterConfigOp.OpType.DELETE) {
+                        values.remove(op.configEntry().name());
+                    } else {
+                        values.put(op.configEntry().name(), op.configEntry().value());
+                    }
+                }
+                if (values.isEmpty()) {
+                    dynamicConfigs.remove(resource.getKey());
+                }
+            }
+            AlterConfigsResult result = mock(AlterConfigsResult.class);
+            when(result.all()).thenReturn(KafkaFuture.completedFuture(null));
+            return result;
+        });
+
+        return ac;
+    }
+
+    private static Map<TopicPartition, List<Integer>> assignment() {
+        Map<TopicPartition, List<Integer>> assignment = new ConcurrentHashMap<>();
+        assignment.put(new TopicPartition("my-topic", 0), asList(2, 0));
+        assignment.put(new TopicPartition("my-topic", 1), asList(0, 1));
+        assignment.put(new TopicPartition("other-topic", 0), asList(0, 1));
+        return assignment;
+    }
+
+    private static Map<ConfigResource, Map<String, String>> dynamicConfigs() {
+        Map<ConfigResource, Map<String, String>> dynamicConfigs = new ConcurrentHashMap<>();
+        dynamicConfigs.put(BROKER_0, new ConcurrentHashMap<>(singletonMap(KafkaReassignments.LEADER_THROTTLED_RATE, "5000")));
+        dynamicConfigs.put(new ConfigResource(ConfigResource.Type.TOPIC, "other-topic"),
+                new ConcurrentHashMap<>(singletonMap(KafkaReassignments.LEADER_THROTTLED_REPLICAS, "0:0")));
+        return dynamicConfigs;
+    }
+
+    @Test
+    public void testDrainAwaitsConvergenceAndRestoresThrottles(VertxTestContext testContext) {
+        Map<TopicPartition, List<Integer>> assignment = assignment();
+        Map<ConfigResource, Map<String, String>> dynamicConfigs = dynamicConfigs();
+        Map<ConfigResource, Map<String, String>> expectedConfigs = dynamicConfigs();
+        List<Integer> progress = new ArrayList<>();
+
+        new KafkaBrokerDrainer(vertx, mockAdmin(assignment, dynamicConfigs, true), 10, 10_000)
+            .drain(2, 1000, progress::add)
+            .setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+                assertThat(assignment.get(new TopicPartition("my-topic", 0)), is(asList(1, 0)));
+                assertThat(progress, is(emptyList()));
+                // The throttles replaced the rate of broker 0, it is restored. The other throttles are removed.
+                assertThat(dynamicConfigs, is(expectedConfigs));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    public void testDrainTimesOutAndRestoresThrottles(VertxTestContext testContext) {
+        Map<TopicPartition, List<Integer>> assignment = assignment();
+        Map<ConfigResource, Map<String, String>> dynamicConfigs = dynamicConfigs();
+        Map<ConfigResource, Map<String, String>> expectedConfigs = dynamicConfigs();
+        Set<Integer> progress = new HashSet<>();
+
+        new KafkaBrokerDrainer(vertx, mockAdmin(assignment, dynamicConfigs, false), 10, 200)
+            .drain(2, 1000, progress::add)
+            .setHandler(testContext.failing(e -> testContext.verify(() -> {
+                assertThat(e, instanceOf(TimeoutException.class));
+                // Only the partition moved by the drain is awaited
+                assertThat(progress, is(singleton(1)));
+                assertThat(dynamicConfigs, is(expectedConfigs));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    public void testResumedDrainThrottlesReassignmentsInProgress(VertxTestContext testContext) {
+        Map<TopicPartition, List<Integer>> assignment = assignment();
+        Map<ConfigResource, Map<String, String>> dynamicConfigs = dynamicConfigs();
+        Map<ConfigResource, Map<String, String>> expectedConfigs = dynamicConfigs();
+        Admin ac = mockAdmin(assignment, dynamicConfigs, false);
+        List<Map<String, String>> throttledTopicConfigs = new ArrayList<>();
+
+        KafkaBrokerDrainer drainer = new KafkaBrokerDrainer(vertx, ac, 10, 200);
+        drainer.drain(2, 1000, remaining -> { })
+            .recover(timeout -> drainer.drain(2, 1000, remaining -> throttledTopicConfigs.add(new HashMap<>(dynamicConfigs.get(MY_TOPIC)))))
+            .setHandler(testContext.failing(e -> testContext.verify(() -> {
+                assertThat(e, instanceOf(TimeoutException.class));
+                // The reassignment left in progress by the first drain is throttled by the second one
+                assertThat(throttledTopicConfigs.isEmpty(), is(false));
+                Map<String, String> expectedThrottles = new HashMap<>();
+                expectedThrottles.put(KafkaReassignments.LEADER_THROTTLED_REPLICAS, "0:0,0:2");
+                expectedThrottles.put(KafkaReassignments.FOLLOWER_THROTTLED_REPLICAS, "0:1");
+                assertThat(throttledTopicConfigs.get(0), is(expectedThrottles));
+                assertThat(dynamicConfigs, is(expectedConfigs));
+                testContext.completeNow();
+            })));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ElectLeadersResult;
+import org.apache.kafka.clients.admin.ListTopicsOptions;
+import org.apache.kafka.clients.admin.ListTopicsResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.ElectionType;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(VertxExtension.class)
+public class KafkaLeaderElectorTest {
+    private static Vertx vertx;
+
+    @BeforeAll
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void after() {
+        vertx.close();
+    }
+
+    private static Node node(int id) {
+        return new Node(id, "broker-" + id, 9091);
+    }
+
+    private static List<Node> nodes(List<Integer> ids) {
+        return ids.stream().map(KafkaLeaderElectorTest::node).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a topic with a single partition
+     */
+    private static TopicDescription topic(String name, int leader, List<Integer> replicas, List<Integer> isr) {
+        return new TopicDescription(name, false,
+                singletonList(new TopicPartitionInfo(0, node(leader), nodes(replicas), nodes(isr))));
+    }
+
+    @Test
+    public void testPartitionsWithInSyncPreferredLeaderAreElectable() {
+        List<TopicDescription> topics = new ArrayList<>();
+        topics.add(topic("preferred-leader", 0, asList(0, 1), asList(0, 1)));
+        topics.add(topic("in-sync", 1, asList(0, 1), asList(0, 1)));
+        topics.add(topic("out-of-sync", 1, asList(0, 1), asList(1)));
+
+        assertThat(KafkaLeaderElector.electable(topics), is(singletonList(new TopicPartition("in-sync", 0))));
+        assertThat(KafkaLeaderElector.skewedPartitions(topics), is(2));
+    }
+
+    @Test
+    public void testOutOfSyncPartitionsOfRestartedBrokers() {
+        List<TopicDescription> topics = new ArrayList<>();
+        topics.add(topic("in-sync", 1, asList(0, 1), asList(0, 1)));
+        topics.add(topic("out-of-sync", 1, asList(0, 1), asList(1)));
+        topics.add(topic("other-broker", 1, asList(1, 2), asList(1)));
+
+        assertThat(KafkaLeaderElector.outOfSyncPartitions(topics, singleton(0)), is(1));
+        assertThat(KafkaLeaderElector.outOfSyncPartitions(topics, singleton(1)), is(0));
+        assertThat(KafkaLeaderElector.outOfSyncPartitions(topics, singleton(2)), is(1));
+    }
+
+    /**
+     * Mocks the Admin client of a cluster with the given topics, whose preferred leaders are elected successfully
+     */
+    private static Admin mockAdmin(List<TopicDescription> topics) {
+        Admin ac = mock(Admin.class);
+
+        ListTopicsResult listTopics = mock(ListTopicsResult.class);
+        when(listTopics.names()).thenReturn(KafkaFuture.completedFuture(
+                topics.stream().map(TopicDescription::name).collect(Collectors.toSet())));
+        when(ac.listTopics(any(ListTopicsOptions.class))).thenReturn(listTopics);
+
+        Map<String, TopicDescription> descriptions = new HashMap<>();
+        topics.forEach(topic -> descriptions.put(topic.name(), topic));
+        DescribeTopicsResult describeTopics = mock(DescribeTopicsResult.class);
+        when(describeTopics.all()).thenReturn(KafkaFuture.completedFuture(descriptions));
+        when(ac.describeTopics(any())).thenReturn(describeTopics);
+
+        // No errors are reported for any of the partitions
+        ElectLeadersResult elected = mock(ElectLeadersResult.class);
+        when(elected.partitions()).thenReturn(KafkaFuture.completedFuture(emptyMap()));
+        when(ac.electLeaders(any(), any())).thenReturn(elected);
+
+        return ac;
+    }
+
+    @Test
+    public void testElectsPreferredLeadersOfInSyncPartitionsInBatches(VertxTestContext context) {
+        List<TopicDescription> topics = new ArrayList<>();
+        for (int i = 0; i < KafkaLeaderElector.ELECTION_BATCH_SIZE + 1; i++) {
+            topics.add(topic("in-sync-" + i, 1, asList(0, 1), asList(0, 1)));
+        }
+        topics.add(topic("preferred-leader", 0, asList(0, 1), asList(0, 1)));
+        topics.add(topic("out-of-sync", 1, asList(0, 1), asList(1)));
+        Admin ac = mockAdmin(topics);
+
+        // Without any restarted brokers, the elections start immediately
+        new KafkaLeaderElector(vertx, ac, 10).electPreferredLeaders(emptySet(), 0)
+                .setHandler(context.succeeding(skew -> context.verify(() -> {
+                    assertThat(skew, is(1.0 / topics.size()));
+                    verify(ac, times(2)).electLeaders(eq(ElectionType.PREFERRED), any());
+                    context.completeNow();
+                })));
+    }
+
+    @Test
+    public void testLeadershipSkewDoesNotElectLeaders(VertxTestContext context) {
+        List<TopicDescription> topics = new ArrayList<>();
+        topics.add(topic("preferred-leader", 0, asList(0, 1), asList(0, 1)));
+        topics.add(topic("in-sync", 1, asList(0, 1), asList(0, 1)));
+        Admin ac = mockAdmin(topics);
+
+        new KafkaLeaderElector(vertx, ac, 10).leadershipSkew()
+                .setHandler(context.succeeding(skew -> context.verify(() -> {
+                    assertThat(skew, is(0.5));
+                    verify(ac, never()).electLeaders(any(), any());
+                    context.completeNow();
+                })));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionReplica;
+import org.apache.kafka.common.protocol.Errors;
+import org.apache.kafka.common.requests.DescribeLogDirsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class KafkaLogDirBalancerTest {
+
+    private static Map<TopicPartition, Long> replicas(long... sizes) {
+        Map<TopicPartition, Long> replicas = new HashMap<>();
+        for (int i = 0; i < sizes.length; i++) {
+            replicas.put(new TopicPartition("my-topic", i), sizes[i]);
+        }
+        return replicas;
+    }
+
+    @Test
+    public void testReplicasAreMovedToAddedLogDir() {
+        Map<String, Map<TopicPartition, Long>> logDirs = new HashMap<>();
+        logDirs.put("/data-0", replicas(100, 100, 50, 50));
+        logDirs.put("/data-1", emptyMap());
+
+        Map<TopicPartitionReplica, String> moves = KafkaLogDirBalancer.plan(singletonMap(0, logDirs), singletonMap(0, singleton("/data-1")));
+
+        Map<TopicPartitionReplica, String> expected = new HashMap<>();
+        expected.put(new TopicPartitionReplica("my-topic", 0, 0), "/data-1");
+        expected.put(new TopicPartitionReplica("my-topic", 2, 0), "/data-1");
+        assertThat(moves, is(expected));
+    }
+
+    @Test
+    public void testReplicasAreSpreadAcrossAddedLogDirs() {
+        Map<String, Map<TopicPartition, Long>> logDirs = new HashMap<>();
+        logDirs.put("/data-0", replicas(100, 100, 100, 100));
+        logDirs.put("/data-1", emptyMap());
+        logDirs.put("/data-2", emptyMap());
+        Set<String> added = new HashSet<>(asList("/data-1", "/data-2"));
+
+        Map<TopicPartitionReplica, String> moves = KafkaLogDirBalancer.plan(singletonMap(0, logDirs), singletonMap(0, added));
+
+        Map<TopicPartitionReplica, String> expected = new HashMap<>();
+        expected.put(new TopicPartitionReplica("my-topic", 0, 0), "/data-1");
+        expected.put(new TopicPartitionReplica("my-topic", 1, 0), "/data-2");
+        assertThat(moves, is(expected));
+    }
+
+    @Test
+    public void testReplicasAreMovedWithinEachBroker() {
+        Map<Integer, Map<String, Map<TopicPartition, Long>>> brokers = new HashMap<>();
+        Map<Integer, Set<String>> added = new HashMap<>();
+        for (int broker = 0; broker < 2; broker++) {
+            Map<String, Map<TopicPartition, Long>> logDirs = new HashMap<>();
+            logDirs.put("/data-0/kafka-log" + broker, replicas(100, 100));
+            logDirs.put("/data-1/kafka-log" + broker, emptyMap());
+            brokers.put(broker, logDirs);
+            added.put(broker, singleton("/data-1/kafka-log" + broker));
+        }
+
+        Map<TopicPartitionReplica, String> moves = KafkaLogDirBalancer.plan(brokers, added);
+
+        Map<TopicPartitionReplica, String> expected = new HashMap<>();
+        expected.put(new TopicPartitionReplica("my-topic", 0, 0), "/data-1/kafka-log0");
+        expected.put(new TopicPartitionReplica("my-topic", 0, 1), "/data-1/kafka-log1");
+        assertThat(moves, is(expected));
+    }
+
+    @Test
+    public void testOfflineAddedLogDirIsSkipped() {
+        Map<String, Map<TopicPartition, Long>> logDirs = singletonMap("/data-0", replicas(100, 100));
+
+        assertThat(KafkaLogDirBalancer.plan(singletonMap(0, logDirs), singletonMap(0, singleton("/data-1"))).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testEmptyReplicasAreNotMoved() {
+        Map<String, Map<TopicPartition, Long>> logDirs = new HashMap<>();
+        logDirs.put("/data-0", replicas(0, 0, 0));
+        logDirs.put("/data-1", emptyMap());
+
+        assertThat(KafkaLogDirBalancer.plan(singletonMap(0, logDirs), singletonMap(0, singleton("/data-1"))).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testOngoingMovesToAddedLogDirsAreResumed() {
+        Map<TopicPartition, DescribeLogDirsResponse.ReplicaInfo> existing = new HashMap<>();
+        existing.put(new TopicPartition("my-topic", 0), new DescribeLogDirsResponse.ReplicaInfo(100, 0, false));
+        existing.put(new TopicPartition("my-topic", 1), new DescribeLogDirsResponse.ReplicaInfo(100, 0, false));
+        existing.put(new TopicPartition("my-topic", 2), new DescribeLogDirsResponse.ReplicaInfo(100, 0, false));
+        Map<TopicPartition, DescribeLogDirsResponse.ReplicaInfo> added = new HashMap<>();
+        added.put(new TopicPartition("my-topic", 0), new DescribeLogDirsResponse.ReplicaInfo(50, 0, true));
+        added.put(new TopicPartition("my-topic", 3), new DescribeLogDirsResponse.ReplicaInfo(100, 0, false));
+        // Moved by someone else between the existing log directories
+        Map<TopicPartition, DescribeLogDirsResponse.ReplicaInfo> other = singletonMap(new TopicPartition("my-topic", 1),
+                new DescribeLogDirsResponse.ReplicaInfo(50, 0, true));
+
+        Map<String, DescribeLogDirsResponse.LogDirInfo> logDirs = new HashMap<>();
+        logDirs.put("/data-0", new DescribeLogDirsResponse.LogDirInfo(Errors.NONE, existing));
+        logDirs.put("/data-1", new DescribeLogDirsResponse.LogDirInfo(Errors.NONE, other));
+        logDirs.put("/data-2", new DescribeLogDirsResponse.LogDirInfo(Errors.NONE, added));
+
+        assertThat(KafkaLogDirBalancer.ongoingMoves(singletonMap(0, logDirs), singletonMap(0, singleton("/data-2"))),
+                is(singletonMap(new TopicPartitionReplica("my-topic", 0, 0), "/data-2")));
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class KafkaRebalancerTest {
+
+    @SafeVarargs
+    private static Map<TopicPartition, List<Integer>> partitions(List<Integer>... replicas) {
+        Map<TopicPartition, List<Integer>> partitions = new HashMap<>();
+        for (int i = 0; i < replicas.length; i++) {
+            partitions.put(new TopicPartition("my-topic", i), replicas[i]);
+        }
+        return partitions;
+    }
+
+    private static Map<Integer, String> brokers(String... racks) {
+        Map<Integer, String> brokerRacks = new HashMap<>();
+        for (int i = 0; i < racks.length; i++) {
+            brokerRacks.put(i, racks[i]);
+        }
+        return brokerRacks;
+    }
+
+    private static Map<TopicPartition, List<Integer>> apply(Map<TopicPartition, List<Integer>> current, Map<TopicPartition, List<Integer>> plan) {
+        Map<TopicPartition, List<Integer>> assignment = new HashMap<>(current);
+        assignment.putAll(plan);
+        return assignment;
+    }
+
+    private static Map<Integer, Integer> replicaCounts(Map<TopicPartition, List<Integer>> assignment) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (List<Integer> replicas : assignment.values()) {
+            for (Integer broker : replicas) {
+                counts.merge(broker, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static Map<Integer, Integer> leaderCounts(Map<TopicPartition, List<Integer>> assignment) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (List<Integer> replicas : assignment.values()) {
+            counts.merge(replicas.get(0), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Test
+    public void testReplicasAreMovedToAddedBroker() {
+        Map<TopicPartition, List<Integer>> current = partitions(asList(0, 1), asList(1, 2), asList(2, 0),
+                asList(0, 1), asList(1, 2), asList(2, 0));
+
+        Map<TopicPartition, List<Integer>> after = apply(current,
+                KafkaRebalancer.plan(current, brokers(null, null, null, null), null, emptySet()));
+
+        Map<Integer, Integer> replicas = replicaCounts(after);
+        for (int broker = 0; broker < 4; broker++) {
+            assertThat(replicas.get(broker), is(3));
+            assertThat(leaderCounts(after).getOrDefault(broker, 0) >= 1, is(true));
+            assertThat(leaderCounts(after).getOrDefault(broker, 0) <= 2, is(true));
+        }
+        for (List<Integer> partitionReplicas : after.values()) {
+            assertThat(new HashSet<>(partitionReplicas).size(), is(2));
+        }
+    }
+
+    @Test
+    public void testBalancedClusterIsNotChanged() {
+        Map<TopicPartition, List<Integer>> current = partitions(asList(0, 1), asList(1, 2), asList(2, 0));
+
+        assertThat(KafkaRebalancer.plan(current, brokers(null, null, null), null, emptySet()).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testReplicasAreNotMovedIntoRacksWithReplicas() {
+        Map<TopicPartition, List<Integer>> current = partitions(asList(0, 1), asList(1, 0), asList(0, 1), asList(1, 0));
+
+        Map<Integer, String> racks = brokers("rack-a", "rack-b", "rack-a", "rack-b");
+        Map<TopicPartition, List<Integer>> after = apply(current, KafkaRebalancer.plan(current, racks, null, emptySet()));
+
+        for (List<Integer> partitionReplicas : after.values()) {
+            assertThat(racks.get(partitionReplicas.get(0)).equals(racks.get(partitionReplicas.get(1))), is(false));
+        }
+        Map<Integer, Integer> replicas = replicaCounts(after);
+        for (int broker = 0; broker < 4; broker++) {
+            assertThat(replicas.get(broker), is(2));
+        }
+    }
+
+    @Test
+    public void testFixedPartitionsAreNotMoved() {
+        Map<TopicPartition, List<Integer>> current = partitions(asList(0), asList(0), asList(0), asList(0));
+        Set<TopicPartition> fixed = new HashSet<>(asList(new TopicPartition("my-topic", 0), new TopicPartition("my-topic", 1),
+                new TopicPartition("my-topic", 2)));
+
+        Map<TopicPartition, List<Integer>> plan = KafkaRebalancer.plan(current, brokers(null, null), null, fixed);
+
+        Map<TopicPartition, List<Integer>> expected = new HashMap<>();
+        expected.put(new TopicPartition("my-topic", 3), asList(1));
+        assertThat(plan, is(expected));
+    }
+
+    @Test
+    public void testPartitionsOnUnknownBrokersAreNotMoved() {
+        Map<TopicPartition, List<Integer>> current = partitions(asList(0, 5), asList(0, 1), asList(0, 1));
+
+        Map<TopicPartition, List<Integer>> plan = KafkaRebalancer.plan(current, brokers(null, null, null), null, emptySet());
+
+        assertThat(plan.containsKey(new TopicPartition("my-topic", 0)), is(false));
+    }
+
+    @Test
+    public void testLogSizeIsBalanced() {
+        Map<TopicPartition, List<Integer>> current = partitions(asList(0), asList(0), asList(1), asList(1));
+        Map<TopicPartition, Long> sizes = new HashMap<>();
+        sizes.put(new TopicPartition("my-topic", 0), 100L);
+        sizes.put(new TopicPartition("my-topic", 1), 100L);
+        sizes.put(new TopicPartition("my-topic", 2), 10L);
+        sizes.put(new TopicPartition("my-topic", 3), 10L);
+
+        assertThat(KafkaRebalancer.plan(current, brokers(null, null), null, emptySet()).isEmpty(), is(true));
+
+        Map<TopicPartition, List<Integer>> after = apply(current, KafkaRebalancer.plan(current, brokers(null, null), sizes, emptySet()));
+
+        Map<Integer, Long> logSizes = new HashMap<>();
+        for (Map.Entry<TopicPartition, List<Integer>> partition : after.entrySet()) {
+            logSizes.merge(partition.getValue().get(0), sizes.get(partition.getKey()), Long::sum);
+        }
+        assertThat(logSizes.get(0), is(110L));
+        assertThat(logSizes.get(1), is(110L));
+        assertThat(replicaCounts(after).get(0), is(2));
+        assertThat(replicaCounts(after).get(1), is(2));
+    }
+
+    @Test
+    public void testPreferredLeadersAreBalanced() {
+        Map<TopicPartition, List<Integer>> current = partitions(asList(0, 1), asList(0, 1), asList(0, 1), asList(0, 1));
+
+        Map<TopicPartition, List<Integer>> after = apply(current,
+                KafkaRebalancer.plan(current, brokers(null, null), null, singleton(new TopicPartition("other-topic", 0))));
+
+        assertThat(leaderCounts(after).get(0), is(2));
+        assertThat(leaderCounts(after).get(1), is(2));
+        assertThat(replicaCounts(after).get(0), is(4));
+    }
+
+    @Test
+    public void testPendingSkipsExecutedAndDeletedPartitions() {
+        Map<TopicPartition, List<Integer>> current = partitions(asList(0, 1), asList(2, 0), asList(1, 2));
+        Map<TopicPartition, List<Integer>> proposal = new HashMap<>();
+        // Executed already
+        proposal.put(new TopicPartition("my-topic", 0), asList(0, 1));
+        proposal.put(new TopicPartition("my-topic", 1), asList(3, 0));
+        // Deleted topic
+        proposal.put(new TopicPartition("other-topic", 0), asList(3, 0));
+
+        Map<TopicPartition, List<Integer>> pending = KafkaRebalancer.pending(proposal, current, new HashSet<>(asList(0, 1, 2, 3)));
+
+        Map<TopicPartition, List<Integer>> expected = new HashMap<>();
+        expected.put(new TopicPartition("my-topic", 1), asList(3, 0));
+        assertThat(pending, is(expected));
+    }
+
+    @Test
+    public void testPendingFailsWhenBrokersWereRemoved() {
+        Map<TopicPartition, List<Integer>> current = partitions(asList(0, 1));
+        Map<TopicPartition, List<Integer>> proposal = new HashMap<>();
+        proposal.put(new TopicPartition("my-topic", 0), asList(3, 1));
+
+        assertThrows(IllegalStateException.class, () -> KafkaRebalancer.pending(proposal, current, new HashSet<>(asList(0, 1, 2))));
+    }
+
+    @Test
+    public void testLargeClusterIsPlannedQuickly() {
+        // Replicas of 30000 partitions on 6 brokers to be spread to 12 brokers
+        Map<TopicPartition, List<Integer>> current = new HashMap<>();
+        Map<TopicPartition, Long> sizes = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            TopicPartition partition = new TopicPartition("topic-" + (i % 100), i / 100);
+            current.put(partition, asList(i % 6, (i + 1) % 6, (i + 2) % 6));
+            sizes.put(partition, (long) (i % 1000) * 1_000_000);
+        }
+        Map<Integer, String> racks = brokers(null, null, null, null, null, null, null, null, null, null, null, null);
+
+        Map<TopicPartition, List<Integer>> after = assertTimeoutPreemptively(Duration.ofSeconds(60),
+            () -> apply(current, KafkaRebalancer.plan(current, racks, sizes, emptySet())));
+
+        Map<Integer, Integer> replicas = replicaCounts(after);
+        for (int broker = 0; broker < 12; broker++) {
+            assertThat(replicas.get(broker), is(7500));
+        }
+    }
+}
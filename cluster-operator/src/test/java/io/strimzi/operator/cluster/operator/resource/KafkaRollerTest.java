@@ -32,6 +32,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
@@ -49,10 +50,14 @@ import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -341,6 +346,92 @@ public class KafkaRollerTest {
                 emptyList());
     }
 
+    @Test
+    public void testPodsAreListedOnce(VertxTestContext testContext) throws InterruptedException {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = rollerWithControllers(sts, podOps, 2);
+        CountDownLatch async = new CountDownLatch(1);
+        kafkaRoller.rollingRestart(pod -> true)
+            .setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+                // Deferring the controller is the only failed attempt, so the pods are listed again only once
+                verify(podOps, times(1)).listAsync(eq(ssNamespace()), eq(Labels.fromMap(sts.getSpec().getSelector().getMatchLabels())));
+                verify(podOps, times(1)).list(eq(ssNamespace()), eq(Labels.fromMap(sts.getSpec().getSelector().getMatchLabels())));
+                verify(podOps, never()).get(any(), any());
+                verify(podOps, never()).isReady(any(), any());
+                testContext.completeNow();
+                async.countDown();
+            })));
+        async.await();
+    }
+
+    @Test
+    public void testPodsAreListedAgainOnRetry(VertxTestContext testContext) throws InterruptedException {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        AtomicInteger count = new AtomicInteger(3);
+        TestingKafkaRoller kafkaRoller = new TestingKafkaRoller(sts, null, null, podOps,
+            null, null, null,
+            brokerId -> brokerId == 1 ? succeededFuture(count.getAndDecrement() == 0) : succeededFuture(true),
+            -1);
+        CountDownLatch async = new CountDownLatch(1);
+        kafkaRoller.rollingRestart(pod -> true)
+            .setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+                // The initial list and one list after each of the 3 failed attempts to roll pod 1
+                verify(podOps, times(1)).listAsync(any(), any(Labels.class));
+                verify(podOps, times(3)).list(any(), any(Labels.class));
+                verify(podOps, never()).get(any(), any());
+                testContext.completeNow();
+                async.countDown();
+            })));
+        async.await();
+    }
+
+    @Test
+    public void testPreferredLeadersAreElectedAfterRoll(VertxTestContext testContext) throws InterruptedException {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = rollerWithControllers(sts, podOps, 2);
+        CountDownLatch async = new CountDownLatch(1);
+        // The failure of the election is only logged
+        kafkaRoller.rollingRestart(pod -> !pod.getMetadata().getName().endsWith("-3"))
+            .setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+                assertThat(kafkaRoller.electionRestartedPods, is(new HashSet<>(asList(0, 1, 2, 4))));
+                testContext.completeNow();
+                async.countDown();
+            })));
+        async.await();
+    }
+
+    @Test
+    public void testNoLeaderElectionWithoutRestart(VertxTestContext testContext) throws InterruptedException {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = rollerWithControllers(sts, podOps, 2);
+        CountDownLatch async = new CountDownLatch(1);
+        kafkaRoller.rollingRestart(pod -> false)
+            .setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+                assertThat(kafkaRoller.electionRestartedPods, is(nullValue()));
+                testContext.completeNow();
+                async.countDown();
+            })));
+        async.await();
+    }
+
+    @Test
+    public void testAgentsReportingSafeToRestartSkipAvailabilityCheck(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = new TestingKafkaRoller(sts, null, null, podOps,
+            null, null, null,
+            brokerId -> failedFuture(new RuntimeException("Topics should not be described")),
+            2);
+        kafkaRoller.agentsReportSafeToRestart = true;
+        doSuccessfulRollingRestart(testContext, kafkaRoller,
+                asList(0, 1, 2, 3, 4),
+                asList(0, 1, 3, 4, 2));
+    }
+
     private TestingKafkaRoller rollerWithControllers(StatefulSet sts, PodOperator podOps, int... controllers) {
         return new TestingKafkaRoller(sts, null, null, podOps,
             null, null, null,
@@ -394,33 +485,33 @@ public class KafkaRollerTest {
         restarted = new ArrayList<>();
     }
 
-    private PodOperator mockPodOps(Function<Integer, Future<Void>> readiness) {
-        PodOperator podOps = mock(PodOperator.class);
-        when(podOps.get(any(), any())).thenAnswer(
-            invocation -> new PodBuilder()
+    private List<Pod> pods(String namespace, Function<Integer, Future<Void>> readiness) {
+        List<Pod> pods = new ArrayList<>();
+        for (int podId = 0; podId < 5; podId++) {
+            pods.add(new PodBuilder()
                     .withNewMetadata()
-                        .withNamespace(invocation.getArgument(0))
-                        .withName(invocation.getArgument(1))
+                        .withNamespace(namespace)
+                        .withName(ssName() + "-" + podId)
                     .endMetadata()
-                .build()
-        );
+                    .withNewStatus()
+                        .addNewCondition()
+                            .withType("Ready")
+                            .withStatus(readiness.apply(podId).succeeded() ? "True" : "False")
+                        .endCondition()
+                    .endStatus()
+                .build());
+        }
+        return pods;
+    }
+
+    private PodOperator mockPodOps(Function<Integer, Future<Void>> readiness) {
+        PodOperator podOps = mock(PodOperator.class);
+        when(podOps.list(any(), any(Labels.class))).thenAnswer(invocation -> pods(invocation.getArgument(0), readiness));
+        when(podOps.listAsync(any(), any(Labels.class))).thenAnswer(invocation -> succeededFuture(pods(invocation.getArgument(0), readiness)));
         when(podOps.readiness(any(), any(), anyLong(), anyLong())).thenAnswer(invocationOnMock ->  {
             String podName = invocationOnMock.getArgument(1);
             return readiness.apply(podName2Number(podName));
         });
-        when(podOps.isReady(anyString(), anyString())).thenAnswer(invocationOnMock ->  {
-            String podName = invocationOnMock.getArgument(1);
-            Future<Void> ready = readiness.apply(podName2Number(podName));
-            if (ready.succeeded()) {
-                return true;
-            } else {
-                if (ready.cause() instanceof TimeoutException) {
-                    return false;
-                } else {
-                    throw ready.cause();
-                }
-            }
-        });
         return podOps;
     }
 
@@ -433,6 +524,10 @@ public class KafkaRollerTest {
                 .endMetadata()
                 .withNewSpec()
                 .withReplicas(5)
+                .withNewSelector()
+                .addToMatchLabels(Labels.STRIMZI_CLUSTER_LABEL, clusterName())
+                .addToMatchLabels(Labels.STRIMZI_NAME_LABEL, ssName())
+                .endSelector()
                 .endSpec()
                 .build();
     }
@@ -446,6 +541,8 @@ public class KafkaRollerTest {
         private final Function<Integer, Future<Boolean>> canRollFn;
         private final Throwable controllerException;
         private final int[] controllers;
+        private Set<Integer> electionRestartedPods;
+        private boolean agentsReportSafeToRestart;
 
         private TestingKafkaRoller(StatefulSet sts, Secret clusterCaCertSecret, Secret coKeySecret,
                                   PodOperator podOps,
@@ -527,6 +624,17 @@ public class KafkaRollerTest {
             return succeededFuture();
         }
 
+        @Override
+        protected Future<Boolean> agentsReportSafeToRestart() {
+            return succeededFuture(agentsReportSafeToRestart);
+        }
+
+        @Override
+        protected Future<Void> electPreferredLeaders(Set<Integer> restartedPods) {
+            electionRestartedPods = restartedPods;
+            return failedFuture(new RuntimeException("Test Exception"));
+        }
+
     }
 
     // TODO Error when finding the next broker
@@ -0,0 +1,178 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ContainerBuilder;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaimBuilder;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.Volume;
+import io.fabric8.kubernetes.api.model.VolumeBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.zjsonpatch.JsonDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Benchmark of {@link StatefulSetDiff} for a Kafka-like StatefulSet with many environment variables and JBOD volumes.
+ * The {@code jsonPatchDiff} benchmark is the baseline: it computes the full JSON patch between the StatefulSets
+ * as the previous implementation of the diff did.
+ *
+ * Run it from the IDE or using the {@link #main(String[])} method. Use the {@code gc} profiler
+ * (e.g. {@code -prof gc}) to compare the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatefulSetDiffBenchmark {
+    @Param({"1", "10"})
+    public int disks;
+
+    private StatefulSet current;
+    private StatefulSet desiredWithIgnorableChanges;
+    private StatefulSet desiredWithChangedTemplate;
+
+    @Setup
+    public void setup() {
+        current = statefulSet(disks, "quay.io/strimzi/kafka:1", true);
+        desiredWithIgnorableChanges = statefulSet(disks, "quay.io/strimzi/kafka:1", false);
+        desiredWithChangedTemplate = statefulSet(disks, "quay.io/strimzi/kafka:2", false);
+    }
+
+    /**
+     * Builds the StatefulSet
+     *
+     * @param disks Number of JBOD disks
+     * @param image The container image
+     * @param withDefaults Whether the fields defaulted by Kubernetes should be set
+     *
+     * @return  The StatefulSet
+     */
+    private static StatefulSet statefulSet(int disks, String image, boolean withDefaults) {
+        ContainerBuilder container = new ContainerBuilder()
+                .withName("kafka")
+                .withImage(image)
+                .withNewResources()
+                    .withRequests(singletonMap("memory", new Quantity(withDefaults ? "2147483648" : "2Gi")))
+                .endResources()
+                .withNewLivenessProbe()
+                    .withNewTcpSocket()
+                        .withNewPort(9091)
+                    .endTcpSocket()
+                    .withInitialDelaySeconds(15)
+                .endLivenessProbe();
+
+        if (withDefaults) {
+            container.withTerminationMessagePath("/dev/termination-log")
+                    .withTerminationMessagePolicy("File")
+                    .editLivenessProbe()
+                        .withFailureThreshold(3)
+                        .withPeriodSeconds(10)
+                        .withSuccessThreshold(1)
+                    .endLivenessProbe();
+        }
+
+        for (int i = 0; i < 50; i++) {
+            container.addNewEnv().withName("KAFKA_ENV_" + i).withValue("value-" + i).endEnv();
+        }
+
+        List<Volume> volumes = new ArrayList<>();
+        List<PersistentVolumeClaim> claims = new ArrayList<>();
+        for (int i = 0; i < disks; i++) {
+            container.addNewVolumeMount().withName("data-" + i).withMountPath("/var/lib/kafka/data-" + i).endVolumeMount();
+            volumes.add(new VolumeBuilder()
+                    .withName("config-" + i)
+                    .withNewConfigMap()
+                        .withName("my-cluster-kafka-config")
+                        .withDefaultMode(withDefaults ? 420 : null)
+                    .endConfigMap()
+                    .build());
+            claims.add(new PersistentVolumeClaimBuilder()
+                    .withNewMetadata()
+                        .withName("data-" + i)
+                    .endMetadata()
+                    .withNewSpec()
+                        .withVolumeMode(withDefaults ? "Filesystem" : null)
+                        .withNewResources()
+                            .withRequests(singletonMap("storage", new Quantity("100Gi")))
+                        .endResources()
+                    .endSpec()
+                    .build());
+        }
+
+        Container kafka = container.build();
+
+        return new StatefulSetBuilder()
+                .withNewMetadata()
+                    .withNamespace("my-namespace")
+                    .withName("my-cluster-kafka")
+                    .addToLabels("strimzi.io/cluster", "my-cluster")
+                .endMetadata()
+                .withNewSpec()
+                    .withReplicas(3)
+                    .withRevisionHistoryLimit(withDefaults ? 10 : null)
+                    .withNewTemplate()
+                        .withNewMetadata()
+                            .addToLabels("strimzi.io/cluster", "my-cluster")
+                        .endMetadata()
+                        .withNewSpec()
+                            .withContainers(kafka)
+                            .withVolumes(volumes)
+                            .withDnsPolicy(withDefaults ? "ClusterFirst" : null)
+                            .withRestartPolicy(withDefaults ? "Always" : null)
+                        .endSpec()
+                    .endTemplate()
+                    .withVolumeClaimTemplates(claims)
+                .endSpec()
+                .build();
+    }
+
+    @Benchmark
+    public void diffWithIgnorableChanges(Blackhole bh) {
+        bh.consume(new StatefulSetDiff(current, desiredWithIgnorableChanges).isEmpty());
+    }
+
+    @Benchmark
+    public void diffWithChangedTemplate(Blackhole bh) {
+        bh.consume(new StatefulSetDiff(current, desiredWithChangedTemplate).changesSpecTemplate());
+    }
+
+    @Benchmark
+    public void jsonPatchDiff(Blackhole bh) {
+        bh.consume(JsonDiff.asJson(patchMapper().valueToTree(current), patchMapper().valueToTree(desiredWithIgnorableChanges)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StatefulSetDiffBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
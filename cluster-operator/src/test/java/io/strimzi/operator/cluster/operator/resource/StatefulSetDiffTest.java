@@ -245,4 +245,100 @@ public class StatefulSetDiffTest {
         assertThat(new StatefulSetDiff(ss1, ss2).changesVolumeClaimTemplates(), is(true));
         assertThat(new StatefulSetDiff(ss1, ss2).changesVolumeSize(), is(false));
     }
+
+    private static StatefulSetBuilder statefulSet(String image) {
+        return new StatefulSetBuilder()
+                .withNewMetadata()
+                    .withNamespace("test")
+                    .withName("foo")
+                    .addToLabels("app", "foo")
+                .endMetadata()
+                .withNewSpec()
+                    .withReplicas(3)
+                    .withNewTemplate()
+                        .withNewSpec()
+                            .addNewContainer()
+                                .withName("foo")
+                                .withImage(image)
+                            .endContainer()
+                        .endSpec()
+                    .endTemplate()
+                .endSpec();
+    }
+
+    @Test
+    public void testAllChangedPartsAreDetected() {
+        StatefulSet ss1 = statefulSet("image:1").build();
+        StatefulSet ss2 = statefulSet("image:2")
+                .editMetadata()
+                    .addToLabels("app", "bar")
+                .endMetadata()
+                .editSpec()
+                    .withReplicas(5)
+                    .editTemplate()
+                        .editSpec()
+                            .addNewContainer()
+                                .withName("bar")
+                            .endContainer()
+                        .endSpec()
+                    .endTemplate()
+                .endSpec()
+                .build();
+
+        StatefulSetDiff diff = new StatefulSetDiff(ss1, ss2);
+        assertThat(diff.isEmpty(), is(false));
+        assertThat(diff.changesSpecTemplate(), is(true));
+        assertThat(diff.changesLabels(), is(true));
+        assertThat(diff.changesSpecReplicas(), is(true));
+        assertThat(diff.changesVolumeClaimTemplates(), is(false));
+        assertThat(diff.changesVolumeSize(), is(false));
+    }
+
+    @Test
+    public void testChangesOutsideOfTrackedPartsAreNotIgnored() {
+        StatefulSet ss1 = statefulSet("image:1").build();
+        StatefulSet ss2 = statefulSet("image:1")
+                .editSpec()
+                    .withPodManagementPolicy("Parallel")
+                .endSpec()
+                .build();
+
+        StatefulSetDiff diff = new StatefulSetDiff(ss1, ss2);
+        assertThat(diff.isEmpty(), is(false));
+        assertThat(diff.changesSpecTemplate(), is(false));
+        assertThat(diff.changesLabels(), is(false));
+        assertThat(diff.changesSpecReplicas(), is(false));
+    }
+
+    @Test
+    public void testIgnorablePathsAreMatchedExactly() {
+        StatefulSet ss1 = statefulSet("image:1")
+                .editSpec()
+                    .editTemplate()
+                        .editSpec()
+                            .withNewSecurityContext()
+                                .withFsGroup(0L)
+                            .endSecurityContext()
+                        .endSpec()
+                    .endTemplate()
+                .endSpec()
+                .build();
+
+        // Added or removed security context is ignored
+        assertThat(new StatefulSetDiff(ss1, statefulSet("image:1").build()).isEmpty(), is(true));
+
+        // Changes inside of the security context are not ignored
+        StatefulSet ss2 = statefulSet("image:1")
+                .editSpec()
+                    .editTemplate()
+                        .editSpec()
+                            .withNewSecurityContext()
+                                .withFsGroup(1L)
+                            .endSecurityContext()
+                        .endSpec()
+                    .endTemplate()
+                .endSpec()
+                .build();
+        assertThat(new StatefulSetDiff(ss1, ss2).changesSpecTemplate(), is(true));
+    }
 }
@@ -52,6 +52,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -184,6 +185,36 @@ public class StatefulSetOperatorTest
             .setHandler(context.succeeding(v -> a.flag()));
     }
 
+    @Test
+    public void testRollingUpdateOfListedPodDoesNotGetPod(VertxTestContext context) {
+        StatefulSet resource = resource();
+        Pod listedPod = new PodBuilder().withNewMetadata().withName("my-pod-0").endMetadata().build();
+
+        PodOperator podOperator = mock(PodOperator.class);
+        when(podOperator.readiness(anyString(), anyString(), anyLong(), anyLong())).thenReturn(Future.succeededFuture());
+        when(podOperator.restart(anyString(), any(), anyLong())).thenReturn(Future.succeededFuture());
+
+        StatefulSetOperator op = new StatefulSetOperator(AbstractResourceOperatorTest.vertx, mock(KubernetesClient.class), 5_000L, podOperator, mock(PvcOperator.class)) {
+            @Override
+            public Future<Void> maybeRollingUpdate(StatefulSet sts, Predicate<Pod> podNeedsRestart, Secret clusterCaSecret, Secret coKeySecret) {
+                return Future.succeededFuture();
+            }
+
+            @Override
+            protected boolean shouldIncrementGeneration(StatefulSetDiff diff) {
+                return true;
+            }
+        };
+
+        Checkpoint a = context.checkpoint();
+        op.maybeRestartPod(resource, "my-pod-0", listedPod, pod -> true)
+            .setHandler(context.succeeding(v -> context.verify(() -> {
+                verify(podOperator).restart(anyString(), eq(listedPod), anyLong());
+                verify(podOperator, never()).getAsync(anyString(), anyString());
+                a.flag();
+            })));
+    }
+
     @Test
     public void testRollingUpdateDeletionTimeout(VertxTestContext context) {
         StatefulSet resource = resource();
@@ -466,6 +466,105 @@ public class ZookeeperLeaderFinderTest {
                 .build();
     }
 
+    private void mockSecrets() {
+        when(mock.getAsync(eq(NAMESPACE), eq(KafkaResources.clusterCaCertificateSecretName(CLUSTER))))
+                .thenAnswer(i -> Future.succeededFuture(
+                        new SecretBuilder()
+                                .withNewMetadata()
+                                .withName(KafkaResources.clusterCaCertificateSecretName(CLUSTER))
+                                .withNamespace(NAMESPACE)
+                                .endMetadata()
+                                .withData(map(Ca.CA_CRT, "notacert"))
+                                .build()));
+    }
+
+    @Test
+    public void testLastLeaderIsTriedFirst(VertxTestContext context) throws InterruptedException {
+        int leader = 1;
+        mockSecrets();
+
+        int[] ports = startMockZks(context, 3, (id, attempt) -> id == leader);
+
+        ZookeeperLeaderFinder finder = new TestingZookeeperLeaderFinder(this::backoff, ports);
+        List<Pod> pods = asList(createPodWithId(0), createPodWithId(1), createPodWithId(2));
+
+        Checkpoint a = context.checkpoint();
+        finder.findZookeeperLeader(CLUSTER, NAMESPACE, pods, coKeySecret())
+            .compose(l -> {
+                context.verify(() -> assertThat(l, is(leader)));
+                return finder.findZookeeperLeader(CLUSTER, NAMESPACE, pods, coKeySecret());
+            })
+            .setHandler(context.succeeding(l -> context.verify(() -> {
+                assertThat(l, is(leader));
+                // The second search asks only the last known leader
+                assertThat(zks.get(0).attempts.get(), is(1));
+                assertThat(zks.get(1).attempts.get(), is(2));
+                assertThat(zks.get(2).attempts.get(), is(1));
+                a.flag();
+            })));
+    }
+
+    @Test
+    public void testLeaderFoundWhenLastLeaderChanged(VertxTestContext context) throws InterruptedException {
+        AtomicInteger leader = new AtomicInteger(0);
+        mockSecrets();
+
+        int[] ports = startMockZks(context, 3, (id, attempt) -> id == leader.get());
+
+        ZookeeperLeaderFinder finder = new TestingZookeeperLeaderFinder(this::backoff, ports);
+        List<Pod> pods = asList(createPodWithId(0), createPodWithId(1), createPodWithId(2));
+
+        Checkpoint a = context.checkpoint();
+        finder.findZookeeperLeader(CLUSTER, NAMESPACE, pods, coKeySecret())
+            .compose(l -> {
+                context.verify(() -> assertThat(l, is(0)));
+                leader.set(2);
+                return finder.findZookeeperLeader(CLUSTER, NAMESPACE, pods, coKeySecret());
+            })
+            .setHandler(context.succeeding(l -> context.verify(() -> {
+                assertThat(l, is(2));
+                // The last known leader was asked first and then the other pods
+                assertThat(zks.get(0).attempts.get(), is(2));
+                assertThat(zks.get(2).attempts.get(), is(2));
+                a.flag();
+            })));
+    }
+
+    @Test
+    public void testSlowPodDoesNotDelayLeader(VertxTestContext context) throws InterruptedException {
+        int leader = 1;
+        mockSecrets();
+
+        int[] ports = startMockZks(context, 2, (id, attempt) -> id == leader);
+
+        // Pod 0 accepts the connection, but never answers
+        NetServer silentZk = vertx.createNetServer(new NetServerOptions()
+                .setSsl(true)
+                .setKeyCertOptions(zkCertificate.keyCertOptions())
+                .setTrustOptions(coCertificate.trustOptions()));
+        CountDownLatch listening = new CountDownLatch(1);
+        silentZk.connectHandler(socket -> { }).listen(context.succeeding(server -> {
+            ports[0] = server.actualPort();
+            listening.countDown();
+        }));
+        if (!listening.await(60, TimeUnit.SECONDS)) {
+            context.failNow(new Throwable("Test timeout"));
+        }
+
+        ZookeeperLeaderFinder finder = new TestingZookeeperLeaderFinder(this::backoff, ports);
+
+        long start = System.nanoTime();
+        Checkpoint a = context.checkpoint();
+        finder.findZookeeperLeader(CLUSTER, NAMESPACE, asList(createPodWithId(0), createPodWithId(1)), coKeySecret())
+            .setHandler(context.succeeding(l -> context.verify(() -> {
+                assertThat(l, is(leader));
+                // Pod 0 would time out only after 10s
+                assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000, is(true));
+                silentZk.close();
+                a.flag();
+            })));
+    }
+
     @Test
     public void testGetHostReturnsCorrectHostForGivenPod() {
         Pod pod = new PodBuilder()
@@ -50,9 +50,15 @@ fi
 # directory avoids trying to create it (and logging a permission denied error)
 export LOG_DIR="$KAFKA_HOME"
 
-# Enabling the Mirror Maker agent which monitors readiness / liveness
-rm /tmp/mirror-maker-ready /tmp/mirror-maker-alive 2> /dev/null
-export KAFKA_OPTS="$KAFKA_OPTS -javaagent:$(ls $KAFKA_HOME/libs/mirror-maker-agent*.jar)=/tmp/mirror-maker-ready:/tmp/mirror-maker-alive:${STRIMZI_READINESS_PERIOD:-10}:${STRIMZI_LIVENESS_PERIOD:-10}"
+# Enabling the Mirror Maker agent which serves the readiness / liveness on port 8080. Mirror Maker is not alive once it
+# has been stalled for the stall timeout, and not ready once the producers have failed to send more than the maximum
+# ratio of the records for the error timeout. When the exec probes are used, it also keeps the files they test.
+MIRROR_MAKER_AGENT_OPTS="8080:${STRIMZI_MIRROR_MAKER_STALL_TIMEOUT:-300}:${STRIMZI_MIRROR_MAKER_ERROR_TIMEOUT:-60}:${STRIMZI_MIRROR_MAKER_MAX_ERROR_RATIO:-0.1}"
+if [ "$KAFKA_MIRRORMAKER_EXEC_PROBES_ENABLED" = "true" ]; then
+  rm /tmp/mirror-maker-ready /tmp/mirror-maker-alive 2> /dev/null
+  MIRROR_MAKER_AGENT_OPTS="$MIRROR_MAKER_AGENT_OPTS:/tmp/mirror-maker-ready:/tmp/mirror-maker-alive"
+fi
+export KAFKA_OPTS="$KAFKA_OPTS -javaagent:$(ls $KAFKA_HOME/libs/mirror-maker-agent*.jar)=$MIRROR_MAKER_AGENT_OPTS"
 
 # enabling Prometheus JMX exporter as Java agent
 if [ "$KAFKA_MIRRORMAKER_METRICS_ENABLED" = "true" ]; then
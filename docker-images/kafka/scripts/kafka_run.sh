@@ -14,8 +14,14 @@ if [ -z "$KAFKA_LOG4J_OPTS" ]; then
   export KAFKA_LOG4J_OPTS="-Dlog4j.configuration=file:$KAFKA_HOME/custom-config/log4j.properties"
 fi
 
-rm /var/opt/kafka/kafka-ready /var/opt/kafka/zk-connected 2> /dev/null
-export KAFKA_OPTS="$KAFKA_OPTS -javaagent:$(ls $KAFKA_HOME/libs/kafka-agent*.jar)=/var/opt/kafka/kafka-ready:/var/opt/kafka/zk-connected"
+# The kafka-agent serves the liveness and readiness of the broker on port 8080 and checks the replication listener
+# on port 9091. When the exec probes are used, it also creates the files they test.
+if [ "$KAFKA_EXEC_PROBES_ENABLED" = "true" ]; then
+  rm /var/opt/kafka/kafka-ready /var/opt/kafka/zk-connected 2> /dev/null
+  export KAFKA_OPTS="$KAFKA_OPTS -javaagent:$(ls $KAFKA_HOME/libs/kafka-agent*.jar)=8080:9091:/var/opt/kafka/kafka-ready:/var/opt/kafka/zk-connected"
+else
+  export KAFKA_OPTS="$KAFKA_OPTS -javaagent:$(ls $KAFKA_HOME/libs/kafka-agent*.jar)=8080:9091"
+fi
 
 if [ "$KAFKA_JMX_ENABLED" = "true" ]; then
   KAFKA_JMX_OPTS="-Dcom.sun.management.jmxremote.port=9999 -Dcom.sun.management.jmxremote.rmi.port=9999 -Dcom.sun.management.jmxremote=true -Djava.rmi.server.hostname=$(hostname -i) -Djava.net.preferIPv4Stack=true"
@@ -4,6 +4,8 @@
  */
 package io.strimzi.kafka.agent;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 import com.yammer.metrics.Metrics;
 import com.yammer.metrics.core.Gauge;
 import com.yammer.metrics.core.Metric;
@@ -13,30 +15,89 @@ import com.yammer.metrics.core.MetricsRegistryListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
 
 /**
- * A very simple Java agent which polls the value of the {@code kafka.server:type=KafkaServer,name=BrokerState}
- * Yammer Metric and once it reaches the value 3 (meaning "running as broker", see {@code kafka.server.BrokerState}),
- * creates a given file.
- * The presence of this file is tested via a Kube "exec" readiness probe to determine when the broker is ready.
+ * A very simple Java agent which serves the health of the broker over HTTP, so that it can be checked by Kube
+ * "httpGet" probes without forking a process in the container.
+ * The agent captures the following Yammer Metrics as they are registered:
+ * <ul>
+ *     <li>{@code kafka.server:type=KafkaServer,name=BrokerState}, which has the value 3 once the broker is
+ *     "running as broker" (see {@code kafka.server.BrokerState}),</li>
+ *     <li>{@code kafka.server:type=SessionExpireListener,name=SessionState} with the state of the ZooKeeper session,</li>
+ *     <li>{@code kafka.server:type=ReplicaManager,name=UnderReplicatedPartitions},</li>
+ *     <li>{@code kafka.server:type=ReplicaManager,name=AtMinIsrPartitionCount} and
+ *     {@code kafka.server:type=ReplicaManager,name=UnderMinIsrPartitionCount} with the number of partitions led by
+ *     the broker whose ISR is at or under {@code min.insync.replicas},</li>
+ *     <li>{@code kafka.controller:type=KafkaController,name=OfflinePartitionsCount}.</li>
+ * </ul>
+ * The values are read when a request arrives and are served by the following endpoints:
+ * <ul>
+ *     <li>{@code /v1/ready} returns 200 once the broker is running as broker and 503 otherwise,</li>
+ *     <li>{@code /v1/live} returns 200 while the broker is running as broker and listens on the replication port, or
+ *     while it is not yet running as broker but connected to ZooKeeper, and 503 otherwise,</li>
+ *     <li>{@code /v1/safe-to-restart} returns 200 while the broker is running as broker, none of the partitions it
+ *     leads is at or under {@code min.insync.replicas} and it reports no offline partitions, and 503 otherwise.
+ *     The broker only knows the ISR of the partitions it leads, so restarting a broker does not drop any partition
+ *     below {@code min.insync.replicas} when this endpoint returns 200 on all brokers of the cluster.</li>
+ * </ul>
+ * All endpoints return the values of the metrics as a JSON object in the body.
+ * Whether the broker listens on the replication port is read from {@code /proc/net/tcp} and {@code /proc/net/tcp6}
+ * rather than by connecting to it, which would make the broker log a failed TLS handshake on every probe.
+ *
+ * Images whose probes are not served by the agent (such as custom images with an older agent) use "exec" probes
+ * testing files in the container. When the agent is given the paths of these files, it also polls the gauges and
+ * creates the files, as the earlier versions of the agent did, so that the same "exec" probes work with this agent.
  */
 public class KafkaAgent {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaAgent.class);
 
+    private static final Integer BROKER_RUNNING_STATE = 3;
+    private static final String TCP_LISTEN_STATE = "0A";
+    private static final List<Path> SOCKET_TABLES = Arrays.asList(Paths.get("/proc/net/tcp"), Paths.get("/proc/net/tcp6"));
+
+    private final int port;
+    private final int replicationPort;
+    private final File brokerReadyFile;
     private final File sessionConnectedFile;
-    private File brokerReadyFile;
-    private MetricName brokerStateName;
-    private Gauge brokerState;
-    private MetricName sessionStateName;
-    private Gauge sessionState;
+    private final List<Path> socketTables;
+    volatile Gauge brokerState;
+    volatile Gauge sessionState;
+    volatile Gauge underReplicatedPartitions;
+    volatile Gauge offlinePartitions;
+    volatile Gauge atMinIsrPartitions;
+    volatile Gauge underMinIsrPartitions;
+
+    /**
+     * @param port The port to serve the health on
+     * @param replicationPort The port of the replication listener of the broker
+     * @param brokerReadyFile The file to create once the broker is ready, or null to only serve the health over HTTP
+     * @param sessionConnectedFile The file to keep while the broker is connected to ZooKeeper, or null to only serve
+     *                             the health over HTTP
+     */
+    public KafkaAgent(int port, int replicationPort, File brokerReadyFile, File sessionConnectedFile) {
+        this(port, replicationPort, brokerReadyFile, sessionConnectedFile, SOCKET_TABLES);
+    }
 
-    public KafkaAgent(File brokerReadyFile, File sessionConnectedFile) {
+    KafkaAgent(int port, int replicationPort, File brokerReadyFile, File sessionConnectedFile, List<Path> socketTables) {
+        this.port = port;
+        this.replicationPort = replicationPort;
         this.brokerReadyFile = brokerReadyFile;
         this.sessionConnectedFile = sessionConnectedFile;
+        this.socketTables = socketTables;
     }
 
     private void run() {
@@ -49,110 +110,203 @@ public class KafkaAgent {
             @Override
             public synchronized void onMetricAdded(MetricName metricName, Metric metric) {
                 LOGGER.trace("Metric added {}", metricName);
+                if (!(metric instanceof Gauge)) {
+                    return;
+                }
                 if ("kafka.server".equals(metricName.getGroup())) {
                     if ("KafkaServer".equals(metricName.getType())
-                            && "BrokerState".equals(metricName.getName())
-                            && metric instanceof Gauge) {
+                            && "BrokerState".equals(metricName.getName())) {
                         LOGGER.debug("Metric {} added ", metricName);
-                        brokerStateName = metricName;
                         brokerState = (Gauge) metric;
                     } else if ("SessionExpireListener".equals(metricName.getType())
-                            && "SessionState".equals(metricName.getName())
-                            && metric instanceof Gauge) {
-                        sessionStateName = metricName;
+                            && "SessionState".equals(metricName.getName())) {
+                        LOGGER.debug("Metric {} added ", metricName);
                         sessionState = (Gauge) metric;
+                    } else if ("ReplicaManager".equals(metricName.getType())
+                            && "UnderReplicatedPartitions".equals(metricName.getName())) {
+                        LOGGER.debug("Metric {} added ", metricName);
+                        underReplicatedPartitions = (Gauge) metric;
+                    } else if ("ReplicaManager".equals(metricName.getType())
+                            && "AtMinIsrPartitionCount".equals(metricName.getName())) {
+                        LOGGER.debug("Metric {} added ", metricName);
+                        atMinIsrPartitions = (Gauge) metric;
+                    } else if ("ReplicaManager".equals(metricName.getType())
+                            && "UnderMinIsrPartitionCount".equals(metricName.getName())) {
+                        LOGGER.debug("Metric {} added ", metricName);
+                        underMinIsrPartitions = (Gauge) metric;
                     }
-                }
-                if (brokerState != null
-                        && sessionState != null) {
-                    metricsRegistry.removeListener(this);
-                    LOGGER.info("Starting poller");
-                    Thread pollerThread = new Thread(poller(),
-                            "KafkaAgentPoller");
-                    pollerThread.setDaemon(true);
-                    pollerThread.start();
+                } else if ("kafka.controller".equals(metricName.getGroup())
+                        && "KafkaController".equals(metricName.getType())
+                        && "OfflinePartitionsCount".equals(metricName.getName())) {
+                    LOGGER.debug("Metric {} added ", metricName);
+                    offlinePartitions = (Gauge) metric;
                 }
             }
         });
-    }
 
-    private Runnable poller() {
-        return new Runnable() {
-            int i = 0;
+        // The server is started from a daemon thread, so that the threads it creates are daemon threads as well and
+        // do not prevent the broker JVM from exiting
+        Thread serverThread = new Thread(() -> {
+            try {
+                startServer();
+            } catch (IOException e) {
+                LOGGER.error("Could not start the health server on port {}", port, e);
+            }
+        }, "KafkaAgentServerStarter");
+        serverThread.setDaemon(true);
+        serverThread.start();
 
-            @Override
-            public void run() {
-                while (true) {
-                    handleSessionState();
+        if (brokerReadyFile != null && sessionConnectedFile != null) {
+            LOGGER.info("Starting poller");
+            Thread pollerThread = new Thread(this::pollUntilReady, "KafkaAgentPoller");
+            pollerThread.setDaemon(true);
+            pollerThread.start();
+        }
+    }
 
-                    if (handleBrokerState()) {
-                        break;
-                    }
+    HttpServer startServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/v1/ready", exchange -> respond(exchange, isReady()));
+        server.createContext("/v1/live", exchange -> respond(exchange, isLive()));
+        server.createContext("/v1/safe-to-restart", exchange -> respond(exchange, isSafeToRestart()));
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "KafkaAgentServer");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        LOGGER.info("Serving the broker health on port {}", server.getAddress().getPort());
+        return server;
+    }
 
-                    try {
-                        Thread.sleep(1000L);
-                    } catch (InterruptedException e) {
-                        // In theory this should never normally happen
-                        LOGGER.warn("Unexpectedly interrupted");
-                        break;
-                    }
-                }
-                LOGGER.debug("Exiting thread");
+    private void pollUntilReady() {
+        while (!poll()) {
+            try {
+                Thread.sleep(1000L);
+            } catch (InterruptedException e) {
+                // In theory this should never normally happen
+                LOGGER.warn("Unexpectedly interrupted");
+                break;
             }
+        }
+        LOGGER.debug("Exiting thread");
+    }
 
-            boolean handleBrokerState() {
-                LOGGER.trace("Polling {}", brokerStateName);
-                boolean ready = false;
-                Integer running = Integer.valueOf(3);
-                Object value = brokerState.value();
-                if (running.equals(value)) {
-                    try {
-                        LOGGER.info("Running as server according to {} => ready", brokerStateName);
-                        touch(brokerReadyFile);
-                    } catch (IOException e) {
-                        LOGGER.error("Could not write readiness file {}", brokerReadyFile, e);
-                    }
-                    ready = true;
-
-                } else if (i++ % 60 == 0) {
-                    LOGGER.debug("Metric {} = {}", brokerStateName, value);
-                }
-                return ready;
+    /**
+     * Creates the broker ready file once the broker is ready, and creates or deletes the session connected file
+     * according to the state of the ZooKeeper session
+     *
+     * @return Whether the broker is ready, after which the files no longer need to be polled, because the liveness
+     * of a ready broker is checked by its replication listener
+     */
+    boolean poll() {
+        if (isSessionConnected()) {
+            if (!sessionConnectedFile.exists()) {
+                touch(sessionConnectedFile);
             }
+        } else if (sessionConnectedFile.exists() && !sessionConnectedFile.delete()) {
+            LOGGER.error("Could not delete session connected file {}", sessionConnectedFile);
+        }
 
-            void handleSessionState() {
-                LOGGER.trace("Polling {}", sessionStateName);
-                String sessionStateStr = String.valueOf(sessionState.value());
-                if ("CONNECTED".equals(sessionStateStr)) {
-                    if (!sessionConnectedFile.exists()) {
-                        try {
-                            touch(sessionConnectedFile);
-                        } catch (IOException e) {
-                            LOGGER.error("Could not write session connected file {}", sessionConnectedFile, e);
-                        }
-                    }
-                } else {
-                    if (sessionConnectedFile.exists() && !sessionConnectedFile.delete()) {
-                        LOGGER.error("Could not delete session connected file {}", sessionConnectedFile);
-                    }
-                    if (i++ % 60 == 0) {
-                        LOGGER.debug("Metric {} = {}", sessionStateName, sessionStateStr);
-                    }
-                }
-            }
-        };
+        if (isReady()) {
+            LOGGER.info("Running as server according to the BrokerState metric => ready");
+            return touch(brokerReadyFile);
+        }
+        return false;
     }
 
-    private void touch(File file) throws IOException {
-        FileOutputStream out = null;
+    private static boolean touch(File file) {
         try {
-            out = new FileOutputStream(file);
+            new FileOutputStream(file).close();
             file.deleteOnExit();
-        } finally {
-            if (out != null) {
-                out.close();
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Could not write file {}", file, e);
+            return false;
+        }
+    }
+
+    boolean isReady() {
+        return BROKER_RUNNING_STATE.equals(value(brokerState));
+    }
+
+    /**
+     * A broker which is running as broker is alive while it listens on the replication port. Before that, for example
+     * while it recovers its logs, it is alive while it is connected to ZooKeeper.
+     */
+    boolean isLive() {
+        return isReady() ? isListening(replicationPort) : isSessionConnected();
+    }
+
+    /**
+     * Looks up a socket in the LISTEN state on the given local port in the socket tables, whose lines have the format
+     * {@code sl local_address rem_address st ...} with the local address as {@code <hex address>:<hex port>}
+     */
+    boolean isListening(int localPort) {
+        for (Path socketTable : socketTables) {
+            try (BufferedReader reader = Files.newBufferedReader(socketTable, StandardCharsets.US_ASCII)) {
+                // Skip the header
+                String line = reader.readLine();
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.trim().split("\\s+");
+                    if (fields.length > 3 && TCP_LISTEN_STATE.equals(fields[3])
+                            && Integer.parseInt(fields[1].substring(fields[1].lastIndexOf(':') + 1), 16) == localPort) {
+                        return true;
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                LOGGER.debug("Could not read the socket table {}", socketTable, e);
             }
         }
+        LOGGER.debug("The broker does not listen on port {}", localPort);
+        return false;
+    }
+
+    /**
+     * A missing metric is treated as a non-zero count, so that the broker is never reported safe to restart before
+     * all metrics are registered
+     */
+    boolean isSafeToRestart() {
+        return isReady()
+                && isZero(value(atMinIsrPartitions))
+                && isZero(value(underMinIsrPartitions))
+                && isZero(value(offlinePartitions));
+    }
+
+    private static boolean isZero(Object count) {
+        return count instanceof Number && ((Number) count).longValue() == 0;
+    }
+
+    boolean isSessionConnected() {
+        return "CONNECTED".equals(String.valueOf(value(sessionState)));
+    }
+
+    private void respond(HttpExchange exchange, boolean healthy) throws IOException {
+        byte[] body = ("{\"brokerState\":" + json(value(brokerState))
+                + ",\"zkSessionState\":" + json(value(sessionState))
+                + ",\"underReplicatedPartitions\":" + json(value(underReplicatedPartitions))
+                + ",\"offlinePartitions\":" + json(value(offlinePartitions))
+                + ",\"atMinIsrPartitions\":" + json(value(atMinIsrPartitions))
+                + ",\"underMinIsrPartitions\":" + json(value(underMinIsrPartitions))
+                + "}").getBytes(StandardCharsets.UTF_8);
+        LOGGER.trace("Responding to {} with healthy={} {}", exchange.getRequestURI(), healthy, new String(body, StandardCharsets.UTF_8));
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(healthy ? 200 : 503, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Object value(Gauge gauge) {
+        return gauge != null ? gauge.value() : null;
+    }
+
+    private static String json(Object value) {
+        if (value == null || value instanceof Number) {
+            return String.valueOf(value);
+        }
+        return "\"" + String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
     }
 
     /**
@@ -160,22 +314,37 @@ public class KafkaAgent {
      * @param agentArgs The agent arguments
      */
     public static void premain(String agentArgs) {
-        int index = agentArgs.indexOf(':');
-        if (index == -1) {
+        // <port>:<replication port>[:<broker ready file>:<session connected file>]
+        String[] args = String.valueOf(agentArgs).trim().split(":");
+        int port;
+        int replicationPort;
+        try {
+            if (args.length != 2 && args.length != 4) {
+                throw new IllegalArgumentException();
+            }
+            port = Integer.parseInt(args[0]);
+            replicationPort = Integer.parseInt(args[1]);
+        } catch (IllegalArgumentException e) {
             LOGGER.error("Unable to parse arguments {}", agentArgs);
             System.exit(1);
-        } else {
-            File brokerReadyFile = new File(agentArgs.substring(0, index));
-            File sessionConnectedFile = new File(agentArgs.substring(index + 1));
+            return;
+        }
+
+        File brokerReadyFile = null;
+        File sessionConnectedFile = null;
+        if (args.length == 4) {
+            brokerReadyFile = new File(args[2]);
+            sessionConnectedFile = new File(args[3]);
             if (brokerReadyFile.exists() && !brokerReadyFile.delete()) {
                 LOGGER.error("Broker readiness file already exists and could not be deleted: {}", brokerReadyFile);
                 System.exit(1);
+                return;
             } else if (sessionConnectedFile.exists() && !sessionConnectedFile.delete()) {
                 LOGGER.error("Session connected file already exists and could not be deleted: {}", sessionConnectedFile);
                 System.exit(1);
-            } else {
-                new KafkaAgent(brokerReadyFile, sessionConnectedFile).run();
+                return;
             }
         }
+        new KafkaAgent(port, replicationPort, brokerReadyFile, sessionConnectedFile).run();
     }
 }
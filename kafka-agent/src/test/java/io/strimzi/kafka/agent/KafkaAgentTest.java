@@ -0,0 +1,183 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka.agent;
+
+import com.sun.net.httpserver.HttpServer;
+import com.yammer.metrics.core.Gauge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class KafkaAgentTest {
+
+    private static final String SOCKET_TABLE_HEADER =
+            "  sl  local_address rem_address   st tx_queue rx_queue tr tm->when retrnsmt   uid  timeout inode";
+    // 0x2383 is 9091, 0x2384 is 9092, 0A is LISTEN and 01 is ESTABLISHED
+    private static final String LISTENING_ON_9092 =
+            "   0: 00000000:2384 00000000:0000 0A 00000000:00000000 00:00000000 00000000  1001        0 24961 1 0000000000000000 100 0 0 10 0";
+    private static final String CONNECTED_FROM_9091 =
+            "   1: 0100007F:2383 0100007F:A1C2 01 00000000:00000000 00:00000000 00000000  1001        0 24962 1 0000000000000000 20 4 30 10 -1";
+    private static final String LISTENING_ON_9091_IPV6 =
+            "   0: 00000000000000000000000000000000:2383 00000000000000000000000000000000:0000 0A 00000000:00000000 00:00000000 00000000  1001        0 24963 1 0000000000000000 100 0 0 10 0";
+
+    @TempDir
+    public File tempDir;
+
+    private Path tcp;
+    private Path tcp6;
+    private File brokerReadyFile;
+    private File sessionConnectedFile;
+    private KafkaAgent agent;
+
+    @BeforeEach
+    public void createAgent() throws IOException {
+        tcp = new File(tempDir, "tcp").toPath();
+        tcp6 = new File(tempDir, "tcp6").toPath();
+        writeSocketTable(tcp, LISTENING_ON_9092);
+        writeSocketTable(tcp6);
+        brokerReadyFile = new File(tempDir, "kafka-ready");
+        sessionConnectedFile = new File(tempDir, "zk-connected");
+        agent = new KafkaAgent(0, 9091, brokerReadyFile, sessionConnectedFile, Arrays.asList(tcp, tcp6));
+    }
+
+    private static void writeSocketTable(Path path, String... sockets) throws IOException {
+        StringBuilder table = new StringBuilder(SOCKET_TABLE_HEADER).append('\n');
+        for (String socket : sockets) {
+            table.append(socket).append('\n');
+        }
+        Files.write(path, table.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Gauge<Object> gauge(Object value) {
+        return new Gauge<Object>() {
+            @Override
+            public Object value() {
+                return value;
+            }
+        };
+    }
+
+    @Test
+    public void testNotHealthyBeforeMetricsAreRegistered() {
+        assertThat(agent.isReady(), is(false));
+        assertThat(agent.isLive(), is(false));
+        assertThat(agent.isSafeToRestart(), is(false));
+    }
+
+    @Test
+    public void testNotReadyNorLiveWhenNotConnectedToZooKeeper() {
+        agent.brokerState = gauge(1);
+        agent.sessionState = gauge("CONNECTING");
+
+        assertThat(agent.isReady(), is(false));
+        assertThat(agent.isLive(), is(false));
+    }
+
+    @Test
+    public void testLiveButNotReadyWhenConnectedToZooKeeper() {
+        // The broker is recovering its logs, so it does not listen on any port yet
+        agent.brokerState = gauge(2);
+        agent.sessionState = gauge("CONNECTED");
+
+        assertThat(agent.isReady(), is(false));
+        assertThat(agent.isLive(), is(true));
+    }
+
+    @Test
+    public void testReadyAndLiveWhenListeningOnReplicationPort() throws IOException {
+        agent.brokerState = gauge(3);
+        agent.sessionState = gauge("CONNECTED");
+        writeSocketTable(tcp6, LISTENING_ON_9091_IPV6);
+
+        assertThat(agent.isReady(), is(true));
+        assertThat(agent.isLive(), is(true));
+    }
+
+    @Test
+    public void testNotLiveWhenReadyButNotListeningOnReplicationPort() throws IOException {
+        // The connected ZooKeeper session does not make a running broker live
+        agent.brokerState = gauge(3);
+        agent.sessionState = gauge("CONNECTED");
+        writeSocketTable(tcp, LISTENING_ON_9092, CONNECTED_FROM_9091);
+
+        assertThat(agent.isReady(), is(true));
+        assertThat(agent.isLive(), is(false));
+    }
+
+    @Test
+    public void testNotLiveWhenSocketTablesCannotBeRead() throws IOException {
+        agent.brokerState = gauge(3);
+        Files.delete(tcp);
+        Files.delete(tcp6);
+
+        assertThat(agent.isLive(), is(false));
+    }
+
+    @Test
+    public void testSafeToRestart() {
+        agent.brokerState = gauge(3);
+        agent.atMinIsrPartitions = gauge(0);
+        agent.underMinIsrPartitions = gauge(0);
+        agent.offlinePartitions = gauge(0);
+        assertThat(agent.isSafeToRestart(), is(true));
+
+        agent.atMinIsrPartitions = gauge(1);
+        assertThat(agent.isSafeToRestart(), is(false));
+    }
+
+    @Test
+    public void testPollCreatesFilesForExecProbes() {
+        agent.brokerState = gauge(2);
+        agent.sessionState = gauge("CONNECTED");
+        assertThat(agent.poll(), is(false));
+        assertThat(sessionConnectedFile.exists(), is(true));
+        assertThat(brokerReadyFile.exists(), is(false));
+
+        agent.sessionState = gauge("CONNECTING");
+        assertThat(agent.poll(), is(false));
+        assertThat(sessionConnectedFile.exists(), is(false));
+
+        agent.brokerState = gauge(3);
+        assertThat(agent.poll(), is(true));
+        assertThat(brokerReadyFile.exists(), is(true));
+    }
+
+    @Test
+    public void testHttpEndpoints() throws IOException {
+        agent.brokerState = gauge(2);
+        agent.sessionState = gauge("CONNECTED");
+
+        HttpServer server = agent.startServer();
+        try {
+            int port = server.getAddress().getPort();
+            assertThat(responseCode(port, "/v1/ready"), is(503));
+            assertThat(responseCode(port, "/v1/live"), is(200));
+            assertThat(responseCode(port, "/v1/safe-to-restart"), is(503));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static int responseCode(int port, String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http", "localhost", port, path).openConnection();
+        try {
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -1,4 +1,10 @@
 #!/usr/bin/env bash
 export JAVA_CLASSPATH=lib/io.strimzi.@project.build.finalName@.@project.packaging@:@project.dist.classpath@
 export JAVA_MAIN=io.strimzi.kafka.init.Main
-exec ${STRIMZI_HOME}/bin/launch_java.sh
\ No newline at end of file
+
+# kafka-init runs once at every start of a Kafka pod, so the JVM is tuned for startup time rather than for peak
+# performance: the JDK classes are loaded from the shared archive, only the C1 compiler is used and the serial
+# garbage collector avoids starting GC threads
+export JAVA_OPTS="${JAVA_OPTS} -Xshare:auto -XX:TieredStopAtLevel=1 -XX:+UseSerialGC"
+
+exec ${STRIMZI_HOME}/bin/launch_java.sh
@@ -4,6 +4,7 @@
  */
 package io.strimzi.kafka.init;
 
+import io.fabric8.kubernetes.api.model.Node;
 import io.fabric8.kubernetes.api.model.NodeAddress;
 import io.fabric8.kubernetes.client.KubernetesClient;
 
@@ -23,6 +24,7 @@ public class InitWriter {
 
     private KubernetesClient client;
     private InitWriterConfig config;
+    private Node node;
 
     protected final static String FILE_RACK_ID = "rack.id";
     protected final static String FILE_EXTERNAL_ADDRESS = "external.address";
@@ -39,7 +41,12 @@ public class InitWriter {
      */
     public boolean writeRack() {
 
-        Map<String, String> nodeLabels = client.nodes().withName(config.getNodeName()).get().getMetadata().getLabels();
+        Node node = getNode();
+        if (node == null) {
+            return false;
+        }
+
+        Map<String, String> nodeLabels = node.getMetadata().getLabels();
         log.info("NodeLabels = {}", nodeLabels);
         String rackId = nodeLabels.get(config.getRackTopologyKey());
         log.info("Rack: {} = {}", config.getRackTopologyKey(), rackId);
@@ -60,7 +67,12 @@ public class InitWriter {
      */
     public boolean writeExternalAddress() {
 
-        List<NodeAddress> addresses = client.nodes().withName(config.getNodeName()).get().getStatus().getAddresses();
+        Node node = getNode();
+        if (node == null) {
+            return false;
+        }
+
+        List<NodeAddress> addresses = node.getStatus().getAddresses();
         log.info("NodeLabels = {}", addresses);
         String externalAddress = NodeUtils.findAddress(addresses, config.getAddressType());
 
@@ -74,6 +86,24 @@ public class InitWriter {
         return write(FILE_EXTERNAL_ADDRESS, externalAddress);
     }
 
+    /**
+     * Get the node this pod is scheduled on. The node is fetched from the Kubernetes API only once, so that writing
+     * both the rack-id and the external address does not cost a second API call.
+     *
+     * @return the node or null if it doesn't exist
+     */
+    private Node getNode() {
+        if (node == null) {
+            node = client.nodes().withName(config.getNodeName()).get();
+
+            if (node == null) {
+                log.error("Node {} not found", config.getNodeName());
+            }
+        }
+
+        return node;
+    }
+
     /**
      * Write provided information into a file
      *
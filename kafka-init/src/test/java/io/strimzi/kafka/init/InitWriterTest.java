@@ -27,6 +27,8 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class InitWriterTest {
 
@@ -91,6 +93,40 @@ public class InitWriterTest {
         assertThat(writer.writeExternalAddress(), is(true));
     }
 
+    @Test
+    public void testWriteRackIdAndExternalAddressGetNodeOnce() {
+
+        File kafkaFolder = new File(tempDir.getPath(), "/opt/kafka");
+        String initFolder = kafkaFolder.getAbsolutePath() + "/init";
+        new File(initFolder).mkdirs();
+
+        Map<String, String> envVars = new HashMap<>(InitWriterTest.envVars);
+        envVars.put(InitWriterConfig.INIT_FOLDER, initFolder);
+
+        InitWriterConfig config = InitWriterConfig.fromMap(envVars);
+
+        KubernetesClient client = mockKubernetesClient(config.getNodeName(), labels, addresses);
+
+        InitWriter writer = new InitWriter(client, config);
+        assertThat(writer.writeRack(), is(true));
+        assertThat(writer.writeExternalAddress(), is(true));
+
+        verify(client, times(1)).nodes();
+    }
+
+    @Test
+    public void testNodeNotFound() {
+
+        InitWriterConfig config = InitWriterConfig.fromMap(envVars);
+
+        KubernetesClient client = mockKubernetesClient(config.getNodeName(), labels, addresses);
+        when(client.nodes().withName(config.getNodeName()).get()).thenReturn(null);
+
+        InitWriter writer = new InitWriter(client, config);
+        assertThat(writer.writeRack(), is(false));
+        assertThat(writer.writeExternalAddress(), is(false));
+    }
+
     @Test
     public void testNoLabel() {
 
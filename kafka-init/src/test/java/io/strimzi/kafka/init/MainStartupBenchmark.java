@@ -0,0 +1,124 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka.init;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the startup time of kafka-init. Every invocation starts a new JVM running {@link Main} configured to
+ * write the rack-id, and waits until it exits. The Kubernetes API server is pointed to a closed local port, so the
+ * benchmark measures the startup of the JVM and of the Kubernetes client up to the first request, without depending
+ * on a Kubernetes cluster.
+ *
+ * The {@code default} JVM options are the baseline, the {@code fast} ones are the options set by
+ * {@code kafka_init_run.sh}. Class data sharing is only effective when the shared archive of the JDK exists
+ * (see {@code java -Xshare:dump}).
+ *
+ * The JVM is started with the runtime classpath of kafka-init, as in the container image, rather than with the
+ * classpath of the benchmark, which also contains the test dependencies. The runtime dependencies are listed in
+ * {@code target/runtime-classpath.txt} by the {@code generate-test-resources} phase of the Maven build.
+ *
+ * Run it from the IDE or using the {@link #main(String[])} method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MainStartupBenchmark {
+    @Param({"default", "fast"})
+    public String jvmOptions;
+
+    private File initFolder;
+    private ProcessBuilder processBuilder;
+
+    @Setup
+    public void setup() throws IOException {
+        initFolder = Files.createTempDirectory("kafka-init").toFile();
+
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        if ("fast".equals(jvmOptions)) {
+            command.addAll(Arrays.asList("-Xshare:auto", "-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC"));
+        }
+        command.addAll(Arrays.asList("-classpath", runtimeClasspath(), Main.class.getName()));
+
+        processBuilder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(initFolder, "output.log"));
+        Map<String, String> env = processBuilder.environment();
+        env.put(InitWriterConfig.NODE_NAME, "localhost");
+        env.put(InitWriterConfig.RACK_TOPOLOGY_KEY, "failure-domain.beta.kubernetes.io/zone");
+        env.put(InitWriterConfig.INIT_FOLDER, initFolder.getAbsolutePath());
+        env.put("KUBERNETES_MASTER", "http://127.0.0.1:1");
+    }
+
+    /**
+     * @return  The classes of kafka-init followed by its runtime dependencies
+     */
+    private static String runtimeClasspath() throws IOException {
+        File classes;
+        try {
+            classes = new File(Main.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Cannot locate the classes of kafka-init", e);
+        }
+
+        File dependencies = new File(classes.getParentFile(), "runtime-classpath.txt");
+        if (!dependencies.isFile()) {
+            throw new IOException(dependencies + " does not exist, run mvn generate-test-resources in kafka-init first");
+        }
+        String classpath = new String(Files.readAllBytes(dependencies.toPath()), StandardCharsets.UTF_8).trim();
+        return classpath.isEmpty() ? classes.getAbsolutePath() : classes.getAbsolutePath() + File.pathSeparator + classpath;
+    }
+
+    @TearDown
+    public void tearDown() {
+        File[] files = initFolder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        initFolder.delete();
+    }
+
+    @Benchmark
+    public int startup() throws IOException, InterruptedException {
+        return processBuilder.start().waitFor();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MainStartupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -4,6 +4,8 @@
  */
 package io.strimzi.mirrormaker.agent;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,188 +15,317 @@ import javax.management.ObjectName;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.management.ManagementFactory;
-import java.util.Set;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
 
 /**
- * A Java agent which helps with the Readiness and Liveness check in Kafka Mirror Maker.
+ * A Java agent which serves the Readiness and Liveness of Kafka Mirror Maker over HTTP, so that they can be checked by
+ * Kube "httpGet" probes. The health is computed from the metrics of the Mirror Maker consumers and producers, which
+ * are read from JMX when a request arrives.
  *
- * Liveness:
- *   In every loop it touches a liveness file if it doesn't exist. The file is expected to tbe deleted by the Kubernetes
- *   liveness probe. So it should be periodically deleted and recreated.
+ * Liveness ({@code /v1/live}):
+ *   Mirror Maker is alive unless it has been stalled for longer than the stall timeout. It is stalled when the
+ *   consumers lag behind the source cluster ({@code records-lag-max} is above zero) but neither consumed
+ *   ({@code records-consumed-rate}) nor sent ({@code record-send-rate}) any record in the metrics window. The consumers
+ *   of a Mirror Maker under backpressure pause while the producers still send records, and the consumers of a
+ *   rebalancing consumer group briefly consume nothing, so neither is considered stalled before the timeout.
  *
- * Readiness:
- *   Readiness checks the number of connections to the source and target Kafka clusters. If at least one connection
- *   exists to each of the clusters, the readiness file will be created. If not it will be deleted.
+ * Readiness ({@code /v1/ready}):
+ *   Mirror Maker is ready when it is alive, at least one connection exists to the source Kafka cluster
+ *   ({@code connection-count}), and the ratio of the records the producers failed to send ({@code record-error-rate})
+ *   to all records they attempted to send has not been above the maximum error ratio for longer than the error timeout.
+ *   The producers connect to the target Kafka cluster only once they have records to send, so an idle Mirror Maker
+ *   without any connection to the target cluster is still ready unless the consumers lag or the producers fail.
+ *
+ * Both endpoints return 200 when the check passes and 503 otherwise, with the values of the metrics as a JSON object
+ * in the body.
+ *
+ * Images whose probes are not served by the agent (such as custom images with an older agent) use "exec" probes
+ * testing files in the container. When the agent is given the paths of these files, it also polls the health and
+ * keeps the files the way the earlier versions of the agent did: the readiness file exists while Mirror Maker is ready,
+ * and the liveness file is recreated while Mirror Maker is alive after the liveness probe deleted it.
  */
 public class MirrorMakerAgent {
     private static final Logger LOGGER = LoggerFactory.getLogger(MirrorMakerAgent.class);
 
-    private final File livenessFile;
+    private static final String PRODUCER_METRICS = "kafka.producer:type=producer-metrics,client-id=*";
+    private static final String CONSUMER_METRICS = "kafka.consumer:type=consumer-metrics,client-id=*";
+    private static final String CONSUMER_FETCH_METRICS = "kafka.consumer:type=consumer-fetch-manager-metrics,client-id=*";
+
+    private static final long POLL_INTERVAL_MS = 1_000L;
+
+    private final int port;
+    private final long stallTimeoutMs;
+    private final long errorTimeoutMs;
+    private final double maxErrorRatio;
+    private final LongSupplier clock;
     private final File readinessFile;
-    private final long readinessSleepInterval;
-    private final long livenessSleepInterval;
+    private final File livenessFile;
+    private final MBeanServerConnection beanConn = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * The time since which Mirror Maker is stalled, or -1 when it is not stalled
+     */
+    private long stalledSinceMs = -1;
+
+    /**
+     * The time since which the error ratio of the producers is above the maximum, or -1 when it is not
+     */
+    private long failingSinceMs = -1;
+
+    /**
+     * @param port The port to serve the health on
+     * @param stallTimeoutMs How long Mirror Maker can be stalled before it is not alive
+     * @param errorTimeoutMs How long the error ratio of the producers can be above the maximum before Mirror Maker is
+     *                       not ready
+     * @param maxErrorRatio The maximum ratio of the records the producers fail to send
+     * @param readinessFile The file to keep while Mirror Maker is ready, or null to only serve the health over HTTP
+     * @param livenessFile The file to recreate while Mirror Maker is alive, or null to only serve the health over HTTP
+     */
+    public MirrorMakerAgent(int port, long stallTimeoutMs, long errorTimeoutMs, double maxErrorRatio, File readinessFile, File livenessFile) {
+        this(port, stallTimeoutMs, errorTimeoutMs, maxErrorRatio, readinessFile, livenessFile, System::currentTimeMillis);
+    }
 
-    public MirrorMakerAgent(File readinessFile, File livenessFile, long readinessSleepInterval, long livenessSleepInterval) {
+    MirrorMakerAgent(int port, long stallTimeoutMs, long errorTimeoutMs, double maxErrorRatio, LongSupplier clock) {
+        this(port, stallTimeoutMs, errorTimeoutMs, maxErrorRatio, null, null, clock);
+    }
+
+    MirrorMakerAgent(int port, long stallTimeoutMs, long errorTimeoutMs, double maxErrorRatio, File readinessFile, File livenessFile, LongSupplier clock) {
+        this.port = port;
+        this.stallTimeoutMs = stallTimeoutMs;
+        this.errorTimeoutMs = errorTimeoutMs;
+        this.maxErrorRatio = maxErrorRatio;
         this.readinessFile = readinessFile;
         this.livenessFile = livenessFile;
-        this.readinessSleepInterval = readinessSleepInterval;
-        this.livenessSleepInterval = livenessSleepInterval;
+        this.clock = clock;
     }
 
     /**
-     * Starts two poller threads - one for readiness and one for liveness.
+     * Starts the HTTP server from a daemon thread, so that the threads it creates are daemon threads as well and do not
+     * prevent the Mirror Maker JVM from exiting, and the poller of the files used by the "exec" probes when they are set
      */
     private void run() {
-        LOGGER.info("Starting readiness poller");
-        Thread readinessThread = new Thread(readinessPoller(), "ReadinessPoller");
-        readinessThread.setDaemon(true);
-        readinessThread.start();
+        Thread serverThread = new Thread(this::startServer, "MirrorMakerAgentServerStarter");
+        serverThread.setDaemon(true);
+        serverThread.start();
 
-        LOGGER.info("Starting liveness poller");
-        Thread livenessThread = new Thread(livenessPoller(), "LivenessPoller");
-        livenessThread.setDaemon(true);
-        livenessThread.start();
+        if (readinessFile != null && livenessFile != null) {
+            LOGGER.info("Starting poller");
+            Thread pollerThread = new Thread(this::pollForever, "MirrorMakerAgentPoller");
+            pollerThread.setDaemon(true);
+            pollerThread.start();
+        }
+    }
+
+    private void pollForever() {
+        while (true) {
+            poll(health());
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                // In theory this should never normally happen
+                LOGGER.warn("Unexpectedly interrupted");
+                break;
+            }
+        }
+        LOGGER.debug("Exiting thread");
     }
 
     /**
-     * Creates the poller thread for the liveness check
-     *
-     * @return Runable for liveness check
+     * Creates the liveness file when Mirror Maker is alive and it does not exist, and creates or deletes the readiness
+     * file according to the readiness of Mirror Maker
      */
-    private Runnable livenessPoller() {
-        return new Runnable() {
-            @Override
-            public void run() {
-                while (true) {
-                    if (!livenessFile.exists()) {
-                        try {
-                            LOGGER.debug("Mirror Maker is alive");
-                            touch(livenessFile);
-                        } catch (IOException e) {
-                            LOGGER.error("Could not write liveness file {}", livenessFile, e);
-                        }
-                    }
-
-                    try {
-                        Thread.sleep(livenessSleepInterval);
-                    } catch (InterruptedException e) {
-                        // In theory this should never normally happen
-                        LOGGER.warn("Unexpectedly interrupted");
-                        break;
-                    }
-                }
-                LOGGER.debug("Exiting thread");
+    void poll(Health health) {
+        if (isAlive(health) && !livenessFile.exists()) {
+            LOGGER.debug("Mirror Maker is alive");
+            touch(livenessFile);
+        }
+
+        if (isReady(health)) {
+            if (!readinessFile.exists()) {
+                LOGGER.debug("Mirror Maker is ready");
+                touch(readinessFile);
             }
-        };
+        } else if (readinessFile.exists() && !readinessFile.delete()) {
+            LOGGER.error("Could not delete readiness file {}", readinessFile);
+        }
+    }
+
+    private static void touch(File file) {
+        try {
+            new FileOutputStream(file).close();
+            file.deleteOnExit();
+        } catch (IOException e) {
+            LOGGER.error("Could not write file {}", file, e);
+        }
+    }
+
+    private void startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+            server.createContext("/v1/live", exchange -> {
+                Health health = health();
+                respond(exchange, health, isAlive(health));
+            });
+            server.createContext("/v1/ready", exchange -> {
+                Health health = health();
+                respond(exchange, health, isReady(health));
+            });
+            server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MirrorMakerAgentServer");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+            LOGGER.info("Serving the Mirror Maker health on port {}", port);
+        } catch (IOException e) {
+            LOGGER.error("Could not start the health server on port {}", port, e);
+        }
     }
 
     /**
-     * Creates the poller thread for the readiness check
-     *
-     * @return Runable for readiness check
+     * Snapshot of the metrics the health is computed from
      */
-    private Runnable readinessPoller() {
-        return new Runnable() {
-            private MBeanServerConnection beanConn = ManagementFactory.getPlatformMBeanServer();
-
-            @Override
-            public void run() {
-                while (true) {
-                    if (handleProducerConnected() && handleConsumerConnected()) {
-                        try {
-                            LOGGER.debug("Mirror Maker is ready");
-                            touch(readinessFile);
-                        } catch (IOException e) {
-                            LOGGER.error("Could not write readiness file {}", readinessFile, e);
-                        }
-                    } else {
-                        LOGGER.debug("Mirror Maker is not ready");
+    static class Health {
+        double producerConnections;
+        double consumerConnections;
+        double recordsLagMax;
+        double recordsConsumedRate;
+        double recordSendRate;
+        double recordErrorRate;
 
-                        if (readinessFile.exists() && !readinessFile.delete()) {
-                            LOGGER.error("Could not delete readiness indicator file {}", readinessFile);
-                        }
-                    }
-
-                    try {
-                        Thread.sleep(readinessSleepInterval);
-                    } catch (InterruptedException e) {
-                        // In theory this should never normally happen
-                        LOGGER.warn("Unexpectedly interrupted");
-                        break;
-                    }
-                }
-                LOGGER.debug("Exiting thread");
-            }
+        boolean isStalled() {
+            return recordsLagMax > 0 && recordsConsumedRate == 0 && recordSendRate == 0;
+        }
 
-            /**
-             * Gets the producer connections from JMX and counts them.
-             *
-             * @return True if at least one producer connections exists. False otherwise.
-             */
-            boolean handleProducerConnected() {
-                LOGGER.debug("Polling for producer connections");
-                Double connectionCount = 0.0D;
-
-                try {
-                    Set<ObjectName> mbeans = beanConn.queryNames(new ObjectName("kafka.producer:type=producer-metrics,client-id=*"), null);
-
-                    for (ObjectName oName : mbeans) {
-                        Double attr = (Double) beanConn.getAttribute(oName, "connection-count");
-                        connectionCount += attr;
-                        LOGGER.trace("Found connection metric with name {} and value: {}", oName, attr);
-                    }
-                }   catch (IOException | JMException e) {
-                    LOGGER.error("Failed to query JMX metrics", e);
-                }   finally {
-                    LOGGER.trace("Total producer connections {}", connectionCount);
-                    return connectionCount > 0;
-                }
-            }
+        double errorRatio() {
+            return recordErrorRate > 0 ? recordErrorRate / (recordErrorRate + recordSendRate) : 0.0D;
+        }
 
-            /**
-             * Gets the consumer connections from JMX and counts them.
-             *
-             * @return True if at least one consumer connections exists. False otherwise.
-             */
-            boolean handleConsumerConnected() {
-                LOGGER.debug("Polling for consumer connections");
-                Double connectionCount = 0.0D;
-
-                try {
-                    Set<ObjectName> mbeans = beanConn.queryNames(new ObjectName("kafka.consumer:type=consumer-metrics,client-id=*"), null);
-
-                    for (ObjectName oName : mbeans) {
-                        Double attr = (Double) beanConn.getAttribute(oName, "connection-count");
-                        connectionCount += attr;
-                        LOGGER.trace("Found connection metric with name {} and value: {}", oName, attr);
-                    }
-                }   catch (IOException | JMException e) {
-                    LOGGER.error("Failed to query JMX metrics", e);
-                }   finally {
-                    LOGGER.trace("Total consumer connections {}", connectionCount);
-                    return connectionCount > 0;
-                }
-            }
-        };
+        String toJson() {
+            return "{\"producerConnections\":" + producerConnections
+                    + ",\"consumerConnections\":" + consumerConnections
+                    + ",\"recordsLagMax\":" + recordsLagMax
+                    + ",\"recordsConsumedRate\":" + recordsConsumedRate
+                    + ",\"recordSendRate\":" + recordSendRate
+                    + ",\"recordErrorRate\":" + recordErrorRate
+                    + "}";
+        }
+    }
+
+    synchronized boolean isAlive(Health health) {
+        if (!health.isStalled()) {
+            stalledSinceMs = -1;
+            return true;
+        }
+
+        long now = clock.getAsLong();
+        if (stalledSinceMs < 0) {
+            stalledSinceMs = now;
+        }
+        if (now - stalledSinceMs >= stallTimeoutMs) {
+            LOGGER.warn("Mirror Maker has been stalled for {} ms with a maximum lag of {} records", now - stalledSinceMs, health.recordsLagMax);
+            return false;
+        }
+        LOGGER.debug("Mirror Maker is stalled with a maximum lag of {} records", health.recordsLagMax);
+        return true;
+    }
+
+    synchronized boolean isReady(Health health) {
+        if (!isAlive(health) || health.consumerConnections == 0) {
+            return false;
+        }
+
+        if (health.producerConnections == 0 && (health.recordsLagMax > 0 || health.recordErrorRate > 0)) {
+            LOGGER.debug("The producers are not connected while there are records to send");
+            return false;
+        }
+
+        if (health.errorRatio() <= maxErrorRatio) {
+            failingSinceMs = -1;
+            return true;
+        }
+
+        long now = clock.getAsLong();
+        if (failingSinceMs < 0) {
+            failingSinceMs = now;
+        }
+        if (now - failingSinceMs >= errorTimeoutMs) {
+            LOGGER.warn("The producers have failed to send {} of the records for {} ms", health.errorRatio(), now - failingSinceMs);
+            return false;
+        }
+        LOGGER.debug("The producers failed to send {} of the records", health.errorRatio());
+        return true;
+    }
+
+    private Health health() {
+        Health health = new Health();
+        health.producerConnections = sum(PRODUCER_METRICS, "connection-count");
+        health.consumerConnections = sum(CONSUMER_METRICS, "connection-count");
+        health.recordSendRate = sum(PRODUCER_METRICS, "record-send-rate");
+        health.recordErrorRate = sum(PRODUCER_METRICS, "record-error-rate");
+        health.recordsLagMax = max(CONSUMER_FETCH_METRICS, "records-lag-max");
+        health.recordsConsumedRate = sum(CONSUMER_FETCH_METRICS, "records-consumed-rate");
+        return health;
     }
 
     /**
-     * Creates the file which indicates readiness or liveness.
-     *
-     * @param file  File which should be created
-     *
-     * @throws IOException
+     * Sums the given attribute of all MBeans matching the pattern. Metrics without any sample (NaN) count as zero.
      */
-    private void touch(File file) throws IOException {
-        FileOutputStream out = null;
+    private double sum(String pattern, String attribute) {
+        double total = 0.0D;
+        for (double value : values(pattern, attribute)) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the maximum of the given attribute of all MBeans matching the pattern, or zero if there is none.
+     * Metrics without any sample (NaN) count as zero.
+     */
+    private double max(String pattern, String attribute) {
+        double max = 0.0D;
+        for (double value : values(pattern, attribute)) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private double[] values(String pattern, String attribute) {
         try {
-            out = new FileOutputStream(file);
-            file.deleteOnExit();
-        } finally {
-            if (out != null) {
-                out.close();
-            }
+            return beanConn.queryNames(new ObjectName(pattern), null).stream()
+                    .mapToDouble(name -> {
+                        try {
+                            Object value = beanConn.getAttribute(name, attribute);
+                            LOGGER.trace("Found metric {} of {} with value {}", attribute, name, value);
+                            return value instanceof Number && !Double.isNaN(((Number) value).doubleValue())
+                                    ? ((Number) value).doubleValue() : 0.0D;
+                        } catch (IOException | JMException e) {
+                            LOGGER.debug("Failed to query JMX metric {} of {}", attribute, name, e);
+                            return 0.0D;
+                        }
+                    })
+                    .filter(Double::isFinite)
+                    .toArray();
+        } catch (IOException | JMException e) {
+            LOGGER.error("Failed to query JMX metrics", e);
+            return new double[0];
+        }
+    }
+
+    private void respond(HttpExchange exchange, Health health, boolean healthy) throws IOException {
+        byte[] body = health.toJson().getBytes(StandardCharsets.UTF_8);
+        LOGGER.trace("Responding to {} with healthy={} {}", exchange.getRequestURI(), healthy, health.toJson());
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(healthy ? 200 : 503, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
         }
     }
 
@@ -204,27 +335,24 @@ public class MirrorMakerAgent {
      * @param agentArgs The agent arguments
      */
     public static void premain(String agentArgs) {
-        String[] args = agentArgs.split(":");
-
-        if (args.length != 4) {
-            LOGGER.error("Unexpected number of arguments ({}): {}", args.length, agentArgs);
-            System.exit(1);
-        } else {
-            File mirrorMakerReadyFile = new File(args[0]);
-            File livenessFile = new File(args[1]);
-
-            if (mirrorMakerReadyFile.exists() && !mirrorMakerReadyFile.delete()) {
-                LOGGER.error("Mirror Maker readiness file already exists and could not be deleted: {}", mirrorMakerReadyFile);
-                System.exit(1);
-            } else if (livenessFile.exists() && !livenessFile.delete()) {
-                LOGGER.error("Liveness file already exists and could not be deleted: {}", livenessFile);
-                System.exit(1);
-            } else {
-                long readinessSleepInterval = Long.parseLong(args[2]) / 2L * 1000L;
-                long livenessSleepInterval = Long.parseLong(args[3]) / 2L * 1000L;
-
-                new MirrorMakerAgent(mirrorMakerReadyFile, livenessFile, readinessSleepInterval, livenessSleepInterval).run();
+        // <port>:<stall timeout in seconds>:<error timeout in seconds>:<maximum error ratio>[:<readiness file>:<liveness file>]
+        String[] args = String.valueOf(agentArgs).trim().split(":");
+        MirrorMakerAgent agent;
+        try {
+            if (args.length != 4 && args.length != 6) {
+                throw new IllegalArgumentException();
             }
+            agent = new MirrorMakerAgent(Integer.parseInt(args[0]),
+                    Long.parseLong(args[1]) * 1_000L,
+                    Long.parseLong(args[2]) * 1_000L,
+                    Double.parseDouble(args[3]),
+                    args.length == 6 ? new File(args[4]) : null,
+                    args.length == 6 ? new File(args[5]) : null);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Unable to parse arguments {}", agentArgs);
+            System.exit(1);
+            return;
         }
+        agent.run();
     }
 }
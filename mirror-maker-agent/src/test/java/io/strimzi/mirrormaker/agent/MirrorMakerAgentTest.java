@@ -0,0 +1,153 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.mirrormaker.agent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MirrorMakerAgentTest {
+
+    private static final long STALL_TIMEOUT_MS = 300_000L;
+    private static final long ERROR_TIMEOUT_MS = 60_000L;
+
+    private long now = 0;
+    private final MirrorMakerAgent agent = new MirrorMakerAgent(0, STALL_TIMEOUT_MS, ERROR_TIMEOUT_MS, 0.1, () -> now);
+
+    private static MirrorMakerAgent.Health health(double recordsLagMax, double recordsConsumedRate, double recordSendRate, double recordErrorRate) {
+        MirrorMakerAgent.Health health = new MirrorMakerAgent.Health();
+        health.producerConnections = 1;
+        health.consumerConnections = 1;
+        health.recordsLagMax = recordsLagMax;
+        health.recordsConsumedRate = recordsConsumedRate;
+        health.recordSendRate = recordSendRate;
+        health.recordErrorRate = recordErrorRate;
+        return health;
+    }
+
+    @Test
+    public void testHealthy() {
+        assertThat(agent.isAlive(health(10, 100, 100, 0)), is(true));
+        assertThat(agent.isReady(health(10, 100, 100, 0)), is(true));
+        // Idle without any lag
+        assertThat(agent.isAlive(health(0, 0, 0, 0)), is(true));
+        assertThat(agent.isReady(health(0, 0, 0, 0)), is(true));
+    }
+
+    @Test
+    public void testNotStalledUnderBackpressure() {
+        // The paused consumers consume nothing while the producers still send the buffered records
+        now = STALL_TIMEOUT_MS * 2;
+        assertThat(agent.isAlive(health(1000, 0, 50, 0)), is(true));
+        now += STALL_TIMEOUT_MS * 2;
+        assertThat(agent.isAlive(health(1000, 0, 50, 0)), is(true));
+    }
+
+    @Test
+    public void testNotAliveOnlyOnceStalledForStallTimeout() {
+        MirrorMakerAgent.Health stalled = health(1000, 0, 0, 0);
+
+        // Rebalancing
+        assertThat(agent.isAlive(stalled), is(true));
+        now += STALL_TIMEOUT_MS - 1;
+        assertThat(agent.isAlive(stalled), is(true));
+        assertThat(agent.isReady(stalled), is(true));
+
+        now += 1;
+        assertThat(agent.isAlive(stalled), is(false));
+        assertThat(agent.isReady(stalled), is(false));
+    }
+
+    @Test
+    public void testStallTimeoutIsResetByProgress() {
+        MirrorMakerAgent.Health stalled = health(1000, 0, 0, 0);
+
+        assertThat(agent.isAlive(stalled), is(true));
+        now += STALL_TIMEOUT_MS - 1;
+        assertThat(agent.isAlive(health(1000, 10, 10, 0)), is(true));
+        now += 1;
+        assertThat(agent.isAlive(stalled), is(true));
+        now += STALL_TIMEOUT_MS;
+        assertThat(agent.isAlive(stalled), is(false));
+    }
+
+    @Test
+    public void testReadyDespiteErrorsBelowMaxErrorRatio() {
+        now += ERROR_TIMEOUT_MS * 2;
+        assertThat(agent.isReady(health(10, 100, 100, 5)), is(true));
+        now += ERROR_TIMEOUT_MS * 2;
+        assertThat(agent.isReady(health(10, 100, 100, 5)), is(true));
+    }
+
+    @Test
+    public void testNotReadyOnlyOnceErrorsAboveMaxErrorRatioForErrorTimeout() {
+        MirrorMakerAgent.Health failing = health(10, 100, 50, 50);
+
+        assertThat(agent.isReady(failing), is(true));
+        now += ERROR_TIMEOUT_MS - 1;
+        assertThat(agent.isReady(failing), is(true));
+        now += 1;
+        assertThat(agent.isReady(failing), is(false));
+        // The producer errors do not affect the liveness
+        assertThat(agent.isAlive(failing), is(true));
+
+        assertThat(agent.isReady(health(10, 100, 100, 0)), is(true));
+        assertThat(agent.isReady(failing), is(true));
+    }
+
+    @Test
+    public void testReadyWithoutProducerConnectionsOnlyWhileIdle() {
+        // The producers connect only once there are records to send
+        MirrorMakerAgent.Health idle = health(0, 0, 0, 0);
+        idle.producerConnections = 0;
+        assertThat(agent.isAlive(idle), is(true));
+        assertThat(agent.isReady(idle), is(true));
+
+        MirrorMakerAgent.Health lagging = health(10, 100, 0, 0);
+        lagging.producerConnections = 0;
+        assertThat(agent.isAlive(lagging), is(true));
+        assertThat(agent.isReady(lagging), is(false));
+
+        MirrorMakerAgent.Health failing = health(0, 0, 0, 1);
+        failing.producerConnections = 0;
+        assertThat(agent.isReady(failing), is(false));
+    }
+
+    @Test
+    public void testNotReadyWithoutConsumerConnections() {
+        MirrorMakerAgent.Health disconnected = health(0, 0, 0, 0);
+        disconnected.consumerConnections = 0;
+
+        assertThat(agent.isAlive(disconnected), is(true));
+        assertThat(agent.isReady(disconnected), is(false));
+    }
+
+    @Test
+    public void testPollKeepsFilesForExecProbes(@TempDir File tempDir) {
+        File readinessFile = new File(tempDir, "mirror-maker-ready");
+        File livenessFile = new File(tempDir, "mirror-maker-alive");
+        MirrorMakerAgent agent = new MirrorMakerAgent(0, STALL_TIMEOUT_MS, ERROR_TIMEOUT_MS, 0.1, readinessFile, livenessFile, () -> now);
+
+        agent.poll(health(10, 100, 100, 0));
+        assertThat(readinessFile.exists(), is(true));
+        assertThat(livenessFile.exists(), is(true));
+
+        // The liveness file is deleted by the liveness probe and recreated while Mirror Maker is alive
+        assertThat(livenessFile.delete(), is(true));
+        MirrorMakerAgent.Health stalled = health(1000, 0, 0, 0);
+        agent.poll(stalled);
+        assertThat(livenessFile.exists(), is(true));
+
+        assertThat(livenessFile.delete(), is(true));
+        now += STALL_TIMEOUT_MS;
+        agent.poll(stalled);
+        assertThat(livenessFile.exists(), is(false));
+        assertThat(readinessFile.exists(), is(false));
+    }
+}
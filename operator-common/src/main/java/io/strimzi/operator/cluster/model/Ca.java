@@ -64,6 +64,9 @@ public abstract class Ca {
 
     protected static final Logger log = LogManager.getLogger(Ca.class);
 
+    // The certificates are checked on every reconciliation, so they are parsed only when the Secret changes
+    private static final CertificateCache CERTIFICATE_CACHE = new CertificateCache(4096);
+
     private static final DateTimeFormatter DATE_TIME_FORMATTER = new DateTimeFormatterBuilder()
             .appendValue(YEAR, 4, 10, SignStyle.EXCEEDS_PAD)
             .appendLiteral('-')
@@ -249,29 +252,10 @@ public abstract class Ca {
     }
 
     public CertAndKey addKeyAndCertToKeyStore(String alias, byte[] key, byte[] cert) throws IOException {
-
-        File keyFile = File.createTempFile("tls", "key");
-        File certFile = File.createTempFile("tls", "cert");
-        File keyStoreFile = File.createTempFile("tls", "p12");
-
-        Files.write(keyFile.toPath(), key);
-        Files.write(certFile.toPath(), cert);
-
         String keyStorePassword = passwordGenerator.generate();
-        certManager.addKeyAndCertToKeyStore(keyFile, certFile, alias, keyStoreFile, keyStorePassword);
-
-        CertAndKey result = new CertAndKey(
-                Files.readAllBytes(keyFile.toPath()),
-                Files.readAllBytes(certFile.toPath()),
-                null,
-                Files.readAllBytes(keyStoreFile.toPath()),
-                keyStorePassword);
-
-        delete(keyFile);
-        delete(certFile);
-        delete(keyStoreFile);
+        byte[] keyStore = certManager.addKeyAndCertToKeyStore(key, cert, alias, keyStorePassword);
 
-        return result;
+        return new CertAndKey(key, cert, null, keyStore, keyStorePassword);
     }
 
     /*test*/ CertAndKey generateSignedCert(Subject subject,
@@ -311,11 +295,6 @@ public abstract class Ca {
      * @throws IOException If the cert could not be generated.
      */
     public CertAndKey generateSignedCert(String commonName, String organization) throws IOException {
-        File csrFile = File.createTempFile("tls", "csr");
-        File keyFile = File.createTempFile("tls", "key");
-        File certFile = File.createTempFile("tls", "cert");
-        File keyStoreFile = File.createTempFile("tls", "p12");
-
         Subject subject = new Subject();
 
         if (organization != null) {
@@ -324,14 +303,23 @@ public abstract class Ca {
 
         subject.setCommonName(commonName);
 
-        CertAndKey result = generateSignedCert(subject,
-                csrFile, keyFile, certFile, keyStoreFile);
+        return generateSignedCert(subject);
+    }
 
-        delete(csrFile);
-        delete(keyFile);
-        delete(certFile);
-        delete(keyStoreFile);
-        return result;
+    private CertAndKey generateSignedCert(Subject subject) throws IOException {
+        File csrFile = File.createTempFile("tls", "csr");
+        File keyFile = File.createTempFile("tls", "key");
+        File certFile = File.createTempFile("tls", "cert");
+        File keyStoreFile = File.createTempFile("tls", "p12");
+
+        try {
+            return generateSignedCert(subject, csrFile, keyFile, certFile, keyStoreFile);
+        } finally {
+            delete(csrFile);
+            delete(keyFile);
+            delete(certFile);
+            delete(keyStoreFile);
+        }
     }
 
     /**
@@ -347,11 +335,6 @@ public abstract class Ca {
         int replicasInSecret = secret == null || this.certRenewed() ? 0 :
                 (int) secret.getData().keySet().stream().filter(k -> k.contains(".crt")).count();
 
-        File brokerCsrFile = File.createTempFile("tls", "broker-csr");
-        File brokerKeyFile = File.createTempFile("tls", "broker-key");
-        File brokerCertFile = File.createTempFile("tls", "broker-cert");
-        File brokerKeyStoreFile = File.createTempFile("tls", "broker-p12");
-
         Map<String, CertAndKey> certs = new HashMap<>();
         // copying the minimum number of certificates already existing in the secret
         // scale up -> it will copy all certificates
@@ -379,7 +362,7 @@ public abstract class Ca {
 
             List<String> reasons = new ArrayList<>(2);
 
-            if (certSubjectChanged(certAndKey, subject, podName))   {
+            if (certSubjectChanged(secret, podName + ".crt", subject, podName))   {
                 reasons.add("DNS names changed");
             }
 
@@ -390,7 +373,7 @@ public abstract class Ca {
             if (!reasons.isEmpty())  {
                 log.debug("Certificate for pod {} need to be regenerated because:", podName, String.join(", ", reasons));
 
-                CertAndKey newCertAndKey = generateSignedCert(subject, brokerCsrFile, brokerKeyFile, brokerCertFile, brokerKeyStoreFile);
+                CertAndKey newCertAndKey = generateSignedCert(subject);
                 certs.put(podName, newCertAndKey);
             }   else {
                 certs.put(podName, certAndKey);
@@ -404,14 +387,9 @@ public abstract class Ca {
             String podName = podNameFn.apply(i);
 
             log.debug("Certificate for {} to generate", podName);
-            CertAndKey k = generateSignedCert(subjectFn.apply(i),
-                    brokerCsrFile, brokerKeyFile, brokerCertFile, brokerKeyStoreFile);
+            CertAndKey k = generateSignedCert(subjectFn.apply(i));
             certs.put(podName, k);
         }
-        delete(brokerCsrFile);
-        delete(brokerKeyFile);
-        delete(brokerCertFile);
-        delete(brokerKeyStoreFile);
 
         return certs;
     }
@@ -446,8 +424,37 @@ public abstract class Ca {
      * @return  True if the subjects are different, false otherwise
      */
     /*test*/ boolean certSubjectChanged(CertAndKey certAndKey, Subject desiredSubject, String podName)    {
+        return altNamesChanged(getSubjectAltNames(certAndKey.cert()), desiredSubject, podName);
+    }
+
+    /**
+     * Checks whether subject alternate names changed and certificate needs a renewal. The certificate is parsed only
+     * once per version of the Secret, see {@link #cert(Secret, String)}.
+     *
+     * @param secret    Secret with the current certificate
+     * @param certKey   Key under which is the current certificate stored
+     * @param desiredSubject    Desired subject alternate names
+     * @param podName   Name of the pod to which this certificate belongs (used for log messages)
+     * @return  True if the subjects are different, false otherwise
+     */
+    private boolean certSubjectChanged(Secret secret, String certKey, Subject desiredSubject, String podName)    {
+        List<String> currentAltNames = null;
+
+        try {
+            X509Certificate currentCert = cert(secret, certKey);
+            if (currentCert != null) {
+                currentAltNames = getSubjectAltNames(currentCert);
+            }
+        } catch (CertificateException | RuntimeException e) {
+            // TODO: We should mock the certificates properly so that this doesn't fail in tests (not now => long term :-o)
+            log.debug("Failed to parse existing certificate", e);
+        }
+
+        return altNamesChanged(currentAltNames, desiredSubject, podName);
+    }
+
+    private boolean altNamesChanged(Collection<String> currentAltNames, Subject desiredSubject, String podName)    {
         Collection<String> desiredAltNames = desiredSubject.subjectAltNames().values();
-        Collection<String> currentAltNames = getSubjectAltNames(certAndKey.cert());
 
         if (currentAltNames != null && desiredAltNames.containsAll(currentAltNames) && currentAltNames.containsAll(desiredAltNames))   {
             log.trace("Alternate subjects match. No need to refresh cert for pod {}.", podName);
@@ -468,12 +475,7 @@ public abstract class Ca {
         List<String> subjectAltNames = null;
 
         try {
-            X509Certificate cert = x509Certificate(certificate);
-            Collection<List<?>> altNames = cert.getSubjectAlternativeNames();
-            subjectAltNames = altNames.stream()
-                    .filter(name -> name.get(1) instanceof String)
-                    .map(item -> (String) item.get(1))
-                    .collect(Collectors.toList());
+            subjectAltNames = getSubjectAltNames(x509Certificate(certificate));
         } catch (CertificateException | RuntimeException e) {
             // TODO: We should mock the certificates properly so that this doesn't fail in tests (not now => long term :-o)
             log.debug("Failed to parse existing certificate", e);
@@ -482,6 +484,14 @@ public abstract class Ca {
         return subjectAltNames;
     }
 
+    private static List<String> getSubjectAltNames(X509Certificate cert) throws CertificateException {
+        Collection<List<?>> altNames = cert.getSubjectAlternativeNames();
+        return altNames.stream()
+                .filter(name -> name.get(1) instanceof String)
+                .map(item -> (String) item.get(1))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Create the CA {@code Secrets} if they don't exist, otherwise if within the renewal period then either renew the CA cert
      * or replace the CA cert and key, according to the configured policy.
@@ -746,7 +756,7 @@ public abstract class Ca {
             String certText = entry.getValue();
             boolean remove = false;
             try {
-                X509Certificate cert = x509Certificate(Base64.getDecoder().decode(certText));
+                X509Certificate cert = CERTIFICATE_CACHE.x509Certificate(caCertSecret, certName, certText);
                 Instant expiryDate = cert.getNotAfter().toInstant();
                 remove = expiryDate.isBefore(Instant.now());
                 if (remove) {
@@ -773,15 +783,9 @@ public abstract class Ca {
         if (removed.size() > 0) {
             // the certificates removed from the Secret data has tobe removed from the store as well
             try {
-                File trustStoreFile = File.createTempFile("tls", "-truststore");
-                Files.write(trustStoreFile.toPath(), Base64.getDecoder().decode(newData.get(CA_STORE)));
-                try {
-                    String trustStorePassword = new String(Base64.getDecoder().decode(newData.get(CA_STORE_PASSWORD)), StandardCharsets.US_ASCII);
-                    certManager.deleteFromTrustStore(removed, trustStoreFile, trustStorePassword);
-                    newData.put(CA_STORE, Base64.getEncoder().encodeToString(Files.readAllBytes(trustStoreFile.toPath())));
-                } finally {
-                    delete(trustStoreFile);
-                }
+                String trustStorePassword = new String(Base64.getDecoder().decode(newData.get(CA_STORE_PASSWORD)), StandardCharsets.US_ASCII);
+                byte[] trustStore = certManager.deleteFromTrustStore(removed, Base64.getDecoder().decode(newData.get(CA_STORE)), trustStorePassword);
+                newData.put(CA_STORE, Base64.getEncoder().encodeToString(trustStore));
             } catch (IOException | CertificateException | KeyStoreException | NoSuchAlgorithmException e) {
                 throw new RuntimeException(e);
             }
@@ -812,10 +816,8 @@ public abstract class Ca {
         if (secret == null || secret.getData() == null || secret.getData().get(key) == null) {
             return null;
         }
-        Base64.Decoder decoder = Base64.getDecoder();
-        byte[] bytes = decoder.decode(secret.getData().get(key));
         try {
-            return x509Certificate(bytes);
+            return CERTIFICATE_CACHE.x509Certificate(secret, key, secret.getData().get(key));
         } catch (CertificateException e) {
             throw new RuntimeException("Failed to decode certificate in data." + key.replace(".", "\\.") + " of Secret " + secret.getMetadata().getName(), e);
         }
@@ -847,27 +849,13 @@ public abstract class Ca {
 
     private void addCertCaToTrustStore(String alias, Map<String, String> certData) {
         try {
-            File certFile = File.createTempFile("tls", "-cert");
-            Files.write(certFile.toPath(), Base64.getDecoder().decode(certData.get(CA_CRT)));
-            try {
-                File trustStoreFile = File.createTempFile("tls", "-truststore");
-                if (certData.containsKey(CA_STORE)) {
-                    Files.write(trustStoreFile.toPath(), Base64.getDecoder().decode(certData.get(CA_STORE)));
-                }
-                try {
-                    String trustStorePassword = certData.containsKey(CA_STORE_PASSWORD) ?
-                            new String(Base64.getDecoder().decode(certData.get(CA_STORE_PASSWORD)), StandardCharsets.US_ASCII) :
-                            passwordGenerator.generate();
-                    certManager.addCertToTrustStore(certFile, alias, trustStoreFile, trustStorePassword);
-                    certData.put(CA_STORE, Base64.getEncoder().encodeToString(Files.readAllBytes(trustStoreFile.toPath())));
-                    certData.put(CA_STORE_PASSWORD, Base64.getEncoder().encodeToString(trustStorePassword.getBytes(StandardCharsets.US_ASCII)));
-                } finally {
-                    delete(trustStoreFile);
-                }
-            } finally {
-                delete(certFile);
-            }
-
+            byte[] trustStore = certData.containsKey(CA_STORE) ? Base64.getDecoder().decode(certData.get(CA_STORE)) : null;
+            String trustStorePassword = certData.containsKey(CA_STORE_PASSWORD) ?
+                    new String(Base64.getDecoder().decode(certData.get(CA_STORE_PASSWORD)), StandardCharsets.US_ASCII) :
+                    passwordGenerator.generate();
+            trustStore = certManager.addCertToTrustStore(Base64.getDecoder().decode(certData.get(CA_CRT)), alias, trustStore, trustStorePassword);
+            certData.put(CA_STORE, Base64.getEncoder().encodeToString(trustStore));
+            certData.put(CA_STORE_PASSWORD, Base64.getEncoder().encodeToString(trustStorePassword.getBytes(StandardCharsets.US_ASCII)));
         } catch (IOException | CertificateException | KeyStoreException | NoSuchAlgorithmException e) {
             throw new RuntimeException(e);
         }
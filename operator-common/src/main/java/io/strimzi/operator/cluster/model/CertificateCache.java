@@ -0,0 +1,100 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Secret;
+
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the X509 certificates parsed from Secrets.
+ *
+ * The certificates are keyed by the uid and {@code metadata.resourceVersion} of the Secret and by the key under
+ * which they are stored in its data. The cached certificate is used only when the data did not change, so Secrets
+ * which were modified locally (or built without going through the Kubernetes API) never get a stale certificate.
+ * Secrets without uid or resource version are never cached.
+ */
+class CertificateCache {
+    private final Map<String, Entry> entries;
+
+    /**
+     * @param maxEntries The maximum number of cached certificates
+     */
+    CertificateCache(int maxEntries) {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed certificate stored in the Secret. The failures are not cached.
+     *
+     * @param secret The Secret the certificate belongs to
+     * @param key The key under which the certificate is stored in the data of the Secret
+     * @param data The base64 encoded certificate
+     *
+     * @return  The certificate
+     *
+     * @throws CertificateException When the data is not an X509 certificate
+     */
+    X509Certificate x509Certificate(Secret secret, String key, String data) throws CertificateException {
+        String cacheKey = cacheKey(secret, key);
+
+        if (cacheKey != null) {
+            synchronized (entries) {
+                Entry entry = entries.get(cacheKey);
+                if (entry != null && entry.data.equals(data)) {
+                    return entry.certificate;
+                }
+            }
+        }
+
+        X509Certificate certificate = Ca.x509Certificate(Base64.getDecoder().decode(data));
+
+        if (cacheKey != null) {
+            synchronized (entries) {
+                entries.put(cacheKey, new Entry(data, certificate));
+            }
+        }
+
+        return certificate;
+    }
+
+    /**
+     * @return  The number of cached certificates
+     */
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String cacheKey(Secret secret, String key) {
+        ObjectMeta metadata = secret != null ? secret.getMetadata() : null;
+        if (metadata == null || metadata.getUid() == null || metadata.getResourceVersion() == null) {
+            return null;
+        }
+
+        return metadata.getUid() + "/" + metadata.getResourceVersion() + "/" + key;
+    }
+
+    private static final class Entry {
+        private final String data;
+        private final X509Certificate certificate;
+
+        private Entry(String data, X509Certificate certificate) {
+            this.data = data;
+            this.certificate = certificate;
+        }
+    }
+}
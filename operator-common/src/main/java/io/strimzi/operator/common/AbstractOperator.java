@@ -26,6 +26,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static io.strimzi.operator.common.Util.async;
@@ -58,6 +59,7 @@ public abstract class AbstractOperator<
     protected final Vertx vertx;
     protected final S resourceOperator;
     private final String kind;
+    private volatile ResourceOwnership ownership = ResourceOwnership.ALL;
 
     public AbstractOperator(Vertx vertx, String kind, S resourceOperator) {
         this.vertx = vertx;
@@ -70,6 +72,54 @@ public abstract class AbstractOperator<
         return kind;
     }
 
+    /**
+     * Sets the ownership deciding which resources are reconciled by this operator instance. This is used when the
+     * resources are sharded across several operator replicas. Resources which are not owned are ignored.
+     * By default all resources are reconciled.
+     *
+     * @param ownership The ownership of the resources by this operator instance
+     */
+    public void setOwnership(ResourceOwnership ownership) {
+        this.ownership = ownership;
+    }
+
+    /**
+     * Checks whether the resource is owned by this operator instance.
+     *
+     * @param namespace Namespace of the resource
+     * @param name Name of the resource
+     *
+     * @return True if this operator instance should reconcile the resource
+     */
+    protected boolean isOwned(String namespace, String name) {
+        return ownership.isOwned(new NamespaceAndName(namespace, name));
+    }
+
+    /**
+     * Calls the given action only if the resource of the reconciliation is owned by this operator instance, and keeps
+     * the reconciliation marked as in progress until the Future returned by the action completes. It should be called
+     * with the lock held, so that the ownership is checked again after waiting for the lock.
+     *
+     * @param reconciliation The reconciliation
+     * @param action Supplier which starts the action
+     * @param <R> The type of the result of the action
+     *
+     * @return A Future which completes with the result of the action, or with null if the resource is not owned
+     */
+    protected final <R> Future<R> withOwnership(Reconciliation reconciliation, Supplier<Future<R>> action) {
+        if (!ownership.acquire(reconciliation)) {
+            log.debug("{}: {} {} is owned by another operator replica, skipping reconciliation", reconciliation, kind, reconciliation.name());
+            return Future.succeededFuture();
+        }
+
+        Promise<R> result = Promise.promise();
+        Future.<Void>succeededFuture().compose(ignored -> action.get()).setHandler(res -> {
+            ownership.release(reconciliation);
+            result.handle(res);
+        });
+        return result.future();
+    }
+
     /**
      * Gets the name of the lock to be used for operating on the given {@code namespace} and
      * cluster {@code name}
@@ -115,7 +165,13 @@ public abstract class AbstractOperator<
     public final Future<Void> reconcile(Reconciliation reconciliation) {
         String namespace = reconciliation.namespace();
         String name = reconciliation.name();
-        Future<Void> handler = withLock(reconciliation, LOCK_TIMEOUT_MS, () -> {
+
+        if (!isOwned(namespace, name)) {
+            log.debug("{}: {} {} is owned by another operator replica, skipping reconciliation", reconciliation, kind, name);
+            return Future.succeededFuture();
+        }
+
+        Future<Void> handler = limitConcurrency(() -> withLock(reconciliation, LOCK_TIMEOUT_MS, () -> withOwnership(reconciliation, () -> {
             T cr = resourceOperator.get(namespace, name);
             if (cr != null) {
                 validate(cr);
@@ -138,7 +194,7 @@ public abstract class AbstractOperator<
                     return Future.failedFuture(deleteResult);
                 });
             }
-        });
+        })));
         Promise<Void> result = Promise.promise();
         handler.setHandler(reconcileResult -> {
             handleResult(reconciliation, reconcileResult);
@@ -147,6 +203,20 @@ public abstract class AbstractOperator<
         return result.future();
     }
 
+    /**
+     * Starts the reconciliation of a single resource, including the acquisition of its lock.
+     * Operators which bound the number of reconciliations running at the same time override this method, so that
+     * the reconciliations waiting for their turn do not hold their locks.
+     *
+     * @param reconciliation Supplier which starts the reconciliation
+     * @param <R> The type of the result of the reconciliation
+     *
+     * @return A Future which completes with the result of the reconciliation
+     */
+    protected <R> Future<R> limitConcurrency(Supplier<Future<R>> reconciliation) {
+        return reconciliation.get();
+    }
+
     /**
      * The exception by which Futures returned by {@link #withLock(Reconciliation, long, Callable)} are failed when
      * the lock cannot be acquired within the timeout.
@@ -164,10 +234,22 @@ public abstract class AbstractOperator<
      * @return
      */
     protected final <T> Future<T> withLock(Reconciliation reconciliation, long lockTimeoutMs, Callable<Future<T>> callable) {
+        return withLock(reconciliation, getLockName(reconciliation.namespace(), reconciliation.name()), lockTimeoutMs, callable);
+    }
+
+    /**
+     * Acquire the lock with the given {@code lockName} and call the given {@code callable} with the lock held.
+     * This can be used by operators which need finer grained locking than one lock per resource implied by the
+     * {@code reconciliation}. Otherwise it behaves the same as {@link #withLock(Reconciliation, long, Callable)}.
+     * @param reconciliation The reconciliation
+     * @param lockName The name of the lock
+     * @param lockTimeoutMs The timeout for acquiring the lock
+     * @param callable The callable to call with the lock held
+     * @param <T> The type of the result of the callable
+     * @return A Future which completes with the result of the callable
+     */
+    protected final <T> Future<T> withLock(Reconciliation reconciliation, String lockName, long lockTimeoutMs, Callable<Future<T>> callable) {
         Promise<T> handler = Promise.promise();
-        String namespace = reconciliation.namespace();
-        String name = reconciliation.name();
-        final String lockName = getLockName(namespace, name);
         vertx.sharedData().getLockWithTimeout(lockName, lockTimeoutMs, res -> {
             if (res.succeeded()) {
                 log.debug("{}: Lock {} acquired", reconciliation, lockName);
@@ -239,6 +321,35 @@ public abstract class AbstractOperator<
         return async(vertx, () -> resourceOperator.watch(namespace, selector(), new OperatorWatcher<>(this, namespace, onClose)));
     }
 
+    /**
+     * Create a single Kubernetes watch in all namespaces which reconciles only the resources from the given namespaces.
+     * This avoids opening a separate watch in each of the namespaces.
+     *
+     * @param namespaces Namespaces where to watch for resources.
+     * @param onClose Callback called when the watch is closed.
+     *
+     * @return A future which completes when the watcher has been created.
+     */
+    public Future<Watch> createWatch(Set<String> namespaces, Consumer<KubernetesClientException> onClose) {
+        return async(vertx, () -> resourceOperator.watch(AbstractWatchableResourceOperator.ANY_NAMESPACE, selector(),
+                new OperatorWatcher<>(this, AbstractWatchableResourceOperator.ANY_NAMESPACE, namespaces::contains, onClose)));
+    }
+
+    public Consumer<KubernetesClientException> recreateWatch(Set<String> namespaces) {
+        Consumer<KubernetesClientException> kubernetesClientExceptionConsumer = new Consumer<KubernetesClientException>() {
+            @Override
+            public void accept(KubernetesClientException e) {
+                if (e != null) {
+                    log.error("Watcher closed with exception in namespaces {}", namespaces, e);
+                    createWatch(namespaces, this);
+                } else {
+                    log.info("Watcher closed in namespaces {}", namespaces);
+                }
+            }
+        };
+        return kubernetesClientExceptionConsumer;
+    }
+
     public Consumer<KubernetesClientException> recreateWatch(String namespace) {
         Consumer<KubernetesClientException> kubernetesClientExceptionConsumer = new Consumer<KubernetesClientException>() {
             @Override
@@ -0,0 +1,117 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of asynchronous operations which are running at the same time.
+ * Operations submitted while the limit is reached are queued and started in FIFO order
+ * once some of the running operations complete.
+ */
+public class ConcurrencyLimiter {
+    private final Vertx vertx;
+    private final int maxConcurrency;
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+    private int running = 0;
+
+    /**
+     * @param vertx The Vertx instance used to start the queued operations
+     * @param maxConcurrency The maximal number of operations running at the same time
+     */
+    public ConcurrencyLimiter(Vertx vertx, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The maximal concurrency has to be at least 1");
+        }
+
+        this.vertx = vertx;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Runs the operation as soon as the number of running operations is under the limit.
+     *
+     * @param operation Supplier which starts the operation
+     * @param <T> The type of the result of the operation
+     *
+     * @return A Future which completes with the result of the operation
+     */
+    public <T> Future<T> execute(Supplier<Future<T>> operation) {
+        Promise<T> result = Promise.promise();
+        Runnable task = () -> {
+            Future<T> future;
+            try {
+                future = operation.get();
+            } catch (Throwable t) {
+                future = Future.failedFuture(t);
+            }
+
+            future.setHandler(res -> {
+                release();
+                result.handle(res);
+            });
+        };
+
+        boolean runNow;
+        synchronized (this) {
+            runNow = running < maxConcurrency;
+
+            if (runNow) {
+                running++;
+            } else {
+                queue.add(task);
+            }
+        }
+
+        if (runNow) {
+            task.run();
+        }
+
+        return result.future();
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = queue.poll();
+
+            if (next == null) {
+                running--;
+            }
+        }
+
+        if (next != null) {
+            // Start the next operation asynchronously to avoid deep recursion when operations complete immediately
+            vertx.runOnContext(ignored -> next.run());
+        }
+    }
+
+    /**
+     * @return The maximal number of operations running at the same time
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return The number of currently running operations
+     */
+    public synchronized int running() {
+        return running;
+    }
+
+    /**
+     * @return The number of operations waiting to be started
+     */
+    public synchronized int queued() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Consistent hash ring which assigns keys to a set of members.
+ * Each member is placed on the ring several times (virtual nodes) to spread the keys evenly.
+ * When a member joins or leaves the ring, only the keys of that member move to a different member.
+ * The assignment depends only on the set of members, so all the parties which know the same set of members
+ * agree on the owner of each key.
+ */
+public class ConsistentHashRing {
+    public static final int DEFAULT_VIRTUAL_NODES = 100;
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+    private final SortedSet<String> members;
+
+    /**
+     * Creates the hash ring with {@link #DEFAULT_VIRTUAL_NODES} virtual nodes per member.
+     *
+     * @param members The members of the ring
+     */
+    public ConsistentHashRing(Collection<String> members) {
+        this(members, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * @param members The members of the ring
+     * @param virtualNodes Number of virtual nodes per member
+     */
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("The number of virtual nodes has to be at least 1");
+        }
+
+        this.members = Collections.unmodifiableSortedSet(new TreeSet<>(members));
+
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * Returns the member owning the key
+     *
+     * @param key The key
+     *
+     * @return The member owning the key or null if the ring has no members
+     */
+    public String owner(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * @return The members of the ring
+     */
+    public Set<String> members() {
+        return members;
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            // MD5 has to be supported by every Java platform
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConsistentHashRing(members=" + members + ")";
+    }
+}
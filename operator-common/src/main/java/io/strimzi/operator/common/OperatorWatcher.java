@@ -11,6 +11,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * The fabric8 Watcher used to trigger reconciliation of an {@link Operator}.
@@ -18,12 +19,24 @@ import java.util.function.Consumer;
  */
 class OperatorWatcher<T extends HasMetadata> implements Watcher<T> {
     private final String namespace;
+    private final Predicate<String> namespaceFilter;
     private final Consumer<KubernetesClientException> onClose;
     private Operator operator;
     private static final Logger log = LogManager.getLogger(OperatorWatcher.class);
 
     OperatorWatcher(Operator operator, String namespace, Consumer<KubernetesClientException> onClose) {
+        this(operator, namespace, ns -> true, onClose);
+    }
+
+    /**
+     * @param operator The operator which should reconcile the resources
+     * @param namespace The watched namespace or {@code *} for all namespaces
+     * @param namespaceFilter Events of resources from namespaces not matching this filter are ignored
+     * @param onClose Callback called when the watch is closed
+     */
+    OperatorWatcher(Operator operator, String namespace, Predicate<String> namespaceFilter, Consumer<KubernetesClientException> onClose) {
         this.namespace = namespace;
+        this.namespaceFilter = namespaceFilter;
         this.onClose = onClose;
         this.operator = operator;
     }
@@ -32,6 +45,10 @@ class OperatorWatcher<T extends HasMetadata> implements Watcher<T> {
     public void eventReceived(Action action, T resource) {
         String name = resource.getMetadata().getName();
         String namespace = resource.getMetadata().getNamespace();
+        if (namespace != null && !namespaceFilter.test(namespace)) {
+            log.trace("Ignoring {} of {} {} in namespace {} which is not watched", action, operator.kind(), name, namespace);
+            return;
+        }
         switch (action) {
             case ADDED:
             case DELETED:
@@ -22,6 +22,7 @@ public class Reconciliation {
     private final String namespace;
     private final String name;
     private final int id;
+    private volatile boolean cancelled = false;
 
     public Reconciliation(String trigger, String kind, String namespace, String assemblyName) {
         this.trigger = trigger;
@@ -43,6 +44,18 @@ public class Reconciliation {
         return name;
     }
 
+    /**
+     * Asks the reconciliation to stop. The long running steps of the reconciliation, such as rolling updates, check
+     * {@link #isCancelled()} before each of their iterations and fail with {@link ReconciliationCancelledException}.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
     public String toString() {
         return "Reconciliation #" + id + "(" + trigger + ") " + kind() + "(" + namespace() + "/" + name() + ")";
     }
@@ -0,0 +1,16 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+/**
+ * Represents an exception raised when a long running step of a reconciliation stops because the reconciliation
+ * was {@linkplain Reconciliation#cancel() cancelled}.
+ */
+public class ReconciliationCancelledException extends RuntimeException {
+
+    public ReconciliationCancelledException(Reconciliation reconciliation) {
+        super(reconciliation + " was cancelled");
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.strimzi.operator.common.model.NamespaceAndName;
+
+/**
+ * Decides which resources are reconciled by this operator instance when the resources are sharded across several
+ * operator replicas. It also keeps track of the reconciliations in progress, so that a resource can be handed over to
+ * another replica only once its previous owner is done with it.
+ */
+public interface ResourceOwnership {
+
+    /**
+     * Owns all the resources. Used when the resources are not sharded.
+     */
+    ResourceOwnership ALL = new ResourceOwnership() {
+        @Override
+        public boolean isOwned(NamespaceAndName resource) {
+            return true;
+        }
+
+        @Override
+        public boolean acquire(Reconciliation reconciliation) {
+            return true;
+        }
+
+        @Override
+        public void release(Reconciliation reconciliation) {
+        }
+    };
+
+    /**
+     * @param resource The custom resource
+     *
+     * @return  True if the resource should be reconciled by this operator instance
+     */
+    boolean isOwned(NamespaceAndName resource);
+
+    /**
+     * Checks that the resource of the reconciliation is owned by this operator instance and marks the reconciliation
+     * as in progress. The reconciliation might be {@linkplain Reconciliation#cancel() cancelled} when the resource is
+     * handed over to another replica before it is {@linkplain #release(Reconciliation) released}.
+     *
+     * @param reconciliation The reconciliation which is about to start
+     *
+     * @return  True if the reconciliation can proceed
+     */
+    boolean acquire(Reconciliation reconciliation);
+
+    /**
+     * Marks the reconciliation as finished.
+     *
+     * @param reconciliation A reconciliation which was successfully {@linkplain #acquire(Reconciliation) acquired}
+     */
+    void release(Reconciliation reconciliation);
+}
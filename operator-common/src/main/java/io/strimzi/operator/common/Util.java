@@ -59,7 +59,7 @@ public class Util {
         Handler<Long> handler = new Handler<Long>() {
             @Override
             public void handle(Long timerId) {
-                vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+                WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
                     future -> {
                         try {
                             if (ready.getAsBoolean())   {
@@ -0,0 +1,180 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the worker pools used for the blocking calls of the operators. Each backend has its own bounded pool,
+ * so a slow backend (e.g. an unresponsive ZooKeeper) cannot use up the threads needed for the calls to the others.
+ *
+ * Vert.x shares the worker pools by their name and keeps the size of the pool which was created first. The pools
+ * should therefore always be obtained from this class, so that they have the configured size no matter which code
+ * uses them first. The sizes have to be configured before the pools are used for the first time.
+ *
+ * When the Vert.x metrics are enabled, the queue size, the time the tasks wait in the queue and the number of threads
+ * in use are exported for each pool (the {@code vertx_pool_*} metrics with the {@code pool_name} label).
+ */
+public class WorkerPools {
+    /**
+     * Pool for the calls to the Kubernetes API
+     */
+    public static final String KUBERNETES = "kubernetes-ops-pool";
+
+    /**
+     * Pool for the calls to ZooKeeper
+     */
+    public static final String ZOOKEEPER = "zookeeper-ops-pool";
+
+    /**
+     * Pool for the blocking calls of the Kafka Admin API
+     */
+    public static final String KAFKA_ADMIN = "kafka-admin-ops-pool";
+
+    /**
+     * Pool for the generation of keys and certificates
+     */
+    public static final String CERTIFICATES = "certificate-ops-pool";
+
+    /**
+     * Pool for computing the proposals of the partition rebalancing
+     */
+    public static final String REBALANCE = "rebalance-ops-pool";
+
+    /**
+     * The maximum time a task can run in any of the pools before Vert.x warns about the blocked thread
+     */
+    public static final long MAX_EXECUTE_TIME_NS = TimeUnit.SECONDS.toNanos(120);
+
+    private static final Map<String, Integer> DEFAULT_SIZES;
+
+    static {
+        Map<String, Integer> sizes = new LinkedHashMap<>(5);
+        sizes.put(KUBERNETES, 20);
+        sizes.put(ZOOKEEPER, 10);
+        sizes.put(KAFKA_ADMIN, 5);
+        sizes.put(CERTIFICATES, 4);
+        sizes.put(REBALANCE, 2);
+        DEFAULT_SIZES = Collections.unmodifiableMap(sizes);
+    }
+
+    private static final Map<String, Integer> SIZES = new ConcurrentHashMap<>(DEFAULT_SIZES);
+
+    private WorkerPools() { }
+
+    /**
+     * @return  The names of all pools with their default sizes
+     */
+    public static Map<String, Integer> defaultSizes() {
+        return DEFAULT_SIZES;
+    }
+
+    /**
+     * Returns the environment variable which configures the size of the pool (e.g.
+     * {@code STRIMZI_KUBERNETES_OPS_POOL_SIZE} for the {@code kubernetes-ops-pool}).
+     *
+     * @param pool The name of the pool
+     *
+     * @return  The name of the environment variable
+     */
+    public static String sizeEnvVar(String pool) {
+        return "STRIMZI_" + pool.toUpperCase(Locale.ENGLISH).replace('-', '_') + "_SIZE";
+    }
+
+    /**
+     * Parses the sizes of the pools from the environment variables. The pools without the environment variable
+     * have their default size.
+     *
+     * @param map The environment variables
+     *
+     * @return  The sizes of all pools keyed by their names
+     *
+     * @throws InvalidConfigurationException When the size is not a positive number
+     */
+    public static Map<String, Integer> sizesFromMap(Map<String, String> map) {
+        Map<String, Integer> sizes = new LinkedHashMap<>(DEFAULT_SIZES);
+
+        for (String pool : DEFAULT_SIZES.keySet()) {
+            String envVar = sizeEnvVar(pool);
+            String value = map.get(envVar);
+
+            if (value != null) {
+                int size;
+                try {
+                    size = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    throw new InvalidConfigurationException("Failed to parse. Value " + value + " is not valid", e);
+                }
+
+                if (size <= 0) {
+                    throw new InvalidConfigurationException(envVar + " must be a positive number");
+                }
+
+                sizes.put(pool, size);
+            }
+        }
+
+        return sizes;
+    }
+
+    /**
+     * Configures the sizes of the pools. It has to be called before the pools are used for the first time.
+     *
+     * @param sizes The sizes keyed by the names of the pools
+     */
+    public static void configure(Map<String, Integer> sizes) {
+        Map<String, Integer> validated = new HashMap<>(sizes.size());
+
+        for (Map.Entry<String, Integer> size : sizes.entrySet()) {
+            checkPool(size.getKey());
+
+            if (size.getValue() == null || size.getValue() <= 0) {
+                throw new IllegalArgumentException("The size of the " + size.getKey() + " has to be positive");
+            }
+
+            validated.put(size.getKey(), size.getValue());
+        }
+
+        SIZES.putAll(validated);
+    }
+
+    /**
+     * @param pool The name of the pool
+     *
+     * @return  The configured size of the pool
+     */
+    public static int size(String pool) {
+        checkPool(pool);
+        return SIZES.get(pool);
+    }
+
+    /**
+     * Returns the shared executor of the pool, creating the pool with the configured size when it does not exist yet.
+     * The executor should not be closed, since it is shared by all its users.
+     *
+     * @param vertx The Vertx instance
+     * @param pool The name of the pool
+     *
+     * @return  The executor of the pool
+     */
+    public static WorkerExecutor executor(Vertx vertx, String pool) {
+        return vertx.createSharedWorkerExecutor(pool, size(pool), MAX_EXECUTE_TIME_NS);
+    }
+
+    private static void checkPool(String pool) {
+        if (!DEFAULT_SIZES.containsKey(pool)) {
+            throw new IllegalArgumentException("Unknown worker pool " + pool);
+        }
+    }
+}
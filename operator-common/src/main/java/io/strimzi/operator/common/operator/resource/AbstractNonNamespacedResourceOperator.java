@@ -13,6 +13,7 @@ import io.fabric8.kubernetes.client.dsl.FilterWatchListMultiDeletable;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
@@ -90,7 +91,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
         }
 
         Promise<ReconcileResult<T>> promise = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
             future -> {
                 T current = operation().withName(name).get();
                 if (desired != null) {
@@ -226,7 +227,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
      */
     public Future<T> getAsync(String name) {
         Promise<T> result = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
             future -> {
                 T resource = get(name);
                 future.complete(resource);
@@ -251,7 +252,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
      */
     public Future<List<T>> listAsync(Labels selector) {
         Promise<List<T>> result = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
             future -> {
                 List<T> resource = list(selector);
                 future.complete(resource);
@@ -4,10 +4,17 @@
  */
 package io.strimzi.operator.common.operator.resource;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.api.model.FieldsV1;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.api.model.LabelSelector;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntry;
+import io.fabric8.kubernetes.api.model.StatusCause;
+import io.fabric8.kubernetes.client.HttpClientAware;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
@@ -15,19 +22,38 @@ import io.fabric8.kubernetes.client.dsl.FilterWatchListMultiDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.base.OperationSupport;
+import io.fabric8.kubernetes.client.utils.Serialization;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
 
 /**
  * Abstract resource creation, for a generic resource type {@code R}.
@@ -42,10 +68,22 @@ import java.util.function.BiPredicate;
 public abstract class AbstractResourceOperator<C extends KubernetesClient, T extends HasMetadata,
         L extends KubernetesResourceList/*<T>*/, D, R extends Resource<T, D>> {
 
+    private static final MediaType APPLY_PATCH = MediaType.parse("application/apply-patch+yaml");
+    private static final MediaType JSON_PATCH = MediaType.parse("application/json-patch+json");
+    private static final List<String> SERVER_POPULATED_METADATA = asList("managedFields", "resourceVersion", "uid",
+            "creationTimestamp", "generation", "selfLink", "deletionTimestamp", "deletionGracePeriodSeconds");
+
+    /**
+     * The field manager derived by the API server from the user agent of the fabric8 client. It owns the fields set by
+     * the JSON patches, which were used before server-side apply was enabled.
+     */
+    /* test */ static final String LEGACY_FIELD_MANAGER = "fabric8-kubernetes-client";
+
     protected final Logger log = LogManager.getLogger(getClass());
     protected final Vertx vertx;
     protected final C client;
     protected final String resourceKind;
+    private volatile String fieldManager;
 
     /**
      * Constructor.
@@ -61,6 +99,26 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     protected abstract MixedOperation<T, L, D, R> operation();
 
+    /**
+     * Makes this operator patch the existing resources using server-side apply instead of a JSON patch computed
+     * by the client. Only the fields set in the desired resource are sent and the API server merges them with the
+     * fields managed by others (e.g. other controllers). The resource is not changed when none of the applied fields
+     * changed, so the result of the patch can be told from its resource version. The API server has to support
+     * server-side apply (Kubernetes 1.16 or newer).
+     *
+     * @param fieldManager The name of the field manager owning the applied fields, or null to use JSON patches.
+     */
+    public void setServerSideApply(String fieldManager) {
+        this.fieldManager = fieldManager;
+    }
+
+    /**
+     * @return  True if the existing resources are patched using server-side apply
+     */
+    protected boolean isServerSideApply() {
+        return fieldManager != null;
+    }
+
     /**
      * Asynchronously create or update the given {@code resource} depending on whether it already exists,
      * returning a future for the outcome.
@@ -91,7 +149,7 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         }
 
         Promise<ReconcileResult<T>> promise = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
             future -> {
                 T current = operation().inNamespace(namespace).withName(name).get();
                 if (desired != null) {
@@ -164,8 +222,14 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     protected Future<ReconcileResult<T>> internalPatch(String namespace, String name, T current, T desired, boolean cascading) {
         try {
-            T result = operation().inNamespace(namespace).withName(name).cascading(cascading).patch(desired);
-            log.debug("{} {} in namespace {} has been patched", resourceKind, name, namespace);
+            T result;
+            if (isServerSideApply() && !isCopyOfExisting(desired)) {
+                result = apply(namespace, name, current, desired);
+                log.debug("{} {} in namespace {} has been applied", resourceKind, name, namespace);
+            } else {
+                result = operation().inNamespace(namespace).withName(name).cascading(cascading).patch(desired);
+                log.debug("{} {} in namespace {} has been patched", resourceKind, name, namespace);
+            }
             return Future.succeededFuture(wasChanged(current, result) ? ReconcileResult.patched(result) : ReconcileResult.noop(result));
         } catch (Exception e) {
             log.debug("Caught exception while patching {} {} in namespace {}", resourceKind, name, namespace, e);
@@ -173,6 +237,260 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         }
     }
 
+    /**
+     * Some reconciliations change only a few fields of a copy of the existing resource (e.g. an annotation). Such copies
+     * contain all the fields defaulted by the API server as well. Applying them would make the field manager own all
+     * of these fields, so they are patched using JSON patches even when server-side apply is enabled. The copies are
+     * told from the resources generated by the model by their resource version.
+     *
+     * @param desired Desired resource
+     *
+     * @return  True if the desired resource is a copy of a resource returned by the API server
+     */
+    private boolean isCopyOfExisting(T desired) {
+        return desired.getMetadata() != null && desired.getMetadata().getResourceVersion() != null;
+    }
+
+    /**
+     * Applies the desired resource to the existing resource using server-side apply.
+     *
+     * The fields set by the JSON patches used before server-side apply was enabled are owned by the
+     * {@link #LEGACY_FIELD_MANAGER} with the Update operation. They are transferred to the field manager of this
+     * operator first, otherwise the fields removed from the desired resource later would never be removed from the
+     * resource, because they would still be owned by the legacy field manager.
+     *
+     * Conflicts are not forced in general: another client applying the same fields (e.g. a GitOps tool) is a
+     * misconfiguration, which is reported by failing the reconciliation. They are expected, and forced, only when
+     * none of the other field managers used server-side apply. Then the conflicting fields were changed by updates
+     * (e.g. kubectl edit), which the JSON patches used to overwrite as well.
+     *
+     * @param namespace Namespace of the resource
+     * @param name Name of the resource
+     * @param current Current resource
+     * @param desired Desired resource
+     *
+     * @return  The resource returned by the API server
+     *
+     * @throws IOException When the request fails
+     * @throws KubernetesClientException When the API server rejects the request
+     */
+    private T apply(String namespace, String name, T current, T desired) throws IOException {
+        List<ManagedFieldsEntry> migratedManagedFields = current == null ? null : migrateManagedFields(current.getMetadata().getManagedFields(), fieldManager);
+        if (migratedManagedFields != null) {
+            log.debug("{} {} in namespace {}: transferring the fields of {} to {}", resourceKind, name, namespace, LEGACY_FIELD_MANAGER, fieldManager);
+            replaceManagedFields(namespace, name, current, migratedManagedFields);
+        }
+
+        try {
+            return serverSideApply(namespace, name, desired, false);
+        } catch (KubernetesClientException e) {
+            if (e.getCode() == 409 && current != null && !appliedByOthers(current)) {
+                log.warn("{} {} in namespace {} has fields updated by other clients, taking over their ownership: {}", resourceKind, name, namespace, conflicts(e));
+                return serverSideApply(namespace, name, desired, true);
+            } else {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @param e The conflict returned by the API server
+     *
+     * @return  The conflicting fields and their managers
+     */
+    private static String conflicts(KubernetesClientException e) {
+        if (e.getStatus() != null && e.getStatus().getDetails() != null && e.getStatus().getDetails().getCauses() != null) {
+            return e.getStatus().getDetails().getCauses().stream()
+                    .map(StatusCause::getMessage)
+                    .collect(Collectors.joining(", "));
+        } else {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * @param resource Resource
+     *
+     * @return  True if another field manager used server-side apply on the resource
+     */
+    private boolean appliedByOthers(T resource) {
+        List<ManagedFieldsEntry> entries = resource.getMetadata().getManagedFields();
+        return entries != null && entries.stream()
+                .anyMatch(entry -> "Apply".equals(entry.getOperation()) && !fieldManager.equals(entry.getManager()));
+    }
+
+    /**
+     * Transfers the fields owned by the {@link #LEGACY_FIELD_MANAGER} to the given field manager. When the field
+     * manager already applied the resource, the fields are merged into its entry. Otherwise the entry of the legacy
+     * field manager becomes an Apply entry of the field manager.
+     *
+     * @param entries The managed fields of the resource
+     * @param fieldManager The field manager to transfer the fields to
+     *
+     * @return  The new managed fields or null when there is nothing to transfer
+     */
+    /* test */ static List<ManagedFieldsEntry> migrateManagedFields(List<ManagedFieldsEntry> entries, String fieldManager) {
+        if (entries == null
+                || entries.stream().noneMatch(entry -> LEGACY_FIELD_MANAGER.equals(entry.getManager()) && "Update".equals(entry.getOperation()))) {
+            return null;
+        }
+
+        List<ManagedFieldsEntry> result = new ArrayList<>(entries.size());
+        ManagedFieldsEntry existing = entries.stream()
+                .filter(entry -> fieldManager.equals(entry.getManager()) && "Apply".equals(entry.getOperation()))
+                .findFirst()
+                .orElse(null);
+        // The entries of the current resource are not modified
+        ManagedFieldsEntry applied = existing == null ? null :
+                new ManagedFieldsEntry(existing.getApiVersion(), existing.getFieldsType(), existing.getFieldsV1(), fieldManager, "Apply", existing.getTime());
+
+        for (ManagedFieldsEntry entry : entries) {
+            if (LEGACY_FIELD_MANAGER.equals(entry.getManager()) && "Update".equals(entry.getOperation())) {
+                if (applied == null) {
+                    applied = new ManagedFieldsEntry(entry.getApiVersion(), entry.getFieldsType(), entry.getFieldsV1(), fieldManager, "Apply", entry.getTime());
+                    result.add(applied);
+                } else if (applied.getFieldsV1() == null) {
+                    applied.setFieldsV1(entry.getFieldsV1());
+                } else if (entry.getFieldsV1() != null) {
+                    applied.setFieldsV1(mergeFields(applied.getFieldsV1(), entry.getFieldsV1()));
+                }
+            } else if (entry == existing) {
+                result.add(applied);
+            } else {
+                result.add(entry);
+            }
+        }
+
+        return result;
+    }
+
+    private static FieldsV1 mergeFields(FieldsV1 first, FieldsV1 second) {
+        Map<String, Object> merged = new LinkedHashMap<>(first.getAdditionalProperties());
+        mergeFields(merged, second.getAdditionalProperties());
+
+        FieldsV1 result = new FieldsV1();
+        merged.forEach(result::setAdditionalProperty);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void mergeFields(Map<String, Object> target, Map<String, Object> source) {
+        for (Map.Entry<String, Object> field : source.entrySet()) {
+            Object existing = target.get(field.getKey());
+            if (existing instanceof Map && field.getValue() instanceof Map) {
+                Map<String, Object> merged = new LinkedHashMap<>((Map<String, Object>) existing);
+                mergeFields(merged, (Map<String, Object>) field.getValue());
+                target.put(field.getKey(), merged);
+            } else if (existing == null) {
+                target.put(field.getKey(), field.getValue());
+            }
+        }
+    }
+
+    /**
+     * Replaces the managed fields of the resource. The API server keeps the managed fields set explicitly, so this
+     * request is not recorded as an update of the fabric8 client. The request fails when the resource changed since
+     * it was read.
+     *
+     * @param namespace Namespace of the resource
+     * @param name Name of the resource
+     * @param current Current resource
+     * @param managedFields The new managed fields
+     *
+     * @throws IOException When the request fails
+     * @throws KubernetesClientException When the API server rejects the request
+     */
+    protected void replaceManagedFields(String namespace, String name, T current, List<ManagedFieldsEntry> managedFields) throws IOException {
+        Map<String, Object> test = new HashMap<>(3);
+        test.put("op", "test");
+        test.put("path", "/metadata/resourceVersion");
+        test.put("value", current.getMetadata().getResourceVersion());
+
+        Map<String, Object> replace = new HashMap<>(3);
+        replace.put("op", "replace");
+        replace.put("path", "/metadata/managedFields");
+        replace.put("value", managedFields);
+
+        List<Map<String, Object>> patch = new ArrayList<>(2);
+        patch.add(test);
+        patch.add(replace);
+
+        patch(namespace, name, JSON_PATCH, Serialization.jsonMapper().writeValueAsBytes(patch), emptyMap(), current.getClass());
+    }
+
+    /**
+     * Applies the desired resource using server-side apply. The resource is created when it does not exist.
+     *
+     * @param namespace Namespace of the resource
+     * @param name Name of the resource
+     * @param desired Desired resource
+     * @param force Whether the conflicts with other field managers should be forced
+     *
+     * @return  The resource returned by the API server
+     *
+     * @throws IOException When the request fails
+     * @throws KubernetesClientException When the API server rejects the request
+     */
+    protected T serverSideApply(String namespace, String name, T desired, boolean force) throws IOException {
+        Map<String, String> parameters = new HashMap<>(2);
+        parameters.put("fieldManager", fieldManager);
+        if (force) {
+            parameters.put("force", "true");
+        }
+
+        // JSON is valid YAML, so the resource does not need to be converted
+        return patch(namespace, name, APPLY_PATCH, Serialization.jsonMapper().writeValueAsBytes(applyConfiguration(desired)), parameters, desired.getClass());
+    }
+
+    /**
+     * Removes the fields populated by the API server from the desired resource. The API server rejects applied
+     * resources with managed fields, and the field manager would otherwise own the metadata and the status.
+     *
+     * @param desired Desired resource
+     *
+     * @return  The JSON tree of the resource to apply
+     */
+    /* test */ static ObjectNode applyConfiguration(HasMetadata desired) {
+        ObjectNode resource = Serialization.jsonMapper().valueToTree(desired);
+        resource.remove("status");
+
+        JsonNode metadata = resource.get("metadata");
+        if (metadata instanceof ObjectNode) {
+            ((ObjectNode) metadata).remove(SERVER_POPULATED_METADATA);
+        }
+
+        return resource;
+    }
+
+    /**
+     * Sends a patch which is not supported by the fabric8 client using its HTTP client.
+     */
+    @SuppressWarnings("unchecked")
+    private T patch(String namespace, String name, MediaType contentType, byte[] patch, Map<String, String> parameters, Class<?> type) throws IOException {
+        if (!(client instanceof HttpClientAware)) {
+            throw new UnsupportedOperationException("Server-side apply is not supported by " + client.getClass().getName());
+        }
+
+        OperationSupport resource = (OperationSupport) operation().inNamespace(namespace).withName(name);
+        HttpUrl.Builder url = HttpUrl.get(resource.getResourceUrl()).newBuilder();
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            url.addQueryParameter(parameter.getKey(), parameter.getValue());
+        }
+        Request request = new Request.Builder()
+                .url(url.build())
+                .patch(RequestBody.create(contentType, patch))
+                .build();
+
+        try (Response response = ((HttpClientAware) client).getHttpClient().newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw OperationSupport.requestFailure(request, OperationSupport.createStatus(response));
+            }
+
+            return (T) Serialization.jsonMapper().readValue(body.byteStream(), type);
+        }
+    }
+
     protected boolean wasChanged(T oldVersion, T newVersion) {
         if (oldVersion != null
                 && oldVersion.getMetadata() != null
@@ -191,7 +509,13 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
     @SuppressWarnings("unchecked")
     protected Future<ReconcileResult<T>> internalCreate(String namespace, String name, T desired) {
         try {
-            ReconcileResult<T> result = ReconcileResult.created(operation().inNamespace(namespace).withName(name).create(desired));
+            ReconcileResult<T> result;
+            if (isServerSideApply()) {
+                // Created with the same field manager as the later applies, so that all the fields are owned by it
+                result = ReconcileResult.created(serverSideApply(namespace, name, desired, false));
+            } else {
+                result = ReconcileResult.created(operation().inNamespace(namespace).withName(name).create(desired));
+            }
             log.debug("{} {} in namespace {} has been created", resourceKind, name, namespace);
             return Future.succeededFuture(result);
         } catch (Exception e) {
@@ -218,7 +542,7 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      */
     public Future<T> getAsync(String namespace, String name) {
         Promise<T> result = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
             future -> {
                 T resource = get(namespace, name);
                 future.complete(resource);
@@ -284,7 +608,7 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      */
     public Future<List<T>> listAsync(String namespace, Labels selector) {
         Promise<List<T>> result = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
             future -> {
                 List<T> resources;
 
@@ -303,7 +627,7 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
     @SuppressWarnings("unchecked")
     public Future<List<T>> listAsync(String namespace, Optional<LabelSelector> selector) {
         Promise<List<T>> result = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
             future -> {
                 FilterWatchListDeletable<T, L, Boolean, Watch, Watcher<T>> operation;
                 if (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace))  {
@@ -339,4 +663,24 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
             timeoutMs,
             () -> predicate.test(namespace, name));
     }
+
+    /**
+     * Returns a future that completes when all the resources with the given {@code names} in the given
+     * {@code namespace} are ready. Instead of polling each resource, the resources matching the {@code selector} are
+     * listed once and then watched until all of them are ready.
+     *
+     * @param namespace The namespace.
+     * @param selector The selector matching all the resources.
+     * @param names The names of the resources.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @param predicate The predicate deciding whether a resource is ready.
+     * @return A future with the ready resources keyed by their names. When some resources are not ready before the
+     * timeout, it fails with {@link TimeoutException} listing them.
+     */
+    public Future<Map<String, T>> waitForAll(String namespace, Labels selector, Set<String> names, long timeoutMs, Predicate<T> predicate) {
+        return new ReadinessWatch<>(vertx, resourceKind, namespace, names, predicate)
+                .start(watcher -> operation().inNamespace(namespace).withLabels(selector.toMap()).watch(watcher),
+                    () -> listInNamespace(namespace, selector),
+                    timeoutMs);
+    }
 }
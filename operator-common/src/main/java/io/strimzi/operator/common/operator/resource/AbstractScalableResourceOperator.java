@@ -10,6 +10,7 @@ import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.ScalableResource;
 import io.strimzi.operator.common.Annotations;
+import io.strimzi.operator.common.WorkerPools;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
@@ -68,7 +69,7 @@ public abstract class AbstractScalableResourceOperator<C extends KubernetesClien
      */
     public Future<Integer> scaleUp(String namespace, String name, int scaleTo) {
         Promise<Integer> promise = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
             future -> {
                 try {
                     Integer currentScale = currentScale(namespace, name);
@@ -104,7 +105,7 @@ public abstract class AbstractScalableResourceOperator<C extends KubernetesClien
      */
     public Future<Integer> scaleDown(String namespace, String name, int scaleTo) {
         Promise<Integer> promise = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
             future -> {
                 try {
                     Integer nextReplicas = currentScale(namespace, name);
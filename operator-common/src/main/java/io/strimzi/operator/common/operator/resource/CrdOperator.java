@@ -25,6 +25,7 @@ import io.strimzi.api.kafka.model.KafkaMirrorMaker;
 import io.strimzi.api.kafka.model.KafkaMirrorMaker2;
 import io.strimzi.api.kafka.model.KafkaTopic;
 import io.strimzi.api.kafka.model.KafkaUser;
+import io.strimzi.operator.common.WorkerPools;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
@@ -95,7 +96,7 @@ public class CrdOperator<C extends KubernetesClient,
     public Future<T> updateStatusAsync(T resource) {
         Promise<T> blockingPromise = Promise.promise();
 
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(future -> {
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(future -> {
             try {
 
                 OkHttpClient client = this.client.adapt(OkHttpClient.class);
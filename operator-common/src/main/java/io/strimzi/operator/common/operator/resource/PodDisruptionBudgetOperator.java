@@ -8,6 +8,7 @@ import io.fabric8.kubernetes.api.model.policy.DoneablePodDisruptionBudget;
 import io.fabric8.kubernetes.api.model.policy.PodDisruptionBudget;
 import io.fabric8.kubernetes.api.model.policy.PodDisruptionBudgetList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.vertx.core.Future;
@@ -27,6 +28,22 @@ public class PodDisruptionBudgetOperator extends AbstractResourceOperator<Kubern
 
     @Override
     protected Future<ReconcileResult<PodDisruptionBudget>> internalPatch(String namespace, String name, PodDisruptionBudget current, PodDisruptionBudget desired, boolean cascading) {
+        if (isServerSideApply()) {
+            // The spec of PodDisruptionBudgets is immutable before Kubernetes 1.15, so they are re-created when the apply is rejected
+            return super.internalPatch(namespace, name, current, desired, cascading).recover(error -> {
+                if (error instanceof KubernetesClientException && ((KubernetesClientException) error).getCode() == 422) {
+                    log.debug("{} {} in namespace {} cannot be applied, re-creating it", resourceKind, name, namespace);
+                    return recreate(namespace, name, desired);
+                } else {
+                    return Future.failedFuture(error);
+                }
+            });
+        } else {
+            return recreate(namespace, name, desired);
+        }
+    }
+
+    private Future<ReconcileResult<PodDisruptionBudget>> recreate(String namespace, String name, PodDisruptionBudget desired) {
         Promise<ReconcileResult<PodDisruptionBudget>> promise = Promise.promise();
         internalDelete(namespace, name).setHandler(delRes -> {
             if (delRes.succeeded())    {
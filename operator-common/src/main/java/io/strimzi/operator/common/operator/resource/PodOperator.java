@@ -12,6 +12,7 @@ import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.strimzi.operator.common.WorkerPools;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
@@ -58,7 +59,6 @@ public class PodOperator extends AbstractReadyResourceOperator<KubernetesClient,
      * @return a Future which completes when the Pod has been recreated
      */
     public Future<Void> restart(String logContext, Pod pod, long timeoutMs) {
-        long pollingIntervalMs = 1_000;
         String namespace = pod.getMetadata().getNamespace();
         String podName = pod.getMetadata().getName();
         Promise<Void> deleteFinished = Promise.promise();
@@ -67,21 +67,27 @@ public class PodOperator extends AbstractReadyResourceOperator<KubernetesClient,
         // Determine generation of deleted pod
         String deleted = getPodUid(pod);
 
+        // The pod is watched instead of being polled until it is recreated. The watch is opened before the pod is
+        // deleted, so that the recreation cannot be missed.
+        Promise<Future<Void>> watchPromise = Promise.promise();
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
+            future -> future.complete(new ResourceSupport(vertx).selfClosingWatch(operation().inNamespace(namespace).withName(podName),
+                (action, recreated) -> {
+                    // predicate - changed uid means pod has been recreated
+                    if (action != Watcher.Action.DELETED && !deleted.equals(getPodUid(recreated))) {
+                        log.debug("Rolling pod {} finished", podName);
+                        return Boolean.TRUE;
+                    } else {
+                        return null;
+                    }
+                }, timeoutMs).map((Void) null)),
+            false,
+            watchPromise);
+
         // Delete the pod
-        log.debug("{}}: Waiting for pod {} to be deleted", logContext, podName);
-        Future<Void> podReconcileFuture =
-                reconcile(namespace, podName, null).compose(ignore -> {
-                    Future<Void> del = waitFor(namespace, podName, pollingIntervalMs, timeoutMs, (ignore1, ignore2) -> {
-                        // predicate - changed generation means pod has been updated
-                        String newUid = getPodUid(get(namespace, podName));
-                        boolean done = !deleted.equals(newUid);
-                        if (done) {
-                            log.debug("Rolling pod {} finished", podName);
-                        }
-                        return done;
-                    });
-                    return del;
-                });
+        log.debug("{}: Waiting for pod {} to be deleted", logContext, podName);
+        Future<Void> podReconcileFuture = watchPromise.future().compose(recreatedFuture ->
+                reconcile(namespace, podName, null).compose(ignore -> recreatedFuture));
 
         podReconcileFuture.setHandler(deleteResult -> {
             if (deleteResult.succeeded()) {
@@ -0,0 +1,275 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.strimzi.operator.common.WorkerPools;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Waits until all resources from a set are ready.
+ * The resources are listed once and then watched, so the number of requests to the Kubernetes API depends neither on
+ * the number of resources nor on how long it takes them to get ready. When the watch is closed by the Kubernetes API
+ * server (e.g. after its timeout), it is opened again and the resources are listed again, so that no change is missed.
+ *
+ * @param <T> The type of the resources
+ */
+class ReadinessWatch<T extends HasMetadata> implements Watcher<T> {
+    private static final Logger log = LogManager.getLogger(ReadinessWatch.class);
+
+    private final Vertx vertx;
+    private final Context context;
+    private final String description;
+    private final Set<String> names;
+    private final Predicate<T> predicate;
+    private final Promise<Map<String, T>> promise = Promise.promise();
+
+    private Function<Watcher<T>, Watch> watchFn;
+    private Supplier<List<T>> listFn;
+
+    // Guarded by this
+    private final Map<String, T> ready = new HashMap<>();
+    private boolean done = false;
+    private Watch watch;
+    private long timerId;
+
+    /**
+     * @param vertx The Vertx instance
+     * @param resourceKind The kind of the resources (used for logging)
+     * @param namespace The namespace of the resources
+     * @param names The names of the resources
+     * @param predicate Decides whether a resource is ready
+     */
+    ReadinessWatch(Vertx vertx, String resourceKind, String namespace, Set<String> names, Predicate<T> predicate) {
+        this.vertx = vertx;
+        this.context = vertx.getOrCreateContext();
+        this.description = resourceKind + " resources in namespace " + namespace;
+        this.names = new TreeSet<>(names);
+        this.predicate = predicate;
+    }
+
+    /**
+     * Starts waiting for the resources.
+     *
+     * @param watchFn Opens the watch of the resources using the given watcher
+     * @param listFn Lists the resources
+     * @param timeoutMs The timeout in milliseconds
+     *
+     * @return  A future with the ready resources keyed by their names which completes on the context thread
+     */
+    Future<Map<String, T>> start(Function<Watcher<T>, Watch> watchFn, Supplier<List<T>> listFn, long timeoutMs) {
+        if (names.isEmpty()) {
+            return Future.succeededFuture(emptyMap());
+        }
+
+        log.debug("Waiting for {} {} to be ready", description, names);
+
+        synchronized (this) {
+            this.watchFn = watchFn;
+            this.listFn = listFn;
+            timerId = vertx.setTimer(timeoutMs, ignored -> timeout(timeoutMs));
+        }
+
+        open();
+
+        return promise.future();
+    }
+
+    /**
+     * Opens the watch and lists the resources. Fails the waiting when the watch cannot be opened or the resources
+     * cannot be listed.
+     */
+    private void open() {
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(
+            future -> {
+                // The watch is opened before the resources are listed, so no change can be missed
+                Watch watch = watchFn.apply(this);
+                boolean closeNow;
+
+                synchronized (this) {
+                    this.watch = watch;
+                    closeNow = done;
+                }
+
+                if (closeNow) {
+                    close(watch);
+                } else {
+                    List<T> resources = listFn.get();
+                    Set<String> listed = new HashSet<>(resources.size());
+                    for (T resource : resources) {
+                        listed.add(resource.getMetadata().getName());
+                        update(resource, true);
+                    }
+                    forgetDeleted(listed);
+                }
+
+                future.complete();
+            },
+            false,
+            res -> {
+                if (res.failed()) {
+                    fail(res.cause());
+                }
+            });
+    }
+
+    @Override
+    public void eventReceived(Action action, T resource) {
+        switch (action) {
+            case ADDED:
+            case MODIFIED:
+                update(resource, true);
+                break;
+            case DELETED:
+                update(resource, false);
+                break;
+            default:
+                log.warn("Unexpected {} event while waiting for {} to be ready", action, description);
+        }
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+        if (cause != null) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+
+                this.watch = null;
+            }
+
+            log.debug("Watch of {} was closed, opening it again", description, cause);
+            open();
+        }
+    }
+
+    /**
+     * Resources which were ready before the watch was closed might have been deleted while the watch was closed.
+     *
+     * @param listed The names of the listed resources
+     */
+    private void forgetDeleted(Set<String> listed) {
+        synchronized (this) {
+            if (ready.keySet().retainAll(listed)) {
+                log.debug("{}: {} of {} ready after listing them again", description, ready.size(), names.size());
+            }
+        }
+    }
+
+    private void update(T resource, boolean exists) {
+        String name = resource.getMetadata().getName();
+        if (!names.contains(name)) {
+            return;
+        }
+
+        Map<String, T> result = null;
+
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+
+            boolean wasReady = ready.containsKey(name);
+            if (exists && predicate.test(resource)) {
+                ready.put(name, resource);
+            } else {
+                ready.remove(name);
+            }
+
+            if (wasReady != ready.containsKey(name)) {
+                log.debug("{} {}: {} of {} ready", description, name, ready.size(), names.size());
+            }
+
+            if (ready.size() == names.size()) {
+                done = true;
+                result = new HashMap<>(ready);
+            }
+        }
+
+        if (result != null) {
+            log.debug("{} {} are ready", description, names);
+            finish();
+            Map<String, T> readyResources = result;
+            context.runOnContext(ignored -> promise.tryComplete(readyResources));
+        }
+    }
+
+    private void timeout(long timeoutMs) {
+        Set<String> notReady;
+
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+
+            notReady = new TreeSet<>(names);
+            notReady.removeAll(ready.keySet());
+        }
+
+        String message = String.format("Exceeded timeout of %dms while waiting for %s to be ready (%d of %d ready, not ready: %s)",
+                timeoutMs, description, names.size() - notReady.size(), names.size(), String.join(", ", notReady));
+        log.error(message);
+        fail(new TimeoutException(message));
+    }
+
+    private void fail(Throwable cause) {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+
+            done = true;
+        }
+
+        finish();
+        context.runOnContext(ignored -> promise.tryFail(cause));
+    }
+
+    private void finish() {
+        Watch watch;
+
+        synchronized (this) {
+            vertx.cancelTimer(timerId);
+            watch = this.watch;
+            this.watch = null;
+        }
+
+        if (watch != null) {
+            vertx.executeBlocking(future -> {
+                close(watch);
+                future.complete();
+            }, false, ignored -> { });
+        }
+    }
+
+    private void close(Watch watch) {
+        try {
+            watch.close();
+        } catch (Throwable t) {
+            log.debug("Failed to close the watch of {}", description, t);
+        }
+    }
+}
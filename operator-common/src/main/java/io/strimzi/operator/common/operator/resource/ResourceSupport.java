@@ -161,7 +161,12 @@ public class ResourceSupport {
 
             @Override
             public void onClose(KubernetesClientException cause) {
-
+                // The watch is closed with a cause when the Kubernetes API server or the connection closed it.
+                // Events might have been missed in the meantime, so the watch fails instead of waiting until the timeout.
+                if (cause != null && donePromise.tryFail(cause)) {
+                    LOGGER.debug("Watch closed before the condition was met", cause);
+                    vertx.cancelTimer(timerId);
+                }
             }
 
         }.resultPromise.future();
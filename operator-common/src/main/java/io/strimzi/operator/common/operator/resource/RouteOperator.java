@@ -53,8 +53,16 @@ public class RouteOperator extends AbstractResourceOperator<OpenShiftClient, Rou
      */
     public boolean isAddressReady(String namespace, String name) {
         Resource<Route, DoneableRoute> resourceOp = operation().inNamespace(namespace).withName(name);
-        Route resource = resourceOp.get();
+        return isAddressReady(resourceOp.get());
+    }
 
+    /**
+     * Checks if the Route already has an assigned address.
+     *
+     * @param resource The Route.
+     * @return Whether the address is ready.
+     */
+    public static boolean isAddressReady(Route resource) {
         if (resource != null && resource.getStatus() != null && resource.getStatus().getIngress() != null && resource.getStatus().getIngress().size() > 0) {
             if (resource.getStatus().getIngress().get(0).getHost() != null) {
                 return true;
@@ -128,8 +128,16 @@ public class ServiceOperator extends AbstractResourceOperator<KubernetesClient,
      */
     public boolean isIngressAddressReady(String namespace, String name) {
         ServiceResource<Service, DoneableService> resourceOp = operation().inNamespace(namespace).withName(name);
-        Service resource = resourceOp.get();
+        return isIngressAddressReady(resourceOp.get());
+    }
 
+    /**
+     * Checks if the Service already has assigned ingress address.
+     *
+     * @param resource The Service.
+     * @return Whether the Service already has assigned ingress address.
+     */
+    public static boolean isIngressAddressReady(Service resource) {
         if (resource != null && resource.getStatus() != null && resource.getStatus().getLoadBalancer() != null && resource.getStatus().getLoadBalancer().getIngress() != null && resource.getStatus().getLoadBalancer().getIngress().size() > 0) {
             if (resource.getStatus().getLoadBalancer().getIngress().get(0).getHostname() != null || resource.getStatus().getLoadBalancer().getIngress().get(0).getIp() != null) {
                 return true;
@@ -161,8 +169,16 @@ public class ServiceOperator extends AbstractResourceOperator<KubernetesClient,
      */
     public boolean isNodePortReady(String namespace, String name) {
         ServiceResource<Service, DoneableService> resourceOp = operation().inNamespace(namespace).withName(name);
-        Service resource = resourceOp.get();
+        return isNodePortReady(resourceOp.get());
+    }
 
+    /**
+     * Checks if the Service already has assigned node ports.
+     *
+     * @param resource The Service.
+     * @return Whether the Service already has assigned node ports.
+     */
+    public static boolean isNodePortReady(Service resource) {
         if (resource != null && resource.getSpec() != null && resource.getSpec().getPorts() != null) {
             boolean ready = true;
 
@@ -0,0 +1,89 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.strimzi.operator.common.operator.MockCertManager;
+import org.junit.jupiter.api.Test;
+
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CertificateCacheTest {
+    private static Secret secret(String uid, String resourceVersion, String cert) {
+        return new SecretBuilder()
+                .withNewMetadata()
+                    .withNamespace("my-namespace")
+                    .withName("my-cluster-cluster-ca-cert")
+                    .withUid(uid)
+                    .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .addToData("ca.crt", cert)
+                .build();
+    }
+
+    @Test
+    public void testCertificateIsParsedOncePerResourceVersion() throws CertificateException {
+        CertificateCache cache = new CertificateCache(10);
+        Secret secret = secret("uid-1", "1", MockCertManager.clusterCaCert());
+
+        X509Certificate first = cache.x509Certificate(secret, "ca.crt", secret.getData().get("ca.crt"));
+        X509Certificate second = cache.x509Certificate(secret(secret.getMetadata().getUid(), "1", MockCertManager.clusterCaCert()), "ca.crt", MockCertManager.clusterCaCert());
+        X509Certificate newVersion = cache.x509Certificate(secret("uid-1", "2", MockCertManager.clusterCaCert()), "ca.crt", MockCertManager.clusterCaCert());
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(newVersion, is(not(sameInstance(first))));
+        assertThat(newVersion, is(first));
+    }
+
+    @Test
+    public void testModifiedDataIsNotServedFromCache() throws CertificateException {
+        CertificateCache cache = new CertificateCache(10);
+        Secret secret = secret("uid-1", "1", MockCertManager.clusterCaCert());
+
+        X509Certificate cluster = cache.x509Certificate(secret, "ca.crt", secret.getData().get("ca.crt"));
+        // Same resource version, but the data were changed locally
+        X509Certificate clients = cache.x509Certificate(secret, "ca.crt", MockCertManager.clientsCaCert());
+
+        assertThat(clients.getSubjectDN(), is(not(cluster.getSubjectDN())));
+    }
+
+    @Test
+    public void testSecretsWithoutResourceVersionAreNotCached() throws CertificateException {
+        CertificateCache cache = new CertificateCache(10);
+
+        cache.x509Certificate(secret(null, null, MockCertManager.clusterCaCert()), "ca.crt", MockCertManager.clusterCaCert());
+        cache.x509Certificate(secret("uid-1", null, MockCertManager.clusterCaCert()), "ca.crt", MockCertManager.clusterCaCert());
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        CertificateCache cache = new CertificateCache(10);
+        Secret secret = secret("uid-1", "1", "bm90IGEgY2VydGlmaWNhdGU=");
+
+        assertThrows(CertificateException.class, () -> cache.x509Certificate(secret, "ca.crt", secret.getData().get("ca.crt")));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedCertificateIsEvicted() throws CertificateException {
+        CertificateCache cache = new CertificateCache(2);
+
+        cache.x509Certificate(secret("uid-1", "1", MockCertManager.clusterCaCert()), "ca.crt", MockCertManager.clusterCaCert());
+        cache.x509Certificate(secret("uid-1", "2", MockCertManager.clusterCaCert()), "ca.crt", MockCertManager.clusterCaCert());
+        cache.x509Certificate(secret("uid-1", "3", MockCertManager.clusterCaCert()), "ca.crt", MockCertManager.clusterCaCert());
+
+        assertThat(cache.size(), is(2));
+    }
+}
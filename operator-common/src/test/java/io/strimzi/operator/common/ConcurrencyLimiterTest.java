@@ -0,0 +1,87 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(VertxExtension.class)
+public class ConcurrencyLimiterTest {
+    private static Vertx vertx;
+
+    @BeforeAll
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void after() {
+        vertx.close();
+    }
+
+    @Test
+    public void testInvalidConcurrency() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(vertx, 0));
+    }
+
+    @Test
+    public void testOperationsOverTheLimitAreQueued(VertxTestContext context) {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(vertx, 2);
+        List<Promise<Integer>> promises = new ArrayList<>();
+        List<Future> results = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            Promise<Integer> promise = Promise.promise();
+            promises.add(promise);
+            results.add(limiter.execute(promise::future));
+        }
+
+        assertThat(limiter.running(), is(2));
+        assertThat(limiter.queued(), is(3));
+
+        Checkpoint async = context.checkpoint();
+        CompositeFuture.all(results).setHandler(context.succeeding(res -> context.verify(() -> {
+            assertThat(res.resultAt(4), is(4));
+            assertThat(limiter.running(), is(0));
+            assertThat(limiter.queued(), is(0));
+            async.flag();
+        })));
+
+        for (int i = 0; i < 5; i++) {
+            promises.get(i).complete(i);
+        }
+    }
+
+    @Test
+    public void testFailedOperationReleasesThePermit(VertxTestContext context) {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(vertx, 1);
+
+        Checkpoint async = context.checkpoint(2);
+        limiter.<Void>execute(() -> {
+            throw new RuntimeException("failure");
+        }).setHandler(context.failing(e -> async.flag()));
+        limiter.execute(() -> Future.succeededFuture("done"))
+                .setHandler(context.succeeding(res -> context.verify(() -> {
+                    assertThat(res, is("done"));
+                    async.flag();
+                })));
+    }
+}
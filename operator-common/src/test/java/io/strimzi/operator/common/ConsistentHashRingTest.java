@@ -0,0 +1,68 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConsistentHashRingTest {
+    @Test
+    public void testEmptyRing() {
+        assertThat(new ConsistentHashRing(emptyList()).owner("ns/my-cluster"), is(nullValue()));
+    }
+
+    @Test
+    public void testInvalidVirtualNodes() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(asList("a"), 0));
+    }
+
+    @Test
+    public void testSameMembersGiveSameOwners() {
+        ConsistentHashRing ring1 = new ConsistentHashRing(asList("a", "b", "c"));
+        ConsistentHashRing ring2 = new ConsistentHashRing(asList("c", "a", "b"));
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(ring1.owner("ns/cluster-" + i), is(ring2.owner("ns/cluster-" + i)));
+        }
+    }
+
+    @Test
+    public void testKeysAreSpreadAcrossMembers() {
+        ConsistentHashRing ring = new ConsistentHashRing(asList("a", "b", "c"));
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < 3000; i++) {
+            counts.merge(ring.owner("ns/cluster-" + i), 1, Integer::sum);
+        }
+
+        assertThat(counts.size(), is(3));
+        for (int count : counts.values()) {
+            assertThat(count, greaterThan(500));
+        }
+    }
+
+    @Test
+    public void testOnlyKeysOfLeavingMemberMove() {
+        ConsistentHashRing before = new ConsistentHashRing(asList("a", "b", "c"));
+        ConsistentHashRing after = new ConsistentHashRing(asList("a", "b"));
+
+        for (int i = 0; i < 1000; i++) {
+            String key = "ns/cluster-" + i;
+            if (!"c".equals(before.owner(key))) {
+                assertThat(after.owner(key), is(before.owner(key)));
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(VertxExtension.class)
+public class WorkerPoolsTest {
+    private static Vertx vertx;
+
+    @BeforeAll
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void after() {
+        vertx.close();
+    }
+
+    @AfterEach
+    public void resetSizes() {
+        WorkerPools.configure(WorkerPools.defaultSizes());
+    }
+
+    @Test
+    public void testSizeEnvVar() {
+        assertThat(WorkerPools.sizeEnvVar(WorkerPools.KUBERNETES), is("STRIMZI_KUBERNETES_OPS_POOL_SIZE"));
+        assertThat(WorkerPools.sizeEnvVar(WorkerPools.ZOOKEEPER), is("STRIMZI_ZOOKEEPER_OPS_POOL_SIZE"));
+        assertThat(WorkerPools.sizeEnvVar(WorkerPools.KAFKA_ADMIN), is("STRIMZI_KAFKA_ADMIN_OPS_POOL_SIZE"));
+        assertThat(WorkerPools.sizeEnvVar(WorkerPools.CERTIFICATES), is("STRIMZI_CERTIFICATE_OPS_POOL_SIZE"));
+        assertThat(WorkerPools.sizeEnvVar(WorkerPools.REBALANCE), is("STRIMZI_REBALANCE_OPS_POOL_SIZE"));
+    }
+
+    @Test
+    public void testSizesFromMap() {
+        assertThat(WorkerPools.sizesFromMap(emptyMap()), is(WorkerPools.defaultSizes()));
+
+        Map<String, String> env = new HashMap<>(2);
+        env.put("STRIMZI_ZOOKEEPER_OPS_POOL_SIZE", "3");
+        env.put("STRIMZI_KAFKA_ADMIN_OPS_POOL_SIZE", "7");
+        Map<String, Integer> sizes = WorkerPools.sizesFromMap(env);
+
+        assertThat(sizes.get(WorkerPools.ZOOKEEPER), is(3));
+        assertThat(sizes.get(WorkerPools.KAFKA_ADMIN), is(7));
+        assertThat(sizes.get(WorkerPools.KUBERNETES), is(WorkerPools.defaultSizes().get(WorkerPools.KUBERNETES)));
+    }
+
+    @Test
+    public void testInvalidSizesFromMap() {
+        assertThrows(InvalidConfigurationException.class, () -> WorkerPools.sizesFromMap(singletonMap("STRIMZI_KUBERNETES_OPS_POOL_SIZE", "-1")));
+        assertThrows(InvalidConfigurationException.class, () -> WorkerPools.sizesFromMap(singletonMap("STRIMZI_KUBERNETES_OPS_POOL_SIZE", "many")));
+    }
+
+    @Test
+    public void testConfigure() {
+        WorkerPools.configure(singletonMap(WorkerPools.ZOOKEEPER, 3));
+
+        assertThat(WorkerPools.size(WorkerPools.ZOOKEEPER), is(3));
+        assertThat(WorkerPools.size(WorkerPools.KUBERNETES), is(WorkerPools.defaultSizes().get(WorkerPools.KUBERNETES)));
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> WorkerPools.configure(singletonMap("my-pool", 3)));
+        assertThrows(IllegalArgumentException.class, () -> WorkerPools.configure(singletonMap(WorkerPools.ZOOKEEPER, 0)));
+        assertThrows(IllegalArgumentException.class, () -> WorkerPools.size("my-pool"));
+    }
+
+    @Test
+    public void testPoolIsBoundedByConfiguredSize(VertxTestContext context) {
+        WorkerPools.configure(singletonMap(WorkerPools.CERTIFICATES, 2));
+        WorkerExecutor executor = WorkerPools.executor(vertx, WorkerPools.CERTIFICATES);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Future> results = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            Promise<String> result = Promise.promise();
+            results.add(result.future());
+            executor.executeBlocking(future -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                future.complete(Thread.currentThread().getName());
+            }, false, result);
+        }
+
+        Checkpoint async = context.checkpoint();
+        CompositeFuture.join(results).setHandler(context.succeeding(res -> context.verify(() -> {
+            assertThat(maxRunning.get(), is(2));
+            for (Future result : results) {
+                assertThat((String) result.result(), startsWith(WorkerPools.CERTIFICATES));
+            }
+            async.flag();
+        })));
+    }
+}
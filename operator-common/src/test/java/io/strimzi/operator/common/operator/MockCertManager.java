@@ -17,6 +17,7 @@ import java.nio.file.Files;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 
@@ -228,6 +229,30 @@ public class MockCertManager implements CertManager {
         }
     }
 
+    @Override
+    public byte[] addCertToTrustStore(byte[] cert, String certAlias, byte[] trustStore, String trustStorePassword)
+            throws IOException, CertificateException, KeyStoreException, NoSuchAlgorithmException {
+        if (Arrays.equals(cert, CLUSTER_CERT.getBytes(Charset.defaultCharset()))) {
+            return CLUSTER_CERT_STORE;
+        } else if (Arrays.equals(cert, CLIENTS_CERT.getBytes(Charset.defaultCharset()))) {
+            return CLIENTS_CERT_STORE;
+        } else {
+            return trustStore != null ? trustStore : new byte[0];
+        }
+    }
+
+    @Override
+    public byte[] addKeyAndCertToKeyStore(byte[] key, byte[] cert, String alias, String keyStorePassword) throws IOException {
+        return "key store".getBytes(Charset.defaultCharset());
+    }
+
+    @Override
+    public byte[] deleteFromTrustStore(List<String> aliases, byte[] trustStore, String trustStorePassword)
+            throws IOException, CertificateException, KeyStoreException, NoSuchAlgorithmException {
+        // never called during the tests which use this MockCertManager
+        return trustStore;
+    }
+
     @Override
     public void addKeyAndCertToKeyStore(File keyFile, File certFile, String alias, File keyStoreFile, String keyStorePassword) throws IOException {
         // never called during the tests which use this MockCertManager
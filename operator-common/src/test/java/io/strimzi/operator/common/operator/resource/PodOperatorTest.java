@@ -11,7 +11,11 @@ import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodBuilder;
 import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.PodResource;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.fabric8.openshift.client.server.mock.OpenShiftServer;
@@ -22,12 +26,15 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class PodOperatorTest extends
@@ -97,6 +104,38 @@ public class PodOperatorTest extends
         });
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRestartFailsWhenWatchIsClosed(VertxTestContext context) {
+        AtomicReference<Watcher<Pod>> watcher = new AtomicReference<>();
+        PodResource<Pod, DoneablePod> mockResource = mock(PodResource.class);
+        when(mockResource.watch(any())).thenAnswer(invocation -> {
+            watcher.set(invocation.getArgument(0));
+            return mock(Watch.class);
+        });
+
+        NonNamespaceOperation mockNamespaced = mock(NonNamespaceOperation.class);
+        when(mockNamespaced.withName(RESOURCE_NAME)).thenReturn(mockResource);
+        MixedOperation mockPods = mock(MixedOperation.class);
+        when(mockPods.inNamespace(NAMESPACE)).thenReturn(mockNamespaced);
+        KubernetesClient client = mock(KubernetesClient.class);
+        when(client.pods()).thenReturn(mockPods);
+
+        KubernetesClientException closed = new KubernetesClientException("Watch closed");
+        new PodOperator(vertx, client).restart("test", resource(), 60_000)
+            .setHandler(context.failing(error -> context.verify(() -> {
+                assertThat(error, is(closed));
+                context.completeNow();
+            })));
+
+        vertx.setPeriodic(50, timerId -> {
+            if (watcher.get() != null) {
+                vertx.cancelTimer(timerId);
+                watcher.get().onClose(closed);
+            }
+        });
+    }
+
     @Override
     protected Class clientType() {
         return KubernetesClient.class;
@@ -4,16 +4,42 @@
  */
 package io.strimzi.operator.common.operator.resource;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.fabric8.kubernetes.api.model.DoneableSecret;
+import io.fabric8.kubernetes.api.model.FieldsV1;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntry;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.SecretBuilder;
 import io.fabric8.kubernetes.api.model.SecretList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SecretOperatorTest extends AbstractResourceOperatorTest<KubernetesClient, Secret, SecretList, DoneableSecret, Resource<Secret, DoneableSecret>> {
@@ -50,4 +76,240 @@ public class SecretOperatorTest extends AbstractResourceOperatorTest<KubernetesC
     protected AbstractResourceOperator<KubernetesClient, Secret, SecretList, DoneableSecret, Resource<Secret, DoneableSecret>> createResourceOperations(Vertx vertx, KubernetesClient mockClient) {
         return new SecretOperator(vertx, mockClient);
     }
+
+    /**
+     * Reconciles the desired Secret with a SecretOperator, which records the applied Secrets and the forcing of
+     * conflicts instead of sending them to the API server
+     */
+    private Future<ReconcileResult<Secret>> serverSideApply(Secret current, Secret desired, String appliedResourceVersion, Resource mockResource,
+                                                            List<Secret> applied, List<Boolean> forced, boolean conflict,
+                                                            List<List<ManagedFieldsEntry>> replacedManagedFields) {
+        when(mockResource.get()).thenReturn(current);
+
+        NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
+        when(mockNameable.withName(matches(RESOURCE_NAME))).thenReturn(mockResource);
+
+        MixedOperation mockSecrets = mock(MixedOperation.class);
+        when(mockSecrets.inNamespace(matches(NAMESPACE))).thenReturn(mockNameable);
+
+        KubernetesClient mockClient = mock(KubernetesClient.class);
+        mocker(mockClient, mockSecrets);
+
+        SecretOperator op = new SecretOperator(vertx, mockClient) {
+            @Override
+            protected Secret serverSideApply(String namespace, String name, Secret desired, boolean force) {
+                applied.add(desired);
+                forced.add(force);
+                if (conflict && !force) {
+                    throw new KubernetesClientException("Apply failed with 1 conflict", 409, null);
+                }
+                return new SecretBuilder(desired)
+                        .editMetadata()
+                            .withResourceVersion(appliedResourceVersion)
+                        .endMetadata()
+                        .build();
+            }
+
+            @Override
+            protected void replaceManagedFields(String namespace, String name, Secret current, List<ManagedFieldsEntry> managedFields) {
+                replacedManagedFields.add(managedFields);
+            }
+        };
+        op.setServerSideApply("test-manager");
+
+        return op.createOrUpdate(desired);
+    }
+
+    private Future<ReconcileResult<Secret>> serverSideApply(Secret current, String appliedResourceVersion, Resource mockResource,
+                                                            List<Secret> applied, List<Boolean> forced, boolean conflict,
+                                                            List<List<ManagedFieldsEntry>> replacedManagedFields) {
+        return serverSideApply(current, resource(), appliedResourceVersion, mockResource, applied, forced, conflict, replacedManagedFields);
+    }
+
+    private Future<ReconcileResult<Secret>> serverSideApply(Secret current, String appliedResourceVersion, Resource mockResource, List<Secret> applied) {
+        return serverSideApply(current, appliedResourceVersion, mockResource, applied, new ArrayList<>(), false, new ArrayList<>());
+    }
+
+    private Secret current(ManagedFieldsEntry... managedFields) {
+        return new SecretBuilder(resource())
+                .editMetadata()
+                    .withResourceVersion("1")
+                    .withManagedFields(managedFields)
+                .endMetadata()
+                .build();
+    }
+
+    private static ManagedFieldsEntry managedFields(String manager, String operation, Map<String, Object> fields) {
+        FieldsV1 fieldsV1 = new FieldsV1();
+        fields.forEach(fieldsV1::setAdditionalProperty);
+        return new ManagedFieldsEntry("v1", "FieldsV1", fieldsV1, manager, operation, null);
+    }
+
+    @Test
+    public void testServerSideApplyWithoutChange(VertxTestContext context) {
+        Resource mockResource = mock(Resource.class);
+        List<Secret> applied = new ArrayList<>();
+
+        Checkpoint async = context.checkpoint();
+        serverSideApply(current(), "1", mockResource, applied).setHandler(context.succeeding(rr -> context.verify(() -> {
+            assertThat(rr, instanceOf(ReconcileResult.Noop.class));
+            assertThat(applied, is(singletonList(resource())));
+            verify(mockResource, never()).patch(any());
+            async.flag();
+        })));
+    }
+
+    @Test
+    public void testServerSideApplyWithChange(VertxTestContext context) {
+        Resource mockResource = mock(Resource.class);
+        List<Secret> applied = new ArrayList<>();
+
+        Checkpoint async = context.checkpoint();
+        serverSideApply(current(), "2", mockResource, applied).setHandler(context.succeeding(rr -> context.verify(() -> {
+            assertThat(rr, instanceOf(ReconcileResult.Patched.class));
+            assertThat(rr.resource().getMetadata().getResourceVersion(), is("2"));
+            assertThat(applied.size(), is(1));
+            verify(mockResource, never()).patch(any());
+            async.flag();
+        })));
+    }
+
+    @Test
+    public void testServerSideApplyCreatesResource(VertxTestContext context) {
+        Resource mockResource = mock(Resource.class);
+        List<Secret> applied = new ArrayList<>();
+        List<Boolean> forced = new ArrayList<>();
+
+        Checkpoint async = context.checkpoint();
+        serverSideApply(null, "1", mockResource, applied, forced, false, new ArrayList<>()).setHandler(context.succeeding(rr -> context.verify(() -> {
+            assertThat(rr, instanceOf(ReconcileResult.Created.class));
+            assertThat(applied, is(singletonList(resource())));
+            assertThat(forced, is(singletonList(false)));
+            verify(mockResource, never()).create(any());
+            async.flag();
+        })));
+    }
+
+    @Test
+    public void testServerSideApplyForcesConflictsWithUpdates(VertxTestContext context) {
+        Resource mockResource = mock(Resource.class);
+        List<Boolean> forced = new ArrayList<>();
+        Secret current = current(managedFields("kubectl-edit", "Update", singletonMap("f:data", emptyMap())));
+
+        Checkpoint async = context.checkpoint();
+        serverSideApply(current, "2", mockResource, new ArrayList<>(), forced, true, new ArrayList<>()).setHandler(context.succeeding(rr -> context.verify(() -> {
+            assertThat(rr, instanceOf(ReconcileResult.Patched.class));
+            assertThat(forced, is(asList(false, true)));
+            async.flag();
+        })));
+    }
+
+    @Test
+    public void testServerSideApplyFailsOnConflictsWithOtherAppliers(VertxTestContext context) {
+        Resource mockResource = mock(Resource.class);
+        List<Boolean> forced = new ArrayList<>();
+        Secret current = current(managedFields("gitops-tool", "Apply", singletonMap("f:data", emptyMap())));
+
+        Checkpoint async = context.checkpoint();
+        serverSideApply(current, "2", mockResource, new ArrayList<>(), forced, true, new ArrayList<>()).setHandler(context.failing(error -> context.verify(() -> {
+            assertThat(((KubernetesClientException) error).getCode(), is(409));
+            assertThat(forced, is(singletonList(false)));
+            async.flag();
+        })));
+    }
+
+    @Test
+    public void testServerSideApplyTransfersFieldsOfLegacyFieldManager(VertxTestContext context) {
+        Resource mockResource = mock(Resource.class);
+        List<List<ManagedFieldsEntry>> replaced = new ArrayList<>();
+        ManagedFieldsEntry controller = managedFields("some-controller", "Update", singletonMap("f:metadata", emptyMap()));
+        Secret current = current(controller, managedFields(AbstractResourceOperator.LEGACY_FIELD_MANAGER, "Update", singletonMap("f:data", emptyMap())));
+
+        Checkpoint async = context.checkpoint();
+        serverSideApply(current, "2", mockResource, new ArrayList<>(), new ArrayList<>(), false, replaced).setHandler(context.succeeding(rr -> context.verify(() -> {
+            assertThat(replaced.size(), is(1));
+            assertThat(replaced.get(0), is(asList(controller, managedFields("test-manager", "Apply", singletonMap("f:data", emptyMap())))));
+            async.flag();
+        })));
+    }
+
+    @Test
+    public void testServerSideApplyDoesNotTransferFieldsWithoutLegacyFieldManager(VertxTestContext context) {
+        Resource mockResource = mock(Resource.class);
+        List<List<ManagedFieldsEntry>> replaced = new ArrayList<>();
+        Secret current = current(managedFields("test-manager", "Apply", singletonMap("f:data", emptyMap())));
+
+        Checkpoint async = context.checkpoint();
+        serverSideApply(current, "2", mockResource, new ArrayList<>(), new ArrayList<>(), false, replaced).setHandler(context.succeeding(rr -> context.verify(() -> {
+            assertThat(replaced.isEmpty(), is(true));
+            async.flag();
+        })));
+    }
+
+    @Test
+    public void testServerSideApplyPatchesCopiesOfExistingResources(VertxTestContext context) {
+        Secret current = current(managedFields("test-manager", "Apply", emptyMap()));
+        Secret desired = new SecretBuilder(current)
+                .editMetadata()
+                    .addToAnnotations("foo", "bar")
+                .endMetadata()
+                .build();
+        Resource mockResource = mock(resourceType());
+        when(mockResource.cascading(anyBoolean())).thenReturn(mockResource);
+        when(mockResource.patch(any())).thenReturn(desired);
+        List<Secret> applied = new ArrayList<>();
+
+        Checkpoint async = context.checkpoint();
+        serverSideApply(current, desired, "2", mockResource, applied, new ArrayList<>(), false, new ArrayList<>()).setHandler(context.succeeding(rr -> context.verify(() -> {
+            // Applying the copy would make the operator own all the fields defaulted by the API server
+            assertThat(applied.isEmpty(), is(true));
+            verify(mockResource).patch(desired);
+            async.flag();
+        })));
+    }
+
+    @Test
+    public void testApplyConfigurationOmitsServerPopulatedFields() {
+        Secret desired = new SecretBuilder(current(managedFields("test-manager", "Apply", emptyMap())))
+                .editMetadata()
+                    .withUid("uid")
+                    .withCreationTimestamp("2020-01-01T00:00:00Z")
+                .endMetadata()
+                .build();
+
+        JsonNode metadata = AbstractResourceOperator.applyConfiguration(desired).get("metadata");
+        assertThat(metadata.has("managedFields"), is(false));
+        assertThat(metadata.has("resourceVersion"), is(false));
+        assertThat(metadata.has("uid"), is(false));
+        assertThat(metadata.has("creationTimestamp"), is(false));
+        assertThat(metadata.get("name").asText(), is(RESOURCE_NAME));
+        assertThat(metadata.get("labels").get("foo").asText(), is("bar"));
+    }
+
+    @Test
+    public void testLegacyFieldsAreMergedIntoAppliedFields() {
+        Map<String, Object> appliedData = new HashMap<>();
+        appliedData.put("f:a", emptyMap());
+        Map<String, Object> legacyData = new HashMap<>();
+        legacyData.put("f:b", emptyMap());
+        Map<String, Object> legacyFields = new HashMap<>();
+        legacyFields.put("f:data", legacyData);
+        legacyFields.put("f:type", emptyMap());
+
+        ManagedFieldsEntry applied = managedFields("test-manager", "Apply", singletonMap("f:data", appliedData));
+        List<ManagedFieldsEntry> migrated = AbstractResourceOperator.migrateManagedFields(
+                asList(applied, managedFields(AbstractResourceOperator.LEGACY_FIELD_MANAGER, "Update", legacyFields)), "test-manager");
+
+        Map<String, Object> mergedData = new HashMap<>();
+        mergedData.put("f:a", emptyMap());
+        mergedData.put("f:b", emptyMap());
+        Map<String, Object> mergedFields = new HashMap<>();
+        mergedFields.put("f:data", mergedData);
+        mergedFields.put("f:type", emptyMap());
+
+        assertThat(migrated, is(singletonList(managedFields("test-manager", "Apply", mergedFields))));
+        // The entries of the current resource are not modified
+        assertThat(applied, is(managedFields("test-manager", "Apply", singletonMap("f:data", appliedData))));
+        assertThat(appliedData.size(), is(1));
+    }
 }
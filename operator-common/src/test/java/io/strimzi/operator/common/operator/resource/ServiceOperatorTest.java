@@ -6,19 +6,39 @@ package io.strimzi.operator.common.operator.resource;
 
 import io.fabric8.kubernetes.api.model.DoneableService;
 import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.LoadBalancerIngressBuilder;
 import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.api.model.ServiceBuilder;
 import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.api.model.ServiceListBuilder;
 import io.fabric8.kubernetes.api.model.ServicePortBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.ServiceResource;
+import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxTestContext;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ServiceOperatorTest extends AbstractResourceOperatorTest<KubernetesClient, Service, ServiceList, DoneableService, ServiceResource<Service, DoneableService>> {
@@ -135,4 +155,132 @@ public class ServiceOperatorTest extends AbstractResourceOperatorTest<Kubernetes
 
         assertThat(current.getSpec().getHealthCheckNodePort(), is(desired.getSpec().getHealthCheckNodePort()));
     }
+
+    private static Service serviceWithAddress(String name, String hostname) {
+        ServiceBuilder builder = new ServiceBuilder()
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(name)
+                .endMetadata();
+
+        if (hostname != null) {
+            builder.withNewStatus()
+                        .withNewLoadBalancer()
+                            .withIngress(new LoadBalancerIngressBuilder().withHostname(hostname).build())
+                        .endLoadBalancer()
+                    .endStatus();
+        }
+
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ServiceOperator mockWatchedServices(List<Service> listed, AtomicReference<Watcher<Service>> watcher, Watch watch) {
+        FilterWatchListDeletable mockFiltered = mock(FilterWatchListDeletable.class);
+        when(mockFiltered.list()).thenReturn(new ServiceListBuilder().withItems(listed).build());
+        when(mockFiltered.watch(any())).thenAnswer(invocation -> {
+            watcher.set(invocation.getArgument(0));
+            return watch;
+        });
+
+        NonNamespaceOperation mockNamespaced = mock(NonNamespaceOperation.class);
+        when(mockNamespaced.withLabels(any())).thenReturn(mockFiltered);
+
+        MixedOperation mockServices = mock(MixedOperation.class);
+        when(mockServices.inNamespace(NAMESPACE)).thenReturn(mockNamespaced);
+
+        KubernetesClient client = mock(KubernetesClient.class);
+        when(client.services()).thenReturn(mockServices);
+
+        return new ServiceOperator(vertx, client);
+    }
+
+    @Test
+    public void testWaitForAllCompletesWhenListedServicesAreReady(VertxTestContext context) {
+        Watch watch = mock(Watch.class);
+        ServiceOperator op = mockWatchedServices(
+                asList(serviceWithAddress("svc-0", "svc-0.example.com"), serviceWithAddress("svc-1", "svc-1.example.com"), serviceWithAddress("other", null)),
+                new AtomicReference<>(), watch);
+
+        op.waitForAll(NAMESPACE, Labels.EMPTY, new HashSet<>(asList("svc-0", "svc-1")), 10_000, ServiceOperator::isIngressAddressReady)
+            .setHandler(context.succeeding(services -> context.verify(() -> {
+                assertThat(services.size(), is(2));
+                assertThat(services.get("svc-1").getStatus().getLoadBalancer().getIngress().get(0).getHostname(), is("svc-1.example.com"));
+                context.completeNow();
+            })));
+    }
+
+    @Test
+    public void testWaitForAllCompletesAfterWatchEvents(VertxTestContext context) {
+        AtomicReference<Watcher<Service>> watcher = new AtomicReference<>();
+        Watch watch = mock(Watch.class);
+        ServiceOperator op = mockWatchedServices(asList(serviceWithAddress("svc-0", "svc-0.example.com"), serviceWithAddress("svc-1", null)), watcher, watch);
+
+        op.waitForAll(NAMESPACE, Labels.EMPTY, new HashSet<>(asList("svc-0", "svc-1")), 10_000, ServiceOperator::isIngressAddressReady)
+            .setHandler(context.succeeding(services -> context.verify(() -> {
+                assertThat(services.size(), is(2));
+                assertThat(services.get("svc-1").getStatus().getLoadBalancer().getIngress().get(0).getHostname(), is("svc-1.example.com"));
+                vertx.setTimer(100, ignored -> context.verify(() -> {
+                    verify(watch).close();
+                    context.completeNow();
+                }));
+            })));
+
+        vertx.setPeriodic(50, timerId -> {
+            if (watcher.get() != null) {
+                vertx.cancelTimer(timerId);
+                watcher.get().eventReceived(Watcher.Action.MODIFIED, serviceWithAddress("svc-1", null));
+                watcher.get().eventReceived(Watcher.Action.MODIFIED, serviceWithAddress("svc-1", "svc-1.example.com"));
+            }
+        });
+    }
+
+    @Test
+    public void testWaitForAllReopensClosedWatch(VertxTestContext context) {
+        AtomicReference<Watcher<Service>> watcher = new AtomicReference<>();
+        ServiceOperator op = mockWatchedServices(asList(serviceWithAddress("svc-0", "svc-0.example.com"), serviceWithAddress("svc-1", null)), watcher, mock(Watch.class));
+
+        op.waitForAll(NAMESPACE, Labels.EMPTY, new HashSet<>(asList("svc-0", "svc-1")), 10_000, ServiceOperator::isIngressAddressReady)
+            .setHandler(context.succeeding(services -> context.verify(() -> {
+                assertThat(services.size(), is(2));
+                context.completeNow();
+            })));
+
+        AtomicBoolean closed = new AtomicBoolean(false);
+        vertx.setPeriodic(50, timerId -> {
+            Watcher<Service> current = watcher.getAndSet(null);
+            if (current != null) {
+                if (closed.compareAndSet(false, true)) {
+                    // The waiting continues only when the watch is opened again
+                    current.onClose(new KubernetesClientException("Watch closed"));
+                } else {
+                    vertx.cancelTimer(timerId);
+                    current.eventReceived(Watcher.Action.MODIFIED, serviceWithAddress("svc-1", "svc-1.example.com"));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testWaitForAllTimeoutListsServicesWhichAreNotReady(VertxTestContext context) {
+        ServiceOperator op = mockWatchedServices(asList(serviceWithAddress("svc-0", "svc-0.example.com")), new AtomicReference<>(), mock(Watch.class));
+
+        op.waitForAll(NAMESPACE, Labels.EMPTY, new HashSet<>(asList("svc-0", "svc-1", "svc-2")), 500, ServiceOperator::isIngressAddressReady)
+            .setHandler(context.failing(error -> context.verify(() -> {
+                assertThat(error, instanceOf(TimeoutException.class));
+                assertThat(error.getMessage(), containsString("1 of 3 ready, not ready: svc-1, svc-2"));
+                context.completeNow();
+            })));
+    }
+
+    @Test
+    public void testWaitForAllWithoutNamesCompletesImmediately(VertxTestContext context) {
+        ServiceOperator op = new ServiceOperator(vertx, mock(KubernetesClient.class));
+
+        op.waitForAll(NAMESPACE, Labels.EMPTY, new HashSet<>(emptyList()), 500, ServiceOperator::isIngressAddressReady)
+            .setHandler(context.succeeding(services -> context.verify(() -> {
+                assertThat(services.isEmpty(), is(true));
+                context.completeNow();
+            })));
+    }
 }
@@ -14,6 +14,7 @@ import io.strimzi.api.kafka.KafkaTopicList;
 import io.strimzi.api.kafka.model.DoneableKafkaTopic;
 import io.strimzi.api.kafka.model.KafkaTopic;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
@@ -46,7 +47,7 @@ public class K8sImpl implements K8s {
     @Override
     public Future<KafkaTopic> createResource(KafkaTopic topicResource) {
         Promise<KafkaTopic> handler = Promise.promise();
-        vertx.executeBlocking(future -> {
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(future -> {
             try {
                 KafkaTopic kafkaTopic = operation().inNamespace(namespace).create(topicResource);
                 LOGGER.debug("KafkaTopic {} created with version {}->{}",
@@ -64,7 +65,7 @@ public class K8sImpl implements K8s {
     @Override
     public Future<KafkaTopic> updateResource(KafkaTopic topicResource) {
         Promise<KafkaTopic> handler = Promise.promise();
-        vertx.executeBlocking(future -> {
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(future -> {
             try {
                 KafkaTopic kafkaTopic = operation().inNamespace(namespace).withName(topicResource.getMetadata().getName()).patch(topicResource);
                 LOGGER.debug("KafkaTopic {} updated with version {}->{}",
@@ -87,7 +88,7 @@ public class K8sImpl implements K8s {
     @Override
     public Future<Void> deleteResource(ResourceName resourceName) {
         Promise<Void> handler = Promise.promise();
-        vertx.executeBlocking(future -> {
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(future -> {
             try {
                 // Delete the resource by the topic name, because neither ZK nor Kafka know the resource name
                 if (!Boolean.TRUE.equals(operation().inNamespace(namespace).withName(resourceName.toString()).cascading(true).delete())) {
@@ -128,7 +129,7 @@ public class K8sImpl implements K8s {
     @Override
     public Future<Void> createEvent(Event event) {
         Promise<Void> handler = Promise.promise();
-        vertx.executeBlocking(future -> {
+        WorkerPools.executor(vertx, WorkerPools.KUBERNETES).executeBlocking(future -> {
             try {
                 try {
                     LOGGER.debug("Creating event {}", event);
@@ -74,5 +74,41 @@ public interface Kafka {
      */
     Future<Set<String>> listTopics();
 
+    /**
+     * Asynchronously start changing the replication factor of the given topic
+     * to {@code topic.getNumReplicas()} by reassigning its partitions,
+     * completing the returned Future with the number of partitions being reassigned
+     * once the reassignment has been started (not once it has completed).
+     * When the given throttle is less than {@code Long.MAX_VALUE}, the replication
+     * of the reassigned replicas is throttled to that many bytes per second.
+     * If the operation fails the returned Future will be failed with the
+     * KafkaException (not an ExecutionException).
+     * @param topic The topic with the new replication factor.
+     * @param throttle The replication throttle in bytes per second.
+     * @return A future which is completed with the number of partitions being reassigned.
+     */
+    Future<Integer> changeReplicationFactor(Topic topic, long throttle);
+
+    /**
+     * Asynchronously get the number of partitions of the given topic which are being reassigned,
+     * completing the returned Future with the number of partitions.
+     * If the operation fails the returned Future will be failed with the
+     * KafkaException (not an ExecutionException).
+     * @param topicName The name of the topic.
+     * @return A future which is completed with the number of partitions being reassigned.
+     */
+    Future<Integer> partitionsBeingReassigned(TopicName topicName);
+
+    /**
+     * Asynchronously remove the replication throttles of the given topic
+     * once its partitions are not reassigned anymore. The throttled rates of the brokers
+     * are removed as well when no partition of any topic is being reassigned.
+     * If the operation fails the returned Future will be failed with the
+     * KafkaException (not an ExecutionException).
+     * @param topicName The name of the topic.
+     * @return A future which is completed once the throttles have been removed.
+     */
+    Future<Void> removeReassignmentThrottles(TopicName topicName);
+
 }
 
@@ -6,27 +6,45 @@ package io.strimzi.operator.topic;
 
 import io.strimzi.operator.common.Util;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AlterConfigOp;
 import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
 import org.apache.kafka.clients.admin.ListTopicsOptions;
 import org.apache.kafka.clients.admin.ListTopicsResult;
+import org.apache.kafka.clients.admin.NewPartitionReassignment;
 import org.apache.kafka.clients.admin.NewPartitions;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.InvalidReplicationFactorException;
 import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
 
 /**
  * Partial implementation of {@link Kafka} omitting those methods which imply a partition assignment.
@@ -38,12 +56,19 @@ public class KafkaImpl implements Kafka {
 
     private final static Logger LOGGER = LogManager.getLogger(KafkaImpl.class);
 
+    static final String LEADER_THROTTLED_RATE = "leader.replication.throttled.rate";
+    static final String FOLLOWER_THROTTLED_RATE = "follower.replication.throttled.rate";
+
     protected final AdminClient adminClient;
 
     protected final Vertx vertx;
 
     private volatile boolean stopped = false;
 
+    // The throttled rates set on the brokers for the reassignments keyed by topic name. They are recorded once they
+    // were set, so that only the rates which were set for the reassignment are removed afterwards.
+    private final Map<String, Long> reassignmentThrottleRates = new ConcurrentHashMap<>();
+
     public KafkaImpl(AdminClient adminClient, Vertx vertx) {
         this.adminClient = adminClient;
         this.vertx = vertx;
@@ -213,6 +238,15 @@ public class KafkaImpl implements Kafka {
         vertx.runOnContext(work);
     }
 
+    /**
+     * Queue the work for the given future, returning a Vert.x future which is completed with its result.
+     */
+    private <T> Future<T> toFuture(String name, KafkaFuture<T> future) {
+        Promise<T> handler = Promise.promise();
+        queueWork(new UniWork<>(name, future, handler));
+        return handler.future();
+    }
+
     /**
      * Delete a topic via the Kafka AdminClient API, calling the given handler
      * (in a different thread) with the result.
@@ -240,14 +274,47 @@ public class KafkaImpl implements Kafka {
         );
     }
 
-    @SuppressWarnings("deprecation")
+    /**
+     * Update the config of the topic via the Kafka AdminClient API. Only the changed entries are set or deleted, so the
+     * throttles of an ongoing reassignment are kept.
+     */
     @Override
     public Future<Void> updateTopicConfig(Topic topic) {
-        Promise<Void> handler = Promise.promise();
-        Map<ConfigResource, Config> configs = TopicSerialization.toTopicConfig(topic);
-        KafkaFuture<Void> future = adminClient.alterConfigs(configs).values().get(configs.keySet().iterator().next());
-        queueWork(new UniWork<>("updateTopicConfig", future, handler));
-        return handler.future();
+        ConfigResource resource = new ConfigResource(ConfigResource.Type.TOPIC, topic.getTopicName().toString());
+        return toFuture("describeTopicConfig", adminClient.describeConfigs(Collections.singleton(resource)).values().get(resource))
+            .compose(current -> {
+                Collection<AlterConfigOp> ops = topicConfigChanges(current, topic.getConfig());
+                if (ops.isEmpty()) {
+                    return Future.succeededFuture();
+                }
+
+                LOGGER.debug("Updating config of topic {}: {}", resource.name(), ops);
+                return toFuture("updateTopicConfig", adminClient.incrementalAlterConfigs(Collections.singletonMap(resource, ops)).all());
+            });
+    }
+
+    /**
+     * The operations changing the current topic config to the desired one. The throttles of reassignments are not
+     * removed, even though they are not part of the desired config.
+     */
+    /* test */ static Collection<AlterConfigOp> topicConfigChanges(Config current, Map<String, String> desired) {
+        List<AlterConfigOp> ops = new ArrayList<>();
+        for (Map.Entry<String, String> entry : desired.entrySet()) {
+            ConfigEntry currentEntry = current.get(entry.getKey());
+            if (currentEntry == null
+                    || currentEntry.source() != ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG
+                    || !entry.getValue().equals(currentEntry.value())) {
+                ops.add(new AlterConfigOp(new ConfigEntry(entry.getKey(), entry.getValue()), AlterConfigOp.OpType.SET));
+            }
+        }
+        for (ConfigEntry entry : current.entries()) {
+            if (entry.source() == ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG
+                    && !desired.containsKey(entry.name())
+                    && !TopicSerialization.REASSIGNMENT_THROTTLE_CONFIGS.contains(entry.name())) {
+                ops.add(new AlterConfigOp(new ConfigEntry(entry.name(), ""), AlterConfigOp.OpType.DELETE));
+            }
+        }
+        return ops;
     }
 
     /**
@@ -309,4 +376,223 @@ public class KafkaImpl implements Kafka {
         return handler.future();
     }
 
+    /**
+     * Reassign the partitions of the topic via the Kafka AdminClient API to change its replication factor.
+     * The new replicas are placed by {@link ReplicaPlacement}.
+     */
+    @Override
+    public Future<Integer> changeReplicationFactor(Topic topic, long throttle) {
+        String topicName = topic.getTopicName().toString();
+        Future<TopicDescription> descriptionFuture = toFuture("describeTopic",
+                adminClient.describeTopics(Collections.singleton(topicName)).values().get(topicName));
+        Future<Collection<Node>> nodesFuture = toFuture("describeCluster", adminClient.describeCluster().nodes());
+
+        return CompositeFuture.all(descriptionFuture, nodesFuture).compose(ignored -> {
+            Map<Integer, List<Integer>> current = new HashMap<>();
+            for (TopicPartitionInfo partition : descriptionFuture.result().partitions()) {
+                current.put(partition.partition(), partition.replicas().stream().map(Node::id).collect(Collectors.toList()));
+            }
+            Map<Integer, String> brokerRacks = new HashMap<>();
+            for (Node node : nodesFuture.result()) {
+                brokerRacks.put(node.id(), node.rack());
+            }
+
+            Map<Integer, List<Integer>> reassigned;
+            try {
+                reassigned = ReplicaPlacement.reassign(current, brokerRacks, topic.getNumReplicas());
+            } catch (InvalidReplicationFactorException e) {
+                return Future.failedFuture(e);
+            }
+
+            if (reassigned.isEmpty()) {
+                return Future.succeededFuture(0);
+            }
+
+            Future<Void> throttled;
+            if (throttle < Long.MAX_VALUE) {
+                throttled = setReassignmentThrottles(topicName, current, reassigned, brokerRacks.keySet(), throttle);
+            } else {
+                throttled = Future.succeededFuture();
+            }
+
+            Map<TopicPartition, Optional<NewPartitionReassignment>> reassignments = new HashMap<>(reassigned.size());
+            for (Map.Entry<Integer, List<Integer>> partition : reassigned.entrySet()) {
+                reassignments.put(new TopicPartition(topicName, partition.getKey()),
+                        Optional.of(new NewPartitionReassignment(partition.getValue())));
+            }
+
+            return throttled.compose(ignored2 -> {
+                LOGGER.debug("Reassigning partitions of topic {}: {}", topicName, reassignments);
+                return toFuture("alterPartitionReassignments", adminClient.alterPartitionReassignments(reassignments).all());
+            }).map(reassignments.size());
+        });
+    }
+
+    /**
+     * Throttle the replication of the reassigned partitions like {@code kafka-reassign-partitions.sh --throttle} does:
+     * the current replicas are throttled as leaders, the added replicas as followers and the throttled rate is set on
+     * all brokers hosting the current or the added replicas.
+     */
+    private Future<Void> setReassignmentThrottles(String topicName, Map<Integer, List<Integer>> current,
+                                                  Map<Integer, List<Integer>> reassigned, Set<Integer> availableBrokers,
+                                                  long throttle) {
+        List<String> leaders = new ArrayList<>();
+        List<String> followers = new ArrayList<>();
+        Set<Integer> brokers = new HashSet<>();
+        for (Map.Entry<Integer, List<Integer>> partition : reassigned.entrySet()) {
+            List<Integer> currentReplicas = current.get(partition.getKey());
+            for (Integer broker : currentReplicas) {
+                leaders.add(partition.getKey() + ":" + broker);
+            }
+            for (Integer broker : partition.getValue()) {
+                if (!currentReplicas.contains(broker)) {
+                    followers.add(partition.getKey() + ":" + broker);
+                }
+            }
+            brokers.addAll(currentReplicas);
+            brokers.addAll(partition.getValue());
+        }
+        brokers.retainAll(availableBrokers);
+
+        List<ConfigEntry> topicThrottles = new ArrayList<>(2);
+        topicThrottles.add(new ConfigEntry(TopicSerialization.LEADER_THROTTLED_REPLICAS, String.join(",", leaders)));
+        if (!followers.isEmpty()) {
+            topicThrottles.add(new ConfigEntry(TopicSerialization.FOLLOWER_THROTTLED_REPLICAS, String.join(",", followers)));
+        }
+
+        Map<ConfigResource, Collection<AlterConfigOp>> configs = new HashMap<>();
+        configs.put(new ConfigResource(ConfigResource.Type.TOPIC, topicName), topicThrottles.stream()
+                .map(entry -> new AlterConfigOp(entry, AlterConfigOp.OpType.SET))
+                .collect(Collectors.toList()));
+        for (Integer broker : brokers) {
+            configs.put(new ConfigResource(ConfigResource.Type.BROKER, String.valueOf(broker)), asList(
+                    new AlterConfigOp(new ConfigEntry(LEADER_THROTTLED_RATE, String.valueOf(throttle)), AlterConfigOp.OpType.SET),
+                    new AlterConfigOp(new ConfigEntry(FOLLOWER_THROTTLED_RATE, String.valueOf(throttle)), AlterConfigOp.OpType.SET)));
+        }
+
+        LOGGER.debug("Throttling the reassignment of topic {} to {} bytes/s on brokers {}", topicName, throttle, brokers);
+        return toFuture("setReassignmentThrottles", adminClient.incrementalAlterConfigs(configs).all())
+                .map(ignored -> {
+                    reassignmentThrottleRates.put(topicName, throttle);
+                    return null;
+                });
+    }
+
+    @Override
+    public Future<Integer> partitionsBeingReassigned(TopicName topicName) {
+        String name = topicName.toString();
+        return toFuture("listPartitionReassignments", adminClient.listPartitionReassignments().reassignments())
+                .map(reassignments -> (int) reassignments.keySet().stream()
+                        .filter(partition -> partition.topic().equals(name))
+                        .count());
+    }
+
+    /**
+     * Remove the throttles set by {@link #setReassignmentThrottles}. The throttled replicas are read from the topic
+     * config, so that the throttled rates are removed only from the brokers which were throttled for this topic, and
+     * only when they were not changed since (when this operator did not set them, e.g. before a restart, any rate
+     * is removed from these brokers). The rates are kept while other partitions are being reassigned.
+     */
+    @Override
+    public Future<Void> removeReassignmentThrottles(TopicName topicName) {
+        String name = topicName.toString();
+        ConfigResource topicResource = new ConfigResource(ConfigResource.Type.TOPIC, name);
+        Long throttle = reassignmentThrottleRates.get(name);
+
+        return toFuture("describeTopicConfig", adminClient.describeConfigs(Collections.singleton(topicResource)).values().get(topicResource))
+            .compose(topicConfig -> {
+                Set<Integer> brokers = new HashSet<>();
+                List<AlterConfigOp> topicOps = new ArrayList<>(2);
+                for (String key : TopicSerialization.REASSIGNMENT_THROTTLE_CONFIGS) {
+                    ConfigEntry entry = topicConfig.get(key);
+                    if (entry != null && entry.source() == ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG) {
+                        brokers.addAll(throttledBrokers(entry.value()));
+                        topicOps.add(new AlterConfigOp(new ConfigEntry(key, ""), AlterConfigOp.OpType.DELETE));
+                    }
+                }
+
+                if (topicOps.isEmpty()) {
+                    LOGGER.debug("Topic {} has no reassignment throttles", name);
+                    return Future.succeededFuture(brokers);
+                }
+
+                LOGGER.debug("Removing the reassignment throttles of topic {}", name);
+                return toFuture("removeTopicThrottles", adminClient.incrementalAlterConfigs(
+                        Collections.singletonMap(topicResource, topicOps)).all()).map(brokers);
+            })
+            .compose(brokers -> {
+                if (brokers.isEmpty()) {
+                    return Future.succeededFuture();
+                }
+
+                return toFuture("listPartitionReassignments", adminClient.listPartitionReassignments().reassignments()).compose(reassignments -> {
+                    if (!reassignments.isEmpty()) {
+                        LOGGER.debug("Keeping the throttled rates of the brokers, {} partitions are still being reassigned", reassignments.size());
+                        return Future.succeededFuture();
+                    }
+
+                    return removeBrokerThrottles(brokers, throttle);
+                });
+            })
+            .map(ignored -> {
+                reassignmentThrottleRates.remove(name);
+                return null;
+            });
+    }
+
+    private Future<Void> removeBrokerThrottles(Set<Integer> brokers, Long throttle) {
+        return toFuture("describeCluster", adminClient.describeCluster().nodes()).compose(nodes -> {
+            List<ConfigResource> resources = nodes.stream()
+                    .filter(node -> brokers.contains(node.id()))
+                    .map(node -> new ConfigResource(ConfigResource.Type.BROKER, node.idString()))
+                    .collect(Collectors.toList());
+
+            return toFuture("describeBrokerConfigs", adminClient.describeConfigs(resources).all());
+        }).compose(brokerConfigs -> {
+            Map<ConfigResource, Collection<AlterConfigOp>> configs = new HashMap<>();
+            for (Map.Entry<ConfigResource, Config> brokerConfig : brokerConfigs.entrySet()) {
+                List<AlterConfigOp> ops = new ArrayList<>(2);
+                for (String key : asList(LEADER_THROTTLED_RATE, FOLLOWER_THROTTLED_RATE)) {
+                    ConfigEntry entry = brokerConfig.getValue().get(key);
+                    if (entry != null
+                            && entry.source() == ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG
+                            && (throttle == null || String.valueOf(throttle).equals(entry.value()))) {
+                        ops.add(new AlterConfigOp(new ConfigEntry(key, ""), AlterConfigOp.OpType.DELETE));
+                    }
+                }
+                if (!ops.isEmpty()) {
+                    configs.put(brokerConfig.getKey(), ops);
+                }
+            }
+
+            if (configs.isEmpty()) {
+                return Future.succeededFuture();
+            }
+
+            LOGGER.debug("Removing the throttled rates of the brokers {}", configs.keySet());
+            return toFuture("removeBrokerThrottles", adminClient.incrementalAlterConfigs(configs).all());
+        });
+    }
+
+    /**
+     * The brokers in the value of a {@code leader.replication.throttled.replicas} or
+     * {@code follower.replication.throttled.replicas} config, which lists partition:broker pairs.
+     */
+    /* test */ static Set<Integer> throttledBrokers(String throttledReplicas) {
+        Set<Integer> brokers = new HashSet<>();
+        if (throttledReplicas != null) {
+            for (String replica : throttledReplicas.split(",")) {
+                String[] partitionAndBroker = replica.trim().split(":");
+                if (partitionAndBroker.length == 2) {
+                    try {
+                        brokers.add(Integer.parseInt(partitionAndBroker[1].trim()));
+                    } catch (NumberFormatException e) {
+                        LOGGER.debug("Ignoring throttled replica {}", replica);
+                    }
+                }
+            }
+        }
+        return brokers;
+    }
+
 }
@@ -6,6 +6,7 @@ package io.strimzi.operator.topic;
 
 import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.strimzi.api.kafka.Crds;
+import io.strimzi.operator.common.WorkerPools;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -36,6 +37,7 @@ public class Main {
         Map<String, String> m = new HashMap<>(System.getenv());
         m.keySet().retainAll(Config.keyNames());
         Config config = new Config(m);
+        WorkerPools.configure(WorkerPools.sizesFromMap(System.getenv()));
         deploy(config);
     }
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import org.apache.kafka.common.errors.InvalidReplicationFactorException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Computes the replicas of the partitions of a topic whose replication factor changes.
+ *
+ * The current replicas are kept as far as possible, so that only the added replicas have to copy the data.
+ * The added replicas are placed on brokers in racks which do not host a replica of the partition yet and, among
+ * those, on the brokers which host the fewest replicas of the topic, preferring the brokers following the preferred
+ * leader (like Kafka does when it creates the topic). When replicas are removed, the preferred leader
+ * is kept and the replicas are removed from unavailable brokers first, then from the racks hosting most replicas of
+ * the partition and then from the brokers hosting most replicas of the topic.
+ */
+class ReplicaPlacement {
+    private ReplicaPlacement() { }
+
+    /**
+     * @param current The current replicas keyed by partition
+     * @param brokerRacks The racks of the available brokers keyed by broker id. The rack is null for brokers without rack.
+     * @param replicationFactor The new replication factor
+     *
+     * @return  The new replicas of the partitions whose replicas change, keyed by partition
+     *
+     * @throws InvalidReplicationFactorException When there are not enough brokers for the replication factor
+     */
+    static Map<Integer, List<Integer>> reassign(Map<Integer, List<Integer>> current, Map<Integer, String> brokerRacks, int replicationFactor) {
+        if (replicationFactor < 1 || replicationFactor > brokerRacks.size()) {
+            throw new InvalidReplicationFactorException("Replication factor " + replicationFactor
+                    + " is not between 1 and the number of available brokers " + brokerRacks.size());
+        }
+
+        Map<Integer, Integer> load = new HashMap<>();
+        for (Integer broker : brokerRacks.keySet()) {
+            load.put(broker, 0);
+        }
+        for (List<Integer> replicas : current.values()) {
+            for (Integer broker : replicas) {
+                load.merge(broker, 1, Integer::sum);
+            }
+        }
+
+        List<Integer> brokers = new ArrayList<>(new TreeMap<>(brokerRacks).keySet());
+
+        Map<Integer, List<Integer>> reassigned = new TreeMap<>();
+        for (Map.Entry<Integer, List<Integer>> partition : new TreeMap<>(current).entrySet()) {
+            List<Integer> replicas = new ArrayList<>(partition.getValue());
+            if (replicas.size() == replicationFactor) {
+                continue;
+            }
+
+            int leaderIndex = replicas.isEmpty() ? 0 : Math.max(brokers.indexOf(replicas.get(0)), 0);
+            while (replicas.size() < replicationFactor) {
+                Integer added = brokerRacks.keySet().stream()
+                        .filter(broker -> !replicas.contains(broker))
+                        .min(Comparator.<Integer>comparingInt(broker -> replicasInRack(replicas, brokerRacks, brokerRacks.get(broker)))
+                                .thenComparingInt(load::get)
+                                .thenComparingInt(broker -> Math.floorMod(brokers.indexOf(broker) - leaderIndex, brokers.size())))
+                        .orElseThrow(() -> new InvalidReplicationFactorException("No broker available for partition " + partition.getKey()));
+                replicas.add(added);
+                load.merge(added, 1, Integer::sum);
+            }
+
+            while (replicas.size() > replicationFactor) {
+                // The first replica is the preferred leader
+                Integer removed = replicas.subList(1, replicas.size()).stream()
+                        .max(Comparator.<Integer, Boolean>comparing(broker -> !brokerRacks.containsKey(broker))
+                                .thenComparingInt(broker -> replicasInRack(replicas, brokerRacks, brokerRacks.get(broker)))
+                                .thenComparingInt(broker -> load.getOrDefault(broker, 0))
+                                .thenComparingInt(broker -> broker))
+                        .get();
+                replicas.remove(removed);
+                load.merge(removed, -1, Integer::sum);
+            }
+
+            reassigned.put(partition.getKey(), replicas);
+        }
+
+        return reassigned;
+    }
+
+    /**
+     * @return  The number of the replicas hosted in the given rack. Brokers without rack are considered to be
+     *          in a rack of their own.
+     */
+    private static int replicasInRack(List<Integer> replicas, Map<Integer, String> brokerRacks, String rack) {
+        if (rack == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (Integer broker : replicas) {
+            if (Objects.equals(rack, brokerRacks.get(broker))) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
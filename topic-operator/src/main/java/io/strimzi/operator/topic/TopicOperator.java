@@ -10,6 +10,8 @@ import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.client.Watcher;
 import io.strimzi.api.kafka.model.KafkaTopic;
 import io.strimzi.api.kafka.model.KafkaTopicBuilder;
+import io.strimzi.api.kafka.model.status.Condition;
+import io.strimzi.api.kafka.model.status.ConditionBuilder;
 import io.strimzi.api.kafka.model.status.KafkaTopicStatus;
 import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.common.BackOff;
@@ -53,6 +55,11 @@ class TopicOperator {
     private TopicStore topicStore;
     private final Config config;
     private final ConcurrentHashMap<TopicName, Integer> inflight = new ConcurrentHashMap<>();
+    // Topics whose partitions are being reassigned and the topics with a scheduled verification of the reassignment
+    private final Set<TopicName> reassigning = ConcurrentHashMap.newKeySet();
+    private final Set<TopicName> reassignmentVerifications = ConcurrentHashMap.newKeySet();
+
+    static final String MIN_INSYNC_REPLICAS = "min.insync.replicas";
 
     enum EventType {
         INFO("Info"),
@@ -599,6 +606,35 @@ class TopicOperator {
     }
 
     private Future<Void> update3Way(Reconciliation reconciliation, LogContext logContext, HasMetadata involvedObject, Topic k8sTopic, Topic kafkaTopic, Topic privateTopic) {
+        TopicName topicName = kafkaTopic.getTopicName();
+        if (!reassigning.contains(topicName)) {
+            return update3Way(reconciliation, logContext, involvedObject, k8sTopic, kafkaTopic, privateTopic, false);
+        }
+
+        return kafka.partitionsBeingReassigned(topicName).compose(partitions -> {
+            if (partitions > 0) {
+                LOGGER.info("{}: {} partitions of topic {} are still being reassigned", logContext, partitions, topicName);
+                reconciliation.reassignmentInProgress(k8sTopic.getNumReplicas(), partitions);
+                scheduleReassignmentVerification(topicName);
+                return update3Way(reconciliation, logContext, involvedObject, k8sTopic, kafkaTopic, privateTopic, true);
+            } else {
+                LOGGER.info("{}: Reassignment of topic {} completed", logContext, topicName);
+                reassigning.remove(topicName);
+                Future<Void> throttlesFuture = config.get(Config.REASSIGN_THROTTLE) < Long.MAX_VALUE
+                        ? kafka.removeReassignmentThrottles(topicName)
+                        : Future.succeededFuture();
+                // The replication factor in Kafka changed with the completed reassignment
+                return throttlesFuture
+                        .compose(ignored -> getFromKafka(topicName))
+                        .compose(currentKafkaTopic -> currentKafkaTopic == null
+                                ? Future.succeededFuture()
+                                : update3Way(reconciliation, logContext, involvedObject, k8sTopic, currentKafkaTopic, privateTopic, false));
+            }
+        });
+    }
+
+    private Future<Void> update3Way(Reconciliation reconciliation, LogContext logContext, HasMetadata involvedObject, Topic k8sTopic, Topic kafkaTopic, Topic privateTopic,
+                                    boolean partitionsReassigning) {
         final Future<Void> reconciliationResultHandler;
         if (!privateTopic.getResourceName().equals(k8sTopic.getResourceName())) {
             return Future.failedFuture(new OperatorException(involvedObject,
@@ -629,18 +665,21 @@ class TopicOperator {
                     enqueue(new Event(involvedObject, message, EventType.INFO, eventResult -> {
                     }));
                     reconciliationResultHandler = Future.failedFuture(new Exception(message));
-                } else if (oursK8s.changesReplicationFactor()
-                            && !oursKafka.changesReplicationFactor()) {
-                    reconciliationResultHandler = Future.failedFuture(new Exception(
-                                    "Changing 'spec.replicas' is not supported. " +
-                                            "This KafkaTopic's 'spec.replicas' should be reverted to " +
-                                            kafkaTopic.getNumReplicas() +
-                                            " and then the replication should be changed directly in Kafka."));
                 } else {
-                    // TODO What if we increase min.in.sync.replicas and the number of replicas,
-                    // such that the old number of replicas < the new min isr? But likewise
-                    // we could decrease, so order of tasks in the queue will need to change
-                    // depending on what the diffs are.
+                    // The replication factor is changed by reassigning the partitions once the config is updated
+                    // and the partitions are added. Until the reassignment completes, Kafka and the topic store keep
+                    // the current replication factor and min.insync.replicas is not increased, because the new
+                    // replicas are not in sync yet.
+                    boolean changesReplicationFactor = oursK8s.changesReplicationFactor()
+                            && !oursKafka.changesReplicationFactor();
+                    Topic kafkaResult = result;
+                    if (changesReplicationFactor) {
+                        kafkaResult = new Topic.Builder(kafkaResult).withNumReplicas(kafkaTopic.getNumReplicas()).build();
+                    }
+                    if (changesReplicationFactor || partitionsReassigning) {
+                        kafkaResult = withoutMinIsrIncrease(kafkaResult, kafkaTopic);
+                    }
+                    Topic storedResult = kafkaResult;
                     LOGGER.debug("{}: Updating KafkaTopic, kafka topic and topicStore", logContext);
                     TopicDiff kubeDiff = TopicDiff.diff(k8sTopic, result);
                     Future<KafkaTopic> resourceFuture;
@@ -657,13 +696,13 @@ class TopicOperator {
                     reconciliationResultHandler = resourceFuture
                         .compose(updatedKafkaTopic -> {
                             Future<Void> configFuture;
-                            TopicDiff kafkaDiff = TopicDiff.diff(kafkaTopic, result);
+                            TopicDiff kafkaDiff = TopicDiff.diff(kafkaTopic, storedResult);
                             if (merged.changesConfig()
-                                    && !kafkaDiff.isEmpty()) {
+                                    && kafkaDiff.changesConfig()) {
                                 Promise<Void> promise = Promise.promise();
                                 configFuture = promise.future();
                                 LOGGER.debug("{}: Updating kafka config with {}", logContext, kafkaDiff);
-                                enqueue(new UpdateKafkaConfig(logContext, result, involvedObject, configFuture));
+                                enqueue(new UpdateKafkaConfig(logContext, storedResult, involvedObject, configFuture));
                             } else {
                                 LOGGER.debug("{}: No need to update kafka topic with {}", logContext, kafkaDiff);
                                 configFuture = Future.succeededFuture();
@@ -680,9 +719,15 @@ class TopicOperator {
                             } else {
                                 return Future.succeededFuture();
                             }
+                        }).compose(ignored -> {
+                            if (changesReplicationFactor && !partitionsReassigning) {
+                                return changeReplicationFactor(reconciliation, logContext, result);
+                            } else {
+                                return Future.succeededFuture();
+                            }
                         }).compose(ignored -> {
                             Promise<Void> topicStorePromise = Promise.promise();
-                            enqueue(new UpdateInTopicStore(logContext, result, involvedObject, topicStorePromise));
+                            enqueue(new UpdateInTopicStore(logContext, storedResult, involvedObject, topicStorePromise));
                             return topicStorePromise.future();
                         });
                 }
@@ -691,6 +736,102 @@ class TopicOperator {
         return reconciliationResultHandler;
     }
 
+    /**
+     * Starts reassigning the partitions of the topic to change its replication factor, unless they are already
+     * being reassigned (e.g. by a reconciliation before the operator restarted).
+     */
+    private Future<Void> changeReplicationFactor(Reconciliation reconciliation, LogContext logContext, Topic topic) {
+        TopicName topicName = topic.getTopicName();
+        return kafka.partitionsBeingReassigned(topicName)
+            .compose(partitions -> {
+                if (partitions > 0) {
+                    LOGGER.info("{}: {} partitions of topic {} are already being reassigned", logContext, partitions, topicName);
+                    return Future.succeededFuture(partitions);
+                } else {
+                    LOGGER.info("{}: Changing the replication factor of topic {} to {}", logContext, topicName, topic.getNumReplicas());
+                    return kafka.changeReplicationFactor(topic, config.get(Config.REASSIGN_THROTTLE));
+                }
+            }).map(partitions -> {
+                if (partitions > 0) {
+                    reassigning.add(topicName);
+                    reconciliation.reassignmentInProgress(topic.getNumReplicas(), partitions);
+                    scheduleReassignmentVerification(topicName);
+                }
+                return null;
+            });
+    }
+
+    /**
+     * Reconciles the topic once the reassignment verify interval elapses, so that the completion of the reassignment
+     * is noticed, the throttles are removed and the new replication factor is stored.
+     */
+    private void scheduleReassignmentVerification(TopicName topicName) {
+        if (!reassignmentVerifications.add(topicName)) {
+            return;
+        }
+
+        vertx.setTimer(config.get(Config.REASSIGN_VERIFY_INTERVAL_MS), timerId -> {
+            reassignmentVerifications.remove(topicName);
+            LogContext logContext = LogContext.periodic("verify-reassignment " + topicName);
+            executeWithTopicLockHeld(logContext, topicName, new Reconciliation("verify-reassignment") {
+                @Override
+                public Future<Void> execute() {
+                    return kafka.topicMetadata(topicName)
+                            .compose(metadata -> reconcileOnTopicChange(logContext, topicName, fromTopicMetadata(metadata), this));
+                }
+            }).setHandler(ar -> {
+                if (ar.failed()) {
+                    LOGGER.warn("{}: Failed to verify the reassignment of topic {}", logContext, topicName, ar.cause());
+                }
+            });
+        });
+    }
+
+    /**
+     * Returns the given topic with the min.insync.replicas of the Kafka topic when the given topic would increase it.
+     */
+    private static Topic withoutMinIsrIncrease(Topic topic, Topic kafkaTopic) {
+        String desired = topic.getConfig().get(MIN_INSYNC_REPLICAS);
+        String current = kafkaTopic.getConfig().get(MIN_INSYNC_REPLICAS);
+        if (desired == null || desired.equals(current)) {
+            return topic;
+        }
+
+        try {
+            int currentValue = current != null ? Integer.parseInt(current) : 1;
+            if (Integer.parseInt(desired) <= currentValue) {
+                return topic;
+            }
+        } catch (NumberFormatException e) {
+            // Kafka rejects the invalid value
+            return topic;
+        }
+
+        Topic.Builder builder = new Topic.Builder(topic);
+        if (current != null) {
+            builder.withConfigEntry(MIN_INSYNC_REPLICAS, current);
+        } else {
+            builder.withoutConfigEntry(MIN_INSYNC_REPLICAS);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create a Topic to reflect the given TopicMetadata. Topics whose replicas are throttled are checked for
+     * completed reassignments (e.g. when the operator restarted during a reassignment).
+     */
+    private Topic fromTopicMetadata(TopicMetadata metadata) {
+        if (metadata != null
+                && config.get(Config.REASSIGN_THROTTLE) < Long.MAX_VALUE
+                && TopicSerialization.hasReassignmentThrottles(metadata)) {
+            TopicName topicName = new TopicName(metadata.getDescription().name());
+            if (reassigning.add(topicName)) {
+                scheduleReassignmentVerification(topicName);
+            }
+        }
+        return TopicSerialization.fromTopicMetadata(metadata);
+    }
+
     void enqueue(Handler<Void> event) {
         LOGGER.debug("Enqueuing event {}", event);
         vertx.runOnContext(event);
@@ -720,7 +861,7 @@ class TopicOperator {
                     public Future<Void> execute() {
                         return kafka.topicMetadata(topicName)
                                 .compose(metadata -> {
-                                    Topic topic = TopicSerialization.fromTopicMetadata(metadata);
+                                    Topic topic = fromTopicMetadata(metadata);
                                     return reconcileOnTopicChange(logContext, topicName, topic, this);
                                 });
                     }
@@ -745,7 +886,7 @@ class TopicOperator {
                             try {
                                 if (metadataResult.succeeded()) {
                                     // getting topic metadata from Kafka
-                                    Topic kafkaTopic = TopicSerialization.fromTopicMetadata(metadataResult.result());
+                                    Topic kafkaTopic = fromTopicMetadata(metadataResult.result());
 
                                     // if partitions aren't changed on Kafka yet, we retry with exponential backoff
                                     if (topicResult.result().getNumPartitions() == kafkaTopic.getNumPartitions()) {
@@ -820,7 +961,7 @@ class TopicOperator {
                             } else {
                                 // We now have the metadata we need to create the
                                 // resource...
-                                Topic kafkaTopic = TopicSerialization.fromTopicMetadata(metadataResult.result());
+                                Topic kafkaTopic = fromTopicMetadata(metadataResult.result());
                                 reconcileOnTopicChange(logContext, topicName, kafkaTopic, self)
                                         .setHandler(promise);
                             }
@@ -845,6 +986,7 @@ class TopicOperator {
         private final String name;
         public AsyncResult<Void> result;
         public volatile KafkaTopic topic;
+        private volatile Condition reassignmentCondition;
 
         public Reconciliation(String name) {
             this.name = name;
@@ -861,6 +1003,17 @@ class TopicOperator {
             topic = observedTopic;
         }
 
+        protected void reassignmentInProgress(short replicationFactor, int partitions) {
+            reassignmentCondition = new ConditionBuilder()
+                    .withLastTransitionTime(StatusUtils.iso8601Now())
+                    .withType("ReplicationFactorChange")
+                    .withStatus("True")
+                    .withReason("PartitionReassignment")
+                    .withMessage("Changing the replication factor to " + replicationFactor + ", "
+                            + partitions + " partitions are being reassigned")
+                    .build();
+        }
+
         private Future<Void> updateStatus(LogContext logContext) {
             try {
                 KafkaTopic topic = this.topic;
@@ -873,6 +1026,11 @@ class TopicOperator {
                             topic.getMetadata().getGeneration());
                     KafkaTopicStatus kts = new KafkaTopicStatus();
                     StatusUtils.setStatusConditionAndObservedGeneration(topic, kts, result);
+                    if (reassignmentCondition != null) {
+                        List<Condition> conditions = new ArrayList<>(kts.getConditions());
+                        conditions.add(reassignmentCondition);
+                        kts.setConditions(conditions);
+                    }
 
                     StatusDiff ksDiff = new StatusDiff(topic.getStatus(), kts);
                     if (!ksDiff.isEmpty()) {
@@ -1292,7 +1450,7 @@ class TopicOperator {
             Topic k8sTopic = kafkaTopicResource != null ? TopicSerialization.fromTopicResource(kafkaTopicResource) : null;
             kafka.topicMetadata(topicName)
                 .compose(kafkaTopicMeta -> {
-                    Topic topicFromKafka = TopicSerialization.fromTopicMetadata(kafkaTopicMeta);
+                    Topic topicFromKafka = fromTopicMetadata(kafkaTopicMeta);
                     return reconcile(reconciliation, logContext, kafkaTopicResource, k8sTopic, topicFromKafka, privateTopic);
                 })
                 .setHandler(ar -> {
@@ -1314,7 +1472,7 @@ class TopicOperator {
     }
 
     Future<Topic> getFromKafka(TopicName topicName) {
-        return kafka.topicMetadata(topicName).map(TopicSerialization::fromTopicMetadata);
+        return kafka.topicMetadata(topicName).map(this::fromTopicMetadata);
     }
 
     Future<Topic> getFromTopicStore(TopicName topicName) {
@@ -20,6 +20,7 @@ import org.apache.kafka.common.config.ConfigResource;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -40,6 +41,15 @@ class TopicSerialization {
     public static final String JSON_KEY_REPLICAS = "replicas";
     public static final String JSON_KEY_CONFIG = "config";
 
+    /**
+     * The topic configs which throttle the replicas of a partition reassignment. They are managed by the operator
+     * (or by the user running a reassignment), so they are not reflected in the KafkaTopic.
+     */
+    public static final String LEADER_THROTTLED_REPLICAS = "leader.replication.throttled.replicas";
+    public static final String FOLLOWER_THROTTLED_REPLICAS = "follower.replication.throttled.replicas";
+    public static final List<String> REASSIGNMENT_THROTTLE_CONFIGS = Collections.unmodifiableList(Arrays.asList(
+            LEADER_THROTTLED_REPLICAS, FOLLOWER_THROTTLED_REPLICAS));
+
     @SuppressWarnings("unchecked")
     private static Map<String, String> topicConfigFromTopicConfig(KafkaTopic kafkaTopic) {
         if (kafkaTopic.getSpec().getConfig() != null) {
@@ -224,13 +234,28 @@ class TopicSerialization {
                 .withNumReplicas((short) meta.getDescription().partitions().get(0).replicas().size())
                 .withMetadata(null);
         for (ConfigEntry entry: meta.getConfig().entries()) {
-            if (!entry.isDefault()) {
+            if (!entry.isDefault() && !REASSIGNMENT_THROTTLE_CONFIGS.contains(entry.name())) {
                 builder.withConfigEntry(entry.name(), entry.value());
             }
         }
         return builder.build();
     }
 
+    /**
+     * Whether the replicas of the topic described by the given TopicMetadata are throttled for a partition reassignment.
+     */
+    public static boolean hasReassignmentThrottles(TopicMetadata meta) {
+        for (ConfigEntry entry : meta.getConfig().entries()) {
+            if (!entry.isDefault()
+                    && REASSIGNMENT_THROTTLE_CONFIGS.contains(entry.name())
+                    && entry.value() != null
+                    && !entry.value().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns the UTF-8 encoded JSON to reflect the given Topic.
      * This is what is stored in the znodes owned by the {@link ZkTopicStore}.
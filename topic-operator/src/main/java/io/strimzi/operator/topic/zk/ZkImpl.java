@@ -4,6 +4,7 @@
  */
 package io.strimzi.operator.topic.zk;
 
+import io.strimzi.operator.common.WorkerPools;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -188,7 +189,7 @@ public class ZkImpl implements Zk {
     }
 
     private WorkerExecutor workerPool() {
-        return vertx.createSharedWorkerExecutor(getClass().getName(), 4);
+        return WorkerPools.executor(vertx, WorkerPools.ZOOKEEPER);
     }
 
     @Override
@@ -0,0 +1,79 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KafkaImplTest {
+
+    private static ConfigEntry entry(String name, String value, ConfigEntry.ConfigSource source) {
+        ConfigEntry entry = mock(ConfigEntry.class);
+        when(entry.name()).thenReturn(name);
+        when(entry.value()).thenReturn(value);
+        when(entry.source()).thenReturn(source);
+        return entry;
+    }
+
+    private static List<String> changes(Config current, Map<String, String> desired) {
+        return KafkaImpl.topicConfigChanges(current, desired).stream()
+                .map(op -> op.opType() + " " + op.configEntry().name() + (op.opType() == AlterConfigOp.OpType.SET ? "=" + op.configEntry().value() : ""))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testTopicConfigChangesKeepReassignmentThrottles() {
+        Config current = new Config(asList(
+                entry("retention.ms", "1000", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG),
+                entry("cleanup.policy", "compact", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG),
+                entry("min.insync.replicas", "1", ConfigEntry.ConfigSource.DEFAULT_CONFIG),
+                entry("compression.type", "gzip", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG),
+                entry(TopicSerialization.LEADER_THROTTLED_REPLICAS, "0:0", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG),
+                entry(TopicSerialization.FOLLOWER_THROTTLED_REPLICAS, "0:1", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG)));
+        Map<String, String> desired = new HashMap<>();
+        desired.put("retention.ms", "2000");
+        desired.put("min.insync.replicas", "1");
+        desired.put("compression.type", "gzip");
+
+        assertThat(changes(current, desired), containsInAnyOrder(
+                "SET retention.ms=2000",
+                "SET min.insync.replicas=1",
+                "DELETE cleanup.policy"));
+    }
+
+    @Test
+    public void testUnchangedTopicConfigIsNotUpdated() {
+        Config current = new Config(asList(
+                entry("retention.ms", "1000", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG),
+                entry("min.insync.replicas", "1", ConfigEntry.ConfigSource.DEFAULT_CONFIG)));
+
+        assertThat(changes(current, singletonMap("retention.ms", "1000")), is(empty()));
+    }
+
+    @Test
+    public void testThrottledBrokers() {
+        assertThat(KafkaImpl.throttledBrokers("0:1,1:2, 2:1"), containsInAnyOrder(1, 2));
+        assertThat(KafkaImpl.throttledBrokers("*"), is(emptySet()));
+        assertThat(KafkaImpl.throttledBrokers(""), is(emptySet()));
+        assertThat(KafkaImpl.throttledBrokers(null), is(emptySet()));
+    }
+}
@@ -41,6 +41,10 @@ public class MockKafka implements Kafka {
         t -> failedFuture("Unexpected. Your test probably need to configure the MockKafka with a deleteTopicResponse.");
     private Function<TopicName, Future<Void>> updateTopicResponse =
         t -> failedFuture("Unexpected. Your test probably need to configure the MockKafka with a updateTopicResponse.");
+    private Function<TopicName, Future<Integer>> changeReplicationFactorResponse =
+        t -> failedFuture("Unexpected. Your test probably need to configure the MockKafka with a changeReplicationFactorResponse.");
+    private Function<TopicName, Future<Integer>> partitionsBeingReassignedResponse = t -> succeededFuture(0);
+    private int removeReassignmentThrottlesCalls = 0;
 
     public MockKafka setTopicsListResponse(Future<Set<String>> topicsListResponse) {
         this.topicsListResponse = topicsListResponse;
@@ -186,6 +190,49 @@ public class MockKafka implements Kafka {
         return event;
     }
 
+    public MockKafka setChangeReplicationFactorResponse(Function<TopicName, Future<Integer>> changeReplicationFactorResponse) {
+        this.changeReplicationFactorResponse = changeReplicationFactorResponse;
+        return this;
+    }
+
+    public MockKafka setPartitionsBeingReassignedResponse(Function<TopicName, Future<Integer>> partitionsBeingReassignedResponse) {
+        this.partitionsBeingReassignedResponse = partitionsBeingReassignedResponse;
+        return this;
+    }
+
+    /**
+     * The replication factor of the topic changes immediately, as if the reassignment completed.
+     * Use {@link #setPartitionsBeingReassignedResponse(Function)} to simulate a reassignment in progress.
+     */
+    @Override
+    public Future<Integer> changeReplicationFactor(Topic topic, long throttle) {
+        Future<Integer> event = changeReplicationFactorResponse.apply(topic.getTopicName());
+        if (event.succeeded()) {
+            Topic t = topics.get(topic.getTopicName());
+            if (t == null) {
+                return failedFuture("No such topic " + topic.getTopicName());
+            }
+            t = new Topic.Builder(t).withNumReplicas(topic.getNumReplicas()).build();
+            topics.put(topic.getTopicName(), t);
+        }
+        return event;
+    }
+
+    @Override
+    public Future<Integer> partitionsBeingReassigned(TopicName topicName) {
+        return partitionsBeingReassignedResponse.apply(topicName);
+    }
+
+    @Override
+    public Future<Void> removeReassignmentThrottles(TopicName topicName) {
+        removeReassignmentThrottlesCalls++;
+        return succeededFuture();
+    }
+
+    public int getRemoveReassignmentThrottlesCalls() {
+        return removeReassignmentThrottlesCalls;
+    }
+
     @Override
     public Future<TopicMetadata> topicMetadata(TopicName topicName) {
         return getTopicNameFutureFunction().apply(topicName);
@@ -0,0 +1,108 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import org.apache.kafka.common.errors.InvalidReplicationFactorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReplicaPlacementTest {
+
+    private static Map<Integer, String> racks(String... racks) {
+        Map<Integer, String> result = new HashMap<>(racks.length);
+        for (int broker = 0; broker < racks.length; broker++) {
+            result.put(broker, racks[broker]);
+        }
+        return result;
+    }
+
+    @Test
+    public void testIncreaseUsesOtherRacks() {
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(0));
+        current.put(1, asList(2));
+
+        Map<Integer, List<Integer>> reassigned = ReplicaPlacement.reassign(current, racks("a", "a", "b", "b"), 2);
+
+        assertThat(reassigned.get(0), is(asList(0, 3)));
+        assertThat(reassigned.get(1), is(asList(2, 1)));
+    }
+
+    @Test
+    public void testIncreaseBalancesLoadWithoutRacks() {
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(0));
+        current.put(1, asList(1));
+        current.put(2, asList(2));
+
+        Map<Integer, List<Integer>> reassigned = ReplicaPlacement.reassign(current, racks(null, null, null), 2);
+
+        assertThat(reassigned.get(0), is(asList(0, 1)));
+        assertThat(reassigned.get(1), is(asList(1, 2)));
+        assertThat(reassigned.get(2), is(asList(2, 0)));
+    }
+
+    @Test
+    public void testDecreaseKeepsPreferredLeader() {
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(2, 0, 1));
+
+        Map<Integer, List<Integer>> reassigned = ReplicaPlacement.reassign(current, racks(null, null, null), 1);
+
+        assertThat(reassigned.get(0), is(asList(2)));
+    }
+
+    @Test
+    public void testDecreaseRemovesUnavailableBrokerFirst() {
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(0, 1, 5));
+
+        Map<Integer, List<Integer>> reassigned = ReplicaPlacement.reassign(current, racks(null, null), 2);
+
+        assertThat(reassigned.get(0), is(asList(0, 1)));
+    }
+
+    @Test
+    public void testDecreaseRemovesReplicaFromCrowdedRack() {
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(0, 2, 1));
+
+        Map<Integer, List<Integer>> reassigned = ReplicaPlacement.reassign(current, racks("a", "a", "b"), 2);
+
+        assertThat(reassigned.get(0), is(asList(0, 2)));
+    }
+
+    @Test
+    public void testUnchangedPartitionsAreOmitted() {
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(0, 1));
+        current.put(1, asList(1));
+
+        Map<Integer, List<Integer>> reassigned = ReplicaPlacement.reassign(current, racks(null, null, null), 2);
+
+        assertThat(reassigned, aMapWithSize(1));
+        assertThat(reassigned, not(hasKey(0)));
+    }
+
+    @Test
+    public void testTooLargeReplicationFactor() {
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(0));
+
+        assertThrows(InvalidReplicationFactorException.class, () -> ReplicaPlacement.reassign(current, racks(null, null), 3));
+        assertThrows(InvalidReplicationFactorException.class, () -> ReplicaPlacement.reassign(current, racks(null, null), 0));
+    }
+}
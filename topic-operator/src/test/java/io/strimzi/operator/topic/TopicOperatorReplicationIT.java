@@ -10,6 +10,7 @@ import io.strimzi.api.kafka.Crds;
 import io.strimzi.api.kafka.model.KafkaTopic;
 import io.strimzi.api.kafka.model.KafkaTopicBuilder;
 import kafka.admin.ReassignPartitionsCommand;
+import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
@@ -19,8 +20,10 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -42,6 +45,8 @@ public class TopicOperatorReplicationIT extends TopicOperatorBaseIT {
     protected Map<String, String> topicOperatorConfig() {
         Map<String, String> m = super.topicOperatorConfig();
         m.put(Config.FULL_RECONCILIATION_INTERVAL_MS.key, "20000");
+        m.put(Config.REASSIGN_THROTTLE.key, "10000000");
+        m.put(Config.REASSIGN_VERIFY_INTERVAL_MS.key, "5000");
         return m;
     }
 
@@ -55,16 +60,26 @@ public class TopicOperatorReplicationIT extends TopicOperatorBaseIT {
         KafkaTopic changedTopic = new KafkaTopicBuilder(operation().inNamespace(NAMESPACE).withName(resourceName).get())
                 .editOrNewSpec().withReplicas(2).endSpec().build();
         operation().inNamespace(NAMESPACE).withName(resourceName).patch(changedTopic);
-        assertStatusNotReady(topicName,
-                "Changing 'spec.replicas' is not supported. " +
-                        "This KafkaTopic's 'spec.replicas' should be reverted to 1 and then " +
-                        "the replication should be changed directly in Kafka.");
-
-        // Now do the revert
-        changedTopic = new KafkaTopicBuilder(operation().inNamespace(NAMESPACE).withName(resourceName).get())
-                .editOrNewSpec().withReplicas(1).endSpec().build();
-        operation().inNamespace(NAMESPACE).withName(resourceName).patch(changedTopic);
+
+        // wait for the partitions to be reassigned
+        waitFor(() -> {
+            try {
+                TopicDescription description = adminClient.describeTopics(singletonList(topicName)).all().get().get(topicName);
+                return description.partitions().get(0).replicas().size() == 2;
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+        }, "Kafka topic replicas=2");
+
+        // And check that the status is ready
         assertStatusReady(topicName);
+    }
+
+    @Test
+    public void testKafkaTopicReplicationChangedInKafka() throws Exception {
+        // create the topicResource
+        String topicName = "test-kafkatopic-changed-replication-in-kafka";
+        String resourceName = createTopic(topicName, asList(1));
 
         File file = File.createTempFile(getClass().getSimpleName(), ".json");
         ObjectMapper mapper = new ObjectMapper();
@@ -96,11 +111,11 @@ public class TopicOperatorReplicationIT extends TopicOperatorBaseIT {
                     "--verify");
             LOGGER.info(output);
 
-            if (output.contains("Reassignment of partition test-kafkatopic-modified-with-changed-replication-0 is still in progress")) {
+            if (output.contains("Reassignment of partition test-kafkatopic-changed-replication-in-kafka-0 is still in progress")) {
                 return false;
             } else {
                 assertThat("Reassignment is no longer in progress, but wasn't successful: " + output,
-                        output.contains("Reassignment of partition test-kafkatopic-modified-with-changed-replication-0 completed successfully"), is(true));
+                        output.contains("Reassignment of partition test-kafkatopic-changed-replication-in-kafka-0 completed successfully"), is(true));
                 return true;
             }
         }, "reassignment completion");
@@ -746,6 +746,98 @@ public class TopicOperatorTest {
         });
     }
 
+    /**
+     * Test reconciliation when the replication factor was changed in k8s: the partitions are reassigned while the
+     * topic store keeps the current replication factor and min.insync.replicas is not increased yet.
+     */
+    @Test
+    public void testReconcile_withResource_withKafka_withPrivate_changedReplicationFactor(VertxTestContext context) throws InterruptedException {
+        Topic kubeTopic = new Topic.Builder(topicName, resourceName, 2, (short) 3, map("min.insync.replicas", "2"), metadata).build();
+        Topic kafkaTopic = new Topic.Builder(topicName, resourceName, 2, (short) 1, map("min.insync.replicas", "1"), metadata).build();
+        Topic privateTopic = kafkaTopic;
+
+        CountDownLatch async0 = new CountDownLatch(3);
+        mockKafka.setCreateTopicResponse(topicName -> Future.succeededFuture());
+        mockKafka.createTopic(kafkaTopic).setHandler(ar -> async0.countDown());
+        mockKafka.setUpdateTopicResponse(topicName -> Future.succeededFuture());
+        mockKafka.setChangeReplicationFactorResponse(topicName -> Future.succeededFuture(2));
+
+        KafkaTopic resource = TopicSerialization.toTopicResource(kubeTopic, labels);
+        LogContext logContext = LogContext.periodic(topicName.toString());
+        mockK8s.setCreateResponse(topicName.asKubeName(), null);
+        mockK8s.createResource(resource).setHandler(ar -> async0.countDown());
+        mockK8s.setModifyResponse(topicName.asKubeName(), null);
+        mockTopicStore.setCreateTopicResponse(topicName, null);
+        mockTopicStore.create(privateTopic).setHandler(ar -> async0.countDown());
+        mockTopicStore.setUpdateTopicResponse(topicName, null);
+        async0.await();
+
+        Checkpoint async = context.checkpoint();
+        TopicOperator.Reconciliation reconciliation = reconciliation();
+        topicOperator.reconcile(reconciliation, logContext, resource, kubeTopic, kafkaTopic, privateTopic).setHandler(reconcileResult -> {
+            assertSucceeded(context, reconcileResult);
+            context.verify(() -> {
+                assertThat(mockKafka.getTopicState(topicName).getNumReplicas(), is((short) 3));
+                assertThat(mockKafka.getTopicState(topicName).getConfig().get("min.insync.replicas"), is("1"));
+            });
+            mockTopicStore.read(topicName).setHandler(readResult -> {
+                assertSucceeded(context, readResult);
+                context.verify(() -> {
+                    assertThat(readResult.result().getNumReplicas(), is((short) 1));
+                    assertThat(readResult.result().getConfig().get("min.insync.replicas"), is("1"));
+                });
+                async.flag();
+            });
+        });
+    }
+
+    /**
+     * Test reconciliation once the reassignment which changed the replication factor completed: the throttles are
+     * removed and the topic store and min.insync.replicas catch up with k8s.
+     */
+    @Test
+    public void testReconcile_completedReplicationFactorChange(VertxTestContext context) throws InterruptedException {
+        Map<String, String> throttledConfig = new HashMap<>(MANDATORY_CONFIG);
+        throttledConfig.put(Config.REASSIGN_THROTTLE.key, "1000000");
+        topicOperator = new TopicOperator(vertx, mockKafka, mockK8s, mockTopicStore, labels, "default-namespace", new Config(throttledConfig));
+
+        Topic kubeTopic = new Topic.Builder(topicName, resourceName, 2, (short) 3, map("min.insync.replicas", "2"), metadata).build();
+        Topic kafkaTopic = new Topic.Builder(topicName, resourceName, 2, (short) 1, map("min.insync.replicas", "1"), metadata).build();
+        Topic privateTopic = kafkaTopic;
+        Topic reassignedTopic = new Topic.Builder(topicName, resourceName, 2, (short) 3, map("min.insync.replicas", "1"), metadata).build();
+
+        CountDownLatch async0 = new CountDownLatch(3);
+        mockKafka.setCreateTopicResponse(topicName -> Future.succeededFuture());
+        mockKafka.createTopic(kafkaTopic).setHandler(ar -> async0.countDown());
+        mockKafka.setUpdateTopicResponse(topicName -> Future.succeededFuture());
+        mockKafka.setChangeReplicationFactorResponse(topicName -> Future.succeededFuture(2));
+        mockKafka.setTopicMetadataResponse(topicName, Utils.getTopicMetadata(reassignedTopic), null);
+
+        KafkaTopic resource = TopicSerialization.toTopicResource(kubeTopic, labels);
+        LogContext logContext = LogContext.periodic(topicName.toString());
+        mockK8s.setCreateResponse(topicName.asKubeName(), null);
+        mockK8s.createResource(resource).setHandler(ar -> async0.countDown());
+        mockK8s.setModifyResponse(topicName.asKubeName(), null);
+        mockTopicStore.setCreateTopicResponse(topicName, null);
+        mockTopicStore.create(privateTopic).setHandler(ar -> async0.countDown());
+        mockTopicStore.setUpdateTopicResponse(topicName, null);
+        async0.await();
+
+        Checkpoint async = context.checkpoint();
+        topicOperator.reconcile(reconciliation(), logContext, resource, kubeTopic, kafkaTopic, privateTopic)
+            .compose(ignored -> mockTopicStore.read(topicName))
+            // The reassignment completed, so the next reconciliation sees the new replication factor in Kafka
+            .compose(storeTopic -> topicOperator.reconcile(reconciliation(), logContext, resource, kubeTopic, reassignedTopic, storeTopic))
+            .compose(ignored -> mockTopicStore.read(topicName))
+            .setHandler(context.succeeding(storeTopic -> context.verify(() -> {
+                assertThat(mockKafka.getRemoveReassignmentThrottlesCalls(), is(1));
+                assertThat(storeTopic.getNumReplicas(), is((short) 3));
+                assertThat(storeTopic.getConfig().get("min.insync.replicas"), is("2"));
+                assertThat(mockKafka.getTopicState(topicName).getConfig().get("min.insync.replicas"), is("2"));
+                async.flag();
+            })));
+    }
+
     // TODO 3way reconcilation where kafka and kube agree
     // TODO 3way reconcilation where all three agree
     // TODO 3way reconcilation with conflict
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -168,6 +169,22 @@ public class TopicSerializationTest {
         assertThat(topic.getNumReplicas(), is((short) 3));
     }
 
+    @Test
+    public void testFromTopicMetadataIgnoresReassignmentThrottles() {
+        List<ConfigEntry> entries = new ArrayList<>();
+        entries.add(new ConfigEntry("foo", "bar"));
+        entries.add(new ConfigEntry(TopicSerialization.LEADER_THROTTLED_REPLICAS, "0:0,1:0"));
+        entries.add(new ConfigEntry(TopicSerialization.FOLLOWER_THROTTLED_REPLICAS, "0:1,1:1"));
+        TopicMetadata meta = Utils.getTopicMetadata("test-topic", new Config(entries));
+
+        Topic topic = TopicSerialization.fromTopicMetadata(meta);
+        assertThat(topic.getConfig(), is(singletonMap("foo", "bar")));
+        assertThat(TopicSerialization.hasReassignmentThrottles(meta), is(true));
+
+        TopicMetadata unthrottled = Utils.getTopicMetadata("test-topic", new Config(singletonList(new ConfigEntry("foo", "bar"))));
+        assertThat(TopicSerialization.hasReassignmentThrottles(unthrottled), is(false));
+    }
+
     @Test
     public void testErrorInDefaultTopicName() {
 
@@ -0,0 +1,84 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.tracing.agent;
+
+import io.jaegertracing.internal.metrics.Counter;
+import io.jaegertracing.internal.metrics.Gauge;
+import io.jaegertracing.internal.metrics.Timer;
+import io.jaegertracing.spi.MetricsFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics factory of the Jaeger tracer which registers the metrics as MBeans in the {@value #DOMAIN} domain, so that
+ * they are exported together with the other JMX metrics. This includes the number of spans dropped by the reporter
+ * when its queue is full ({@code jaeger_tracer_reporter_spans} with the tag {@code result=dropped}) and the length of
+ * the queue ({@code jaeger_tracer_reporter_queue_length}).
+ *
+ * Counters and gauges expose their current value, timers expose the total of the recorded durations in microseconds.
+ */
+class JmxMetricsFactory implements MetricsFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JmxMetricsFactory.class);
+
+    static final String DOMAIN = "io.jaegertracing";
+
+    public interface MetricMBean {
+        long getValue();
+    }
+
+    static class Metric implements MetricMBean {
+        private final AtomicLong value = new AtomicLong();
+
+        @Override
+        public long getValue() {
+            return value.get();
+        }
+    }
+
+    @Override
+    public Counter createCounter(String name, Map<String, String> tags) {
+        Metric metric = register(name, tags);
+        return delta -> metric.value.addAndGet(delta);
+    }
+
+    @Override
+    public Timer createTimer(String name, Map<String, String> tags) {
+        Metric metric = register(name, tags);
+        return micros -> metric.value.addAndGet(micros);
+    }
+
+    @Override
+    public Gauge createGauge(String name, Map<String, String> tags) {
+        Metric metric = register(name, tags);
+        return amount -> metric.value.set(amount);
+    }
+
+    /**
+     * Registers a new metric. The metric is still updated when it cannot be registered, it is just not exported.
+     */
+    private Metric register(String name, Map<String, String> tags) {
+        Metric metric = new Metric();
+        try {
+            Hashtable<String, String> properties = new Hashtable<>(tags);
+            properties.put("name", name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(metric, MetricMBean.class),
+                    new ObjectName(DOMAIN, properties));
+        } catch (InstanceAlreadyExistsException e) {
+            LOGGER.debug("Jaeger metric {} {} is already registered", name, tags);
+        } catch (JMException e) {
+            LOGGER.warn("Could not register Jaeger metric {} {}", name, tags, e);
+        }
+        return metric;
+    }
+}
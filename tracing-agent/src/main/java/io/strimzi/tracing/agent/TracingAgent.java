@@ -27,7 +27,9 @@ public class TracingAgent {
 
             if (jaegerServiceName != null) {
                 LOGGER.info("Initializing Jaeger tracing with service name {}", jaegerServiceName);
-                Tracer tracer = Configuration.fromEnv().getTracer();
+                Tracer tracer = Configuration.fromEnv()
+                        .withMetricsFactory(new JmxMetricsFactory())
+                        .getTracer();
                 GlobalTracer.registerIfAbsent(tracer);
             } else {
                 LOGGER.error("Jaeger tracing cannot be initialized because JAEGER_SERVICE_NAME environment variable is not defined");
@@ -12,6 +12,7 @@ import io.strimzi.api.kafka.model.DoneableKafkaUser;
 import io.strimzi.api.kafka.KafkaUserList;
 import io.strimzi.api.kafka.model.KafkaUser;
 import io.strimzi.certs.OpenSslCertManager;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
 import io.strimzi.operator.user.operator.KafkaUserOperator;
@@ -19,9 +20,11 @@ import io.strimzi.operator.user.operator.KafkaUserQuotasOperator;
 import io.strimzi.operator.user.operator.ScramShaCredentials;
 import io.strimzi.operator.user.operator.ScramShaCredentialsOperator;
 import io.strimzi.operator.user.operator.SimpleAclOperator;
+import io.strimzi.operator.user.operator.ZkUserConfigCache;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -72,18 +75,30 @@ public class Main {
         String dnsCacheTtl = System.getenv("STRIMZI_DNS_CACHE_TTL") == null ? "30" : System.getenv("STRIMZI_DNS_CACHE_TTL");
         Security.setProperty("networkaddress.cache.ttl", dnsCacheTtl);
 
+        // The pools are sized before anything else uses them. The resource operators from operator-common get the
+        // Kubernetes pool from the same registry and share the same sized pool.
+        Map<String, Integer> poolSizes = new HashMap<>(2);
+        poolSizes.put(WorkerPools.ZOOKEEPER, config.getZookeeperOpsPoolSize());
+        poolSizes.put(WorkerPools.KUBERNETES, config.getKubernetesOpsPoolSize());
+        WorkerPools.configure(poolSizes);
+        WorkerExecutor zookeeperExecutor = WorkerPools.executor(vertx, WorkerPools.ZOOKEEPER);
+        WorkerExecutor kubernetesExecutor = WorkerPools.executor(vertx, WorkerPools.KUBERNETES);
+
         OpenSslCertManager certManager = new OpenSslCertManager();
         SecretOperator secretOperations = new SecretOperator(vertx, client);
         CrdOperator<KubernetesClient, KafkaUser, KafkaUserList, DoneableKafkaUser> crdOperations = new CrdOperator<>(vertx, client, KafkaUser.class, KafkaUserList.class, DoneableKafkaUser.class);
-        SimpleAclOperator aclOperations = new SimpleAclOperator(vertx, authorizer);
-        ScramShaCredentials scramShaCredentials = new ScramShaCredentials(config.getZookeperConnect(), (int) config.getZookeeperSessionTimeoutMs());
-        ScramShaCredentialsOperator scramShaCredentialsOperator = new ScramShaCredentialsOperator(vertx, scramShaCredentials);
-        KafkaUserQuotasOperator quotasOperator = new KafkaUserQuotasOperator(vertx, config.getZookeperConnect(), (int) config.getZookeeperSessionTimeoutMs());
+        SimpleAclOperator aclOperations = new SimpleAclOperator(authorizer, zookeeperExecutor);
+        // SCRAM-SHA credentials and quotas share one Zookeeper session and one watched view of /config/users
+        ZkUserConfigCache usersCache = ZkUserConfigCache.shared(config.getZookeperConnect(), (int) config.getZookeeperSessionTimeoutMs());
+        ScramShaCredentials scramShaCredentials = new ScramShaCredentials(usersCache);
+        ScramShaCredentialsOperator scramShaCredentialsOperator = new ScramShaCredentialsOperator(scramShaCredentials, zookeeperExecutor);
+        KafkaUserQuotasOperator quotasOperator = new KafkaUserQuotasOperator(usersCache, zookeeperExecutor);
 
         KafkaUserOperator kafkaUserOperations = new KafkaUserOperator(vertx,
                 certManager, crdOperations,
                 config.getLabels(),
-                secretOperations, scramShaCredentialsOperator, quotasOperator, aclOperations, config.getCaCertSecretName(), config.getCaKeySecretName(), config.getCaNamespace());
+                secretOperations, scramShaCredentialsOperator, quotasOperator, aclOperations, config.getCaCertSecretName(), config.getCaKeySecretName(), config.getCaNamespace(),
+                zookeeperExecutor, kubernetesExecutor, config.getMaxConcurrentReconciliations());
 
         Promise<String> promise = Promise.promise();
         UserOperator operator = new UserOperator(config.getNamespace(),
@@ -14,7 +14,7 @@ import io.vertx.core.http.HttpServer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.concurrent.TimeUnit;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
 import io.vertx.micrometer.backends.BackendRegistries;
 import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
@@ -59,9 +59,6 @@ public class UserOperator extends AbstractVerticle {
     public void start(Promise<Void> start) {
         log.info("Starting UserOperator for namespace {}", namespace);
 
-        // Configure the executor here, but it is used only in other places
-        getVertx().createSharedWorkerExecutor("kubernetes-ops-pool", 10, TimeUnit.SECONDS.toNanos(120));
-
         kafkaUserOperator.createWatch(namespace, kafkaUserOperator.recreateWatch(namespace))
             .compose(w -> {
                 log.info("Started operator for {} kind", "KafkaUser");
@@ -100,6 +97,14 @@ public class UserOperator extends AbstractVerticle {
         new ProcessorMetrics().bindTo(metrics);
         new JvmThreadMetrics().bindTo(metrics);
         new JvmGcMetrics().bindTo(metrics);
+
+        // The worker pools are covered by the Vert.x pool metrics (vertx_pool_*) labelled with the pool name
+        Gauge.builder("strimzi.user.operator.reconciliations.running", kafkaUserOperator.reconciliationLimiter(), l -> l.running())
+                .description("Number of KafkaUser reconciliations currently running")
+                .register(metrics);
+        Gauge.builder("strimzi.user.operator.reconciliations.queued", kafkaUserOperator.reconciliationLimiter(), l -> l.queued())
+                .description("Number of KafkaUser reconciliations waiting for a free reconciliation slot")
+                .register(metrics);
     }
 
     /**
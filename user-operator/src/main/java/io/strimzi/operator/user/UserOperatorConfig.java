@@ -25,10 +25,16 @@ public class UserOperatorConfig {
     public static final String STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS = "STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS";
     public static final String STRIMZI_CLIENTS_CA_VALIDITY = "STRIMZI_CA_VALIDITY";
     public static final String STRIMZI_CLIENTS_CA_RENEWAL = "STRIMZI_CA_RENEWAL";
+    public static final String STRIMZI_ZOOKEEPER_OPS_POOL_SIZE = "STRIMZI_ZOOKEEPER_OPS_POOL_SIZE";
+    public static final String STRIMZI_KUBERNETES_OPS_POOL_SIZE = "STRIMZI_KUBERNETES_OPS_POOL_SIZE";
+    public static final String STRIMZI_MAX_CONCURRENT_RECONCILIATIONS = "STRIMZI_MAX_CONCURRENT_RECONCILIATIONS";
 
     public static final long DEFAULT_FULL_RECONCILIATION_INTERVAL_MS = 120_000;
     public static final String DEFAULT_ZOOKEEPER_CONNECT = "localhost:2181";
     public static final long DEFAULT_ZOOKEEPER_SESSION_TIMEOUT_MS = 6_000;
+    public static final int DEFAULT_ZOOKEEPER_OPS_POOL_SIZE = 10;
+    public static final int DEFAULT_KUBERNETES_OPS_POOL_SIZE = 10;
+    public static final int DEFAULT_MAX_CONCURRENT_RECONCILIATIONS = 10;
 
     private final String namespace;
     private final long reconciliationIntervalMs;
@@ -38,6 +44,9 @@ public class UserOperatorConfig {
     private final String caCertSecretName;
     private final String caKeySecretName;
     private final String caNamespace;
+    private final int zookeeperOpsPoolSize;
+    private final int kubernetesOpsPoolSize;
+    private final int maxConcurrentReconciliations;
 
     /**
      * Constructor
@@ -50,6 +59,9 @@ public class UserOperatorConfig {
      * @param caCertSecretName Name of the secret containing the Certification Authority certificate.
      * @param caKeySecretName The name of the secret containing the Certification Authority key.
      * @param caNamespace Namespace with the CA secret.
+     * @param zookeeperOpsPoolSize Number of worker threads used for the blocking Zookeeper operations.
+     * @param kubernetesOpsPoolSize Number of worker threads used for the blocking Kubernetes API operations.
+     * @param maxConcurrentReconciliations Maximal number of KafkaUsers which are reconciled at the same time.
      */
     public UserOperatorConfig(String namespace,
                               long reconciliationIntervalMs,
@@ -57,7 +69,10 @@ public class UserOperatorConfig {
                               long zookeeperSessionTimeoutMs,
                               Labels labels, String caCertSecretName,
                               String caKeySecretName,
-                              String caNamespace) {
+                              String caNamespace,
+                              int zookeeperOpsPoolSize,
+                              int kubernetesOpsPoolSize,
+                              int maxConcurrentReconciliations) {
         this.namespace = namespace;
         this.reconciliationIntervalMs = reconciliationIntervalMs;
         this.zookeperConnect = zookeperConnect;
@@ -66,6 +81,9 @@ public class UserOperatorConfig {
         this.caCertSecretName = caCertSecretName;
         this.caKeySecretName = caKeySecretName;
         this.caNamespace = caNamespace;
+        this.zookeeperOpsPoolSize = zookeeperOpsPoolSize;
+        this.kubernetesOpsPoolSize = kubernetesOpsPoolSize;
+        this.maxConcurrentReconciliations = maxConcurrentReconciliations;
     }
 
     /**
@@ -122,7 +140,32 @@ public class UserOperatorConfig {
             caNamespace = namespace;
         }
 
-        return new UserOperatorConfig(namespace, reconciliationInterval, zookeeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName, caKeySecretName, caNamespace);
+        int zookeeperOpsPoolSize = getPositiveInt(map, UserOperatorConfig.STRIMZI_ZOOKEEPER_OPS_POOL_SIZE, DEFAULT_ZOOKEEPER_OPS_POOL_SIZE);
+        int kubernetesOpsPoolSize = getPositiveInt(map, UserOperatorConfig.STRIMZI_KUBERNETES_OPS_POOL_SIZE, DEFAULT_KUBERNETES_OPS_POOL_SIZE);
+        int maxConcurrentReconciliations = getPositiveInt(map, UserOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS, DEFAULT_MAX_CONCURRENT_RECONCILIATIONS);
+
+        return new UserOperatorConfig(namespace, reconciliationInterval, zookeeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName, caKeySecretName, caNamespace,
+                zookeeperOpsPoolSize, kubernetesOpsPoolSize, maxConcurrentReconciliations);
+    }
+
+    private static int getPositiveInt(Map<String, String> map, String name, int defaultVal) {
+        String envVar = map.get(name);
+        if (envVar == null || envVar.isEmpty()) {
+            return defaultVal;
+        }
+
+        int value;
+        try {
+            value = Integer.parseInt(envVar);
+        } catch (NumberFormatException e) {
+            throw new InvalidConfigurationException("Failed to parse " + name + " as an integer", e);
+        }
+
+        if (value < 1) {
+            throw new InvalidConfigurationException(name + " has to be a positive integer");
+        }
+
+        return value;
     }
 
     public static int getClientsCaValidityDays() {
@@ -198,6 +241,27 @@ public class UserOperatorConfig {
         return zookeeperSessionTimeoutMs;
     }
 
+    /**
+     * @return  Number of worker threads used for the blocking Zookeeper operations
+     */
+    public int getZookeeperOpsPoolSize() {
+        return zookeeperOpsPoolSize;
+    }
+
+    /**
+     * @return  Number of worker threads used for the blocking Kubernetes API operations
+     */
+    public int getKubernetesOpsPoolSize() {
+        return kubernetesOpsPoolSize;
+    }
+
+    /**
+     * @return  Maximal number of KafkaUsers which are reconciled at the same time
+     */
+    public int getMaxConcurrentReconciliations() {
+        return maxConcurrentReconciliations;
+    }
+
     @Override
     public String toString() {
         return "ClusterOperatorConfig(" +
@@ -208,6 +272,9 @@ public class UserOperatorConfig {
                 ",labels=" + labels +
                 ",caName=" + caCertSecretName +
                 ",caNamespace=" + caNamespace +
+                ",zookeeperOpsPoolSize=" + zookeeperOpsPoolSize +
+                ",kubernetesOpsPoolSize=" + kubernetesOpsPoolSize +
+                ",maxConcurrentReconciliations=" + maxConcurrentReconciliations +
                 ")";
     }
 }
@@ -16,20 +16,24 @@ import io.strimzi.api.kafka.model.status.KafkaUserStatus;
 import io.strimzi.certs.CertManager;
 import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.common.AbstractOperator;
+import io.strimzi.operator.common.ConcurrencyLimiter;
 import io.strimzi.operator.common.PasswordGenerator;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.model.NamespaceAndName;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
 import io.strimzi.operator.common.operator.resource.StatusUtils;
+import io.strimzi.operator.user.UserOperatorConfig;
 import io.strimzi.operator.user.model.KafkaUserModel;
 import io.strimzi.operator.user.model.acl.SimpleAclRule;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -50,6 +54,16 @@ public class KafkaUserOperator extends AbstractOperator<KafkaUser,
         CrdOperator<KubernetesClient, KafkaUser, KafkaUserList, DoneableKafkaUser>> {
     private static final Logger log = LogManager.getLogger(KafkaUserOperator.class.getName());
 
+    /**
+     * Name of the worker pool used for the blocking Zookeeper operations (SCRAM-SHA credentials, quotas and ACLs)
+     */
+    public static final String ZOOKEEPER_OPS_POOL = WorkerPools.ZOOKEEPER;
+
+    /**
+     * Name of the worker pool used for the blocking Kubernetes API operations
+     */
+    public static final String KUBERNETES_OPS_POOL = WorkerPools.KUBERNETES;
+
     private final SecretOperator secretOperations;
     private final SimpleAclOperator aclOperations;
     private final CertManager certManager;
@@ -59,6 +73,9 @@ public class KafkaUserOperator extends AbstractOperator<KafkaUser,
     private final ScramShaCredentialsOperator scramShaCredentialOperator;
     private final Optional<LabelSelector> selector;
     private final KafkaUserQuotasOperator kafkaUserQuotasOperator;
+    private final WorkerExecutor zookeeperExecutor;
+    private final WorkerExecutor kubernetesExecutor;
+    private final ConcurrencyLimiter reconciliationLimiter;
     private PasswordGenerator passwordGenerator = new PasswordGenerator(12);
 
     /**
@@ -82,6 +99,38 @@ public class KafkaUserOperator extends AbstractOperator<KafkaUser,
                              ScramShaCredentialsOperator scramShaCredentialOperator,
                              KafkaUserQuotasOperator kafkaUserQuotasOperator,
                              SimpleAclOperator aclOperations, String caCertName, String caKeyName, String caNamespace) {
+        this(vertx, certManager, crdOperator, labels, secretOperations, scramShaCredentialOperator, kafkaUserQuotasOperator, aclOperations,
+                caCertName, caKeyName, caNamespace,
+                WorkerPools.executor(vertx, ZOOKEEPER_OPS_POOL), WorkerPools.executor(vertx, KUBERNETES_OPS_POOL),
+                UserOperatorConfig.DEFAULT_MAX_CONCURRENT_RECONCILIATIONS);
+    }
+
+    /**
+     * @param vertx The Vertx instance.
+     * @param certManager For managing certificates.
+     * @param crdOperator For operating on Custom Resources.
+     * @param labels A selector for which users in the namespace to consider as the operators
+     * @param secretOperations For operating on Secrets.
+     * @param scramShaCredentialOperator For operating on SCRAM SHA credentials.
+     * @param kafkaUserQuotasOperator For operating on Kafka User quotas.
+     * @param aclOperations For operating on ACLs.
+     * @param caCertName The name of the Secret containing the clients CA certificate.
+     * @param caKeyName The name of the Secret containing the clients CA private key.
+     * @param caNamespace The namespace of the Secret containing the clients CA certificate and private key.
+     * @param zookeeperExecutor The worker executor used for the blocking Zookeeper operations.
+     * @param kubernetesExecutor The worker executor used for the blocking Kubernetes API operations.
+     * @param maxConcurrentReconciliations The maximal number of users reconciled at the same time.
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public KafkaUserOperator(Vertx vertx,
+                             CertManager certManager,
+                             CrdOperator<KubernetesClient, KafkaUser, KafkaUserList, DoneableKafkaUser> crdOperator,
+                             Labels labels,
+                             SecretOperator secretOperations,
+                             ScramShaCredentialsOperator scramShaCredentialOperator,
+                             KafkaUserQuotasOperator kafkaUserQuotasOperator,
+                             SimpleAclOperator aclOperations, String caCertName, String caKeyName, String caNamespace,
+                             WorkerExecutor zookeeperExecutor, WorkerExecutor kubernetesExecutor, int maxConcurrentReconciliations) {
         super(vertx, "User", crdOperator);
         this.certManager = certManager;
         Map<String, String> matchLabels = labels.toMap();
@@ -93,6 +142,25 @@ public class KafkaUserOperator extends AbstractOperator<KafkaUser,
         this.caCertName = caCertName;
         this.caKeyName = caKeyName;
         this.caNamespace = caNamespace;
+        this.zookeeperExecutor = zookeeperExecutor;
+        this.kubernetesExecutor = kubernetesExecutor;
+        this.reconciliationLimiter = new ConcurrencyLimiter(vertx, maxConcurrentReconciliations);
+    }
+
+    /**
+     * @return The limiter of the number of concurrently running user reconciliations
+     */
+    public ConcurrencyLimiter reconciliationLimiter() {
+        return reconciliationLimiter;
+    }
+
+    /**
+     * Bounds the number of users reconciled at the same time. The lock of the user is acquired only once the
+     * reconciliation starts, so that the users waiting in the queue do not hold their locks.
+     */
+    @Override
+    protected <R> Future<R> limitConcurrency(Supplier<Future<R>> reconciliation) {
+        return reconciliationLimiter.execute(reconciliation);
     }
 
     @Override
@@ -103,8 +171,8 @@ public class KafkaUserOperator extends AbstractOperator<KafkaUser,
     @Override
     public Future<Set<NamespaceAndName>> allResourceNames(String namespace) {
         return CompositeFuture.join(super.allResourceNames(namespace),
-                invokeAsync(aclOperations::getUsersWithAcls),
-                invokeAsync(scramShaCredentialOperator::list)).map(compositeFuture -> {
+                invokeAsync(zookeeperExecutor, aclOperations::getUsersWithAcls),
+                invokeAsync(zookeeperExecutor, scramShaCredentialOperator::list)).map(compositeFuture -> {
                     Set<NamespaceAndName> names = compositeFuture.resultAt(0);
                     names.addAll(toResourceRef(namespace, compositeFuture.resultAt(1)));
                     names.addAll(toResourceRef(namespace, compositeFuture.resultAt(2)));
@@ -118,16 +186,16 @@ public class KafkaUserOperator extends AbstractOperator<KafkaUser,
                 .collect(Collectors.toList());
     }
 
-    private <T> Future<T> invokeAsync(Supplier<T> getter) {
+    private <T> Future<T> invokeAsync(WorkerExecutor executor, Supplier<T> getter) {
         Promise<T> result = Promise.promise();
-        vertx.createSharedWorkerExecutor("zookeeper-ops-pool").executeBlocking(future -> {
+        executor.executeBlocking(future -> {
             try {
                 future.complete(getter.get());
             } catch (Throwable t) {
                 future.fail(t);
             }
         },
-            true,
+            false,
             result);
         return result.future();
     }
@@ -142,11 +210,24 @@ public class KafkaUserOperator extends AbstractOperator<KafkaUser,
      */
     @Override
     protected Future<Void> createOrUpdate(Reconciliation reconciliation, KafkaUser resource) {
-        Promise<Void> handler = Promise.promise();
-        Secret clientsCaCert = secretOperations.get(caNamespace, caCertName);
-        Secret clientsCaKey = secretOperations.get(caNamespace, caKeyName);
-        Secret userSecret = secretOperations.get(reconciliation.namespace(), KafkaUserModel.getSecretName(reconciliation.name()));
+        return getSecrets(reconciliation)
+                .compose(secrets -> createOrUpdate(reconciliation, resource, secrets[0], secrets[1], secrets[2]));
+    }
 
+    /**
+     * Gets the clients CA certificate, the clients CA key and the user Secret (in this order)
+     * without blocking the event loop.
+     */
+    private Future<Secret[]> getSecrets(Reconciliation reconciliation) {
+        return invokeAsync(kubernetesExecutor, () -> new Secret[] {
+            secretOperations.get(caNamespace, caCertName),
+            secretOperations.get(caNamespace, caKeyName),
+            secretOperations.get(reconciliation.namespace(), KafkaUserModel.getSecretName(reconciliation.name()))
+        });
+    }
+
+    private Future<Void> createOrUpdate(Reconciliation reconciliation, KafkaUser resource, Secret clientsCaCert, Secret clientsCaKey, Secret userSecret) {
+        Promise<Void> handler = Promise.promise();
         Promise<Void> createOrUpdatePromise = Promise.promise();
         String namespace = reconciliation.namespace();
         String userName = reconciliation.name();
@@ -8,13 +8,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.fabric8.zjsonpatch.JsonDiff;
 import io.strimzi.api.kafka.model.KafkaUserQuotas;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.json.JsonObject;
-import org.I0Itec.zkclient.ZkClient;
-import org.I0Itec.zkclient.serialize.BytesPushThroughSerializer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -24,20 +24,26 @@ import java.nio.charset.StandardCharsets;
 public class KafkaUserQuotasOperator {
     private static final Logger log = LogManager.getLogger(KafkaUserQuotasOperator.class.getName());
 
-    private final static int CONNECTION_TIMEOUT = 30_000;
-
-    private ZkClient zkClient;
-    private Vertx vertx;
+    private final ZkUserConfigCache usersCache;
+    private final WorkerExecutor executor;
 
     public KafkaUserQuotasOperator(Vertx vertx, String zookeeperUrl, int zookeeperSessionTimeout) {
-        this.zkClient = new ZkClient(zookeeperUrl, zookeeperSessionTimeout, CONNECTION_TIMEOUT, new BytesPushThroughSerializer());
-        this.vertx = vertx;
+        this(ZkUserConfigCache.shared(zookeeperUrl, zookeeperSessionTimeout), WorkerPools.executor(vertx, KafkaUserOperator.ZOOKEEPER_OPS_POOL));
+    }
+
+    /**
+     * @param usersCache The shared view of the user configurations stored in Zookeeper
+     * @param executor The worker executor used for the blocking Zookeeper operations
+     */
+    public KafkaUserQuotasOperator(ZkUserConfigCache usersCache, WorkerExecutor executor) {
+        this.usersCache = usersCache;
+        this.executor = executor;
     }
 
     Future<ReconcileResult<KafkaUserQuotas>> reconcile(String username, KafkaUserQuotas quotas) {
         Promise<ReconcileResult<KafkaUserQuotas>> prom = Promise.promise();
         
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        executor.executeBlocking(
             future -> {
                 try {
                     boolean exists = exists(username);
@@ -69,7 +75,7 @@ public class KafkaUserQuotasOperator {
      * @param quotas The desired user quotas
      */
     public void createOrUpdate(String username, KafkaUserQuotas quotas) {
-        byte[] data = zkClient.readData("/config/users/" + username, true);
+        byte[] data = usersCache.get(username);
 
         if (data != null)   {
             log.debug("Checking quota updates for user {}", username);
@@ -84,17 +90,16 @@ public class KafkaUserQuotasOperator {
 
             if (diff != null && diff.size() > 0) {
                 log.debug("Updating quotas for user {}", username);
-                zkClient.writeData("/config/users/" + username, createOrUpdateUserJson(data, quotas));
+                usersCache.write(username, createOrUpdateUserJson(data, quotas));
+                usersCache.notifyChanges(username);
             } else {
                 log.debug("Nothing to update in quotas for user {}", username);
             }
         } else {
             log.debug("Creating quotas for user {}", username);
-            ensurePath("/config/users");
-            zkClient.createPersistent("/config/users/" + username, createUserJson(quotas));
+            usersCache.create(username, createUserJson(quotas));
+            usersCache.notifyChanges(username);
         }
-
-        notifyChanges(username);
     }
 
     /**
@@ -159,35 +164,9 @@ public class KafkaUserQuotasOperator {
 
     }
 
-    /**
-     * This notifies Kafka about the changes we have made
-     *
-     * @param username  Name of the user whose configuration changed
-     */
-    private void notifyChanges(String username) {
-        log.debug("Notifying changes for user {}", username);
-
-        ensurePath("/config/changes");
-
-        JsonObject json = new JsonObject().put("version", 2).put("entity_path", "users/" + username);
-        zkClient.createPersistentSequential("/config/changes/config_change_", json.encode().getBytes(StandardCharsets.UTF_8));
-    }
-
-    /**
-     * Ensures that the path in Zookeeper exists.
-     * It checks whether it already exists and in case it doesn't, it will create the path.
-     *
-     * @param path The Zookeeper path which should exist
-     */
-    private void ensurePath(String path)    {
-        if (!zkClient.exists(path))   {
-            zkClient.createPersistent(path, true);
-        }
-    }
-
     /* test */
     boolean isPathExist(String path)    {
-        return zkClient.exists(path);
+        return usersCache.isPathExist(path);
     }
 
     /**
@@ -198,7 +177,7 @@ public class KafkaUserQuotasOperator {
      * @return True if the user exists
      */
     boolean exists(String username) {
-        byte[] data = zkClient.readData("/config/users/" + username, true);
+        byte[] data = usersCache.get(username);
 
         if (data != null)   {
             String jsonString = new String(data, StandardCharsets.UTF_8);
@@ -232,18 +211,18 @@ public class KafkaUserQuotasOperator {
      * @param username Name of the user
      */
     public void delete(String username) {
-        byte[] data = zkClient.readData("/config/users/" + username, true);
+        byte[] data = usersCache.get(username);
 
         if (data != null)   {
             log.debug("Deleting quotas for user {}", username);
             JsonObject deleteJson = removeQuotasFromJsonUser(data);
             if (configJsonIsEmpty(deleteJson)) {
-                zkClient.deleteRecursive("/config/users/" + username);
+                usersCache.delete(username);
                 log.debug("User {} deleted from ZK store", username);
             } else {
-                zkClient.writeData("/config/users/" + username, deleteJson.toBuffer().getBytes());
+                usersCache.write(username, deleteJson.toBuffer().getBytes());
             }
-            notifyChanges(username);
+            usersCache.notifyChanges(username);
         } else {
             log.warn("Quotas for user {} already don't exist", username);
         }
@@ -284,7 +263,7 @@ public class KafkaUserQuotasOperator {
     }
 
     protected JsonObject getQuotas(String username) {
-        byte[] data = zkClient.readData("/config/users/" + username, true);
+        byte[] data = usersCache.get(username);
         if (data != null) {
             String jsonString = new String(data, StandardCharsets.UTF_8);
             JsonObject json = new JsonObject(jsonString);
@@ -5,8 +5,6 @@
 package io.strimzi.operator.user.operator;
 
 import io.vertx.core.json.JsonObject;
-import org.I0Itec.zkclient.ZkClient;
-import org.I0Itec.zkclient.serialize.BytesPushThroughSerializer;
 import org.apache.kafka.common.security.scram.ScramCredential;
 import org.apache.kafka.common.security.scram.internals.ScramCredentialUtils;
 import org.apache.kafka.common.security.scram.internals.ScramFormatter;
@@ -26,13 +24,19 @@ public class ScramShaCredentials {
     private static final Logger log = LogManager.getLogger(ScramShaCredentials.class.getName());
 
     private final static int ITERATIONS = 4096;
-    private final static int CONNECTION_TIMEOUT = 30_000;
 
     private final ScramMechanism mechanism = ScramMechanism.SCRAM_SHA_512;
-    private ZkClient zkClient;
+    private final ZkUserConfigCache usersCache;
 
     public ScramShaCredentials(String zookeeperUrl, int zookeeperSessionTimeout) {
-        zkClient = new ZkClient(zookeeperUrl, zookeeperSessionTimeout, CONNECTION_TIMEOUT, new BytesPushThroughSerializer());
+        this(ZkUserConfigCache.shared(zookeeperUrl, zookeeperSessionTimeout));
+    }
+
+    /**
+     * @param usersCache The shared view of the user configurations stored in Zookeeper
+     */
+    public ScramShaCredentials(ZkUserConfigCache usersCache) {
+        this.usersCache = usersCache;
     }
 
     /**
@@ -42,18 +46,17 @@ public class ScramShaCredentials {
      * @param password The desired user password
      */
     public void createOrUpdate(String username, String password) {
-        byte[] data = zkClient.readData("/config/users/" + username, true);
+        byte[] data = usersCache.get(username);
 
         if (data != null)   {
             log.debug("Updating {} credentials for user {}", mechanism.mechanismName(), username);
-            zkClient.writeData("/config/users/" + username, updateUserJson(data, password));
+            usersCache.write(username, updateUserJson(data, password));
         } else {
             log.debug("Creating {} credentials for user {}", mechanism.mechanismName(), username);
-            ensurePath("/config/users");
-            zkClient.createPersistent("/config/users/" + username, createUserJson(password));
+            usersCache.create(username, createUserJson(password));
         }
 
-        notifyChanges(username);
+        usersCache.notifyChanges(username);
     }
 
     private boolean configJsonIsEmpty(JsonObject json) {
@@ -69,17 +72,17 @@ public class ScramShaCredentials {
      * @param username Name of the user
      */
     public void delete(String username) {
-        byte[] data = zkClient.readData("/config/users/" + username, true);
+        byte[] data = usersCache.get(username);
 
         if (data != null)   {
             log.debug("Deleting {} credentials for user {}", mechanism.mechanismName(), username);
             JsonObject deletedJson = removeScramCredentialsFromUserJson(data);
             if (configJsonIsEmpty(deletedJson)) {
-                zkClient.deleteRecursive("/config/users/" + username);
+                usersCache.delete(username);
             } else {
-                zkClient.writeData("/config/users/" + username, deletedJson.toBuffer().getBytes());
+                usersCache.write(username, deletedJson.toBuffer().getBytes());
             }
-            notifyChanges(username);
+            usersCache.notifyChanges(username);
         } else {
             log.warn("Credentials for user {} already don't exist", username);
         }
@@ -93,7 +96,7 @@ public class ScramShaCredentials {
      * @return True if the user exists and is configured for given mechanism
      */
     public boolean exists(String username) {
-        byte[] data = zkClient.readData("/config/users/" + username, true);
+        byte[] data = usersCache.get(username);
 
         if (data != null)   {
             String jsonString = new String(data, Charset.defaultCharset());
@@ -119,55 +122,26 @@ public class ScramShaCredentials {
     }
 
     /**
-     * List users with SCRAM-SHA credentials
+     * List users with SCRAM-SHA credentials.
+     * The users are listed from the in-memory view of Zookeeper.
      *
      * @return List of usernames configured for given mechanism
      */
     public List<String> list() {
         List<String> result = new ArrayList<>();
 
-        if (zkClient.exists("/config/users"))   {
-            List<String> nodes = zkClient.getChildren("/config/users");
-
-            for (String node : nodes)   {
-                if (exists(node))   {
-                    result.add(node);
-                }
+        for (String node : usersCache.users())   {
+            if (exists(node))   {
+                result.add(node);
             }
         }
 
         return result;
     }
 
-    /**
-     * This notifies Kafka about the changes we have made
-     *
-     * @param username  Name of the user whose configuration changed
-     */
-    private void notifyChanges(String username) {
-        log.debug("Notifying changes for user {}", username);
-
-        ensurePath("/config/changes");
-
-        JsonObject json = new JsonObject().put("version", 2).put("entity_path", "users/" + username);
-        zkClient.createPersistentSequential("/config/changes/config_change_", json.encode().getBytes(Charset.defaultCharset()));
-    }
-
-    /**
-     * Ensures that the path in Zookeeper exists.
-     * It checks whether it already exists and in case it doesn't, it will create the path.
-     *
-     * @param path The Zookeeper path which should exist
-     */
-    private void ensurePath(String path)    {
-        if (!zkClient.exists(path))   {
-            zkClient.createPersistent(path, true);
-        }
-    }
-
     /* test */
     boolean isPathExist(String path)    {
-        return zkClient.exists(path);
+        return usersCache.isPathExist(path);
     }
 
     /**
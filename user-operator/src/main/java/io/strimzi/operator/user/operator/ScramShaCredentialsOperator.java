@@ -4,9 +4,11 @@
  */
 package io.strimzi.operator.user.operator;
 
+import io.strimzi.operator.common.WorkerPools;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 
 import java.util.List;
 
@@ -14,16 +16,24 @@ public class ScramShaCredentialsOperator {
 
     private ScramShaCredentials credsManager;
 
-    private Vertx vertx;
+    private WorkerExecutor executor;
 
     public ScramShaCredentialsOperator(Vertx vertx, ScramShaCredentials credsManager) {
+        this(credsManager, WorkerPools.executor(vertx, KafkaUserOperator.ZOOKEEPER_OPS_POOL));
+    }
+
+    /**
+     * @param credsManager For managing the SCRAM-SHA credentials in Zookeeper
+     * @param executor The worker executor used for the blocking Zookeeper operations
+     */
+    public ScramShaCredentialsOperator(ScramShaCredentials credsManager, WorkerExecutor executor) {
         this.credsManager = credsManager;
-        this.vertx = vertx;
+        this.executor = executor;
     }
 
     Future<Void> reconcile(String username, String password) {
         Promise<Void> promise = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        executor.executeBlocking(
             future -> {
                 boolean exists = credsManager.exists(username);
                 if (password != null) {
@@ -4,6 +4,7 @@
  */
 package io.strimzi.operator.user.operator;
 
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.strimzi.operator.user.model.KafkaUserModel;
 import io.strimzi.operator.user.model.acl.SimpleAclRule;
@@ -12,6 +13,7 @@ import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import kafka.security.auth.Acl;
 import kafka.security.auth.Resource;
 import org.apache.kafka.common.security.auth.KafkaPrincipal;
@@ -42,7 +44,7 @@ public class SimpleAclOperator {
 
     private static final List<String> IGNORED_USERS = Arrays.asList("*", "ANONYMOUS");
 
-    private final Vertx vertx;
+    private final WorkerExecutor executor;
     private final kafka.security.auth.SimpleAclAuthorizer authorizer;
 
     /**
@@ -52,7 +54,17 @@ public class SimpleAclOperator {
      * @param authorizer    SimpleAcAuthorizer instance
      */
     public SimpleAclOperator(Vertx vertx, kafka.security.auth.SimpleAclAuthorizer authorizer)  {
-        this.vertx = vertx;
+        this(authorizer, WorkerPools.executor(vertx, KafkaUserOperator.ZOOKEEPER_OPS_POOL));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param authorizer    SimpleAcAuthorizer instance
+     * @param executor      Worker executor used for the blocking calls of the authorizer (which talks to Zookeeper)
+     */
+    public SimpleAclOperator(kafka.security.auth.SimpleAclAuthorizer authorizer, WorkerExecutor executor)  {
+        this.executor = executor;
         this.authorizer = authorizer;
     }
 
@@ -65,7 +77,7 @@ public class SimpleAclOperator {
      */
     Future<ReconcileResult<Set<SimpleAclRule>>> reconcile(String username, Set<SimpleAclRule> desired) {
         Promise<ReconcileResult<Set<SimpleAclRule>>> promise = Promise.promise();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        executor.executeBlocking(
             future -> {
                 Set<SimpleAclRule> current;
 
@@ -0,0 +1,280 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.user.operator;
+
+import io.vertx.core.json.JsonObject;
+import org.I0Itec.zkclient.IZkChildListener;
+import org.I0Itec.zkclient.IZkDataListener;
+import org.I0Itec.zkclient.IZkStateListener;
+import org.I0Itec.zkclient.ZkClient;
+import org.I0Itec.zkclient.exception.ZkNodeExistsException;
+import org.I0Itec.zkclient.serialize.BytesPushThroughSerializer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.zookeeper.Watcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the {@code /config/users} subtree in Zookeeper.
+ * The cache watches the children of {@code /config/users} and the data of each child, so that reads of the user
+ * configurations (SCRAM-SHA credentials and quotas) can be served from memory instead of querying Zookeeper.
+ * All writes to {@code /config/users} done by the User Operator should go through this class so that the cache is
+ * updated immediately (write-through) and doesn't have to wait for the Zookeeper watch to fire.
+ * A single instance (and a single Zookeeper session) is meant to be shared by all components which need it.
+ * The writes and the handling of the Zookeeper events are synchronized, so that an event carrying older data cannot
+ * overwrite the data of a write which was done in the meantime.
+ */
+public class ZkUserConfigCache implements IZkChildListener, IZkDataListener, IZkStateListener {
+    private static final Logger log = LogManager.getLogger(ZkUserConfigCache.class.getName());
+
+    /* test */ static final String USERS_PATH = "/config/users";
+    private static final String CHANGES_PATH = "/config/changes";
+    private final static int CONNECTION_TIMEOUT = 30_000;
+
+    private static final Map<String, ZkUserConfigCache> SHARED = new HashMap<>();
+
+    private final ZkClient zkClient;
+    private final Map<String, byte[]> users = new ConcurrentHashMap<>();
+    private String sharedKey;
+
+    /**
+     * Creates the cache with its own Zookeeper session and starts it.
+     *
+     * @param zookeeperUrl Zookeeper connection URL
+     * @param zookeeperSessionTimeout Zookeeper session timeout
+     */
+    public ZkUserConfigCache(String zookeeperUrl, int zookeeperSessionTimeout) {
+        this(new ZkClient(zookeeperUrl, zookeeperSessionTimeout, CONNECTION_TIMEOUT, new BytesPushThroughSerializer()));
+        start();
+    }
+
+    /**
+     * Returns the started cache shared by all users of given Zookeeper cluster and session timeout, creating it on the
+     * first call, so that all of them use a single Zookeeper session. The shared cache is created again once it is
+     * closed.
+     *
+     * @param zookeeperUrl Zookeeper connection URL
+     * @param zookeeperSessionTimeout Zookeeper session timeout
+     *
+     * @return The shared cache
+     */
+    public static ZkUserConfigCache shared(String zookeeperUrl, int zookeeperSessionTimeout) {
+        String key = zookeeperUrl + "#" + zookeeperSessionTimeout;
+        synchronized (SHARED) {
+            return SHARED.computeIfAbsent(key, ignored -> {
+                ZkUserConfigCache cache = new ZkUserConfigCache(zookeeperUrl, zookeeperSessionTimeout);
+                cache.sharedKey = key;
+                return cache;
+            });
+        }
+    }
+
+    /**
+     * Creates the cache on top of an existing Zookeeper client. The client has to use the
+     * {@link BytesPushThroughSerializer}. The cache has to be started using {@link #start()} before it is used.
+     *
+     * @param zkClient Zookeeper client
+     */
+    public ZkUserConfigCache(ZkClient zkClient) {
+        this.zkClient = zkClient;
+    }
+
+    /**
+     * Registers the watches and loads the current content of {@code /config/users} into the cache.
+     *
+     * @return This cache
+     */
+    public synchronized ZkUserConfigCache start() {
+        log.debug("Starting the cache of {}", USERS_PATH);
+        zkClient.subscribeStateChanges(this);
+        // subscribeChildChanges installs the watch even when the path doesn't exist yet
+        handleChildChange(USERS_PATH, zkClient.subscribeChildChanges(USERS_PATH, this));
+        return this;
+    }
+
+    /**
+     * Unregisters all watches and closes the Zookeeper client.
+     */
+    public synchronized void close() {
+        if (sharedKey != null) {
+            synchronized (SHARED) {
+                SHARED.remove(sharedKey, this);
+            }
+        }
+        zkClient.unsubscribeAll();
+        users.clear();
+        zkClient.close();
+    }
+
+    /**
+     * @return Names of all users which currently have some configuration in Zookeeper
+     */
+    public Set<String> users() {
+        return new HashSet<>(users.keySet());
+    }
+
+    /**
+     * Returns the configuration of given user
+     *
+     * @param username Name of the user
+     *
+     * @return The user configuration JSON as byte[] or null if the user has no configuration
+     */
+    public byte[] get(String username) {
+        return users.get(username);
+    }
+
+    /**
+     * Creates the configuration node of given user. When the node was created in the meantime and the cache has not
+     * observed it yet, the node is updated instead.
+     *
+     * @param username Name of the user
+     * @param data The user configuration JSON as byte[]
+     */
+    public synchronized void create(String username, byte[] data) {
+        ensurePath(USERS_PATH);
+        try {
+            zkClient.createPersistent(userPath(username), data);
+        } catch (ZkNodeExistsException e) {
+            log.debug("Configuration of user {} already exists, updating it", username);
+            zkClient.writeData(userPath(username), data);
+        }
+        // The child watch will not subscribe to the data of a user which is already cached
+        zkClient.subscribeDataChanges(userPath(username), this);
+        users.put(username, data);
+    }
+
+    /**
+     * Updates the configuration node of given user.
+     *
+     * @param username Name of the user
+     * @param data The user configuration JSON as byte[]
+     */
+    public synchronized void write(String username, byte[] data) {
+        zkClient.writeData(userPath(username), data);
+        users.put(username, data);
+    }
+
+    /**
+     * Deletes the configuration node of given user.
+     *
+     * @param username Name of the user
+     */
+    public synchronized void delete(String username) {
+        zkClient.deleteRecursive(userPath(username));
+        users.remove(username);
+    }
+
+    /**
+     * This notifies Kafka about the changes we have made
+     *
+     * @param username  Name of the user whose configuration changed
+     */
+    public void notifyChanges(String username) {
+        log.debug("Notifying changes for user {}", username);
+
+        ensurePath(CHANGES_PATH);
+
+        JsonObject json = new JsonObject().put("version", 2).put("entity_path", "users/" + username);
+        zkClient.createPersistentSequential(CHANGES_PATH + "/config_change_", json.encode().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ensures that the path in Zookeeper exists.
+     * It checks whether it already exists and in case it doesn't, it will create the path.
+     *
+     * @param path The Zookeeper path which should exist
+     */
+    private void ensurePath(String path)    {
+        if (!zkClient.exists(path))   {
+            zkClient.createPersistent(path, true);
+        }
+    }
+
+    /* test */
+    boolean isPathExist(String path)    {
+        return zkClient.exists(path);
+    }
+
+    @Override
+    public synchronized void handleChildChange(String parentPath, List<String> currentChildren) {
+        Set<String> current = currentChildren != null ? new HashSet<>(currentChildren) : new HashSet<>();
+
+        for (String username : users()) {
+            if (!current.contains(username)) {
+                log.trace("User {} removed from {}", username, USERS_PATH);
+                zkClient.unsubscribeDataChanges(userPath(username), this);
+                users.remove(username);
+            }
+        }
+
+        for (String username : current) {
+            if (!users.containsKey(username)) {
+                log.trace("User {} added to {}", username, USERS_PATH);
+                zkClient.subscribeDataChanges(userPath(username), this);
+                byte[] data = zkClient.readData(userPath(username), true);
+
+                if (data != null) {
+                    users.put(username, data);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void handleDataChange(String dataPath, Object data) {
+        log.trace("Configuration of user in {} changed", dataPath);
+        if (data != null) {
+            users.put(username(dataPath), (byte[]) data);
+        }
+    }
+
+    @Override
+    public synchronized void handleDataDeleted(String dataPath) {
+        log.trace("Configuration of user in {} deleted", dataPath);
+        users.remove(username(dataPath));
+    }
+
+    @Override
+    public void handleStateChanged(Watcher.Event.KeeperState state) {
+        log.debug("Zookeeper session state changed to {}", state);
+    }
+
+    @Override
+    public synchronized void handleNewSession() {
+        // The watches might have been lost together with the previous session => reload everything
+        log.info("New Zookeeper session established, reloading {}", USERS_PATH);
+        handleChildChange(USERS_PATH, zkClient.subscribeChildChanges(USERS_PATH, this));
+        for (String username : users()) {
+            byte[] data = zkClient.readData(userPath(username), true);
+
+            if (data != null) {
+                users.put(username, data);
+            } else {
+                users.remove(username);
+            }
+        }
+    }
+
+    @Override
+    public void handleSessionEstablishmentError(Throwable error) {
+        log.error("Failed to establish Zookeeper session", error);
+    }
+
+    private static String userPath(String username) {
+        return USERS_PATH + "/" + username;
+    }
+
+    private static String username(String dataPath) {
+        return dataPath.substring(USERS_PATH.length() + 1);
+    }
+}
@@ -115,4 +115,35 @@ public class UserOperatorConfigTest {
             UserOperatorConfig config = UserOperatorConfig.fromMap(envVars);
         });
     }
+
+    @Test
+    public void testWorkerPoolsAndConcurrency()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        envVars.put(UserOperatorConfig.STRIMZI_ZOOKEEPER_OPS_POOL_SIZE, "16");
+        envVars.put(UserOperatorConfig.STRIMZI_KUBERNETES_OPS_POOL_SIZE, "8");
+        envVars.put(UserOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS, "32");
+
+        UserOperatorConfig config = UserOperatorConfig.fromMap(envVars);
+        assertThat(config.getZookeeperOpsPoolSize(), is(16));
+        assertThat(config.getKubernetesOpsPoolSize(), is(8));
+        assertThat(config.getMaxConcurrentReconciliations(), is(32));
+    }
+
+    @Test
+    public void testMissingWorkerPoolsAndConcurrency()  {
+        UserOperatorConfig config = UserOperatorConfig.fromMap(envVars);
+        assertThat(config.getZookeeperOpsPoolSize(), is(UserOperatorConfig.DEFAULT_ZOOKEEPER_OPS_POOL_SIZE));
+        assertThat(config.getKubernetesOpsPoolSize(), is(UserOperatorConfig.DEFAULT_KUBERNETES_OPS_POOL_SIZE));
+        assertThat(config.getMaxConcurrentReconciliations(), is(UserOperatorConfig.DEFAULT_MAX_CONCURRENT_RECONCILIATIONS));
+    }
+
+    @Test
+    public void testInvalidMaxConcurrentReconciliations()  {
+        assertThrows(InvalidConfigurationException.class, () -> {
+            Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+            envVars.put(UserOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS, "0");
+
+            UserOperatorConfig config = UserOperatorConfig.fromMap(envVars);
+        });
+    }
 }
@@ -9,6 +9,7 @@ import io.fabric8.kubernetes.api.model.Secret;
 import io.strimzi.api.kafka.model.KafkaUser;
 import io.strimzi.certs.CertManager;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.operator.MockCertManager;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
@@ -606,6 +607,39 @@ public class KafkaUserOperatorTest {
             })));
     }
 
+    @Test
+    public void testQueuedReconciliationDoesNotHoldLock(VertxTestContext context)    {
+        CrdOperator mockCrdOps = mock(CrdOperator.class);
+        SecretOperator mockSecretOps = mock(SecretOperator.class);
+        SimpleAclOperator aclOps = mock(SimpleAclOperator.class);
+        ScramShaCredentialsOperator scramOps = mock(ScramShaCredentialsOperator.class);
+        KafkaUserQuotasOperator quotasOps = mock(KafkaUserQuotasOperator.class);
+
+        KafkaUserOperator op = new KafkaUserOperator(vertx, mockCertManager, mockCrdOps, Labels.EMPTY, mockSecretOps, scramOps, quotasOps, aclOps,
+                ResourceUtils.CA_CERT_NAME, ResourceUtils.CA_KEY_NAME, ResourceUtils.NAMESPACE,
+                WorkerPools.executor(vertx, KafkaUserOperator.ZOOKEEPER_OPS_POOL), WorkerPools.executor(vertx, KafkaUserOperator.KUBERNETES_OPS_POOL), 1);
+
+        // Both users were deleted, the deletion of the first one does not complete until the end of the test
+        Promise<Void> firstDeleted = Promise.promise();
+        when(mockCrdOps.get(anyString(), anyString())).thenReturn(null);
+        when(mockSecretOps.reconcile(anyString(), eq("first"), isNull())).thenReturn(firstDeleted.future());
+        when(mockSecretOps.reconcile(anyString(), eq("second"), isNull())).thenReturn(Future.succeededFuture());
+        when(aclOps.reconcile(anyString(), isNull())).thenReturn(Future.succeededFuture());
+        when(scramOps.reconcile(any(), any())).thenReturn(Future.succeededFuture());
+        when(quotasOps.reconcile(anyString(), eq(null))).thenReturn(Future.succeededFuture());
+
+        Checkpoint async = context.checkpoint();
+        op.reconcile(new Reconciliation("test-trigger", KafkaUser.RESOURCE_KIND, ResourceUtils.NAMESPACE, "first"));
+        Future<Void> second = op.reconcile(new Reconciliation("test-trigger", KafkaUser.RESOURCE_KIND, ResourceUtils.NAMESPACE, "second"));
+
+        context.verify(() -> assertThat(op.reconciliationLimiter().queued(), is(1)));
+        vertx.sharedData().getLockWithTimeout("lock::" + ResourceUtils.NAMESPACE + "::User::second", 1_000, context.succeeding(lock -> {
+            lock.release();
+            firstDeleted.complete();
+            second.setHandler(context.succeeding(v -> async.flag()));
+        }));
+    }
+
     @Test
     public void testReconcileAll(VertxTestContext context) throws InterruptedException {
         CrdOperator mockCrdOps = mock(CrdOperator.class);
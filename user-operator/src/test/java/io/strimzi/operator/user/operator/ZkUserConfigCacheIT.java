@@ -0,0 +1,156 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.user.operator;
+
+import io.strimzi.test.EmbeddedZooKeeper;
+import io.strimzi.test.TestUtils;
+import org.I0Itec.zkclient.ZkClient;
+import org.I0Itec.zkclient.serialize.BytesPushThroughSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ZkUserConfigCacheIT {
+
+    private static EmbeddedZooKeeper zkServer;
+
+    private ZkClient otherClient;
+    private ZkUserConfigCache cache;
+
+    @BeforeAll
+    public static void startZk() throws IOException, InterruptedException {
+        zkServer = new EmbeddedZooKeeper();
+    }
+
+    @AfterAll
+    public static void stopZk() {
+        zkServer.close();
+    }
+
+    @BeforeEach
+    public void createCache() {
+        otherClient = new ZkClient(zkServer.getZkConnectString(), 6_000, 30_000, new BytesPushThroughSerializer());
+        cache = new ZkUserConfigCache(zkServer.getZkConnectString(), 6_000);
+    }
+
+    @AfterEach
+    public void closeCache() {
+        cache.close();
+        otherClient.close();
+    }
+
+    @Test
+    public void testWriteThrough() {
+        byte[] data = "{\"version\":1,\"config\":{}}".getBytes(StandardCharsets.UTF_8);
+
+        cache.create("writeThrough", data);
+        assertThat(cache.users(), hasItem("writeThrough"));
+        assertThat(Arrays.equals(cache.get("writeThrough"), data), is(true));
+        byte[] inZookeeper = otherClient.readData(ZkUserConfigCache.USERS_PATH + "/writeThrough");
+        assertThat(Arrays.equals(inZookeeper, data), is(true));
+
+        cache.delete("writeThrough");
+        assertThat(cache.users(), not(hasItem("writeThrough")));
+        assertThat(cache.get("writeThrough"), is(nullValue()));
+        assertThat(otherClient.exists(ZkUserConfigCache.USERS_PATH + "/writeThrough"), is(false));
+    }
+
+    @Test
+    public void testExternalChangesAreWatched() {
+        String path = ZkUserConfigCache.USERS_PATH + "/externalUser";
+        byte[] created = "{\"version\":1,\"config\":{\"a\":\"1\"}}".getBytes(StandardCharsets.UTF_8);
+        byte[] updated = "{\"version\":1,\"config\":{\"a\":\"2\"}}".getBytes(StandardCharsets.UTF_8);
+
+        otherClient.createPersistent(ZkUserConfigCache.USERS_PATH, true);
+        otherClient.createPersistent(path, created);
+        TestUtils.waitFor("user to be added to the cache", 100, 10_000,
+            () -> Arrays.equals(cache.get("externalUser"), created));
+
+        otherClient.writeData(path, updated);
+        TestUtils.waitFor("user to be updated in the cache", 100, 10_000,
+            () -> Arrays.equals(cache.get("externalUser"), updated));
+
+        otherClient.delete(path);
+        TestUtils.waitFor("user to be removed from the cache", 100, 10_000,
+            () -> !cache.users().contains("externalUser"));
+    }
+
+    @Test
+    public void testExistingUsersAreLoadedOnStart() {
+        byte[] data = "{\"version\":1,\"config\":{}}".getBytes(StandardCharsets.UTF_8);
+        otherClient.createPersistent(ZkUserConfigCache.USERS_PATH, true);
+        otherClient.createPersistent(ZkUserConfigCache.USERS_PATH + "/existingUser", data);
+
+        ZkUserConfigCache newCache = new ZkUserConfigCache(zkServer.getZkConnectString(), 6_000);
+        try {
+            assertThat(newCache.users(), hasItem("existingUser"));
+            assertThat(Arrays.equals(newCache.get("existingUser"), data), is(true));
+        } finally {
+            newCache.close();
+        }
+    }
+
+    @Test
+    public void testSharedCacheIsReusedUntilClosed() {
+        ZkUserConfigCache shared = ZkUserConfigCache.shared(zkServer.getZkConnectString(), 6_000);
+        try {
+            assertThat(ZkUserConfigCache.shared(zkServer.getZkConnectString(), 6_000), is(sameInstance(shared)));
+        } finally {
+            shared.close();
+        }
+
+        ZkUserConfigCache recreated = ZkUserConfigCache.shared(zkServer.getZkConnectString(), 6_000);
+        try {
+            assertThat(recreated, is(not(sameInstance(shared))));
+        } finally {
+            recreated.close();
+        }
+    }
+
+    @Test
+    public void testSharedCacheIsPerSessionTimeout() {
+        ZkUserConfigCache shared = ZkUserConfigCache.shared(zkServer.getZkConnectString(), 6_000);
+        ZkUserConfigCache other = ZkUserConfigCache.shared(zkServer.getZkConnectString(), 12_000);
+        try {
+            assertThat(other, is(not(sameInstance(shared))));
+        } finally {
+            shared.close();
+            other.close();
+        }
+    }
+
+    @Test
+    public void testCreateUpdatesNodeNotObservedYet() {
+        byte[] created = "{\"version\":1,\"config\":{\"a\":\"1\"}}".getBytes(StandardCharsets.UTF_8);
+        byte[] updated = "{\"version\":1,\"config\":{\"a\":\"2\"}}".getBytes(StandardCharsets.UTF_8);
+        byte[] external = "{\"version\":1,\"config\":{\"a\":\"3\"}}".getBytes(StandardCharsets.UTF_8);
+        String path = ZkUserConfigCache.USERS_PATH + "/racingUser";
+        otherClient.createPersistent(ZkUserConfigCache.USERS_PATH, true);
+        otherClient.createPersistent(path, created);
+
+        cache.create("racingUser", updated);
+        assertThat(Arrays.equals(cache.get("racingUser"), updated), is(true));
+        byte[] inZookeeper = otherClient.readData(path);
+        assertThat(Arrays.equals(inZookeeper, updated), is(true));
+
+        // The data of the user is watched even when the child watch fired only after the creation
+        otherClient.writeData(path, external);
+        TestUtils.waitFor("user to be updated in the cache", 100, 10_000,
+            () -> Arrays.equals(cache.get("racingUser"), external));
+    }
+}